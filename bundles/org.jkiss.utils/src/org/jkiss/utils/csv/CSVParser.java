@@ -105,6 +105,7 @@ public class CSVParser {
     private final boolean ignoreQuotations;
     private final CSVReaderNullFieldIndicator nullFieldIndicator;
     private String pending;
+    private boolean recordPending;
     private boolean inField = false;
 
     /**
@@ -289,7 +290,7 @@ public class CSVParser {
      * @return true if something was left over from last call(s)
      */
     public boolean isPending() {
-        return pending != null;
+        return pending != null || recordPending;
     }
 
     /**
@@ -423,6 +424,84 @@ public class CSVParser {
 
     }
 
+    /**
+     * Parses an incoming line into the reusable record. Follows the same rules as {@link #parseLineMulti(String)}
+     * but doesn't create strings for fields.
+     *
+     * @param nextLine  the line to parse
+     * @param record    record to fill
+     * @param continued true if the line continues a quoted field which was left pending by the previous call
+     * @return true if the line ends inside of a quoted field and the record continues on the next line
+     */
+    boolean parseLine(CharSequence nextLine, CSVRecord record, boolean continued) {
+        boolean inQuotes = false;
+        boolean fromQuotedField = false;
+        if (continued) {
+            inQuotes = !this.ignoreQuotations;
+        } else {
+            record.clear();
+        }
+        final int length = nextLine.length();
+        for (int i = 0; i < length; i++) {
+
+            char c = nextLine.charAt(i);
+            if (c == this.escape) {
+                if (isNextCharacterEscapable(nextLine, inQuotes(inQuotes), i)) {
+                    record.append(nextLine.charAt(++i));
+                }
+            } else if (c == quotechar) {
+                if (isNextCharacterEscapedQuote(nextLine, inQuotes(inQuotes), i)) {
+                    record.append(nextLine.charAt(++i));
+                } else {
+                    inQuotes = !inQuotes;
+                    if (record.getCurrentFieldLength() == 0) {
+                        fromQuotedField = true;
+                    }
+
+                    // the tricky case of an embedded quote in the middle: a,bc"d"ef,g
+                    if (!strictQuotes) {
+                        if (i > 2
+                            && nextLine.charAt(i - 1) != this.separator
+                            && length > (i + 1) &&
+                            nextLine.charAt(i + 1) != this.separator
+                        ) {
+                            if (ignoreLeadingWhiteSpace && record.getCurrentFieldLength() > 0 && record.isCurrentFieldWhiteSpace()) {
+                                record.resetCurrentField();
+                            } else {
+                                record.append(c);
+                            }
+                        }
+                    }
+                }
+                inField = !inField;
+            } else if (c == separator && !(inQuotes && !ignoreQuotations)) {
+                endRecordField(record, fromQuotedField);
+                fromQuotedField = false;
+                inField = false;
+            } else {
+                if (!strictQuotes || (inQuotes && !ignoreQuotations)) {
+                    record.append(c);
+                    inField = true;
+                    fromQuotedField = true;
+                }
+            }
+        }
+        if (inQuotes && !ignoreQuotations) {
+            // continuing a quoted section, re-append newline
+            record.append('\n');
+            recordPending = true;
+            return true;
+        }
+        inField = false;
+        recordPending = false;
+        endRecordField(record, fromQuotedField);
+        return false;
+    }
+
+    private void endRecordField(CSVRecord record, boolean fromQuotedField) {
+        record.endField(record.getCurrentFieldLength() == 0 && shouldConvertEmptyToNull(fromQuotedField));
+    }
+
     private boolean atStartOfField(StringBuilder sb) {
         return sb.length() == 0;
     }
@@ -481,7 +560,7 @@ public class CSVParser {
      * @param i        current index in line
      * @return true if the following character is a quote
      */
-    private boolean isNextCharacterEscapedQuote(String nextLine, boolean inQuotes, int i) {
+    private boolean isNextCharacterEscapedQuote(CharSequence nextLine, boolean inQuotes, int i) {
         return inQuotes  // we are in quotes, therefore there can be escaped quotes in here.
             && nextLine.length() > (i + 1)  // there is indeed another character to check.
             && isCharacterQuoteCharacter(nextLine.charAt(i + 1));
@@ -530,7 +609,7 @@ public class CSVParser {
      * @param i        current index in line
      * @return true if the following character is a quote
      */
-    protected boolean isNextCharacterEscapable(String nextLine, boolean inQuotes, int i) {
+    protected boolean isNextCharacterEscapable(CharSequence nextLine, boolean inQuotes, int i) {
         return inQuotes  // we are in quotes, therefore there can be escaped quotes in here.
             && nextLine.length() > (i + 1)  // there is indeed another character to check.
             && isCharacterEscapable(nextLine.charAt(i + 1));
@@ -553,6 +632,15 @@ public class CSVParser {
         return false;
     }
 
+    static boolean isAllWhiteSpace(char[] buffer, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (Character.isWhitespace(buffer[i])) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * @return - the null field indicator.
      */
@@ -52,6 +52,7 @@ public class CSVReader implements Closeable {
     private boolean linesSkiped;
     private boolean keepCR;
     private boolean verifyReader;
+    private StringBuilder recordLine;
 
     /**
      * Constructs CSVReader using a comma for the separator.
@@ -290,6 +291,53 @@ public class CSVReader implements Closeable {
         return result;
     }
 
+    /**
+     * Reads the next record into the supplied reusable record object.
+     * Unlike {@link #readNext()} this method doesn't create strings for fields, record fields
+     * are slices of the shared record buffer and stay valid until the next read.
+     * <p>
+     * This method uses its own line buffer and must not be mixed with {@link #readNext()} calls on the same reader.
+     *
+     * @param record record to fill
+     * @return false if there are no more records
+     * @throws IOException if bad things happen during the read
+     */
+    public boolean readRecord(CSVRecord record) throws IOException {
+        if (recordLine == null) {
+            recordLine = new StringBuilder(CSVParser.INITIAL_READ_SIZE);
+        }
+        boolean continued = false;
+        do {
+            if (!readNextLine(recordLine)) {
+                if (continued) {
+                    // Drop the un-terminated field, same as readNext does
+                    record.resetCurrentField();
+                    return record.getFieldCount() > 0;
+                }
+                return false;
+            }
+            continued = parser.parseLine(recordLine, record, continued);
+        } while (continued);
+        return true;
+    }
+
+    private boolean readNextLine(StringBuilder line) throws IOException {
+        if (!hasNext || (verifyReader && lineReader.isFinished())) {
+            hasNext = false;
+            return false;
+        }
+        if (!this.linesSkiped) {
+            for (int i = 0; i < skipLines; i++) {
+                lineReader.readLine(line);
+            }
+            this.linesSkiped = true;
+        }
+        if (!lineReader.readLine(line)) {
+            hasNext = false;
+        }
+        return hasNext;
+    }
+
     /**
      * For multi line records this method combines the current result with the result from previous read(s).
      *
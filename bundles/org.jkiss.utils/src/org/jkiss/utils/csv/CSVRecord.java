@@ -0,0 +1,301 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.utils.csv;
+
+import java.nio.CharBuffer;
+import java.util.Arrays;
+
+/**
+ * Reusable CSV record.
+ * <p>
+ * Field contents are stored in a single char buffer which is reused between records,
+ * so reading a record doesn't allocate a string per field. Strings are created only when
+ * requested with {@link #getString(int)}, numbers can be parsed directly from the buffer.
+ * <p>
+ * Field values and slices returned by {@link #getField(int)} are valid until the next record is read.
+ */
+public class CSVRecord {
+
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    // Max mantissa which is exactly representable as double
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    private char[] buffer = new char[CSVParser.INITIAL_READ_SIZE];
+    private int length;
+    private int fieldStart;
+
+    private int fieldCount;
+    private int[] starts = new int[16];
+    private int[] ends = new int[16];
+    private boolean[] nulls = new boolean[16];
+    private String[] strings = new String[16];
+
+    /**
+     * @return number of fields in the record
+     */
+    public int getFieldCount() {
+        return fieldCount;
+    }
+
+    public boolean isNull(int field) {
+        return nulls[checkIndex(field)];
+    }
+
+    /**
+     * @return field length or 0 for null fields
+     */
+    public int getFieldLength(int field) {
+        checkIndex(field);
+        return ends[field] - starts[field];
+    }
+
+    public char charAt(int field, int index) {
+        checkIndex(field);
+        if (index < 0 || index >= ends[field] - starts[field]) {
+            throw new IndexOutOfBoundsException("Index " + index + " is out of field bounds");
+        }
+        return buffer[starts[field] + index];
+    }
+
+    /**
+     * Returns field contents as a slice of the record buffer, or null for null fields.
+     */
+    public CharSequence getField(int field) {
+        if (isNull(field)) {
+            return null;
+        }
+        return CharBuffer.wrap(buffer, starts[field], ends[field] - starts[field]).slice();
+    }
+
+    /**
+     * Returns field contents as a string, or null for null fields.
+     * The string is created on the first call and cached until the next record is read.
+     */
+    public String getString(int field) {
+        if (isNull(field)) {
+            return null;
+        }
+        String value = strings[field];
+        if (value == null) {
+            value = new String(buffer, starts[field], ends[field] - starts[field]);
+            strings[field] = value;
+        }
+        return value;
+    }
+
+    /**
+     * Compares field contents with the string. Null field is equal to null string only.
+     */
+    public boolean contentEquals(int field, String value) {
+        if (isNull(field) || value == null) {
+            return isNull(field) && value == null;
+        }
+        int start = starts[field];
+        int fieldLength = ends[field] - start;
+        if (fieldLength != value.length()) {
+            return false;
+        }
+        for (int i = 0; i < fieldLength; i++) {
+            if (buffer[start + i] != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Parses field as a decimal long value with the same rules as {@link Long#parseLong(String)}
+     *
+     * @throws NumberFormatException if field is null or is not a valid long
+     */
+    public long parseLong(int field) throws NumberFormatException {
+        checkIndex(field);
+        int pos = starts[field];
+        final int end = ends[field];
+        if (nulls[field] || pos == end) {
+            throw invalidNumber(field);
+        }
+        boolean negative = false;
+        char first = buffer[pos];
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            if (++pos == end) {
+                throw invalidNumber(field);
+            }
+        }
+        // Accumulate negatively to handle Long.MIN_VALUE
+        final long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        final long multiplyMin = limit / 10;
+        long result = 0;
+        for (; pos < end; pos++) {
+            int digit = buffer[pos] - '0';
+            if (digit < 0 || digit > 9 || result < multiplyMin) {
+                throw invalidNumber(field);
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                throw invalidNumber(field);
+            }
+            result -= digit;
+        }
+        return negative ? result : -result;
+    }
+
+    /**
+     * Parses field as a double value with the same rules as {@link Double#parseDouble(String)}.
+     * Plain decimals with up to 15 significant digits are converted without creating a string.
+     *
+     * @throws NumberFormatException if field is null or is not a valid number
+     */
+    public double parseDouble(int field) throws NumberFormatException {
+        checkIndex(field);
+        if (nulls[field]) {
+            throw invalidNumber(field);
+        }
+        int pos = starts[field];
+        final int end = ends[field];
+        boolean negative = false;
+        if (pos < end && (buffer[pos] == '-' || buffer[pos] == '+')) {
+            negative = buffer[pos] == '-';
+            pos++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = -1;
+        for (; pos < end; pos++) {
+            char c = buffer[pos];
+            if (c >= '0' && c <= '9') {
+                mantissa = mantissa * 10 + (c - '0');
+                digits++;
+                if (fractionDigits >= 0) {
+                    fractionDigits++;
+                }
+                if (mantissa >= MAX_EXACT_MANTISSA / 10) {
+                    break;
+                }
+            } else if (c == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else {
+                break;
+            }
+        }
+        if (pos == end && digits > 0 && fractionDigits < POWERS_OF_TEN.length) {
+            // Both mantissa and power of ten are exact, so division is correctly rounded
+            double value = fractionDigits > 0 ? mantissa / POWERS_OF_TEN[fractionDigits] : mantissa;
+            return negative ? -value : value;
+        }
+        // Exponents, long mantissas, special values
+        return Double.parseDouble(getString(field));
+    }
+
+    /**
+     * Removes leading and trailing whitespaces (as {@link String#trim()}) from all fields
+     */
+    public void trimFields() {
+        for (int i = 0; i < fieldCount; i++) {
+            int start = starts[i], end = ends[i];
+            while (start < end && buffer[start] <= ' ') {
+                start++;
+            }
+            while (end > start && buffer[end - 1] <= ' ') {
+                end--;
+            }
+            if (start != starts[i] || end != ends[i]) {
+                starts[i] = start;
+                ends[i] = end;
+                strings[i] = null;
+            }
+        }
+    }
+
+    /**
+     * Returns all fields as a new array of strings
+     */
+    public String[] toArray() {
+        String[] result = new String[fieldCount];
+        for (int i = 0; i < fieldCount; i++) {
+            result[i] = getString(i);
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+
+    private int checkIndex(int field) {
+        if (field < 0 || field >= fieldCount) {
+            throw new IndexOutOfBoundsException("Field " + field + " is out of record bounds (" + fieldCount + ")");
+        }
+        return field;
+    }
+
+    private NumberFormatException invalidNumber(int field) {
+        return new NumberFormatException("For input string: \"" + getString(field) + "\"");
+    }
+
+    ////////////////////////////////////////////////////////
+    // Parser interface
+
+    void clear() {
+        Arrays.fill(strings, 0, fieldCount, null);
+        fieldCount = 0;
+        length = 0;
+        fieldStart = 0;
+    }
+
+    void append(char c) {
+        if (length == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        buffer[length++] = c;
+    }
+
+    int getCurrentFieldLength() {
+        return length - fieldStart;
+    }
+
+    void resetCurrentField() {
+        length = fieldStart;
+    }
+
+    /**
+     * Same check as {@link CSVParser#isAllWhiteSpace(CharSequence)} for the current field
+     */
+    boolean isCurrentFieldWhiteSpace() {
+        return CSVParser.isAllWhiteSpace(buffer, fieldStart, length);
+    }
+
+    void endField(boolean isNull) {
+        if (fieldCount == starts.length) {
+            int newSize = fieldCount * 2;
+            starts = Arrays.copyOf(starts, newSize);
+            ends = Arrays.copyOf(ends, newSize);
+            nulls = Arrays.copyOf(nulls, newSize);
+            strings = Arrays.copyOf(strings, newSize);
+        }
+        starts[fieldCount] = fieldStart;
+        ends[fieldCount] = isNull ? fieldStart : length;
+        nulls[fieldCount] = isNull;
+        fieldCount++;
+        fieldStart = length;
+    }
+}
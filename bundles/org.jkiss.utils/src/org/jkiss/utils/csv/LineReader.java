@@ -38,6 +38,10 @@ import java.io.IOException;
 public class LineReader {
     private final BufferedReader reader;
     private final boolean keepCarriageReturns;
+    private char[] buffer;
+    private int position;
+    private int limit;
+    private boolean skipLF;
 
     /**
      * LineReader constructor.
@@ -60,6 +64,66 @@ public class LineReader {
         return keepCarriageReturns ? readUntilNewline() : reader.readLine();
     }
 
+    /**
+     * Reads the next line into the supplied builder without creating a string.
+     * Lines are split the same way as in {@link #readLine()}. This method uses its own read buffer,
+     * so it must not be mixed with {@link #readLine()} calls.
+     *
+     * @param line - builder to fill, previous content is removed.
+     * @return - false if the end of data was reached.
+     * @throws IOException - on error from BufferedReader
+     */
+    boolean readLine(StringBuilder line) throws IOException {
+        line.setLength(0);
+        if (buffer == null) {
+            buffer = new char[8192];
+        }
+        boolean hasData = false;
+        for (;;) {
+            if (position >= limit) {
+                limit = reader.read(buffer, 0, buffer.length);
+                position = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    return keepCarriageReturns ? line.length() > 0 : hasData;
+                }
+            }
+            if (skipLF) {
+                skipLF = false;
+                if (buffer[position] == '\n') {
+                    position++;
+                    continue;
+                }
+            }
+            hasData = true;
+            int start = position;
+            while (position < limit) {
+                char c = buffer[position];
+                if (c == '\n' || (c == '\r' && !keepCarriageReturns)) {
+                    line.append(buffer, start, position - start);
+                    position++;
+                    skipLF = c == '\r';
+                    return !keepCarriageReturns || line.length() > 0;
+                }
+                position++;
+            }
+            line.append(buffer, start, position - start);
+        }
+    }
+
+    /**
+     * @return true if there is no buffered data and the reader has reached the end of data.
+     */
+    boolean isFinished() throws IOException {
+        if (position < limit) {
+            return false;
+        }
+        reader.mark(1);
+        int nextChar = reader.read();
+        reader.reset();
+        return nextChar == -1;
+    }
+
     private String readUntilNewline() throws IOException {
         StringBuilder sb = new StringBuilder(CSVParser.INITIAL_READ_SIZE);
         for (int c = reader.read(); c > -1 && c != '\n'; c = reader.read()) {
@@ -0,0 +1,491 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.compare.simple;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDContent;
+import org.jkiss.dbeaver.model.data.DBDDisplayFormat;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.sql.SQLUtils;
+import org.jkiss.dbeaver.model.struct.DBSDataChecksumProvider;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
+import org.jkiss.dbeaver.utils.ContentUtils;
+import org.jkiss.utils.CommonUtils;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.*;
+
+/**
+ * Compares data of two tables.
+ * <p>
+ * Tables are compared by ranges of the unique key. If both data sources provide checksums
+ * ({@link DBSDataChecksumProvider}) of the same type then checksums of a range are compared first
+ * and only ranges with different checksums are split into smaller ranges (Merkle tree style).
+ * Otherwise ranges are split until they are small enough. Rows of small ranges are compared on the client side:
+ * keys and hashes of target rows are kept in memory and source rows are streamed,
+ * so memory usage is limited by the chunk size.
+ * <p>
+ * Range bounds are key values, so keys must have the same ordering (e.g. collation) in both databases.
+ * Rows with NULL key values can't be matched or bounded by a range, so such tables are rejected.
+ */
+public class CompareDataExecutor {
+
+    private static final Log log = Log.getLog(CompareDataExecutor.class);
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final CompareDataSettings settings;
+    private CompareDataReport report;
+    private TableSide source;
+    private TableSide target;
+    private boolean useChecksums;
+
+    public CompareDataExecutor(CompareDataSettings settings) {
+        this.settings = settings;
+    }
+
+    @NotNull
+    public CompareDataReport compareData(@NotNull DBRProgressMonitor monitor) throws DBException, InterruptedException {
+        DBSEntity sourceEntity = settings.getSourceEntity();
+        DBSEntity targetEntity = settings.getTargetEntity();
+
+        List<? extends DBSEntityAttribute> keyAttributes = DBUtils.getBestTableIdentifier(monitor, sourceEntity);
+        if (keyAttributes.isEmpty()) {
+            throw new DBException("Table '" + sourceEntity.getName() + "' has no unique key");
+        }
+        List<DBSEntityAttribute> sourceAttributes = new ArrayList<>(keyAttributes);
+        List<DBSEntityAttribute> targetAttributes = new ArrayList<>();
+        for (DBSEntityAttribute attribute : keyAttributes) {
+            DBSEntityAttribute targetAttribute = findAttribute(monitor, targetEntity, attribute.getName());
+            if (targetAttribute == null) {
+                throw new DBException("Key column '" + attribute.getName() + "' not found in '" + targetEntity.getName() + "'");
+            }
+            targetAttributes.add(targetAttribute);
+        }
+        for (DBSEntityAttribute attribute : CommonUtils.safeCollection(sourceEntity.getAttributes(monitor))) {
+            if (keyAttributes.contains(attribute) || DBUtils.isPseudoAttribute(attribute) || DBUtils.isHiddenObject(attribute)) {
+                continue;
+            }
+            DBSEntityAttribute targetAttribute = findAttribute(monitor, targetEntity, attribute.getName());
+            if (targetAttribute == null) {
+                log.debug("Column '" + attribute.getName() + "' not found in '" + targetEntity.getName() + "'. Skip it");
+                continue;
+            }
+            sourceAttributes.add(attribute);
+            targetAttributes.add(targetAttribute);
+        }
+
+        List<String> keyNames = new ArrayList<>();
+        for (DBSEntityAttribute attribute : keyAttributes) {
+            keyNames.add(attribute.getName());
+        }
+        List<String> attributeNames = new ArrayList<>();
+        for (DBSEntityAttribute attribute : sourceAttributes) {
+            attributeNames.add(attribute.getName());
+        }
+        report = new CompareDataReport(keyNames, attributeNames, settings.getMaxReportedRows());
+
+        try (DBCSession sourceSession = DBUtils.openUtilSession(monitor, sourceEntity, "Compare data");
+             DBCSession targetSession = DBUtils.openUtilSession(monitor, targetEntity, "Compare data"))
+        {
+            source = new TableSide(sourceSession, sourceEntity, sourceAttributes, keyAttributes.size());
+            target = new TableSide(targetSession, targetEntity, targetAttributes, keyAttributes.size());
+            checkNullKeys(source);
+            checkNullKeys(target);
+            useChecksums = settings.isUseServerChecksums() &&
+                source.checksumProvider != null && target.checksumProvider != null &&
+                source.checksumProvider.getClass() == target.checksumProvider.getClass();
+
+            monitor.subTask("Compare data of " + sourceEntity.getName() + " and " + targetEntity.getName());
+            compareRange(monitor, null, null);
+        }
+        return report;
+    }
+
+    /**
+     * Fails if nullable key columns contain NULL values.
+     * Range conditions (k > v) never match NULL keys, so such rows would be silently skipped.
+     */
+    static void checkNullKeys(@NotNull TableSide side) throws DBException {
+        String condition = side.makeNullKeyCondition();
+        if (condition == null) {
+            return;
+        }
+        long rowCount = side.countRows(condition);
+        if (rowCount > 0) {
+            throw new DBException("Table '" + side.entity.getName() + "' has " + rowCount + " row(s) with NULL key values. " +
+                "Such rows can't be matched by key, use a table with NOT NULL unique key");
+        }
+    }
+
+    @Nullable
+    private static DBSEntityAttribute findAttribute(@NotNull DBRProgressMonitor monitor, @NotNull DBSEntity entity, @NotNull String name) throws DBException {
+        DBSEntityAttribute attribute = entity.getAttribute(monitor, name);
+        if (attribute == null) {
+            attribute = DBUtils.findObject(entity.getAttributes(monitor), name, true);
+        }
+        return attribute;
+    }
+
+    /**
+     * Compares rows with keys greater than fromKey and less or equal to toKey
+     */
+    private void compareRange(
+        @NotNull DBRProgressMonitor monitor,
+        @Nullable Object[] fromKey,
+        @Nullable Object[] toKey
+    ) throws DBException, InterruptedException {
+        if (monitor.isCanceled()) {
+            throw new InterruptedException();
+        }
+        String sourceCondition = source.makeRangeCondition(fromKey, toKey);
+        String targetCondition = target.makeRangeCondition(fromKey, toKey);
+        long sourceCount, targetCount;
+        if (useChecksums) {
+            DBSDataChecksumProvider.Checksum sourceChecksum = source.checksumProvider.calculateChecksum(
+                source.session, source.entity, source.attributes, sourceCondition);
+            DBSDataChecksumProvider.Checksum targetChecksum = target.checksumProvider.calculateChecksum(
+                target.session, target.entity, target.attributes, targetCondition);
+            if (sourceChecksum.isSameData(targetChecksum)) {
+                report.addMatchedRows(sourceChecksum.getRowCount(), true);
+                return;
+            }
+            sourceCount = sourceChecksum.getRowCount();
+            targetCount = targetChecksum.getRowCount();
+        } else {
+            sourceCount = source.countRows(sourceCondition);
+            targetCount = target.countRows(targetCondition);
+        }
+        long rowCount = Math.max(sourceCount, targetCount);
+        if (rowCount == 0) {
+            return;
+        }
+        List<Object[]> splitKeys = Collections.emptyList();
+        if (rowCount > settings.getChunkSize()) {
+            long parts = (rowCount + settings.getChunkSize() - 1) / settings.getChunkSize();
+            if (useChecksums) {
+                // Compare checksums of sub-ranges, otherwise go directly to chunks
+                parts = Math.min(parts, Math.max(2, settings.getSplitCount()));
+            }
+            // Split by the bigger side, so both sides have no more than chunk size rows in the end
+            splitKeys = sourceCount >= targetCount ?
+                source.readSplitKeys(monitor, sourceCondition, sourceCount, (int) Math.min(parts, Integer.MAX_VALUE)) :
+                target.readSplitKeys(monitor, targetCondition, targetCount, (int) Math.min(parts, Integer.MAX_VALUE));
+        }
+        if (splitKeys.isEmpty()) {
+            compareRows(monitor, sourceCondition, targetCondition);
+            return;
+        }
+        Object[] rangeStart = fromKey;
+        for (Object[] splitKey : splitKeys) {
+            compareRange(monitor, rangeStart, splitKey);
+            rangeStart = splitKey;
+        }
+        compareRange(monitor, rangeStart, toKey);
+    }
+
+    private void compareRows(
+        @NotNull DBRProgressMonitor monitor,
+        @Nullable String sourceCondition,
+        @Nullable String targetCondition
+    ) throws DBException, InterruptedException {
+        Map<String, RowInfo> targetRows = new HashMap<>();
+        target.readRows(monitor, targetCondition, (key, keyValues, hash) -> targetRows.put(key, new RowInfo(keyValues, hash)));
+        source.readRows(monitor, sourceCondition, (key, keyValues, hash) -> {
+            RowInfo targetRow = targetRows.remove(key);
+            if (targetRow == null) {
+                report.addDifference(CompareDataReport.DifferenceType.DELETED, keyValues);
+            } else if (targetRow.hash != hash) {
+                report.addDifference(CompareDataReport.DifferenceType.CHANGED, keyValues);
+            } else {
+                report.addMatchedRows(1, false);
+            }
+        });
+        for (RowInfo targetRow : targetRows.values()) {
+            report.addDifference(CompareDataReport.DifferenceType.INSERTED, targetRow.keyValues);
+        }
+        monitor.subTask("Compared " + report.getMatchedRows() + " rows");
+    }
+
+    /**
+     * Converts value into a string which doesn't depend on the data source specific value class
+     */
+    @NotNull
+    static String normalizeValue(@Nullable Object value) {
+        if (DBUtils.isNullValue(value)) {
+            return "\u0001";
+        } else if (value instanceof Number) {
+            try {
+                BigDecimal number = value instanceof BigDecimal ? (BigDecimal) value : new BigDecimal(value.toString());
+                return number.signum() == 0 ? "0" : number.stripTrailingZeros().toPlainString();
+            } catch (NumberFormatException e) {
+                // NaN or infinity
+                return value.toString();
+            }
+        } else if (value instanceof byte[]) {
+            return CommonUtils.toHexString((byte[]) value);
+        } else if (value instanceof java.util.Date && !(value instanceof java.sql.Date) && !(value instanceof java.sql.Time)) {
+            return value instanceof Timestamp ? value.toString() : new Timestamp(((java.util.Date) value).getTime()).toString();
+        } else {
+            return value.toString();
+        }
+    }
+
+    private static long hashString(long hash, @NotNull String str) {
+        for (int i = 0; i < str.length(); i++) {
+            hash = (hash ^ str.charAt(i)) * FNV_PRIME;
+        }
+        // Values separator
+        return (hash ^ 0xFFFF) * FNV_PRIME;
+    }
+
+    private static class RowInfo {
+        final Object[] keyValues;
+        final long hash;
+
+        RowInfo(Object[] keyValues, long hash) {
+            this.keyValues = keyValues;
+            this.hash = hash;
+        }
+    }
+
+    @FunctionalInterface
+    private interface RowHandler {
+        void handleRow(@NotNull String key, @NotNull Object[] keyValues, long hash);
+    }
+
+    static class TableSide {
+        final DBCSession session;
+        final DBSEntity entity;
+        final List<DBSEntityAttribute> attributes;
+        final int keySize;
+        final DBDValueHandler[] valueHandlers;
+        final String tableName;
+        final String keyList;
+        final DBSDataChecksumProvider checksumProvider;
+
+        TableSide(@NotNull DBCSession session, @NotNull DBSEntity entity, @NotNull List<DBSEntityAttribute> attributes, int keySize) {
+            this.session = session;
+            this.entity = entity;
+            this.attributes = attributes;
+            this.keySize = keySize;
+            this.valueHandlers = new DBDValueHandler[attributes.size()];
+            for (int i = 0; i < valueHandlers.length; i++) {
+                valueHandlers[i] = DBUtils.findValueHandler(session, attributes.get(i));
+            }
+            this.tableName = DBUtils.getObjectFullName(entity, DBPEvaluationContext.DML);
+            this.keyList = makeAttributeList(keySize);
+            this.checksumProvider = DBUtils.getAdapter(DBSDataChecksumProvider.class, session.getDataSource());
+        }
+
+        @NotNull
+        private String makeAttributeList(int count) {
+            StringBuilder list = new StringBuilder();
+            for (int i = 0; i < count; i++) {
+                if (i > 0) {
+                    list.append(", ");
+                }
+                list.append(DBUtils.getQuotedIdentifier(attributes.get(i)));
+            }
+            return list.toString();
+        }
+
+        @Nullable
+        String makeRangeCondition(@Nullable Object[] fromKey, @Nullable Object[] toKey) {
+            if (fromKey == null && toKey == null) {
+                return null;
+            } else if (toKey == null) {
+                return makeGreaterCondition(fromKey);
+            } else if (fromKey == null) {
+                return "NOT (" + makeGreaterCondition(toKey) + ")";
+            } else {
+                return makeGreaterCondition(fromKey) + " AND NOT (" + makeGreaterCondition(toKey) + ")";
+            }
+        }
+
+        /**
+         * Makes condition (k1 IS NULL OR k2 IS NULL ...) for nullable key columns.
+         * Returns null if all key columns are mandatory.
+         */
+        @Nullable
+        String makeNullKeyCondition() {
+            StringBuilder condition = new StringBuilder();
+            for (int i = 0; i < keySize; i++) {
+                DBSEntityAttribute attribute = attributes.get(i);
+                if (attribute.isRequired()) {
+                    continue;
+                }
+                if (condition.length() > 0) {
+                    condition.append(" OR ");
+                }
+                condition.append(DBUtils.getQuotedIdentifier(attribute)).append(" IS NULL");
+            }
+            return condition.length() == 0 ? null : condition.toString();
+        }
+
+        /**
+         * Makes condition (k1 > v1 OR (k1 = v1 AND k2 > v2) ...) for lexicographic key comparison
+         */
+        @NotNull
+        String makeGreaterCondition(@NotNull Object[] key) {
+            StringBuilder condition = new StringBuilder("(");
+            for (int i = 0; i < keySize; i++) {
+                if (i > 0) {
+                    condition.append(" OR ");
+                }
+                condition.append('(');
+                for (int k = 0; k < i; k++) {
+                    condition.append(DBUtils.getQuotedIdentifier(attributes.get(k))).append(" = ").append(makeLiteral(k, key[k])).append(" AND ");
+                }
+                condition.append(DBUtils.getQuotedIdentifier(attributes.get(i))).append(" > ").append(makeLiteral(i, key[i]));
+                condition.append(')');
+            }
+            return condition.append(')').toString();
+        }
+
+        @NotNull
+        private String makeLiteral(int index, @Nullable Object value) {
+            return SQLUtils.convertValueToSQL(session.getDataSource(), attributes.get(index), valueHandlers[index], value, DBDDisplayFormat.NATIVE);
+        }
+
+        @NotNull
+        private String makeQuery(@NotNull String selectList, @Nullable String condition, boolean orderByKey) {
+            StringBuilder query = new StringBuilder();
+            query.append("SELECT ").append(selectList).append(" FROM ").append(tableName);
+            if (condition != null) {
+                query.append(" WHERE ").append(condition);
+            }
+            if (orderByKey) {
+                query.append(" ORDER BY ").append(keyList);
+            }
+            return query.toString();
+        }
+
+        long countRows(@Nullable String condition) throws DBCException {
+            try (DBCStatement dbStat = DBUtils.makeStatement(session, makeQuery("COUNT(*)", condition, false), false)) {
+                if (dbStat.executeStatement()) {
+                    try (DBCResultSet dbResult = dbStat.openResultSet()) {
+                        if (dbResult != null && dbResult.nextRow()) {
+                            return CommonUtils.toLong(dbResult.getAttributeValue(0));
+                        }
+                    }
+                }
+            }
+            throw new DBCException("Can't count rows of '" + entity.getName() + "'");
+        }
+
+        /**
+         * Reads keys which split the range into parts with the same number of rows.
+         * Only key values are read.
+         */
+        @NotNull
+        List<Object[]> readSplitKeys(@NotNull DBRProgressMonitor monitor, @Nullable String condition, long rowCount, int parts) throws DBCException, InterruptedException {
+            List<Object[]> splitKeys = new ArrayList<>();
+            if (parts < 2 || rowCount < parts) {
+                return splitKeys;
+            }
+            monitor.subTask("Split " + entity.getName() + " into " + parts + " parts");
+            try (DBCStatement dbStat = DBUtils.makeStatement(session, makeQuery(keyList, condition, true), false)) {
+                if (dbStat.executeStatement()) {
+                    try (DBCResultSet dbResult = dbStat.openResultSet()) {
+                        if (dbResult == null) {
+                            return splitKeys;
+                        }
+                        long rowNum = 0;
+                        long nextSplit = rowCount / parts;
+                        while (splitKeys.size() < parts - 1 && dbResult.nextRow()) {
+                            rowNum++;
+                            if (rowNum == nextSplit) {
+                                splitKeys.add(fetchValues(dbResult, keySize));
+                                nextSplit = rowCount * (splitKeys.size() + 1) / parts;
+                            } else if (monitor.isCanceled()) {
+                                throw new InterruptedException();
+                            }
+                        }
+                    }
+                }
+            }
+            return splitKeys;
+        }
+
+        void readRows(@NotNull DBRProgressMonitor monitor, @Nullable String condition, @NotNull RowHandler handler) throws DBCException, InterruptedException {
+            try (DBCStatement dbStat = DBUtils.makeStatement(session, makeQuery(makeAttributeList(attributes.size()), condition, false), false)) {
+                if (dbStat.executeStatement()) {
+                    try (DBCResultSet dbResult = dbStat.openResultSet()) {
+                        if (dbResult == null) {
+                            return;
+                        }
+                        StringBuilder key = new StringBuilder();
+                        while (dbResult.nextRow()) {
+                            if (monitor.isCanceled()) {
+                                throw new InterruptedException();
+                            }
+                            Object[] values = fetchValues(dbResult, attributes.size());
+                            for (int i = keySize; i < values.length; i++) {
+                                if (values[i] instanceof DBDContent) {
+                                    values[i] = readContent(monitor, (DBDContent) values[i]);
+                                }
+                            }
+                            key.setLength(0);
+                            long hash = FNV_OFFSET_BASIS;
+                            for (int i = 0; i < values.length; i++) {
+                                String value = normalizeValue(values[i]);
+                                if (i < keySize) {
+                                    key.append(value).append('\u0000');
+                                } else {
+                                    hash = hashString(hash, value);
+                                }
+                            }
+                            handler.handleRow(key.toString(), Arrays.copyOf(values, keySize), hash);
+                        }
+                    }
+                }
+            }
+        }
+
+        @Nullable
+        private static Object readContent(@NotNull DBRProgressMonitor monitor, @NotNull DBDContent content) throws DBCException {
+            try {
+                return ContentUtils.isTextContent(content) ?
+                    ContentUtils.getContentStringValue(monitor, content) :
+                    ContentUtils.getContentBinaryValue(monitor, content);
+            } finally {
+                content.release();
+            }
+        }
+
+        @NotNull
+        private Object[] fetchValues(@NotNull DBCResultSet dbResult, int count) throws DBCException {
+            Object[] values = new Object[count];
+            for (int i = 0; i < count; i++) {
+                values[i] = valueHandlers[i].fetchValueObject(session, dbResult, attributes.get(i), i);
+            }
+            return values;
+        }
+    }
+
+}
@@ -0,0 +1,142 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.compare.simple;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Data compare report.
+ * Differences are relative to the source table: inserted rows exist only in the target table
+ * and deleted rows exist only in the source table.
+ */
+public class CompareDataReport {
+
+    public enum DifferenceType {
+        INSERTED,
+        DELETED,
+        CHANGED
+    }
+
+    public static class RowDifference {
+        private final DifferenceType type;
+        private final Object[] keyValues;
+
+        RowDifference(DifferenceType type, Object[] keyValues) {
+            this.type = type;
+            this.keyValues = keyValues;
+        }
+
+        public DifferenceType getType() {
+            return type;
+        }
+
+        public Object[] getKeyValues() {
+            return keyValues;
+        }
+    }
+
+    private final List<String> keyNames;
+    private final List<String> attributeNames;
+    private final int maxReportedRows;
+    private final List<RowDifference> differences = new ArrayList<>();
+    private long matchedRows;
+    private long insertedRows;
+    private long deletedRows;
+    private long changedRows;
+    private long matchedByChecksumRows;
+
+    CompareDataReport(List<String> keyNames, List<String> attributeNames, int maxReportedRows) {
+        this.keyNames = keyNames;
+        this.attributeNames = attributeNames;
+        this.maxReportedRows = maxReportedRows;
+    }
+
+    public List<String> getKeyNames() {
+        return keyNames;
+    }
+
+    /**
+     * Names of compared attributes, including key attributes
+     */
+    public List<String> getAttributeNames() {
+        return attributeNames;
+    }
+
+    public List<RowDifference> getDifferences() {
+        return Collections.unmodifiableList(differences);
+    }
+
+    public long getMatchedRows() {
+        return matchedRows;
+    }
+
+    /**
+     * Number of matched rows which weren't read because checksums of their key ranges are equal
+     */
+    public long getMatchedByChecksumRows() {
+        return matchedByChecksumRows;
+    }
+
+    public long getInsertedRows() {
+        return insertedRows;
+    }
+
+    public long getDeletedRows() {
+        return deletedRows;
+    }
+
+    public long getChangedRows() {
+        return changedRows;
+    }
+
+    public boolean hasDifferences() {
+        return insertedRows + deletedRows + changedRows > 0;
+    }
+
+    /**
+     * Returns true if some differences weren't added to the report
+     */
+    public boolean isTruncated() {
+        return differences.size() < insertedRows + deletedRows + changedRows;
+    }
+
+    void addMatchedRows(long count, boolean byChecksum) {
+        matchedRows += count;
+        if (byChecksum) {
+            matchedByChecksumRows += count;
+        }
+    }
+
+    void addDifference(DifferenceType type, Object[] keyValues) {
+        switch (type) {
+            case INSERTED:
+                insertedRows++;
+                break;
+            case DELETED:
+                deletedRows++;
+                break;
+            default:
+                changedRows++;
+                break;
+        }
+        if (differences.size() < maxReportedRows) {
+            differences.add(new RowDifference(type, keyValues));
+        }
+    }
+}
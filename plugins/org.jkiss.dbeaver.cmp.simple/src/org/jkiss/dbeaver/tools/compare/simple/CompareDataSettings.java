@@ -0,0 +1,86 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.compare.simple;
+
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+
+/**
+ * Data compare settings
+ */
+public class CompareDataSettings {
+
+    private final DBSEntity sourceEntity;
+    private final DBSEntity targetEntity;
+    private int chunkSize = 10000;
+    private int splitCount = 16;
+    private int maxReportedRows = 1000;
+    private boolean useServerChecksums = true;
+
+    public CompareDataSettings(DBSEntity sourceEntity, DBSEntity targetEntity) {
+        this.sourceEntity = sourceEntity;
+        this.targetEntity = targetEntity;
+    }
+
+    public DBSEntity getSourceEntity() {
+        return sourceEntity;
+    }
+
+    public DBSEntity getTargetEntity() {
+        return targetEntity;
+    }
+
+    /**
+     * Maximum number of rows of a key range which is compared row by row
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Number of sub-ranges of a key range with different checksums
+     */
+    public int getSplitCount() {
+        return splitCount;
+    }
+
+    public void setSplitCount(int splitCount) {
+        this.splitCount = splitCount;
+    }
+
+    /**
+     * Maximum number of different rows in the report. Other differences are only counted.
+     */
+    public int getMaxReportedRows() {
+        return maxReportedRows;
+    }
+
+    public void setMaxReportedRows(int maxReportedRows) {
+        this.maxReportedRows = maxReportedRows;
+    }
+
+    public boolean isUseServerChecksums() {
+        return useServerChecksums;
+    }
+
+    public void setUseServerChecksums(boolean useServerChecksums) {
+        this.useServerChecksums = useServerChecksums;
+    }
+}
@@ -21,13 +21,15 @@ import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.DBConstants;
 import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
 import org.jkiss.dbeaver.model.DBPNamedObject;
 import org.jkiss.dbeaver.model.DBUtils;
 import org.jkiss.dbeaver.model.navigator.DBNDatabaseFolder;
 import org.jkiss.dbeaver.model.navigator.DBNDatabaseNode;
 import org.jkiss.dbeaver.model.navigator.meta.DBXTreeNode;
 import org.jkiss.dbeaver.model.preferences.DBPPropertyDescriptor;
-import org.jkiss.dbeaver.model.runtime.DBRProgressListener;
+import org.jkiss.dbeaver.model.runtime.BlockCanceler;
+import org.jkiss.dbeaver.model.runtime.DBRBlockingObject;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.SubTaskProgressMonitor;
 import org.jkiss.dbeaver.model.struct.DBSObject;
@@ -35,24 +37,38 @@ import org.jkiss.dbeaver.model.struct.DBSObjectContainer;
 import org.jkiss.dbeaver.runtime.properties.*;
 
 import java.util.*;
-
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Compares navigator nodes and their children.
+ * <p>
+ * Children are matched by names. Children and their properties are read from different connections in parallel:
+ * nodes of the same data source container are processed by a single thread, so each connection
+ * has only one metadata reader. Properties of all children of a container are loaded before children are compared.
+ */
 public class CompareObjectsExecutor {
 
     private static final Log log = Log.getLog(CompareObjectsExecutor.class);
 
-    private final Object PROPS_LOCK = new Object();
+    private static final int MAX_THREADS = 8;
+    private static final long CANCEL_CHECK_PERIOD = 200;
 
     private CompareObjectsSettings settings;
 
     private final List<DBNDatabaseNode> rootNodes;
     private final Map<DBPDataSource, DataSourcePropertyFilter> dataSourceFilters = new IdentityHashMap<>();
+    private final Map<DataSourcePropertyFilter, Map<Class<?>, List<ObjectPropertyDescriptor>>> propertyDescriptors = new IdentityHashMap<>();
 
-    private final DBRProgressListener initializeFinisher;
     private final ILazyPropertyLoadListener lazyPropertyLoadListener;
 
-    private volatile int initializedCount = 0;
     private volatile IStatus initializeError;
-    private final Map<Object, Map<DBPPropertyDescriptor, Object>> propertyValues = new IdentityHashMap<>();
+    private final Map<Object, Map<DBPPropertyDescriptor, Object>> propertyValues = Collections.synchronizedMap(new IdentityHashMap<>());
+    private ExecutorService executorService;
 
     private final List<CompareReportLine> reportLines = new ArrayList<>();
     private int reportDepth = 0;
@@ -120,26 +136,13 @@ public class CompareObjectsExecutor {
         this.settings = settings;
         this.rootNodes = settings.getNodes();
 
-        initializeFinisher = new DBRProgressListener() {
-            @Override
-            public void onTaskFinished(IStatus status)
-            {
-                if (!status.isOK()) {
-                    initializeError = status;
-                } else {
-                    initializedCount++;
-                }
-            }
-        };
         lazyPropertyLoadListener = new ILazyPropertyLoadListener() {
             @Override
             public void handlePropertyLoad(Object object, DBPPropertyDescriptor property, Object propertyValue, boolean completed)
             {
-                synchronized (propertyValues) {
-                    Map<DBPPropertyDescriptor, Object> objectProps = propertyValues.get(object);
-                    if (objectProps != null) {
-                        objectProps.put(property, propertyValue);
-                    }
+                Map<DBPPropertyDescriptor, Object> objectProps = propertyValues.get(object);
+                if (objectProps != null) {
+                    objectProps.put(property, propertyValue);
                 }
             }
         };
@@ -161,8 +164,29 @@ public class CompareObjectsExecutor {
     {
         reportLines.clear();
         lastLine = null;
+        initializeError = null;
 
-        compareNodes(monitor, nodes);
+        Set<DBPDataSourceContainer> containers = new HashSet<>();
+        for (DBNDatabaseNode node : nodes) {
+            containers.add(node.getDataSourceContainer());
+        }
+        int threadCount = Math.min(containers.size(), MAX_THREADS);
+        if (threadCount > 1) {
+            executorService = Executors.newFixedThreadPool(threadCount, runnable -> {
+                Thread thread = new Thread(runnable, "Compare objects");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        try {
+            compareNodes(monitor, nodes);
+        } finally {
+            if (executorService != null) {
+                executorService.shutdownNow();
+                executorService = null;
+            }
+            propertyValues.clear();
+        }
         return new CompareReport(rootNodes, reportLines);
     }
 
@@ -187,42 +211,54 @@ public class CompareObjectsExecutor {
 
     private void compareProperties(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes) throws DBException, InterruptedException
     {
-        boolean onlyStruct = settings.isCompareOnlyStructure();
-
-        // Clear compare singletons
-        this.initializedCount = 0;
-        this.initializeError = null;
-        this.propertyValues.clear();
-
-        StringBuilder title = new StringBuilder();
-        // Initialize nodes
-        {
-            monitor.subTask("Initialize nodes");
-            for (DBNDatabaseNode node : nodes) {
-                if (title.length() > 0) title.append(", ");
-                title.append(node.getNodeFullName());
-                node.initializeNode(null, initializeFinisher);
-                monitor.worked(1);
-            }
-            while (initializedCount != nodes.size()) {
-                if (initializeError != null) {
-                    throw new DBException(initializeError.getMessage());
-                }
-                Thread.sleep(50);
-                if (monitor.isCanceled()) {
-                    throw new InterruptedException();
-                }
+        if (monitor.isCanceled()) {
+            throw new InterruptedException();
+        }
+        PropertyGroup group = makePropertyGroup(nodes);
+        if (group == null) {
+            return;
+        }
+        // Properties are usually loaded together with properties of sibling nodes
+        List<DBNDatabaseNode> notLoadedNodes = new ArrayList<>();
+        for (DBNDatabaseNode node : nodes) {
+            if (!propertyValues.containsKey(node.getObject())) {
+                notLoadedNodes.add(node);
             }
         }
+        if (!notLoadedNodes.isEmpty()) {
+            loadProperties(monitor, Collections.singletonList(new PropertyGroup(notLoadedNodes, group)));
+        }
 
+        StringBuilder title = new StringBuilder();
+        for (DBNDatabaseNode node : nodes) {
+            if (title.length() > 0) title.append(", ");
+            title.append(node.getNodeFullName());
+        }
         monitor.subTask("Compare " + title.toString());
-        boolean compareLazyProperties = false;
 
+        // Compare properties
+        for (ObjectPropertyDescriptor prop : group.properties) {
+            reportPropertyCompare(prop);
+        }
+        for (DBNDatabaseNode node : nodes) {
+            propertyValues.remove(node.getObject());
+        }
+    }
+
+    /**
+     * Returns properties to compare or null if properties shouldn't be compared
+     */
+    private PropertyGroup makePropertyGroup(List<DBNDatabaseNode> nodes)
+    {
         DBNDatabaseNode firstNode = nodes.get(0);
-        List<ObjectPropertyDescriptor> properties = ObjectPropertyDescriptor.extractAnnotations(
-            null,
-            firstNode.getObject().getClass(),
-            getDataSourceFilter(firstNode), null);
+        DataSourcePropertyFilter filter = getDataSourceFilter(firstNode);
+        List<ObjectPropertyDescriptor> properties = propertyDescriptors
+            .computeIfAbsent(filter, f -> new IdentityHashMap<>())
+            .computeIfAbsent(firstNode.getObject().getClass(), objectClass -> ObjectPropertyDescriptor.extractAnnotations(
+                null,
+                objectClass,
+                filter, null));
+        boolean compareLazyProperties = false;
         for (ObjectPropertyDescriptor prop : properties) {
             if (prop.isLazy()) {
                 compareLazyProperties = true;
@@ -233,87 +269,108 @@ public class CompareObjectsExecutor {
         boolean compareScripts = compareLazyProperties && settings.isCompareScripts();
         compareLazyProperties = compareLazyProperties && settings.isCompareLazyProperties();
 
-        if (onlyStruct && !compareScripts) {
-            return;
+        if (settings.isCompareOnlyStructure() && !compareScripts) {
+            return null;
         }
+        return new PropertyGroup(nodes, properties, compareLazyProperties, compareScripts);
+    }
 
-        // Load all properties
-        for (DBNDatabaseNode node : nodes) {
-            if (monitor.isCanceled()) {
-                throw new InterruptedException();
-            }
-            DBSObject databaseObject = node.getObject();
-            Map<DBPPropertyDescriptor, Object> nodeProperties = propertyValues.get(databaseObject);
-            if (nodeProperties == null) {
-                nodeProperties = new IdentityHashMap<>();
-                propertyValues.put(databaseObject, nodeProperties);
+    /**
+     * Loads properties of all groups. Nodes of different data sources are processed in parallel.
+     */
+    private void loadProperties(DBRProgressMonitor monitor, List<PropertyGroup> groups) throws DBException, InterruptedException
+    {
+        Map<DBNDatabaseNode, PropertyGroup> nodeGroups = new LinkedHashMap<>();
+        for (PropertyGroup group : groups) {
+            for (DBNDatabaseNode node : group.nodes) {
+                nodeGroups.put(node, group);
             }
-            PropertyCollector propertySource = new PropertyCollector(databaseObject, compareLazyProperties || compareScripts);
-            for (ObjectPropertyDescriptor prop : properties) {
-                boolean isScriptProperty = prop.getId().equals(DBConstants.PARAM_OBJECT_DEFINITION_TEXT) || prop.getId().equals(DBConstants.PARAM_EXTENDED_DEFINITION_TEXT);
-                if (prop.isLazy()) {
-                    if (!compareLazyProperties) {
-                        if (compareScripts) {
-                            // Only DBPScriptObject methods
-                            if (!isScriptProperty) {
-                                continue;
-                            }
-                        } else {
+        }
+        runPerDataSource(monitor, new ArrayList<>(nodeGroups.keySet()), (taskMonitor, node) -> {
+            loadNodeProperties(taskMonitor, node, nodeGroups.get(node));
+            return null;
+        });
+    }
+
+    private void loadNodeProperties(DBRProgressMonitor monitor, DBNDatabaseNode node, PropertyGroup group) throws DBException, InterruptedException
+    {
+        if (monitor.isCanceled()) {
+            throw new InterruptedException();
+        }
+        boolean onlyStruct = settings.isCompareOnlyStructure();
+        // Pass monitor to connect synchronously, so the node is initialized when this call returns
+        IStatus[] nodeStatus = new IStatus[1];
+        boolean initialized = node.initializeNode(monitor, status -> nodeStatus[0] = status);
+        if (nodeStatus[0] != null && !nodeStatus[0].isOK()) {
+            initializeError = nodeStatus[0];
+            throw new DBException(nodeStatus[0].getMessage());
+        }
+        if (!initialized) {
+            throw new DBException("Can't initialize node '" + node.getNodeFullName() + "'");
+        }
+        DBSObject databaseObject = node.getObject();
+        Map<DBPPropertyDescriptor, Object> nodeProperties = propertyValues.computeIfAbsent(
+            databaseObject,
+            o -> Collections.synchronizedMap(new IdentityHashMap<>()));
+        PropertyCollector propertySource = new PropertyCollector(databaseObject, group.compareLazyProperties || group.compareScripts);
+        for (ObjectPropertyDescriptor prop : group.properties) {
+            boolean isScriptProperty = prop.getId().equals(DBConstants.PARAM_OBJECT_DEFINITION_TEXT) || prop.getId().equals(DBConstants.PARAM_EXTENDED_DEFINITION_TEXT);
+            if (prop.isLazy()) {
+                if (!group.compareLazyProperties) {
+                    if (group.compareScripts) {
+                        // Only DBPScriptObject methods
+                        if (!isScriptProperty) {
                             continue;
                         }
-                    }
-                } else {
-                    if (prop.isHidden()) {
+                    } else {
                         continue;
                     }
                 }
-                if (onlyStruct && !isScriptProperty) {
+            } else {
+                if (prop.isHidden()) {
                     continue;
                 }
-                Object propertyValue = propertySource.getPropertyValue(monitor, databaseObject, prop, true);
-                synchronized (PROPS_LOCK) {
-                    if (propertyValue instanceof DBPNamedObject) {
-                        // Compare just object names
-                        propertyValue = ((DBPNamedObject) propertyValue).getName();
-                    }
-                    nodeProperties.put(prop, propertyValue);
-                }
             }
-            monitor.worked(1);
-        }
-
-        // Compare properties
-        for (ObjectPropertyDescriptor prop : properties) {
-            reportPropertyCompare(prop);
+            if (onlyStruct && !isScriptProperty) {
+                continue;
+            }
+            Object propertyValue = propertySource.getPropertyValue(monitor, databaseObject, prop, true);
+            if (propertyValue instanceof DBPNamedObject) {
+                // Compare just object names
+                propertyValue = ((DBPNamedObject) propertyValue).getName();
+            }
+            nodeProperties.put(prop, propertyValue);
         }
+        monitor.worked(1);
     }
 
     private void compareChildren(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes) throws DBException, InterruptedException
     {
         // Compare children
         int nodeCount = nodes.size();
-        List<DBNDatabaseNode[]> allChildren = new ArrayList<>(nodeCount);
-        // Use submonitor to avoid huge number of tasks
-        DBRProgressMonitor subMonitor = new SubTaskProgressMonitor(monitor);
-        for (int i = 0; i < nodeCount; i++) {
-            DBNDatabaseNode node = nodes.get(i);
+        List<DBNDatabaseNode[]> allChildren = runPerDataSource(monitor, nodes, (taskMonitor, node) -> {
+            // Use submonitor to avoid huge number of tasks
+            DBRProgressMonitor subMonitor = new SubTaskProgressMonitor(taskMonitor);
             // Cache structure if possible
             if (node.getObject() instanceof DBSObjectContainer) {
                 ((DBSObjectContainer) node.getObject()).cacheStructure(subMonitor, DBSObjectContainer.STRUCT_ALL);
             }
             try {
-                DBNDatabaseNode[] children = node.getChildren(subMonitor);
-                allChildren.add(children);
+                return node.getChildren(subMonitor);
             } catch (Exception e) {
                 log.warn("Error reading child nodes for compare", e);
-                allChildren.add(null);
+                return null;
             }
-        }
+        });
 
         Set<String> allChildNames = new LinkedHashSet<>();
+        List<Map<String, DBNDatabaseNode>> childrenByName = new ArrayList<>(nodeCount);
         for (DBNDatabaseNode[] childList : allChildren) {
+            Map<String, DBNDatabaseNode> childMap = new HashMap<>();
+            childrenByName.add(childMap);
             if (childList == null) continue;
             for (DBNDatabaseNode child : childList) {
+                childMap.putIfAbsent(child.getNodeName(), child);
                 DBXTreeNode meta = child.getMeta();
                 if (meta.isVirtual()) {
                     // Skip virtual nodes
@@ -327,43 +384,105 @@ public class CompareObjectsExecutor {
             }
         }
 
+        List<List<DBNDatabaseNode>> childGroups = new ArrayList<>(allChildNames.size());
         for (String childName : allChildNames) {
-            int[] childIndexes = new int[nodeCount];
-            for (int i = 0; i < nodeCount; i++) {
-                childIndexes[i] = -1;
-                DBNDatabaseNode[] childList = allChildren.get(i);
-                if (childList == null) continue;
-                for (int k = 0; k < childList.length; k++) {
-                    DBNDatabaseNode child = childList[k];
-                    if (child.getNodeName().equals(childName)) {
-                        childIndexes[i] = k;
-                        break;
-                    }
+            List<DBNDatabaseNode> nodesToCompare = new ArrayList<>(nodeCount);
+            for (Map<String, DBNDatabaseNode> childMap : childrenByName) {
+                DBNDatabaseNode child = childMap.get(childName);
+                if (child != null) {
+                    nodesToCompare.add(child);
                 }
             }
+            childGroups.add(nodesToCompare);
+        }
 
-            List<DBNDatabaseNode> nodesToCompare = new ArrayList<>(nodeCount);
-            for (int i = 0; i < nodeCount; i++) {
-                if (childIndexes[i] == -1) {
-                    // Missing
-                } else {
-                    for (int k = 0; k < nodeCount; k++) {
-                        if (k != i && childIndexes[k] != childIndexes[i]) {
-                            // Wrong index - add to report
-                            break;
-                        }
-                    }
-                    final DBNDatabaseNode[] childList = allChildren.get(i);
-                    if (childList != null) {
-                        nodesToCompare.add(childList[childIndexes[i]]);
-                    }
+        // Load properties of all children at once
+        List<PropertyGroup> propertyGroups = new ArrayList<>();
+        for (List<DBNDatabaseNode> childGroup : childGroups) {
+            if (childGroup.size() > 1 && !(childGroup.get(0) instanceof DBNDatabaseFolder)) {
+                PropertyGroup propertyGroup = makePropertyGroup(childGroup);
+                if (propertyGroup != null) {
+                    propertyGroups.add(propertyGroup);
                 }
             }
+        }
+        if (!propertyGroups.isEmpty()) {
+            loadProperties(monitor, propertyGroups);
+        }
+
+        for (List<DBNDatabaseNode> childGroup : childGroups) {
             // Compare children recursively
-            compareNodes(monitor, nodesToCompare);
+            compareNodes(monitor, childGroup);
         }
     }
 
+    /**
+     * Runs task for each node and returns results in the same order.
+     * Nodes of the same data source container are processed sequentially by one thread.
+     */
+    private <T> List<T> runPerDataSource(DBRProgressMonitor monitor, List<DBNDatabaseNode> nodes, NodeTask<T> task)
+        throws DBException, InterruptedException
+    {
+        Map<DBPDataSourceContainer, List<Integer>> nodesByContainer = new LinkedHashMap<>();
+        for (int i = 0; i < nodes.size(); i++) {
+            nodesByContainer.computeIfAbsent(nodes.get(i).getDataSourceContainer(), c -> new ArrayList<>()).add(i);
+        }
+        List<T> results = new ArrayList<>(Collections.nCopies(nodes.size(), null));
+        if (executorService == null || nodesByContainer.size() < 2) {
+            for (int i = 0; i < nodes.size(); i++) {
+                results.set(i, task.run(monitor, nodes.get(i)));
+            }
+            return results;
+        }
+        List<WorkerProgressMonitor> workerMonitors = new ArrayList<>();
+        List<Future<?>> futures = new ArrayList<>();
+        for (List<Integer> indexes : nodesByContainer.values()) {
+            WorkerProgressMonitor workerMonitor = new WorkerProgressMonitor(monitor);
+            workerMonitors.add(workerMonitor);
+            futures.add(executorService.submit(() -> {
+                for (int index : indexes) {
+                    T result = task.run(workerMonitor, nodes.get(index));
+                    synchronized (results) {
+                        results.set(index, result);
+                    }
+                }
+                return null;
+            }));
+        }
+        try {
+            for (Future<?> future : futures) {
+                while (true) {
+                    try {
+                        future.get(CANCEL_CHECK_PERIOD, TimeUnit.MILLISECONDS);
+                        break;
+                    } catch (TimeoutException e) {
+                        if (monitor.isCanceled()) {
+                            // Workers' blocks are not visible to the parent monitor, so cancel them here
+                            for (WorkerProgressMonitor workerMonitor : workerMonitors) {
+                                workerMonitor.cancelBlocks();
+                            }
+                            for (Future<?> f : futures) {
+                                f.cancel(true);
+                            }
+                            throw new InterruptedException();
+                        }
+                    }
+                }
+            }
+        } catch (ExecutionException e) {
+            for (Future<?> future : futures) {
+                future.cancel(true);
+            }
+            Throwable cause = e.getCause();
+            if (cause instanceof DBException) {
+                throw (DBException) cause;
+            } else if (cause instanceof InterruptedException) {
+                throw (InterruptedException) cause;
+            }
+            throw new DBException("Error comparing objects", cause);
+        }
+        return results;
+    }
 
     private DataSourcePropertyFilter getDataSourceFilter(DBNDatabaseNode node)
     {
@@ -379,4 +498,107 @@ public class CompareObjectsExecutor {
         return filter;
     }
 
-}
\ No newline at end of file
+    @FunctionalInterface
+    private interface NodeTask<T> {
+        T run(DBRProgressMonitor monitor, DBNDatabaseNode node) throws DBException, InterruptedException;
+    }
+
+    /**
+     * Progress monitor of a single worker thread.
+     * Keeps its own stack of blocking objects (the parent monitor's stack can't be shared between threads)
+     * and serializes progress reporting to the parent monitor.
+     */
+    private static class WorkerProgressMonitor extends SubTaskProgressMonitor {
+        private final List<DBRBlockingObject> blocks = new ArrayList<>();
+        private Thread blockThread;
+
+        WorkerProgressMonitor(DBRProgressMonitor original)
+        {
+            super(original);
+        }
+
+        @Override
+        public void beginTask(String name, int totalWork)
+        {
+            subTask(name);
+        }
+
+        @Override
+        public void subTask(String name)
+        {
+            synchronized (original) {
+                original.subTask(name);
+            }
+        }
+
+        @Override
+        public void worked(int work)
+        {
+            synchronized (original) {
+                original.worked(work);
+            }
+        }
+
+        @Override
+        public synchronized void startBlock(DBRBlockingObject object, String taskName)
+        {
+            if (taskName != null) {
+                subTask(taskName);
+            }
+            blocks.add(object);
+            blockThread = Thread.currentThread();
+        }
+
+        @Override
+        public synchronized void endBlock()
+        {
+            if (!blocks.isEmpty()) {
+                blocks.remove(blocks.size() - 1);
+            }
+        }
+
+        @Override
+        public synchronized List<DBRBlockingObject> getActiveBlocks()
+        {
+            return new ArrayList<>(blocks);
+        }
+
+        void cancelBlocks()
+        {
+            Thread thread;
+            List<DBRBlockingObject> activeBlocks;
+            synchronized (this) {
+                thread = blockThread;
+                activeBlocks = new ArrayList<>(blocks);
+            }
+            for (DBRBlockingObject block : activeBlocks) {
+                try {
+                    BlockCanceler.cancelBlock(this, block, thread);
+                } catch (DBException e) {
+                    log.debug("Error canceling compare operation", e);
+                }
+            }
+        }
+    }
+
+    private static class PropertyGroup {
+        final List<DBNDatabaseNode> nodes;
+        final List<ObjectPropertyDescriptor> properties;
+        final boolean compareLazyProperties;
+        final boolean compareScripts;
+
+        PropertyGroup(List<DBNDatabaseNode> nodes, List<ObjectPropertyDescriptor> properties, boolean compareLazyProperties, boolean compareScripts)
+        {
+            this.nodes = nodes;
+            this.properties = properties;
+            this.compareLazyProperties = compareLazyProperties;
+            this.compareScripts = compareScripts;
+        }
+
+        PropertyGroup(List<DBNDatabaseNode> nodes, PropertyGroup group)
+        {
+            this(nodes, group.properties, group.compareLazyProperties, group.compareScripts);
+        }
+    }
+
+}
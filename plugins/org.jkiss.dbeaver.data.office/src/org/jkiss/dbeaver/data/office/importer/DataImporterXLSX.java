@@ -0,0 +1,316 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.data.office.importer;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.apache.poi.xssf.model.StylesTable;
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBFetchProgress;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
+import org.jkiss.dbeaver.model.exec.DBCExecutionPurpose;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.impl.local.LocalStatement;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.tools.transfer.IDataTransferConsumer;
+import org.jkiss.dbeaver.tools.transfer.stream.IStreamDataImporterSite;
+import org.jkiss.dbeaver.tools.transfer.stream.StreamDataImporterColumnInfo;
+import org.jkiss.dbeaver.tools.transfer.stream.StreamEntityMapping;
+import org.jkiss.dbeaver.tools.transfer.stream.StreamTransferResultSet;
+import org.jkiss.dbeaver.tools.transfer.stream.importer.StreamImporterAbstract;
+import org.jkiss.utils.CommonUtils;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.*;
+
+/**
+ * XLSX importer.
+ * Uses POI event API: sheet XML is parsed with SAX and rows are passed to the consumer one by one,
+ * so memory usage doesn't depend on the sheet size (shared strings table is still loaded in memory).
+ */
+public class DataImporterXLSX extends StreamImporterAbstract {
+    private static final Log log = Log.getLog(DataImporterXLSX.class);
+
+    private static final String PROP_SHEET = "sheet";
+    private static final String PROP_HEADER = "header";
+
+    public enum HeaderPosition {
+        auto,
+        none,
+        top,
+    }
+
+    @NotNull
+    @Override
+    public List<StreamDataImporterColumnInfo> readColumnsInfo(StreamEntityMapping entityMapping, @NotNull InputStream inputStream) throws DBException {
+        Map<String, Object> processorProperties = getSite().getProcessorProperties();
+        final int columnSamplesCount = Math.max(CommonUtils.toInt(processorProperties.get(PROP_COLUMN_TYPE_SAMPLES), 1000), 1);
+        final int columnMinimalLength = Math.max(CommonUtils.toInt(processorProperties.get(PROP_COLUMN_TYPE_LENGTH), 1), 1);
+        final HeaderPosition headerPosition = getHeaderPosition(processorProperties);
+
+        // One more row for the header
+        XLSXSheetHandler.SampleCollector collector = new XLSXSheetHandler.SampleCollector(columnSamplesCount + 1);
+        readSheet(entityMapping, inputStream, processorProperties, collector);
+        List<Object[]> rows = collector.getRows();
+
+        List<StreamDataImporterColumnInfo> columnsInfo = new ArrayList<>();
+        if (rows.isEmpty()) {
+            return columnsInfo;
+        }
+        int columnCount = 0;
+        for (Object[] row : rows) {
+            columnCount = Math.max(columnCount, row.length);
+        }
+        Object[] header = rows.get(0);
+        boolean hasHeader = isHeaderRow(header, headerPosition);
+        for (int i = 0; i < columnCount; i++) {
+            String columnName = hasHeader && i < header.length && header[i] != null ? CommonUtils.toString(header[i]).trim() : null;
+            if (CommonUtils.isEmpty(columnName)) {
+                columnName = "Column" + (i + 1);
+            }
+            StreamDataImporterColumnInfo columnInfo = new StreamDataImporterColumnInfo(entityMapping, i, columnName, null, columnMinimalLength, DBPDataKind.UNKNOWN);
+            columnInfo.setMappingMetadataPresent(true);
+            columnsInfo.add(columnInfo);
+        }
+
+        for (int rowIndex = hasHeader ? 1 : 0; rowIndex < Math.min(rows.size(), columnSamplesCount + (hasHeader ? 1 : 0)); rowIndex++) {
+            Object[] row = rows.get(rowIndex);
+            for (int i = 0; i < row.length; i++) {
+                if (row[i] != null) {
+                    updateColumnType(columnsInfo.get(i), row[i]);
+                }
+            }
+        }
+
+        for (StreamDataImporterColumnInfo columnInfo : columnsInfo) {
+            if (columnInfo.getDataKind() == DBPDataKind.UNKNOWN) {
+                log.warn("Cannot guess data type for column '" + columnInfo.getName() + "', defaulting to VARCHAR");
+                columnInfo.updateType(DBPDataKind.STRING, "VARCHAR");
+            }
+        }
+        return columnsInfo;
+    }
+
+    private static void updateColumnType(@NotNull StreamDataImporterColumnInfo columnInfo, @NotNull Object value) {
+        DBPDataKind kind;
+        String typeName;
+        if (value instanceof Boolean) {
+            kind = DBPDataKind.BOOLEAN;
+            typeName = "BOOLEAN";
+        } else if (value instanceof Long) {
+            kind = DBPDataKind.NUMERIC;
+            typeName = "INTEGER";
+        } else if (value instanceof Number) {
+            kind = DBPDataKind.NUMERIC;
+            typeName = "REAL";
+        } else if (value instanceof Date) {
+            kind = DBPDataKind.DATETIME;
+            typeName = "TIMESTAMP";
+        } else {
+            String text = value.toString();
+            columnInfo.updateMaxLength(text.length());
+            kind = DBPDataKind.STRING;
+            typeName = "VARCHAR";
+        }
+        DBPDataKind currentKind = columnInfo.getDataKind();
+        if (currentKind == DBPDataKind.UNKNOWN || kind == currentKind) {
+            if (currentKind == DBPDataKind.UNKNOWN || "REAL".equals(typeName)) {
+                // Integers are promoted to reals
+                columnInfo.setDataKind(kind);
+                columnInfo.setTypeName(typeName);
+            }
+        } else {
+            // Cells of different types are imported as strings
+            if (kind != DBPDataKind.STRING) {
+                columnInfo.updateMaxLength(value.toString().length());
+            }
+            columnInfo.setDataKind(DBPDataKind.STRING);
+            columnInfo.setTypeName("VARCHAR");
+        }
+    }
+
+    @Override
+    public void runImport(@NotNull DBRProgressMonitor monitor, @NotNull DBPDataSource streamDataSource, @NotNull InputStream inputStream, @NotNull IDataTransferConsumer consumer) throws DBException {
+        IStreamDataImporterSite site = getSite();
+        StreamEntityMapping entityMapping = site.getSourceObject();
+        Map<String, Object> properties = site.getProcessorProperties();
+        final HeaderPosition headerPosition = getHeaderPosition(properties);
+
+        DBCExecutionContext context = streamDataSource.getDefaultInstance().getDefaultContext(monitor, false);
+        try (DBCSession producerSession = context.openSession(monitor, DBCExecutionPurpose.UTIL, "Transfer stream data")) {
+            LocalStatement localStatement = new LocalStatement(producerSession, "SELECT * FROM Stream");
+            StreamTransferResultSet resultSet = new StreamTransferResultSet(producerSession, localStatement, entityMapping);
+
+            consumer.fetchStart(producerSession, resultSet, -1, -1);
+            try {
+                int maxRows = site.getSettings().getMaxRows();
+                int targetAttrSize = entityMapping.getStreamColumns().size();
+                readSheet(entityMapping, inputStream, properties, new XLSXSheetHandler.RowListener() {
+                    private boolean firstRow = true;
+                    private long rowNum = 0;
+
+                    @Override
+                    public void handleRow(@NotNull Object[] values, int columnCount) throws SAXException {
+                        if (firstRow) {
+                            firstRow = false;
+                            if (isHeaderRow(Arrays.copyOf(values, columnCount), headerPosition)) {
+                                return;
+                            }
+                        }
+                        if (monitor.isCanceled() || (maxRows > 0 && rowNum >= maxRows)) {
+                            throw new XLSXSheetHandler.StopException();
+                        }
+                        Object[] streamRow = new Object[targetAttrSize];
+                        System.arraycopy(values, 0, streamRow, 0, Math.min(columnCount, targetAttrSize));
+                        try {
+                            resultSet.setStreamRow(streamRow);
+                            consumer.fetchRow(producerSession, resultSet);
+                        } catch (DBException e) {
+                            throw new SAXException(e);
+                        }
+                        rowNum++;
+
+                        if (DBFetchProgress.monitorFetchProgress(rowNum)) {
+                            monitor.subTask(rowNum + " rows processed");
+                        }
+                    }
+                });
+            } finally {
+                try {
+                    consumer.fetchEnd(producerSession, resultSet);
+                } finally {
+                    consumer.close();
+                }
+            }
+        }
+    }
+
+    @NotNull
+    private static HeaderPosition getHeaderPosition(@NotNull Map<String, Object> properties) {
+        return CommonUtils.valueOf(HeaderPosition.class, CommonUtils.toString(properties.get(PROP_HEADER)), HeaderPosition.auto);
+    }
+
+    /**
+     * Checks whether the first non-empty row is a header.
+     * In auto mode it is a header if all its cells are distinct non-empty strings.
+     */
+    private static boolean isHeaderRow(@NotNull Object[] row, @NotNull HeaderPosition headerPosition) {
+        switch (headerPosition) {
+            case top:
+                return true;
+            case none:
+                return false;
+            default:
+                Set<String> names = new HashSet<>();
+                for (Object value : row) {
+                    if (!(value instanceof String) || CommonUtils.isEmptyTrimmed((String) value) || !names.add(((String) value).trim())) {
+                        return false;
+                    }
+                }
+                return !names.isEmpty();
+        }
+    }
+
+    private static void readSheet(
+        @NotNull StreamEntityMapping entityMapping,
+        @NotNull InputStream inputStream,
+        @NotNull Map<String, Object> properties,
+        @NotNull XLSXSheetHandler.RowListener listener
+    ) throws DBException {
+        String sheetName = CommonUtils.toString(properties.get(PROP_SHEET)).trim();
+        try (OPCPackage pkg = openPackage(entityMapping, inputStream)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            reader.setUseReadOnlySharedStringsTable(true);
+            SharedStrings sharedStrings = reader.getSharedStringsTable();
+            StylesTable styles = reader.getStylesTable();
+            boolean date1904 = isDate1904(reader);
+
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+            for (int sheetIndex = 1; sheets.hasNext(); sheetIndex++) {
+                try (InputStream sheetData = sheets.next()) {
+                    if (sheetName.isEmpty() || sheetName.equals(sheets.getSheetName()) || sheetName.equals(String.valueOf(sheetIndex))) {
+                        XMLReader xmlReader = XMLHelper.newXMLReader();
+                        xmlReader.setContentHandler(new XLSXSheetHandler(sharedStrings, styles, date1904, listener));
+                        try {
+                            xmlReader.parse(new InputSource(sheetData));
+                        } catch (XLSXSheetHandler.StopException ignored) {
+                            // Enough rows were read
+                        }
+                        return;
+                    }
+                }
+            }
+            throw new DBException("Sheet '" + sheetName + "' not found in the workbook");
+        } catch (SAXException e) {
+            if (e.getException() instanceof DBException) {
+                throw (DBException) e.getException();
+            }
+            throw new DBException("Error parsing XLSX data", e);
+        } catch (IOException | OpenXML4JException | ParserConfigurationException e) {
+            throw new DBException("IO error reading XLSX data", e);
+        }
+    }
+
+    @NotNull
+    private static OPCPackage openPackage(@NotNull StreamEntityMapping entityMapping, @NotNull InputStream inputStream) throws IOException, OpenXML4JException {
+        File inputFile = entityMapping.getInputFile();
+        if (inputFile != null && inputFile.isFile()) {
+            // Random access to the zip file, the stream would be buffered in memory entirely
+            return OPCPackage.open(inputFile, PackageAccess.READ);
+        }
+        return OPCPackage.open(inputStream);
+    }
+
+    private static boolean isDate1904(@NotNull XSSFReader reader) throws IOException, OpenXML4JException, SAXException, ParserConfigurationException {
+        boolean[] date1904 = new boolean[1];
+        try (InputStream workbookData = reader.getWorkbookData()) {
+            XMLReader xmlReader = XMLHelper.newXMLReader();
+            xmlReader.setContentHandler(new DefaultHandler() {
+                @Override
+                public void startElement(String uri, String localName, String qName, Attributes attributes) throws SAXException {
+                    if (localName.equals("workbookPr")) {
+                        String value = attributes.getValue("date1904");
+                        date1904[0] = "1".equals(value) || "true".equalsIgnoreCase(value);
+                        throw new XLSXSheetHandler.StopException();
+                    } else if (localName.equals("sheets")) {
+                        throw new XLSXSheetHandler.StopException();
+                    }
+                }
+            });
+            xmlReader.parse(new InputSource(workbookData));
+        } catch (XLSXSheetHandler.StopException ignored) {
+            // Workbook properties were read
+        }
+        return date1904[0];
+    }
+}
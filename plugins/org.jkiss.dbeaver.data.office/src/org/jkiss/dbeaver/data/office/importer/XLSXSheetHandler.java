@@ -0,0 +1,248 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.data.office.importer;
+
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.DefaultHandler;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SAX handler of a worksheet part.
+ * Converts cells into Java values and passes rows to the listener one by one, so only the current row is kept in memory.
+ */
+class XLSXSheetHandler extends DefaultHandler {
+
+    interface RowListener {
+        /**
+         * Handles next non-empty row. Values array is reused between rows.
+         * Throw {@link StopException} to stop reading.
+         */
+        void handleRow(@NotNull Object[] values, int columnCount) throws SAXException;
+    }
+
+    /**
+     * Thrown by a row listener to stop parsing the rest of the sheet
+     */
+    static class StopException extends SAXException {
+        StopException() {
+            super("Sheet reading stopped");
+        }
+    }
+
+    private final SharedStrings sharedStrings;
+    private final StylesTable styles;
+    private final boolean date1904;
+    private final RowListener listener;
+    private final Map<Integer, Boolean> dateStyles = new HashMap<>();
+
+    private final StringBuilder text = new StringBuilder();
+    private Object[] rowValues = new Object[16];
+    private int rowColumnCount;
+    private int nextColumn;
+
+    private String cellType;
+    private int cellStyle;
+    private int cellColumn;
+    private boolean valueFound;
+    private boolean inValue;
+    private boolean inInlineText;
+    private boolean inPhoneticRun;
+
+    XLSXSheetHandler(@NotNull SharedStrings sharedStrings, @Nullable StylesTable styles, boolean date1904, @NotNull RowListener listener) {
+        this.sharedStrings = sharedStrings;
+        this.styles = styles;
+        this.date1904 = date1904;
+        this.listener = listener;
+    }
+
+    @Override
+    public void startElement(String uri, String localName, String qName, Attributes attributes) throws SAXException {
+        switch (localName) {
+            case "row":
+                Arrays.fill(rowValues, 0, rowColumnCount, null);
+                rowColumnCount = 0;
+                nextColumn = 0;
+                break;
+            case "c": {
+                String ref = attributes.getValue("r");
+                cellColumn = ref == null ? nextColumn : getColumnIndex(ref);
+                nextColumn = cellColumn + 1;
+                cellType = attributes.getValue("t");
+                String style = attributes.getValue("s");
+                cellStyle = style == null ? -1 : Integer.parseInt(style);
+                valueFound = false;
+                text.setLength(0);
+                break;
+            }
+            case "v":
+                inValue = true;
+                text.setLength(0);
+                break;
+            case "t":
+                // Inline string text, may be split into several runs. Phonetic runs are not a part of the value.
+                inInlineText = "inlineStr".equals(cellType) && !inPhoneticRun;
+                break;
+            case "rPh":
+                inPhoneticRun = true;
+                break;
+            default:
+                break;
+        }
+    }
+
+    @Override
+    public void endElement(String uri, String localName, String qName) throws SAXException {
+        switch (localName) {
+            case "v":
+                inValue = false;
+                valueFound = true;
+                break;
+            case "t":
+                if (inInlineText) {
+                    inInlineText = false;
+                    valueFound = true;
+                }
+                break;
+            case "rPh":
+                inPhoneticRun = false;
+                break;
+            case "c":
+                if (valueFound) {
+                    Object value = convertValue(text.toString());
+                    if (value != null) {
+                        setRowValue(cellColumn, value);
+                    }
+                }
+                break;
+            case "row":
+                if (rowColumnCount > 0) {
+                    listener.handleRow(rowValues, rowColumnCount);
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    @Override
+    public void characters(char[] ch, int start, int length) {
+        if (inValue || inInlineText) {
+            text.append(ch, start, length);
+        }
+    }
+
+    private void setRowValue(int column, @NotNull Object value) {
+        if (column >= rowValues.length) {
+            rowValues = Arrays.copyOf(rowValues, Math.max(column + 1, rowValues.length * 2));
+        }
+        rowValues[column] = value;
+        rowColumnCount = Math.max(rowColumnCount, column + 1);
+    }
+
+    @Nullable
+    private Object convertValue(@NotNull String value) {
+        if (cellType == null || cellType.equals("n")) {
+            if (value.isEmpty()) {
+                return null;
+            }
+            double number = Double.parseDouble(value);
+            if (isDateStyle(cellStyle) && DateUtil.isValidExcelDate(number)) {
+                return Timestamp.valueOf(DateUtil.getLocalDateTime(number, date1904));
+            }
+            if (number == Math.rint(number) && Math.abs(number) < 1e15) {
+                return (long) number;
+            }
+            return number;
+        }
+        switch (cellType) {
+            case "s":
+                return sharedStrings.getItemAt(Integer.parseInt(value)).getString();
+            case "b":
+                return value.equals("1") || value.equalsIgnoreCase("true");
+            case "e":
+                // Formula errors (#DIV/0!, #N/A, etc)
+                return null;
+            default:
+                // Formula results and inline strings
+                return value;
+        }
+    }
+
+    private boolean isDateStyle(int styleIndex) {
+        if (styles == null || styleIndex < 0) {
+            return false;
+        }
+        return dateStyles.computeIfAbsent(styleIndex, index -> {
+            XSSFCellStyle style = styles.getStyleAt(index);
+            return style != null && style.getDataFormatString() != null &&
+                DateUtil.isADateFormat(style.getDataFormat(), style.getDataFormatString());
+        });
+    }
+
+    /**
+     * Returns zero-based column index of cell reference like "AB12"
+     */
+    static int getColumnIndex(@NotNull String ref) {
+        int column = 0;
+        for (int i = 0; i < ref.length(); i++) {
+            char c = ref.charAt(i);
+            if (c < 'A' || c > 'Z') {
+                break;
+            }
+            column = column * 26 + (c - 'A' + 1);
+        }
+        return column - 1;
+    }
+
+    /**
+     * Reads values of sampled rows. Used to detect the header and column types.
+     */
+    static class SampleCollector implements RowListener {
+        private final int maxRows;
+        private final List<Object[]> rows = new ArrayList<>();
+
+        SampleCollector(int maxRows) {
+            this.maxRows = maxRows;
+        }
+
+        @NotNull
+        List<Object[]> getRows() {
+            return rows;
+        }
+
+        @Override
+        public void handleRow(@NotNull Object[] values, int columnCount) throws SAXException {
+            rows.add(Arrays.copyOf(values, columnCount));
+            if (rows.size() >= maxRows) {
+                throw new StopException();
+            }
+        }
+    }
+}
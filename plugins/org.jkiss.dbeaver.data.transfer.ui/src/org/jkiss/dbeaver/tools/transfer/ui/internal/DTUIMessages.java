@@ -57,6 +57,8 @@ public class DTUIMessages extends NLS {
 	public static String database_consumer_wizard_spinner_multi_insert_batch_size;
     public static String database_consumer_wizard_checkbox_multi_insert_skip_bind_values_label;
     public static String database_consumer_wizard_checkbox_multi_insert_skip_bind_values_description;
+    public static String database_consumer_wizard_checkbox_bind_null_values_label;
+    public static String database_consumer_wizard_checkbox_bind_null_values_description;
 	public static String database_consumer_wizard_disable_import_batches_label;
 	public static String database_consumer_wizard_disable_import_batches_description;
 	public static String database_consumer_wizard_ignore_duplicate_rows_label;
@@ -102,6 +104,8 @@ public class DTUIMessages extends NLS {
 	public static String database_producer_page_extract_settings_threads_num_text_tooltip;
 	public static String database_producer_page_extract_settings_new_connection_checkbox_tooltip;
 	public static String database_producer_page_extract_settings_row_count_checkbox_tooltip;
+	public static String database_producer_page_extract_settings_resume_checkbox_label;
+	public static String database_producer_page_extract_settings_resume_checkbox_tooltip;
 	public static String database_producer_page_extract_settings_text_fetch_size_label;
 	public static String database_producer_page_extract_settings_text_fetch_size_tooltip;
 
@@ -115,6 +119,10 @@ public class DTUIMessages extends NLS {
 
 	public static String stream_consumer_page_output_label_maximum_file_size;
 	public static String stream_consumer_page_output_label_show_finish_message;
+	public static String stream_consumer_page_output_checkbox_compress_in_background;
+	public static String stream_consumer_page_output_checkbox_compress_in_background_tip;
+	public static String stream_consumer_page_output_label_output_buffer_size;
+	public static String stream_consumer_page_output_label_output_buffer_size_tip;
 	public static String stream_consumer_page_output_tooltip_output_directory_pattern;
 	public static String stream_consumer_page_output_tooltip_output_file_name_pattern;
 	public static String stream_consumer_page_output_label_results;
@@ -65,6 +65,7 @@ public class DatabaseConsumerPageLoadSettings extends DataTransferPageNodeSettin
     private boolean isDisablingReferentialIntegritySupported;
     private Text multiRowInsertBatch;
     private Button skipBindValues;
+    private Button bindNullValues;
     private Button useBatchCheck;
     private Button ignoreDuplicateRows;
     private Button useBulkLoadCheck;
@@ -247,6 +248,18 @@ public class DatabaseConsumerPageLoadSettings extends DataTransferPageNodeSettin
             } else {
                 settings.setSkipBindValues(false);
             }
+            bindNullValues = UIUtils.createCheckbox(
+                performanceSettings,
+                DTUIMessages.database_consumer_wizard_checkbox_bind_null_values_label,
+                DTUIMessages.database_consumer_wizard_checkbox_bind_null_values_description,
+                settings.isBindNullValues(),
+                4);
+            bindNullValues.addSelectionListener(new SelectionAdapter() {
+                @Override
+                public void widgetSelected(SelectionEvent e) {
+                    settings.setBindNullValues(bindNullValues.getSelection());
+                }
+            });
             useBatchCheck = UIUtils.createCheckbox(
                 performanceSettings,
                 DTUIMessages.database_consumer_wizard_disable_import_batches_label,
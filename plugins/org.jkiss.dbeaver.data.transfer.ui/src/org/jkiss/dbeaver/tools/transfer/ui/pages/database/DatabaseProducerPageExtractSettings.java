@@ -50,6 +50,7 @@ public class DatabaseProducerPageExtractSettings extends DataTransferPageNodeSet
     private Text segmentSizeText;
     private Button newConnectionCheckbox;
     private Button rowCountCheckbox;
+    private Button resumeCheckbox;
     private Button selectedColumnsOnlyCheckbox;
     private Button selectedRowsOnlyCheckbox;
     private Text fetchSizeText;
@@ -138,6 +139,19 @@ public class DatabaseProducerPageExtractSettings extends DataTransferPageNodeSet
                 }
             });
 
+            resumeCheckbox = UIUtils.createCheckbox(
+                generalSettings,
+                DTUIMessages.database_producer_page_extract_settings_resume_checkbox_label,
+                DTUIMessages.database_producer_page_extract_settings_resume_checkbox_tooltip,
+                false,
+                4);
+            resumeCheckbox.addSelectionListener(new SelectionAdapter() {
+                @Override
+                public void widgetSelected(SelectionEvent e) {
+                    getWizard().getSettings().setResumeFromCheckpoint(resumeCheckbox.getSelection());
+                }
+            });
+
             fetchSizeText = UIUtils.createLabelText(generalSettings, DTUIMessages.database_producer_page_extract_settings_text_fetch_size_label, "", SWT.BORDER);
             fetchSizeText.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING));
             ((GridData)fetchSizeText.getLayoutData()).widthHint = UIUtils.getFontHeight(fetchSizeText) * 10;
@@ -229,6 +243,7 @@ public class DatabaseProducerPageExtractSettings extends DataTransferPageNodeSet
         threadsNumText.setText(String.valueOf(getWizard().getSettings().getMaxJobCount()));
         newConnectionCheckbox.setSelection(settings.isOpenNewConnections());
         rowCountCheckbox.setSelection(settings.isQueryRowCount());
+        resumeCheckbox.setSelection(getWizard().getSettings().isResumeFromCheckpoint());
 
         if (segmentSizeText != null) {
             segmentSizeText.setText(String.valueOf(settings.getSegmentSize()));
@@ -170,6 +170,10 @@ public class StreamConsumerPageOutput extends DataTransferPageNodeSettings {
     private Text directoryText;
     private Text fileNameText;
     private Button compressCheckbox;
+    private Combo compressionFormatCombo;
+    private Button compressInBackgroundCheckbox;
+    private Label outputBufferSizeLabel;
+    private Text outputBufferSizeText;
     private Button clipboardCheck;
     private Button singleFileCheck;
     private Button showFinalMessageCheckbox;
@@ -269,6 +273,45 @@ public class StreamConsumerPageOutput extends DataTransferPageNodeSettings {
                     updateControlsEnablement();
                 }
             });
+            compressionFormatCombo = new Combo(generalSettings, SWT.DROP_DOWN | SWT.READ_ONLY);
+            compressionFormatCombo.setToolTipText(DTMessages.data_transfer_wizard_output_label_compression_format);
+            compressionFormatCombo.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING, GridData.VERTICAL_ALIGN_BEGINNING, false, false, 4, 1));
+            for (StreamConsumerSettings.CompressionFormat format : StreamConsumerSettings.CompressionFormat.values()) {
+                compressionFormatCombo.add(format.name());
+            }
+            compressionFormatCombo.addSelectionListener(new SelectionAdapter() {
+                @Override
+                public void widgetSelected(SelectionEvent e) {
+                    settings.setCompressionFormat(StreamConsumerSettings.CompressionFormat.values()[compressionFormatCombo.getSelectionIndex()]);
+                }
+            });
+
+            {
+                Composite outputSettings = UIUtils.createComposite(generalSettings, 3);
+                outputSettings.setLayoutData(new GridData(GridData.BEGINNING, GridData.BEGINNING, true, false, 5, 1));
+
+                compressInBackgroundCheckbox = UIUtils.createCheckbox(
+                    outputSettings,
+                    DTUIMessages.stream_consumer_page_output_checkbox_compress_in_background,
+                    DTUIMessages.stream_consumer_page_output_checkbox_compress_in_background_tip,
+                    false,
+                    1);
+                compressInBackgroundCheckbox.addSelectionListener(new SelectionAdapter() {
+                    @Override
+                    public void widgetSelected(SelectionEvent e) {
+                        settings.setCompressInBackground(compressInBackgroundCheckbox.getSelection());
+                    }
+                });
+                outputBufferSizeLabel = UIUtils.createControlLabel(outputSettings, DTUIMessages.stream_consumer_page_output_label_output_buffer_size);
+                outputBufferSizeText = new Text(outputSettings, SWT.BORDER);
+                outputBufferSizeText.setToolTipText(DTUIMessages.stream_consumer_page_output_label_output_buffer_size_tip);
+                outputBufferSizeText.addVerifyListener(UIUtils.getIntegerVerifyListener(Locale.ENGLISH));
+                outputBufferSizeText.addModifyListener(e ->
+                    settings.setOutputBufferSize(CommonUtils.toInt(outputBufferSizeText.getText(), StreamConsumerSettings.DEFAULT_OUTPUT_BUFFER_SIZE)));
+                gd = new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING);
+                gd.widthHint = UIUtils.getFontHeight(outputBufferSizeText) * 10;
+                outputBufferSizeText.setLayoutData(gd);
+            }
 
             {
                 Composite outFilesSettings = UIUtils.createComposite(generalSettings, 3);
@@ -424,6 +467,10 @@ public class StreamConsumerPageOutput extends DataTransferPageNodeSettings {
         directoryText.setEnabled(!clipboard);
         fileNameText.setEnabled(!clipboard);
         compressCheckbox.setEnabled(!clipboard && compressableByConflictResolution && !singleFileCheck.getSelection());
+        compressionFormatCombo.setEnabled(compressCheckbox.isEnabled() && compressCheckbox.getSelection());
+        compressInBackgroundCheckbox.setEnabled(compressCheckbox.isEnabled() && compressCheckbox.getSelection());
+        outputBufferSizeLabel.setEnabled(!clipboard);
+        outputBufferSizeText.setEnabled(!clipboard);
         splitFilesCheckbox.setEnabled(!clipboard);
         maximumFileSizeLabel.setEnabled(!clipboard && splitFilesCheckbox.getSelection());
         maximumFileSizeText.setEnabled(!clipboard && splitFilesCheckbox.getSelection());
@@ -450,6 +497,9 @@ public class StreamConsumerPageOutput extends DataTransferPageNodeSettings {
         directoryText.setText(CommonUtils.toString(settings.getOutputFolder()));
         fileNameText.setText(CommonUtils.toString(settings.getOutputFilePattern()));
         compressCheckbox.setSelection(settings.isCompressResults());
+        compressionFormatCombo.select(settings.getCompressionFormat().ordinal());
+        compressInBackgroundCheckbox.setSelection(settings.isCompressInBackground());
+        outputBufferSizeText.setText(String.valueOf(settings.getOutputBufferSize()));
         splitFilesCheckbox.setSelection(settings.isSplitOutFiles());
         maximumFileSizeText.setText(String.valueOf(settings.getMaxOutFileSize()));
         encodingCombo.setText(CommonUtils.toString(settings.getOutputEncoding()));
@@ -492,6 +492,7 @@ public class DataTransferWizard extends TaskConfigurationWizard<DataTransferSett
     private Map<String, Object> saveConfiguration(Map<String, Object> config) {
         config.put("maxJobCount", settings.getMaxJobCount());
         config.put("showFinalMessage", settings.isShowFinalMessage());
+        config.put("resumeFromCheckpoint", settings.isResumeFromCheckpoint());
 
         // Save nodes' settings
         boolean isTask = getCurrentTask() != null;
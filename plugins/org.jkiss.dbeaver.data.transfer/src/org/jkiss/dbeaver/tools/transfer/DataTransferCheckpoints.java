@@ -0,0 +1,248 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.task.DBTTask;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Progress of data transfer pipes saved between task runs.
+ * Consumers record the number of source rows which were durably written to the target,
+ * so an interrupted task can continue from the last checkpoint instead of starting over.
+ * Producers record the source row count, a run whose source has a different count can't be resumed.
+ * Checkpoints are removed once all pipes were transferred successfully.
+ */
+public class DataTransferCheckpoints {
+
+    private static final Log log = Log.getLog(DataTransferCheckpoints.class);
+
+    public static final String CHECKPOINTS_FILE_NAME = "checkpoints.json";
+
+    private static final Gson gson = new GsonBuilder()
+        .setPrettyPrinting()
+        .create();
+
+    @Nullable
+    private final Path file;
+    private CheckpointsState state;
+
+    public DataTransferCheckpoints(@Nullable Path file) {
+        this.file = file;
+        this.state = loadState();
+    }
+
+    /**
+     * Returns checkpoints of a saved task or null for temporary tasks which can't be resumed
+     */
+    @Nullable
+    public static DataTransferCheckpoints forTask(@Nullable DBTTask task) {
+        if (task == null || task.isTemporary()) {
+            return null;
+        }
+        return new DataTransferCheckpoints(task.getRunLogFolder().resolve(CHECKPOINTS_FILE_NAME));
+    }
+
+    @NotNull
+    public synchronized Checkpoint getCheckpoint(int pipeIndex, @NotNull String pipeName) {
+        String key = pipeIndex + ":" + pipeName;
+        PipeState pipeState = state.pipes.get(key);
+        if (pipeState == null) {
+            return new Checkpoint(key, 0, 0, false, null, -1);
+        }
+        return new Checkpoint(
+            key,
+            pipeState.rows,
+            pipeState.part,
+            pipeState.completed,
+            pipeState.startTime > 0 ? new Date(pipeState.startTime) : null,
+            pipeState.sourceRows);
+    }
+
+    /**
+     * Removes all checkpoints. Next run will start from the beginning.
+     */
+    public synchronized void clear() {
+        state = new CheckpointsState();
+        if (file != null) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.error("Error deleting data transfer checkpoints", e);
+            }
+        }
+    }
+
+    private synchronized void update(@NotNull String key, long rows, int part, boolean completed, @Nullable Date startTimestamp, long sourceRows) {
+        PipeState pipeState = state.pipes.computeIfAbsent(key, k -> new PipeState());
+        pipeState.rows = rows;
+        pipeState.part = part;
+        pipeState.completed = completed;
+        pipeState.startTime = startTimestamp == null ? 0 : startTimestamp.getTime();
+        pipeState.sourceRows = sourceRows;
+        saveState();
+    }
+
+    @NotNull
+    private CheckpointsState loadState() {
+        if (file == null || !Files.exists(file)) {
+            return new CheckpointsState();
+        }
+        try (Reader reader = Files.newBufferedReader(file)) {
+            CheckpointsState result = gson.fromJson(reader, CheckpointsState.class);
+            if (result != null && result.pipes != null) {
+                return result;
+            }
+        } catch (Exception e) {
+            log.error("Error reading data transfer checkpoints", e);
+        }
+        return new CheckpointsState();
+    }
+
+    private void saveState() {
+        if (file == null) {
+            return;
+        }
+        // Write into a temporary file first, so a crash never leaves a damaged checkpoint
+        Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(file.getParent());
+            try (Writer writer = Files.newBufferedWriter(tempFile)) {
+                writer.write(gson.toJson(state));
+            }
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.error("Error writing data transfer checkpoints", e);
+        }
+    }
+
+    /**
+     * Checkpoint of a single data pipe
+     */
+    public class Checkpoint {
+        private final String key;
+        // Position of the previous run, it doesn't change while the pipe is being transferred
+        private long committedRows;
+        private int partNumber;
+        private boolean completed;
+        private Date startTimestamp;
+        private long sourceRowCount;
+
+        private Checkpoint(@NotNull String key, long committedRows, int partNumber, boolean completed, @Nullable Date startTimestamp, long sourceRowCount) {
+            this.key = key;
+            this.committedRows = committedRows;
+            this.partNumber = partNumber;
+            this.completed = completed;
+            this.startTimestamp = startTimestamp;
+            this.sourceRowCount = sourceRowCount;
+        }
+
+        /**
+         * Number of source rows committed to the target in previous runs
+         */
+        public long getCommittedRows() {
+            return committedRows;
+        }
+
+        /**
+         * Number of output file part which follows the last committed part
+         */
+        public int getPartNumber() {
+            return partNumber;
+        }
+
+        public boolean isCompleted() {
+            return completed;
+        }
+
+        /**
+         * Start time of the run which made this checkpoint. Output file names may depend on it.
+         */
+        @Nullable
+        public Date getStartTimestamp() {
+            return startTimestamp;
+        }
+
+        public void setStartTimestamp(@Nullable Date startTimestamp) {
+            this.startTimestamp = startTimestamp;
+        }
+
+        /**
+         * Number of source rows when the checkpoint was started or -1 if it is unknown
+         */
+        public long getSourceRowCount() {
+            return sourceRowCount;
+        }
+
+        /**
+         * Saves source row count. Rows committed in previous runs are kept.
+         */
+        public void setSourceRowCount(long sourceRowCount) {
+            this.sourceRowCount = sourceRowCount;
+            update(key, committedRows, partNumber, completed, startTimestamp, sourceRowCount);
+        }
+
+        public void commit(long rows) {
+            commit(rows, 0);
+        }
+
+        public void commit(long rows, int part) {
+            update(key, rows, part, false, startTimestamp, sourceRowCount);
+        }
+
+        public void complete() {
+            completed = true;
+            update(key, 0, 0, true, startTimestamp, sourceRowCount);
+        }
+
+        /**
+         * Discards previous progress. Used by pipe nodes which can't continue a partial transfer.
+         */
+        public void reset() {
+            committedRows = 0;
+            partNumber = 0;
+            completed = false;
+            sourceRowCount = -1;
+            update(key, 0, 0, false, startTimestamp, sourceRowCount);
+        }
+    }
+
+    private static class CheckpointsState {
+        Map<String, PipeState> pipes = new LinkedHashMap<>();
+    }
+
+    private static class PipeState {
+        long rows;
+        int part;
+        boolean completed;
+        long startTime;
+        long sourceRows = -1;
+    }
+}
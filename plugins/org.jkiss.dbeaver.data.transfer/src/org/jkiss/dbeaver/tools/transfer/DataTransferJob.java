@@ -17,6 +17,7 @@
 package org.jkiss.dbeaver.tools.transfer;
 
 import org.eclipse.osgi.util.NLS;
+import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.exec.DBCStatistics;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
@@ -78,7 +79,12 @@ public class DataTransferJob implements DBRRunnableWithProgress {
             if (monitor.isCanceled()) {
                 break;
             }
-            DataTransferPipe transferPipe = settings.acquireDataPipe(monitor);
+            DataTransferPipe transferPipe;
+            try {
+                transferPipe = settings.acquireDataPipe(monitor);
+            } catch (DBException e) {
+                throw new InvocationTargetException(e);
+            }
             if (transferPipe == null) {
                 break;
             }
@@ -99,6 +105,12 @@ public class DataTransferJob implements DBRRunnableWithProgress {
     {
         IDataTransferProducer producer = transferPipe.getProducer();
         IDataTransferConsumer consumer = transferPipe.getConsumer();
+        DataTransferCheckpoints.Checkpoint checkpoint = transferPipe.getCheckpoint();
+        if (checkpoint != null && checkpoint.isCompleted()) {
+            // Transferred by one of the previous runs
+            log.debug("Skip completed transfer from " + producer.getObjectName() + " to " + consumer.getObjectName());
+            return true;
+        }
 
         monitor.beginTask(
             NLS.bind(DTMessages.data_transfer_wizard_job_container_name,
@@ -116,6 +128,12 @@ public class DataTransferJob implements DBRRunnableWithProgress {
             totalStatistics.accumulate(consumer.getStatistics());
 
             consumer.finishTransfer(monitor, false);
+            if (checkpoint != null && !monitor.isCanceled()) {
+                checkpoint.complete();
+            }
+            if (!monitor.isCanceled() && !consumer.hasSkippedRows()) {
+                producer.transferCompleted();
+            }
             return true;
         } catch (Exception e) {
             consumer.finishTransfer(monitor, e, false);
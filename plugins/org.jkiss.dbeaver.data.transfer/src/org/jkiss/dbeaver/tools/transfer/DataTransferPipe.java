@@ -16,7 +16,9 @@
  */
 package org.jkiss.dbeaver.tools.transfer;
 
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.tools.transfer.database.DatabaseTransferProducer;
 import org.jkiss.dbeaver.tools.transfer.registry.DataTransferProcessorDescriptor;
 
 import java.util.Date;
@@ -28,6 +30,7 @@ public class DataTransferPipe {
 
     private IDataTransferProducer producer;
     private IDataTransferConsumer consumer;
+    private DataTransferCheckpoints.Checkpoint checkpoint;
 
     public DataTransferPipe(IDataTransferProducer producer, IDataTransferConsumer consumer)
     {
@@ -55,6 +58,14 @@ public class DataTransferPipe {
         this.consumer = consumer;
     }
 
+    /**
+     * Checkpoint of this pipe or null if transfer progress isn't saved
+     */
+    @Nullable
+    public DataTransferCheckpoints.Checkpoint getCheckpoint() {
+        return checkpoint;
+    }
+
     public void initPipe(DataTransferSettings settings, int pipeIndex, int totalPipes) throws DBException {
         if (consumer == null || producer == null) {
             throw new DBException("Empty pipe");
@@ -69,6 +80,23 @@ public class DataTransferPipe {
         parameters.orderNumber = pipeIndex;
         parameters.totalConsumers = totalPipes;
         parameters.startTimestamp = new Date();
+        DataTransferCheckpoints checkpoints = settings.getCheckpoints();
+        if (checkpoints != null) {
+            checkpoint = checkpoints.getCheckpoint(pipeIndex, producer.getObjectName());
+            if (producer instanceof DatabaseTransferProducer) {
+                ((DatabaseTransferProducer) producer).setCheckpoint(checkpoint);
+            } else if (checkpoint.getCommittedRows() > 0) {
+                // Only database producer can skip already transferred rows
+                checkpoint.reset();
+            }
+            if (checkpoint.getCommittedRows() > 0 && checkpoint.getStartTimestamp() != null) {
+                // Keep names of output files made by the interrupted run
+                parameters.startTimestamp = checkpoint.getStartTimestamp();
+            } else {
+                checkpoint.setStartTimestamp(parameters.startTimestamp);
+            }
+            parameters.checkpoint = checkpoint;
+        }
         consumer.initTransfer(
             producer.getDatabaseObject(),
             consumerSettings,
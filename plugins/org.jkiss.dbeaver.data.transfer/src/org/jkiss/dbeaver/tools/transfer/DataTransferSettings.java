@@ -80,6 +80,8 @@ public class DataTransferSettings implements DBTTaskSettings<DBPObject> {
     private transient int curPipeNum = 0;
 
     private boolean showFinalMessage = true;
+    private boolean resumeFromCheckpoint;
+    private transient DataTransferCheckpoints checkpoints;
     // Hacky flag. Says that pipe selection is frozen.
     // Makes sense for special case like multi-file import
     private boolean pipeChangeRestricted;
@@ -262,6 +264,7 @@ public class DataTransferSettings implements DBTTaskSettings<DBPObject> {
     public void loadSettings(Map<String, Object> config) {
         this.setMaxJobCount(CommonUtils.toInt(config.get("maxJobCount"), DataTransferSettings.DEFAULT_THREADS_NUM));
         this.setShowFinalMessage(CommonUtils.getBoolean(config.get("showFinalMessage"), this.isShowFinalMessage()));
+        this.setResumeFromCheckpoint(CommonUtils.getBoolean(config.get("resumeFromCheckpoint"), this.isResumeFromCheckpoint()));
 
         DataTransferNodeDescriptor savedConsumer = null, savedProducer = null, processorNode = null;
         {
@@ -535,7 +538,11 @@ public class DataTransferSettings implements DBTTaskSettings<DBPObject> {
         CommonUtils.shiftRight(dataPipes, pipe);
     }
 
-    public synchronized DataTransferPipe acquireDataPipe(DBRProgressMonitor monitor) {
+    /**
+     * Returns next pipe to process or null if all pipes were acquired.
+     * At the end of transfer the last pipe's consumer is finished, its errors (e.g. failed output file compression) are thrown.
+     */
+    public synchronized DataTransferPipe acquireDataPipe(DBRProgressMonitor monitor) throws DBException {
         if (curPipeNum >= dataPipes.size()) {
             // End of transfer
             // Signal last pipe about it
@@ -650,6 +657,26 @@ public class DataTransferSettings implements DBTTaskSettings<DBPObject> {
         this.showFinalMessage = showFinalMessage;
     }
 
+    /**
+     * Whether task saves progress after each commit and continues from it after failure
+     */
+    public boolean isResumeFromCheckpoint() {
+        return resumeFromCheckpoint;
+    }
+
+    public void setResumeFromCheckpoint(boolean resumeFromCheckpoint) {
+        this.resumeFromCheckpoint = resumeFromCheckpoint;
+    }
+
+    @Nullable
+    public DataTransferCheckpoints getCheckpoints() {
+        return checkpoints;
+    }
+
+    public void setCheckpoints(@Nullable DataTransferCheckpoints checkpoints) {
+        this.checkpoints = checkpoints;
+    }
+
     public static void saveNodesLocation(DBRRunnableContext runnableContext, DBTTask task, Map<String, Object> state, Collection<IDataTransferNode<?>> nodes, String nodeType) {
         if (nodes != null) {
             List<Map<String, Object>> inputObjects = new ArrayList<>();
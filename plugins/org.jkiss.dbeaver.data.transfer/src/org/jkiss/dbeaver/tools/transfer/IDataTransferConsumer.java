@@ -38,6 +38,8 @@ public interface IDataTransferConsumer<SETTINGS extends IDataTransferSettings, P
         public boolean isBinary;
         public boolean isHTML;
         public Date startTimestamp;
+        // Progress of the previous run. Null if transfer can't be resumed.
+        public DataTransferCheckpoints.Checkpoint checkpoint;
 
         public TransferParameters() {
         }
@@ -56,8 +58,9 @@ public interface IDataTransferConsumer<SETTINGS extends IDataTransferSettings, P
      * Finishes this transfer
      * @param monitor monitor
      * @param last called in the very end of all transfers
+     * @throws DBException if the transferred data can't be finalized (e.g. output file can't be written)
      */
-    void finishTransfer(DBRProgressMonitor monitor, boolean last);
+    void finishTransfer(DBRProgressMonitor monitor, boolean last) throws DBException;
 
     /**
      * Finishes this transfer
@@ -65,11 +68,19 @@ public interface IDataTransferConsumer<SETTINGS extends IDataTransferSettings, P
      * @param monitor   monitor
      * @param exception an exception caught during transfer, or {@code null} if transfer was successful
      * @param last      called in the very end of all transfers
+     * @throws DBException if the transferred data can't be finalized
      */
-    default void finishTransfer(@NotNull DBRProgressMonitor monitor, @Nullable Exception exception, boolean last) {
+    default void finishTransfer(@NotNull DBRProgressMonitor monitor, @Nullable Exception exception, boolean last) throws DBException {
         finishTransfer(monitor, last);
     }
 
+    /**
+     * Checks whether some rows were not stored in the target because of ignored errors
+     */
+    default boolean hasSkippedRows() {
+        return false;
+    }
+
     // Target object. May be null or target database object (table)
     @Nullable
     Object getTargetObject();
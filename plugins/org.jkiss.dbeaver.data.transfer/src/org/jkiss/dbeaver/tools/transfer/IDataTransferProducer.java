@@ -45,6 +45,13 @@ public interface IDataTransferProducer<SETTINGS extends IDataTransferSettings> e
         @Nullable DBTTask task)
         throws DBException;
 
+    /**
+     * Called after all data was transferred and stored by the consumer without errors.
+     * Producer may save its state here (e.g. position for the next incremental transfer).
+     */
+    default void transferCompleted() {
+    }
+
     @NotNull
     default DBCStatistics getStatistics() {
         return new DBCStatistics();
@@ -16,6 +16,7 @@
  */
 package org.jkiss.dbeaver.tools.transfer.database;
 
+import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
@@ -25,6 +26,9 @@ import org.jkiss.dbeaver.model.navigator.DBNDataSource;
 import org.jkiss.dbeaver.model.navigator.DBNDatabaseNode;
 import org.jkiss.dbeaver.model.navigator.DBNNode;
 import org.jkiss.dbeaver.model.runtime.DBRRunnableContext;
+import org.jkiss.dbeaver.model.sql.registry.SQLDialectDescriptor;
+import org.jkiss.dbeaver.model.sql.registry.SQLDialectRegistry;
+import org.jkiss.dbeaver.model.sql.registry.SQLInsertReplaceMethodDescriptor;
 import org.jkiss.dbeaver.model.struct.DBSDataContainer;
 import org.jkiss.dbeaver.model.struct.DBSDataManipulator;
 import org.jkiss.dbeaver.model.struct.DBSObject;
@@ -59,11 +63,16 @@ public class DatabaseConsumerSettings implements IDataTransferSettings {
     private boolean openTableOnFinish = true;
     private boolean useMultiRowInsert;
     private int multiRowInsertBatch = 500;
+    private boolean adaptiveBatchSize;
+    private int maxCommitRows = 100000;
+    private int maxStatementBytes = 1024 * 1024;
     private boolean skipBindValues;
+    private boolean bindNullValues;
     private boolean disableUsingBatches = false;
     private boolean ignoreDuplicateRows;
     private boolean useBulkLoad = false;
     private String onDuplicateKeyInsertMethodId;
+    private boolean upsertExistingRows;
     private boolean disableReferentialIntegrity;
 
     private transient Map<String, Object> dialogSettings;
@@ -174,6 +183,19 @@ public class DatabaseConsumerSettings implements IDataTransferSettings {
         this.skipBindValues = skipBindValues;
     }
 
+    /**
+     * Bind null values instead of omitting their columns from the insert statement.
+     * Rows with different nulls may then be inserted with the same statement.
+     * Nulls in columns with default values are still omitted.
+     */
+    public boolean isBindNullValues() {
+        return bindNullValues;
+    }
+
+    public void setBindNullValues(boolean bindNullValues) {
+        this.bindNullValues = bindNullValues;
+    }
+
     public boolean isDisableUsingBatches() {
         return disableUsingBatches;
     }
@@ -198,6 +220,40 @@ public class DatabaseConsumerSettings implements IDataTransferSettings {
         this.onDuplicateKeyInsertMethodId = onDuplicateKeyInsertMethodId;
     }
 
+    /**
+     * Update rows which already exist in the target (e.g. in incremental transfers).
+     * If no duplicate key method is set explicitly then the upsert method of the target dialect is used.
+     */
+    public boolean isUpsertExistingRows() {
+        return upsertExistingRows;
+    }
+
+    public void setUpsertExistingRows(boolean upsertExistingRows) {
+        this.upsertExistingRows = upsertExistingRows;
+    }
+
+    /**
+     * Returns id of the insert method used for the target data source or null for plain inserts
+     */
+    @Nullable
+    public String getInsertMethodId(@NotNull DBPDataSource targetDataSource) {
+        if (!CommonUtils.isEmpty(onDuplicateKeyInsertMethodId) && !onDuplicateKeyInsertMethodId.equals(DBSDataManipulator.INSERT_NONE_METHOD)) {
+            return onDuplicateKeyInsertMethodId;
+        }
+        if (upsertExistingRows) {
+            SQLDialectDescriptor dialectDescriptor = SQLDialectRegistry.getInstance().getDialect(targetDataSource.getSQLDialect().getDialectId());
+            if (dialectDescriptor != null) {
+                for (SQLInsertReplaceMethodDescriptor method : CommonUtils.safeCollection(dialectDescriptor.getSupportedInsertReplaceMethodsDescriptors())) {
+                    if (method.isUpsert()) {
+                        return method.getId();
+                    }
+                }
+            }
+            log.warn("Upsert is not supported by " + targetDataSource.getContainer().getName() + ". Rows will be inserted");
+        }
+        return null;
+    }
+
     public int getCommitAfterRows() {
         return commitAfterRows;
     }
@@ -206,6 +262,40 @@ public class DatabaseConsumerSettings implements IDataTransferSettings {
         this.commitAfterRows = commitAfterRows;
     }
 
+    /**
+     * Tune commit and multi-row insert batch sizes during transfer.
+     * Configured sizes are used as initial values.
+     */
+    public boolean isAdaptiveBatchSize() {
+        return adaptiveBatchSize;
+    }
+
+    public void setAdaptiveBatchSize(boolean adaptiveBatchSize) {
+        this.adaptiveBatchSize = adaptiveBatchSize;
+    }
+
+    /**
+     * Maximum number of rows in a single transaction for adaptive batch size
+     */
+    public int getMaxCommitRows() {
+        return maxCommitRows;
+    }
+
+    public void setMaxCommitRows(int maxCommitRows) {
+        this.maxCommitRows = maxCommitRows;
+    }
+
+    /**
+     * Maximum approximate size of a single multi-row insert statement for adaptive batch size
+     */
+    public int getMaxStatementBytes() {
+        return maxStatementBytes;
+    }
+
+    public void setMaxStatementBytes(int maxStatementBytes) {
+        this.maxStatementBytes = maxStatementBytes;
+    }
+
     public boolean isUseBulkLoad() {
         return useBulkLoad;
     }
@@ -234,10 +324,15 @@ public class DatabaseConsumerSettings implements IDataTransferSettings {
         openNewConnections = CommonUtils.getBoolean(settings.get("openNewConnections"), openNewConnections);
         useTransactions = CommonUtils.getBoolean(settings.get("useTransactions"), useTransactions);
         onDuplicateKeyInsertMethodId = CommonUtils.toString(settings.get("onDuplicateKeyMethod"), onDuplicateKeyInsertMethodId);
+        upsertExistingRows = CommonUtils.getBoolean(settings.get("upsertExistingRows"), upsertExistingRows);
         commitAfterRows = CommonUtils.toInt(settings.get("commitAfterRows"), commitAfterRows);
         useMultiRowInsert = CommonUtils.getBoolean(settings.get("useMultiRowInsert"), useMultiRowInsert);
         multiRowInsertBatch = CommonUtils.toInt(settings.get("multiRowInsertBatch"), multiRowInsertBatch);
+        adaptiveBatchSize = CommonUtils.getBoolean(settings.get("adaptiveBatchSize"), adaptiveBatchSize);
+        maxCommitRows = CommonUtils.toInt(settings.get("maxCommitRows"), maxCommitRows);
+        maxStatementBytes = CommonUtils.toInt(settings.get("maxStatementBytes"), maxStatementBytes);
         skipBindValues = CommonUtils.getBoolean(settings.get("skipBindValues"), skipBindValues);
+        bindNullValues = CommonUtils.getBoolean(settings.get("bindNullValues"), bindNullValues);
         disableUsingBatches = CommonUtils.getBoolean(settings.get("disableUsingBatches"), disableUsingBatches);
         ignoreDuplicateRows = CommonUtils.getBoolean(settings.get("ignoreDuplicateRows"), ignoreDuplicateRows);
         transferAutoGeneratedColumns = CommonUtils.getBoolean(settings.get("transferAutoGeneratedColumns"), transferAutoGeneratedColumns);
@@ -307,10 +402,15 @@ public class DatabaseConsumerSettings implements IDataTransferSettings {
         settings.put("commitAfterRows", commitAfterRows);
         settings.put("useMultiRowInsert", useMultiRowInsert);
         settings.put("multiRowInsertBatch", multiRowInsertBatch);
+        settings.put("adaptiveBatchSize", adaptiveBatchSize);
+        settings.put("maxCommitRows", maxCommitRows);
+        settings.put("maxStatementBytes", maxStatementBytes);
         settings.put("skipBindValues", skipBindValues);
+        settings.put("bindNullValues", bindNullValues);
         settings.put("disableUsingBatches", disableUsingBatches);
         settings.put("ignoreDuplicateRows", ignoreDuplicateRows);
         settings.put("onDuplicateKeyMethod", onDuplicateKeyInsertMethodId);
+        settings.put("upsertExistingRows", upsertExistingRows);
         settings.put("transferAutoGeneratedColumns", transferAutoGeneratedColumns);
         settings.put("disableReferentialIntegrity", disableReferentialIntegrity);
         settings.put("useBulkLoad", useBulkLoad);
@@ -342,10 +442,13 @@ public class DatabaseConsumerSettings implements IDataTransferSettings {
         }
         DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_use_multi_insert, useMultiRowInsert);
         DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_multi_insert_batch, multiRowInsertBatch);
+        DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_adaptive_batch_size, adaptiveBatchSize);
         DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_skip_bind_values, skipBindValues);
+        DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_bind_null_values, bindNullValues);
         DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_disable_batches, disableUsingBatches);
         DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_ignore_duplicate_rows, ignoreDuplicateRows);
         DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_on_duplicate_key_method_label, onDuplicateKeyInsertMethodId);
+        DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_upsert_existing_rows, upsertExistingRows);
         DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_transfer_auto_generated_columns, transferAutoGeneratedColumns);
         DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_disable_referential_integrity, disableReferentialIntegrity);
         DTUtils.addSummary(summary, DTMessages.database_consumer_settings_option_use_bulk_load, useBulkLoad);
@@ -16,6 +16,9 @@
  */
 package org.jkiss.dbeaver.tools.transfer.database;
 
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.data.json.JSONUtils;
 import org.jkiss.dbeaver.model.runtime.DBRRunnableContext;
 import org.jkiss.dbeaver.tools.transfer.DTUtils;
 import org.jkiss.dbeaver.tools.transfer.DataTransferSettings;
@@ -23,6 +26,7 @@ import org.jkiss.dbeaver.tools.transfer.IDataTransferSettings;
 import org.jkiss.dbeaver.tools.transfer.internal.DTMessages;
 import org.jkiss.utils.CommonUtils;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 /**
@@ -47,6 +51,13 @@ public class DatabaseProducerSettings implements IDataTransferSettings {
     private ExtractType extractType = ExtractType.SINGLE_QUERY;
     private int fetchSize = DEFAULT_FETCH_SIZE;
 
+    private boolean incrementalTransfer;
+    // Watermark column of each source table. Key is full id of the table.
+    private final Map<String, String> watermarkColumns = new LinkedHashMap<>();
+    // Watermark reached by the last successful run (SQL literal of the source database)
+    private final Map<String, String> watermarkValues = new LinkedHashMap<>();
+    private transient boolean watermarksChanged;
+
     public DatabaseProducerSettings() {
     }
 
@@ -108,6 +119,53 @@ public class DatabaseProducerSettings implements IDataTransferSettings {
         this.extractType = extractType;
     }
 
+    /**
+     * Incremental transfer reads only rows with watermark column value greater than the one reached by the previous run
+     */
+    public boolean isIncrementalTransfer() {
+        return incrementalTransfer;
+    }
+
+    public void setIncrementalTransfer(boolean incrementalTransfer) {
+        this.incrementalTransfer = incrementalTransfer;
+    }
+
+    @Nullable
+    public String getWatermarkColumn(@NotNull String tableId) {
+        return watermarkColumns.get(tableId);
+    }
+
+    public void setWatermarkColumn(@NotNull String tableId, @Nullable String columnName) {
+        if (CommonUtils.isEmpty(columnName)) {
+            watermarkColumns.remove(tableId);
+        } else {
+            watermarkColumns.put(tableId, columnName);
+        }
+    }
+
+    @Nullable
+    public synchronized String getWatermarkValue(@NotNull String tableId) {
+        return watermarkValues.get(tableId);
+    }
+
+    public synchronized void setWatermarkValue(@NotNull String tableId, @NotNull String value) {
+        if (!value.equals(watermarkValues.put(tableId, value))) {
+            watermarksChanged = true;
+        }
+    }
+
+    /**
+     * Checks whether some watermark was moved by the transfer and must be saved in the task
+     */
+    public synchronized boolean isWatermarksChanged() {
+        return watermarksChanged;
+    }
+
+    public synchronized void saveWatermarks(@NotNull Map<String, Object> settings) {
+        settings.put("watermarkValues", new LinkedHashMap<>(watermarkValues));
+        watermarksChanged = false;
+    }
+
     @Override
     public void loadSettings(DBRRunnableContext runnableContext, DataTransferSettings dataTransferSettings, Map<String, Object> settings) {
         extractType = CommonUtils.valueOf(ExtractType.class, (String) settings.get("extractType"), extractType);
@@ -117,6 +175,18 @@ public class DatabaseProducerSettings implements IDataTransferSettings {
         queryRowCount = CommonUtils.toBoolean(settings.get("queryRowCount"));
         selectedColumnsOnly = CommonUtils.toBoolean(settings.get("selectedColumnsOnly"));
         selectedRowsOnly = CommonUtils.toBoolean(settings.get("selectedRowsOnly"));
+        incrementalTransfer = CommonUtils.toBoolean(settings.get("incrementalTransfer"));
+        watermarkColumns.clear();
+        JSONUtils.getObject(settings, "watermarkColumns").forEach((key, value) -> setWatermarkColumn(key, CommonUtils.toString(value)));
+        synchronized (this) {
+            watermarkValues.clear();
+            JSONUtils.getObject(settings, "watermarkValues").forEach((key, value) -> {
+                if (value != null) {
+                    watermarkValues.put(key, CommonUtils.toString(value));
+                }
+            });
+            watermarksChanged = false;
+        }
     }
 
     @Override
@@ -128,6 +198,9 @@ public class DatabaseProducerSettings implements IDataTransferSettings {
         settings.put("queryRowCount", queryRowCount);
         settings.put("selectedColumnsOnly", selectedColumnsOnly);
         settings.put("selectedRowsOnly", selectedRowsOnly);
+        settings.put("incrementalTransfer", incrementalTransfer);
+        settings.put("watermarkColumns", new LinkedHashMap<>(watermarkColumns));
+        saveWatermarks(settings);
     }
 
     @Override
@@ -139,6 +212,7 @@ public class DatabaseProducerSettings implements IDataTransferSettings {
         DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_checkbox_select_row_count, queryRowCount);
         DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_checkbox_selected_rows_only, selectedRowsOnly);
         DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_checkbox_selected_columns_only, selectedColumnsOnly);
+        DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_checkbox_incremental_transfer, incrementalTransfer);
 
         return summary.toString();
     }
@@ -44,6 +44,7 @@ import org.jkiss.dbeaver.model.struct.rdb.DBSManipulationType;
 import org.jkiss.dbeaver.model.struct.rdb.DBSSchema;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
 import org.jkiss.dbeaver.runtime.ui.DBPPlatformUI;
+import org.jkiss.dbeaver.tools.transfer.DataTransferCheckpoints;
 import org.jkiss.dbeaver.tools.transfer.IDataTransferAttributeTransformer;
 import org.jkiss.dbeaver.tools.transfer.IDataTransferConsumer;
 import org.jkiss.dbeaver.tools.transfer.IDataTransferNodePrimary;
@@ -72,8 +73,17 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
     private DBCSession targetSession;
     private DBSDataManipulator.ExecuteBatch executeBatch;
     private DBSDataBulkLoader.BulkLoadManager bulkLoadManager;
+    private String insertMethodId;
     private long rowsExported = 0;
     private boolean ignoreErrors = false;
+    private boolean skippedRows;
+    private DataTransferCheckpoints.Checkpoint checkpoint;
+    // Rows committed by the previous run of the task. Producer skips them.
+    private long checkpointOffset;
+    private DatabaseTransferTuner tuner;
+    private long lastFlushRows;
+    private long lastFlushTime;
+    private long flushBytes;
 
     private List<DBSAttributeBase> targetAttributes;
     private boolean useIsolatedConnection;
@@ -268,8 +278,11 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
         options.put(DBSDataManipulator.OPTION_USE_MULTI_INSERT, settings.isUseMultiRowInsert());
         options.put(DBSDataManipulator.OPTION_SKIP_BIND_VALUES, settings.isSkipBindValues());
 
+        insertMethodId = settings.getInsertMethodId(targetContext.getDataSource());
+
         if (!isPreview && targetObject != null) {
-            if (settings.isUseBulkLoad()) {
+            // Bulk loaders can't update existing rows
+            if (settings.isUseBulkLoad() && !settings.isUpsertExistingRows()) {
                 DBSDataBulkLoader bulkLoader = DBUtils.getAdapter(DBSDataBulkLoader.class, targetContext.getDataSource());
                 if (bulkLoader != null) {
                     try {
@@ -291,6 +304,17 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
                     executionSource,
                     options);
             }
+            if (settings.isAdaptiveBatchSize() && !settings.isIgnoreDuplicateRows()) {
+                tuner = new DatabaseTransferTuner(
+                    settings.getCommitAfterRows(),
+                    settings.getMultiRowInsertBatch(),
+                    settings.getMaxCommitRows(),
+                    settings.getMaxStatementBytes(),
+                    bulkLoadManager == null && settings.isUseMultiRowInsert() && !settings.isDisableUsingBatches());
+                lastFlushRows = rowsExported;
+                lastFlushTime = System.nanoTime();
+                flushBytes = 0;
+            }
         } else {
             previewRows = new ArrayList<>();
             executeBatch = new PreviewBatch();
@@ -371,6 +395,9 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
             }
         }
 
+        if (tuner != null) {
+            flushBytes += DatabaseTransferTuner.estimateRowSize(rowValues);
+        }
         if (bulkLoadManager != null) {
             bulkLoadManager.addRow(targetSession, rowValues);
         } else {
@@ -389,7 +416,9 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
             return;
         }
         boolean ignoreDuplicateRowsErrors = settings.isIgnoreDuplicateRows();
-        boolean needCommit = force || ignoreDuplicateRowsErrors || ((rowsExported % settings.getCommitAfterRows()) == 0);
+        boolean needCommit = force || ignoreDuplicateRowsErrors || (tuner != null ?
+            rowsExported - lastFlushRows >= tuner.getCommitRows() :
+            (rowsExported % settings.getCommitAfterRows()) == 0);
         // Do commit action in these cases:
         // 1. This is the end of the insert operation (fetchEnd)
         // 2. ignoreDuplicateRowsErrors option is enabled - that means, what we do not have batches, only single rows, and we can loose inserted rows without commit in some databases like PG
@@ -398,6 +427,10 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
         if (bulkLoadManager != null) {
             if (needCommit) {
                 bulkLoadManager.flushRows(targetSession);
+                commitChanges();
+                // Rows which are still buffered by the loader will be loaded again after restart
+                saveCheckpoint(bulkLoadManager.getPendingRowCount());
+                updateTuner(force);
             }
             return;
         } else {
@@ -409,22 +442,19 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
 
                 Map<String, Object> options = new HashMap<>();
                 options.put(DBSDataManipulator.OPTION_DISABLE_BATCHES, disableUsingBatches);
-                options.put(DBSDataManipulator.OPTION_MULTI_INSERT_BATCH_SIZE, settings.getMultiRowInsertBatch());
+                options.put(DBSDataManipulator.OPTION_MULTI_INSERT_BATCH_SIZE, tuner != null ? tuner.getBatchRows() : settings.getMultiRowInsertBatch());
                 options.put(DBSDataManipulator.OPTION_SKIP_BIND_VALUES, settings.isSkipBindValues());
-
-                boolean onDuplicateKeyCaseOn = settings.getOnDuplicateKeyInsertMethodId() != null &&
-                    !settings.getOnDuplicateKeyInsertMethodId().equals(DBSDataManipulator.INSERT_NONE_METHOD);
-                if (onDuplicateKeyCaseOn) {
-                    String insertMethodId = settings.getOnDuplicateKeyInsertMethodId();
-                    if (!CommonUtils.isEmpty(insertMethodId)) {
-                        SQLInsertReplaceMethodDescriptor insertReplaceMethod = SQLInsertReplaceMethodRegistry.getInstance().getInsertMethod(insertMethodId);
-                        if (insertReplaceMethod != null) {
-                            try {
-                                DBDInsertReplaceMethod insertMethod = insertReplaceMethod.createInsertMethod();
-                                options.put(DBSDataManipulator.OPTION_INSERT_REPLACE_METHOD, insertMethod);
-                            } catch (DBException e) {
-                                log.debug("Can't get insert replace method", e);
-                            }
+                // Keep the same statement in batch regardless of null values in sparse rows
+                options.put(DBSDataManipulator.OPTION_BIND_NULL_VALUES, settings.isBindNullValues() && !disableUsingBatches);
+
+                if (insertMethodId != null) {
+                    SQLInsertReplaceMethodDescriptor insertReplaceMethod = SQLInsertReplaceMethodRegistry.getInstance().getInsertMethod(insertMethodId);
+                    if (insertReplaceMethod != null) {
+                        try {
+                            DBDInsertReplaceMethod insertMethod = insertReplaceMethod.createInsertMethod();
+                            options.put(DBSDataManipulator.OPTION_INSERT_REPLACE_METHOD, insertMethod);
+                        } catch (DBException e) {
+                            log.debug("Can't get insert replace method", e);
                         }
                     }
                 }
@@ -449,6 +479,7 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
                         }
                         log.error("Error inserting row", e);
                         if (ignoreErrors) {
+                            skippedRows = true;
                             break;
                         }
                         String message;
@@ -465,10 +496,12 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
                                 retryInsert = true;
                                 break;
                             case IGNORE:
+                                skippedRows = true;
                                 retryInsert = false;
                                 break;
                             case IGNORE_ALL:
                                 ignoreErrors = true;
+                                skippedRows = true;
                                 retryInsert = false;
                                 break;
                         }
@@ -476,7 +509,15 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
                 } while (retryInsert);
             }
         }
-        if (settings.isUseTransactions() && needCommit && !targetSession.getProgressMonitor().isCanceled()) {
+        if (needCommit) {
+            commitChanges();
+            saveCheckpoint(0);
+            updateTuner(force);
+        }
+    }
+
+    private void commitChanges() throws DBCException {
+        if (settings.isUseTransactions() && !targetSession.getProgressMonitor().isCanceled()) {
             DBCTransactionManager txnManager = DBUtils.getTransactionManager(targetSession.getExecutionContext());
             if (txnManager != null && txnManager.isSupportsTransactions() && !txnManager.isAutoCommit()) {
                 targetSession.getProgressMonitor().subTask("Commit changes");
@@ -485,6 +526,34 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
         }
     }
 
+    private void updateTuner(boolean force) {
+        if (tuner == null) {
+            return;
+        }
+        long currentTime = System.nanoTime();
+        if (!force) {
+            // The last flush is usually incomplete and doesn't matter anyway
+            tuner.onFlush(rowsExported - lastFlushRows, flushBytes, currentTime - lastFlushTime);
+            if (log.isDebugEnabled()) {
+                log.debug("Adaptive batch size for '" + getObjectName() + "': " + tuner);
+            }
+        }
+        lastFlushRows = rowsExported;
+        lastFlushTime = currentTime;
+        flushBytes = 0;
+    }
+
+    /**
+     * Saves position of the last committed row. Must be called after the commit only.
+     *
+     * @param pendingRows number of the last inserted rows which are not stored in the target yet
+     */
+    private void saveCheckpoint(long pendingRows) {
+        if (checkpoint != null && !targetSession.getProgressMonitor().isCanceled()) {
+            checkpoint.commit(checkpointOffset + rowsExported - pendingRows);
+        }
+    }
+
     @Override
     public void fetchEnd(DBCSession session, DBCResultSet resultSet) throws DBCException {
         try {
@@ -493,10 +562,17 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
             }
             if (bulkLoadManager != null) {
                 bulkLoadManager.finishBulkLoad(targetSession);
+                statistics.accumulate(bulkLoadManager.getStatistics());
             } else if (executeBatch != null) {
                 executeBatch.close();
                 executeBatch = null;
             }
+            if (tuner != null) {
+                log.info("Adaptive batch size for '" + getObjectName() + "': " + tuner);
+                statistics.addInfo("Commit after rows", tuner.getCommitRows());
+                statistics.addInfo("Multi-row insert batch size", tuner.getBatchRows());
+                statistics.addMessage("Adaptive batch size for " + getObjectName() + ": " + tuner);
+            }
         } finally {
             DBSDataManipulator targetObject = getTargetObject();
             if (!isPreview && targetObject instanceof DBSDataManipulatorExt) {
@@ -599,6 +675,8 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
     public void initTransfer(DBSObject sourceObject, DatabaseConsumerSettings settings, TransferParameters parameters, IDataTransferProcessor processor, Map<String, Object> processorProperties) {
         this.settings = settings;
         this.containerMapping = settings.getDataMapping((DBSDataContainer) sourceObject);
+        this.checkpoint = parameters.checkpoint;
+        this.checkpointOffset = checkpoint == null ? 0 : checkpoint.getCommittedRows();
     }
 
     @Override
@@ -696,6 +774,11 @@ public class DatabaseTransferConsumer implements IDataTransferConsumer<DatabaseC
         }
     }
 
+    @Override
+    public boolean hasSkippedRows() {
+        return skippedRows;
+    }
+
     @Override
     public void finishTransfer(DBRProgressMonitor monitor, boolean last) {
         if (last) {
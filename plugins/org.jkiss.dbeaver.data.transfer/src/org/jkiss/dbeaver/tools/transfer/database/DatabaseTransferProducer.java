@@ -24,7 +24,10 @@ import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.*;
 import org.jkiss.dbeaver.model.app.DBPProject;
+import org.jkiss.dbeaver.model.data.DBDAttributeConstraint;
 import org.jkiss.dbeaver.model.data.DBDDataFilter;
+import org.jkiss.dbeaver.model.data.DBDDisplayFormat;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
 import org.jkiss.dbeaver.model.exec.*;
 import org.jkiss.dbeaver.model.impl.AbstractExecutionSource;
 import org.jkiss.dbeaver.model.impl.DataSourceContextProvider;
@@ -35,24 +38,30 @@ import org.jkiss.dbeaver.model.sql.SQLQuery;
 import org.jkiss.dbeaver.model.sql.SQLQueryContainer;
 import org.jkiss.dbeaver.model.sql.SQLScriptContext;
 import org.jkiss.dbeaver.model.sql.SQLScriptElement;
+import org.jkiss.dbeaver.model.sql.SQLUtils;
 import org.jkiss.dbeaver.model.sql.data.SQLQueryDataContainer;
+import org.jkiss.dbeaver.model.struct.DBSDataBulkUnloader;
 import org.jkiss.dbeaver.model.struct.DBSDataContainer;
 import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
 import org.jkiss.dbeaver.model.task.DBTTask;
 import org.jkiss.dbeaver.model.task.DBTaskUtils;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
 import org.jkiss.dbeaver.runtime.serialize.DBPObjectSerializer;
+import org.jkiss.dbeaver.tools.transfer.DataTransferCheckpoints;
 import org.jkiss.dbeaver.tools.transfer.IDataTransferConsumer;
 import org.jkiss.dbeaver.tools.transfer.IDataTransferNodePrimary;
 import org.jkiss.dbeaver.tools.transfer.IDataTransferProcessor;
 import org.jkiss.dbeaver.tools.transfer.IDataTransferProducer;
 import org.jkiss.dbeaver.tools.transfer.internal.DTMessages;
+import org.jkiss.dbeaver.tools.transfer.stream.StreamTransferConsumer;
 import org.jkiss.dbeaver.utils.GeneralUtils;
 import org.jkiss.utils.CommonUtils;
 
 import java.io.PrintWriter;
 import java.lang.reflect.InvocationTargetException;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -72,6 +81,13 @@ public class DatabaseTransferProducer implements IDataTransferProducer<DatabaseP
     private String defaultCatalog;
     @Nullable
     private String defaultSchema;
+    @Nullable
+    private DataTransferCheckpoints.Checkpoint checkpoint;
+
+    // Watermark read by incremental transfer. It is saved after the consumer stored all rows.
+    private DatabaseProducerSettings watermarkSettings;
+    private String pendingWatermarkTableId;
+    private String pendingWatermark;
 
     public DatabaseTransferProducer() {
     }
@@ -156,6 +172,13 @@ public class DatabaseTransferProducer implements IDataTransferProducer<DatabaseP
         this.defaultSchema = defaultSchema;
     }
 
+    /**
+     * Sets checkpoint of the transfer. Rows committed by previous runs are skipped.
+     */
+    public void setCheckpoint(@Nullable DataTransferCheckpoints.Checkpoint checkpoint) {
+        this.checkpoint = checkpoint;
+    }
+
     @Override
     public void transferData(
         @NotNull DBRProgressMonitor monitor1,
@@ -228,11 +251,29 @@ public class DatabaseTransferProducer implements IDataTransferProducer<DatabaseP
                             }
 
                         }
-                        long totalRows = 0;
-                        if (settings.isQueryRowCount() && dataContainer.isFeatureSupported(DBSDataContainer.FEATURE_DATA_COUNT)) {
+                        // Resumed transfer starts after rows committed by the previous run
+                        long startOffset = checkpoint == null ? 0 : checkpoint.getCommittedRows();
+                        DBDDataFilter readFilter = checkpoint == null ? dataFilter : makeStableOrderDataFilter(monitor);
+
+                        String watermarkTableId = null;
+                        String newWatermark = null;
+                        pendingWatermark = null;
+                        if (settings.isIncrementalTransfer() && dataContainer instanceof DBSEntity) {
+                            DBSEntityAttribute watermarkAttribute = getWatermarkAttribute(monitor, settings);
+                            if (watermarkAttribute != null) {
+                                watermarkTableId = DBUtils.getObjectFullId(dataContainer);
+                                newWatermark = readMaxWatermark(session, watermarkAttribute);
+                                readFilter = makeIncrementalDataFilter(
+                                    readFilter, watermarkAttribute, settings.getWatermarkValue(watermarkTableId), newWatermark);
+                            }
+                        }
+
+                        // Checkpoint row count is also used as the total
+                        long totalRows = checkpoint == null ? -1 : checkSourceRowCount(session, transferSource, readFilter, readFlags);
+                        if (totalRows < 0 && settings.isQueryRowCount() && dataContainer.isFeatureSupported(DBSDataContainer.FEATURE_DATA_COUNT)) {
                             monitor.beginTask(DTMessages.data_transfer_wizard_job_task_retrieve, 1);
                             try {
-                                totalRows = dataContainer.countData(transferSource, session, dataFilter, readFlags);
+                                totalRows = dataContainer.countData(transferSource, session, readFilter, readFlags);
                             } catch (Throwable e) {
                                 log.warn("Can't retrieve row count from '" + dataContainer.getName() + "'", e);
                                 try {
@@ -248,22 +289,28 @@ public class DatabaseTransferProducer implements IDataTransferProducer<DatabaseP
                             }
                         }
 
-                        monitor.beginTask(DTMessages.data_transfer_wizard_job_task_export_table_data, (int) totalRows);
+                        monitor.beginTask(DTMessages.data_transfer_wizard_job_task_export_table_data, (int) Math.max(totalRows, 0));
 
                         try {
                             monitor.subTask("Read data");
 
                             // Perform export
-                            if (settings.getExtractType() == DatabaseProducerSettings.ExtractType.SINGLE_QUERY) {
+                            DBCStatistics nativeStatistics = startOffset > 0 || readFilter != dataFilter ?
+                                null : exportNativeData(session, consumer, readFlags);
+                            if (nativeStatistics != null) {
+                                // All data was written by the database natively
+                                producerStatistics.accumulate(nativeStatistics);
+                            } else if (settings.getExtractType() == DatabaseProducerSettings.ExtractType.SINGLE_QUERY) {
                                 // Just do it in single query
-                                producerStatistics.accumulate(dataContainer.readData(transferSource, session, consumer, dataFilter, -1, -1, readFlags, settings.getFetchSize()));
+                                producerStatistics.accumulate(dataContainer.readData(
+                                    transferSource, session, consumer, readFilter, startOffset > 0 ? startOffset : -1, -1, readFlags, settings.getFetchSize()));
                             } else {
                                 // Read all data by segments
-                                long offset = 0;
+                                long offset = startOffset;
                                 int segmentSize = settings.getSegmentSize();
                                 for (; ; ) {
                                     DBCStatistics statistics = dataContainer.readData(
-                                        transferSource, session, consumer, dataFilter, offset, segmentSize, readFlags, settings.getFetchSize());
+                                        transferSource, session, consumer, readFilter, offset, segmentSize, readFlags, settings.getFetchSize());
                                     if (statistics == null || statistics.getRowsFetched() < segmentSize) {
                                         // Done
                                         break;
@@ -275,6 +322,13 @@ public class DatabaseTransferProducer implements IDataTransferProducer<DatabaseP
                         } finally {
                             monitor.done();
                         }
+                        if (newWatermark != null && !monitor.isCanceled()) {
+                            // Next run continues after the rows transferred now.
+                            // It is saved when the consumer stores all rows (see transferCompleted)
+                            watermarkSettings = settings;
+                            pendingWatermarkTableId = watermarkTableId;
+                            pendingWatermark = newWatermark;
+                        }
 
                     } finally {
                         if (!selectiveExportFromUI && (newConnection || forceDataReadTransactions)) {
@@ -302,6 +356,163 @@ public class DatabaseTransferProducer implements IDataTransferProducer<DatabaseP
         });
     }
 
+    /**
+     * Returns watermark column of incremental transfer.
+     * If it isn't set explicitly then single-column numeric primary key is used.
+     */
+    @Nullable
+    private DBSEntityAttribute getWatermarkAttribute(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DatabaseProducerSettings settings
+    ) throws DBException {
+        DBSEntity entity = (DBSEntity) dataContainer;
+        String columnName = settings.getWatermarkColumn(DBUtils.getObjectFullId(entity));
+        if (CommonUtils.isEmpty(columnName)) {
+            List<? extends DBSEntityAttribute> keyAttributes = DBUtils.getBestTableIdentifier(monitor, entity);
+            if (keyAttributes.size() == 1 && keyAttributes.get(0).getDataKind() == DBPDataKind.NUMERIC) {
+                return keyAttributes.get(0);
+            }
+            log.warn("No watermark column for incremental transfer of '" + entity.getName() + "'. All rows will be transferred");
+            return null;
+        }
+        DBSEntityAttribute attribute = DBUtils.findObject(entity.getAttributes(monitor), columnName, true);
+        if (attribute == null) {
+            throw new DBException("Watermark column '" + columnName + "' not found in '" + entity.getName() + "'");
+        }
+        return attribute;
+    }
+
+    /**
+     * Reads the current maximum of the watermark column. It is read before the data,
+     * so rows added during the transfer are left for the next run.
+     *
+     * @return SQL literal of the maximum or null if there are no values
+     */
+    @Nullable
+    private String readMaxWatermark(@NotNull DBCSession session, @NotNull DBSEntityAttribute attribute) throws DBCException {
+        String query = "SELECT MAX(" + DBUtils.getQuotedIdentifier(attribute) + ") FROM " +
+            DBUtils.getObjectFullName(dataContainer, DBPEvaluationContext.DML);
+        try (DBCStatement dbStat = DBUtils.makeStatement(session, query, false)) {
+            if (dbStat.executeStatement()) {
+                try (DBCResultSet dbResult = dbStat.openResultSet()) {
+                    if (dbResult != null && dbResult.nextRow()) {
+                        DBDValueHandler valueHandler = DBUtils.findValueHandler(session, attribute);
+                        Object value = valueHandler.fetchValueObject(session, dbResult, attribute, 0);
+                        if (!DBUtils.isNullValue(value)) {
+                            return SQLUtils.convertValueToSQL(session.getDataSource(), attribute, valueHandler, value, DBDDisplayFormat.NATIVE);
+                        }
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    @NotNull
+    private static DBDDataFilter makeIncrementalDataFilter(
+        @Nullable DBDDataFilter filter,
+        @NotNull DBSEntityAttribute attribute,
+        @Nullable String fromWatermark,
+        @Nullable String toWatermark
+    ) {
+        String columnName = DBUtils.getQuotedIdentifier(attribute);
+        String condition;
+        if (toWatermark == null) {
+            // Nothing to transfer
+            condition = "1 = 0";
+        } else if (fromWatermark == null) {
+            condition = columnName + " <= " + toWatermark;
+        } else {
+            condition = columnName + " > " + fromWatermark + " AND " + columnName + " <= " + toWatermark;
+        }
+        DBDDataFilter result = filter == null ? new DBDDataFilter() : new DBDDataFilter(filter);
+        result.setWhere(CommonUtils.isEmpty(result.getWhere()) ? condition : "(" + result.getWhere() + ") AND " + condition);
+        return result;
+    }
+
+    /**
+     * Compares source row count with the count saved in the checkpoint.
+     * Row offsets of a changed source point to other rows, so such transfer can't be resumed.
+     *
+     * @return source row count or -1 if the source can't count rows
+     */
+    private long checkSourceRowCount(
+        @NotNull DBCSession session,
+        @NotNull DBCExecutionSource source,
+        @Nullable DBDDataFilter readFilter,
+        long readFlags
+    ) throws DBException {
+        if (!dataContainer.isFeatureSupported(DBSDataContainer.FEATURE_DATA_COUNT)) {
+            return -1;
+        }
+        session.getProgressMonitor().subTask("Check source rows");
+        long sourceRows = dataContainer.countData(source, session, readFilter, readFlags);
+        long checkpointRows = checkpoint.getSourceRowCount();
+        if (checkpoint.getCommittedRows() > 0 && checkpointRows >= 0 && checkpointRows != sourceRows) {
+            throw new DBException("Source '" + dataContainer.getName() + "' has " + sourceRows + " row(s) but had " +
+                checkpointRows + " when the checkpoint was saved. Transfer can't be resumed from row " +
+                checkpoint.getCommittedRows() + ". Disable resume from checkpoint to transfer all rows again.");
+        }
+        checkpoint.setSourceRowCount(sourceRows);
+        return sourceRows;
+    }
+
+    /**
+     * Returns data filter which orders table rows by the unique key,
+     * so row offsets saved in the checkpoint point to the same rows in the next run.
+     * Queries and explicitly ordered data are read as is.
+     */
+    @Nullable
+    private DBDDataFilter makeStableOrderDataFilter(@NotNull DBRProgressMonitor monitor) {
+        if ((dataFilter != null && dataFilter.hasOrdering()) || !(dataContainer instanceof DBSEntity)) {
+            return dataFilter;
+        }
+        List<? extends DBSEntityAttribute> keyAttributes;
+        try {
+            keyAttributes = DBUtils.getBestTableIdentifier(monitor, (DBSEntity) dataContainer);
+        } catch (DBException e) {
+            log.debug("Error reading unique key of '" + dataContainer.getName() + "'", e);
+            return dataFilter;
+        }
+        if (keyAttributes.isEmpty()) {
+            log.debug("No unique key in '" + dataContainer.getName() + "'. Resumed transfer may skip or repeat rows");
+            return dataFilter;
+        }
+        DBDDataFilter filter = dataFilter == null ? new DBDDataFilter() : new DBDDataFilter(dataFilter);
+        int orderPosition = 1;
+        for (DBSEntityAttribute attribute : keyAttributes) {
+            DBDAttributeConstraint constraint = filter.getConstraint(attribute, false);
+            if (constraint == null) {
+                constraint = new DBDAttributeConstraint(attribute, attribute.getOrdinalPosition());
+                filter.getConstraints().add(constraint);
+            }
+            constraint.setOrderPosition(orderPosition++);
+        }
+        return filter;
+    }
+
+    /**
+     * Tries to export data with the database native unloader (e.g. COPY TO STDOUT).
+     * Applicable only to file export of whole tables or queries.
+     */
+    @Nullable
+    private DBCStatistics exportNativeData(
+        @NotNull DBCSession session,
+        @NotNull IDataTransferConsumer consumer,
+        long readFlags
+    ) throws DBCException {
+        if (!(consumer instanceof StreamTransferConsumer) || readFlags != DBSDataContainer.FLAG_NONE ||
+            (dataFilter != null && dataFilter.hasFilters()))
+        {
+            return null;
+        }
+        DBSDataBulkUnloader unloader = DBUtils.getAdapter(DBSDataBulkUnloader.class, dataContainer.getDataSource());
+        if (unloader == null) {
+            return null;
+        }
+        return ((StreamTransferConsumer) consumer).exportNativeData(session, unloader);
+    }
+
     @Override
     public boolean equals(Object obj) {
         return obj instanceof DatabaseTransferProducer &&
@@ -309,6 +520,14 @@ public class DatabaseTransferProducer implements IDataTransferProducer<DatabaseP
             CommonUtils.equalObjects(dataFilter, ((DatabaseTransferProducer) obj).dataFilter);
     }
 
+    @Override
+    public void transferCompleted() {
+        if (pendingWatermark != null) {
+            watermarkSettings.setWatermarkValue(pendingWatermarkTableId, pendingWatermark);
+            pendingWatermark = null;
+        }
+    }
+
     @Override
     @NotNull
     public DBCStatistics getStatistics() {
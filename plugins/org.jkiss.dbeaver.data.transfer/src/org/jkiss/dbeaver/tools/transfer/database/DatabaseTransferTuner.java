@@ -0,0 +1,191 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.database;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.model.data.DBDContent;
+
+import java.util.Date;
+
+/**
+ * Adjusts commit and multi-row insert batch sizes of database consumer.
+ * <p>
+ * Throughput (rows per second) is measured between flushes. Sizes are tuned one after another by hill climbing:
+ * a size keeps changing in the same direction while throughput grows, otherwise the direction is reversed
+ * and the step becomes smaller. Tuning of a size stops when its step becomes too small.
+ * Commit size never exceeds max transaction size and batch size is limited by the approximate statement size.
+ */
+public class DatabaseTransferTuner {
+
+    public static final int MIN_COMMIT_ROWS = 100;
+    public static final int MIN_BATCH_ROWS = 10;
+
+    private static final double INITIAL_STEP = 2.0;
+    private static final double MIN_STEP = 1.1;
+    // Smaller throughput changes are considered as noise
+    private static final double THROUGHPUT_THRESHOLD = 0.05;
+
+    private enum Parameter {
+        COMMIT_SIZE,
+        BATCH_SIZE
+    }
+
+    private final int maxCommitRows;
+    private final long maxStatementBytes;
+    private final boolean tuneBatchSize;
+
+    private int commitRows;
+    private int batchRows;
+    private Parameter parameter = Parameter.COMMIT_SIZE;
+    private double step = INITIAL_STEP;
+    private boolean increase = true;
+    private double lastThroughput;
+    private long totalRows;
+    private long totalBytes;
+
+    public DatabaseTransferTuner(int commitRows, int batchRows, int maxCommitRows, long maxStatementBytes, boolean tuneBatchSize) {
+        this.maxCommitRows = Math.max(MIN_COMMIT_ROWS, maxCommitRows);
+        this.maxStatementBytes = Math.max(1, maxStatementBytes);
+        this.tuneBatchSize = tuneBatchSize;
+        this.commitRows = clamp(commitRows, MIN_COMMIT_ROWS, this.maxCommitRows);
+        this.batchRows = clamp(batchRows, MIN_BATCH_ROWS, this.commitRows);
+    }
+
+    public int getCommitRows() {
+        return commitRows;
+    }
+
+    public int getBatchRows() {
+        return batchRows;
+    }
+
+    /**
+     * Throughput measured on the last flush, rows per second
+     */
+    public double getThroughput() {
+        return lastThroughput;
+    }
+
+    public boolean isConverged() {
+        return parameter == null;
+    }
+
+    /**
+     * Registers flush results and adjusts sizes for the next flush.
+     *
+     * @param rows number of rows written since the previous flush
+     * @param bytes approximate size of these rows
+     * @param elapsedNanos time since the previous flush
+     */
+    public void onFlush(long rows, long bytes, long elapsedNanos) {
+        if (rows <= 0 || elapsedNanos <= 0) {
+            return;
+        }
+        totalRows += rows;
+        totalBytes += bytes;
+        double throughput = rows * 1_000_000_000.0 / elapsedNanos;
+        if (parameter != null) {
+            if (lastThroughput > 0) {
+                if (throughput < lastThroughput * (1 - THROUGHPUT_THRESHOLD)) {
+                    // Got worse - go back
+                    increase = !increase;
+                    step = Math.sqrt(step);
+                } else if (throughput < lastThroughput * (1 + THROUGHPUT_THRESHOLD)) {
+                    // No visible effect
+                    step = Math.sqrt(step);
+                }
+            }
+            if (step < MIN_STEP) {
+                nextParameter();
+            }
+            if (parameter != null && !changeParameter()) {
+                // Limit reached
+                increase = !increase;
+                step = Math.sqrt(step);
+                changeParameter();
+            }
+        }
+        lastThroughput = throughput;
+        // Row size may change after batch size was tuned
+        batchRows = Math.min(batchRows, getMaxBatchRows());
+    }
+
+    private void nextParameter() {
+        if (parameter == Parameter.COMMIT_SIZE && tuneBatchSize) {
+            parameter = Parameter.BATCH_SIZE;
+            step = INITIAL_STEP;
+            increase = true;
+        } else {
+            parameter = null;
+        }
+    }
+
+    private boolean changeParameter() {
+        double factor = increase ? step : 1 / step;
+        if (parameter == Parameter.COMMIT_SIZE) {
+            int newValue = clamp((int) Math.round(commitRows * factor), MIN_COMMIT_ROWS, maxCommitRows);
+            boolean changed = newValue != commitRows;
+            commitRows = newValue;
+            batchRows = Math.min(batchRows, commitRows);
+            return changed;
+        } else {
+            int newValue = clamp((int) Math.round(batchRows * factor), MIN_BATCH_ROWS, getMaxBatchRows());
+            boolean changed = newValue != batchRows;
+            batchRows = newValue;
+            return changed;
+        }
+    }
+
+    private int getMaxBatchRows() {
+        long rowBytes = totalRows == 0 ? 1 : Math.max(1, totalBytes / totalRows);
+        return (int) Math.max(1, Math.min(commitRows, maxStatementBytes / rowBytes));
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    /**
+     * Approximate size of row values in bytes
+     */
+    public static long estimateRowSize(@NotNull Object[] row) {
+        long size = 0;
+        for (Object value : row) {
+            if (value == null) {
+                size += 4;
+            } else if (value instanceof CharSequence) {
+                size += ((CharSequence) value).length() + 2;
+            } else if (value instanceof byte[]) {
+                size += ((byte[]) value).length * 2L + 2;
+            } else if (value instanceof Number || value instanceof Boolean) {
+                size += 8;
+            } else if (value instanceof Date) {
+                size += 26;
+            } else if (value instanceof DBDContent) {
+                size += 1024;
+            } else {
+                size += 32;
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return "commit after " + commitRows + " rows, insert batch " + batchRows + " rows (" + Math.round(lastThroughput) + " rows/s)";
+    }
+}
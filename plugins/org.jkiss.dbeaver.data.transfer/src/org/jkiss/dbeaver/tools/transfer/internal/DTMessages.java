@@ -33,6 +33,7 @@ public class DTMessages extends NLS {
 	public static String data_transfer_wizard_job_task_export_table_data;
 	public static String data_transfer_wizard_job_task_retrieve;
 	public static String data_transfer_wizard_output_checkbox_compress;
+	public static String data_transfer_wizard_output_label_compression_format;
 	public static String data_transfer_wizard_output_checkbox_split_files;
 	public static String data_transfer_wizard_output_checkbox_split_files_tip;
 	public static String data_transfer_wizard_output_checkbox_new_connection;
@@ -54,6 +55,7 @@ public class DTMessages extends NLS {
 	public static String data_transfer_wizard_output_label_encoding;
 	public static String data_transfer_wizard_output_label_timestamp_pattern;
 	public static String data_transfer_wizard_output_label_extract_type;
+	public static String data_transfer_wizard_output_checkbox_incremental_transfer;
 	public static String data_transfer_wizard_output_label_file_name_pattern;
 	public static String data_transfer_wizard_output_label_insert_bom;
 	public static String data_transfer_wizard_output_label_insert_bom_tooltip;
@@ -134,10 +136,13 @@ public class DTMessages extends NLS {
 	public static String database_consumer_settings_option_commit_after;
 	public static String database_consumer_settings_option_use_multi_insert;
 	public static String database_consumer_settings_option_multi_insert_batch;
+	public static String database_consumer_settings_option_adaptive_batch_size;
 	public static String database_consumer_settings_option_skip_bind_values;
+	public static String database_consumer_settings_option_bind_null_values;
 	public static String database_consumer_settings_option_disable_batches;
 	public static String database_consumer_settings_option_ignore_duplicate_rows;
 	public static String database_consumer_settings_option_on_duplicate_key_method_label;
+	public static String database_consumer_settings_option_upsert_existing_rows;
 	public static String database_consumer_settings_option_transfer_auto_generated_columns;
 	public static String database_consumer_settings_option_disable_referential_integrity;
 	public static String database_consumer_settings_option_use_bulk_load;
@@ -0,0 +1,164 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream;
+
+import org.jkiss.code.NotNull;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Output stream which passes data to the target stream in a separate thread.
+ * Used to move expensive processing (e.g. compression) out of the fetch thread.
+ * Target stream must not be accessed by anybody else until this stream is flushed.
+ */
+public class BackgroundOutputStream extends OutputStream {
+
+    private static final int CHUNK_COUNT = 4;
+    private static final ByteBuffer END_OF_STREAM = ByteBuffer.allocate(0);
+
+    private final OutputStream target;
+    private final BlockingQueue<ByteBuffer> pendingChunks = new ArrayBlockingQueue<>(CHUNK_COUNT + 1);
+    private final BlockingQueue<ByteBuffer> freeChunks = new ArrayBlockingQueue<>(CHUNK_COUNT);
+    private final Thread writerThread;
+    private final Object progressLock = new Object();
+    private ByteBuffer currentChunk;
+    private long chunksSubmitted;
+    private long chunksWritten;
+    private volatile IOException writeError;
+    private boolean closed;
+
+    public BackgroundOutputStream(@NotNull OutputStream target, int chunkSize) {
+        this.target = target;
+        for (int i = 0; i < CHUNK_COUNT - 1; i++) {
+            freeChunks.add(ByteBuffer.allocate(chunkSize));
+        }
+        this.currentChunk = ByteBuffer.allocate(chunkSize);
+        this.writerThread = new Thread(this::writeChunks, "Data transfer output writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (!currentChunk.hasRemaining()) {
+            submitChunk();
+        }
+        currentChunk.put((byte) b);
+    }
+
+    @Override
+    public void write(@NotNull byte[] b, int off, int len) throws IOException {
+        while (len > 0) {
+            if (!currentChunk.hasRemaining()) {
+                submitChunk();
+            }
+            int count = Math.min(len, currentChunk.remaining());
+            currentChunk.put(b, off, count);
+            off += count;
+            len -= count;
+        }
+    }
+
+    @Override
+    public void flush() throws IOException {
+        submitChunk();
+        try {
+            synchronized (progressLock) {
+                while (chunksWritten < chunksSubmitted) {
+                    progressLock.wait();
+                }
+            }
+        } catch (InterruptedException e) {
+            throw new InterruptedIOException("Interrupted while waiting for output writer");
+        }
+        checkWriteError();
+        target.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            flush();
+        } finally {
+            try {
+                pendingChunks.put(END_OF_STREAM);
+                writerThread.join();
+            } catch (InterruptedException e) {
+                writerThread.interrupt();
+            }
+            target.close();
+        }
+    }
+
+    private void submitChunk() throws IOException {
+        checkWriteError();
+        if (currentChunk.position() == 0) {
+            return;
+        }
+        synchronized (progressLock) {
+            chunksSubmitted++;
+        }
+        try {
+            pendingChunks.put(currentChunk);
+            currentChunk = freeChunks.take();
+        } catch (InterruptedException e) {
+            throw new InterruptedIOException("Interrupted while passing data to output writer");
+        }
+    }
+
+    private void checkWriteError() throws IOException {
+        if (writeError != null) {
+            throw new IOException("Error writing output data", writeError);
+        }
+    }
+
+    private void writeChunks() {
+        try {
+            for (;;) {
+                ByteBuffer chunk = pendingChunks.take();
+                if (chunk == END_OF_STREAM) {
+                    break;
+                }
+                try {
+                    if (writeError == null) {
+                        target.write(chunk.array(), 0, chunk.position());
+                    }
+                } catch (IOException e) {
+                    writeError = e;
+                } finally {
+                    chunk.clear();
+                    freeChunks.add(chunk);
+                    synchronized (progressLock) {
+                        chunksWritten++;
+                        progressLock.notifyAll();
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            // Stream was abandoned
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream;
+
+import org.jkiss.code.NotNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Output stream which writes into a channel through a single large buffer.
+ * Flush doesn't force data to the storage device, it just drains the buffer.
+ */
+public class BufferedChannelOutputStream extends OutputStream {
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer;
+
+    public BufferedChannelOutputStream(@NotNull WritableByteChannel channel, int bufferSize) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocate(bufferSize);
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (!buffer.hasRemaining()) {
+            drainBuffer();
+        }
+        buffer.put((byte) b);
+    }
+
+    @Override
+    public void write(@NotNull byte[] b, int off, int len) throws IOException {
+        if (len >= buffer.capacity()) {
+            // Large chunk - write it as is
+            drainBuffer();
+            writeFully(ByteBuffer.wrap(b, off, len));
+            return;
+        }
+        if (len > buffer.remaining()) {
+            drainBuffer();
+        }
+        buffer.put(b, off, len);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        drainBuffer();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            drainBuffer();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void drainBuffer() throws IOException {
+        if (buffer.position() > 0) {
+            buffer.flip();
+            writeFully(buffer);
+            buffer.clear();
+        }
+    }
+
+    private void writeFully(@NotNull ByteBuffer data) throws IOException {
+        while (data.hasRemaining()) {
+            channel.write(data);
+        }
+    }
+}
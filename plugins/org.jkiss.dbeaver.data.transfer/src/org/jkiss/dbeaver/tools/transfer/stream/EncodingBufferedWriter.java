@@ -0,0 +1,148 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream;
+
+import org.jkiss.code.NotNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * Writer which encodes characters with a single reusable encoder.
+ * Unlike OutputStreamWriter it allows to push encoded bytes downstream without flushing the target stream.
+ */
+public class EncodingBufferedWriter extends Writer {
+
+    private final OutputStream out;
+    private final CharsetEncoder encoder;
+    private final CharBuffer charBuffer;
+    private final ByteBuffer byteBuffer;
+    private long bytesWritten;
+
+    public EncodingBufferedWriter(@NotNull OutputStream out, @NotNull Charset charset, int bufferSize) {
+        this.out = out;
+        this.encoder = charset.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        this.charBuffer = CharBuffer.allocate(bufferSize);
+        this.byteBuffer = ByteBuffer.allocate((int) Math.ceil(bufferSize * (double) encoder.maxBytesPerChar()));
+    }
+
+    /**
+     * Number of bytes passed to the target stream
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        if (!charBuffer.hasRemaining()) {
+            encodeBuffer(false);
+        }
+        charBuffer.put((char) c);
+    }
+
+    @Override
+    public void write(@NotNull char[] cbuf, int off, int len) throws IOException {
+        while (len > 0) {
+            if (!charBuffer.hasRemaining()) {
+                encodeBuffer(false);
+            }
+            int count = Math.min(len, charBuffer.remaining());
+            charBuffer.put(cbuf, off, count);
+            off += count;
+            len -= count;
+        }
+    }
+
+    @Override
+    public void write(@NotNull String str, int off, int len) throws IOException {
+        while (len > 0) {
+            if (!charBuffer.hasRemaining()) {
+                encodeBuffer(false);
+            }
+            int count = Math.min(len, charBuffer.remaining());
+            charBuffer.put(str, off, off + count);
+            off += count;
+            len -= count;
+        }
+    }
+
+    /**
+     * Encodes buffered characters and passes them to the target stream without flushing it.
+     */
+    public void flushBuffer() throws IOException {
+        encodeBuffer(false);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        encodeBuffer(false);
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            encodeBuffer(true);
+            for (;;) {
+                CoderResult result = encoder.flush(byteBuffer);
+                writeBytes();
+                if (result.isUnderflow()) {
+                    break;
+                }
+            }
+            encoder.reset();
+        } finally {
+            out.close();
+        }
+    }
+
+    private void encodeBuffer(boolean endOfInput) throws IOException {
+        charBuffer.flip();
+        for (;;) {
+            CoderResult result = encoder.encode(charBuffer, byteBuffer, endOfInput);
+            if (result.isOverflow()) {
+                writeBytes();
+            } else if (result.isUnderflow()) {
+                break;
+            } else {
+                result.throwException();
+            }
+        }
+        // Incomplete surrogate pair (if any) stays in the buffer
+        charBuffer.compact();
+        writeBytes();
+    }
+
+    private void writeBytes() throws IOException {
+        int length = byteBuffer.position();
+        if (length > 0) {
+            out.write(byteBuffer.array(), 0, length);
+            bytesWritten += length;
+            byteBuffer.clear();
+        }
+    }
+}
@@ -56,4 +56,9 @@ public interface IStreamDataExporterSite {
     @NotNull
     String getOutputEncoding();
 
+    /**
+     * Maximum size of a single output file in bytes or 0 if output is not split into several files
+     */
+    long getMaxOutFileSize();
+
 }
\ No newline at end of file
@@ -110,6 +110,20 @@ public class StreamConsumerSettings implements IDataTransferSettings {
         }
     }
 
+    public enum CompressionFormat {
+        ZIP("zip"),
+        GZIP("gz");
+
+        public final String extension;
+
+        CompressionFormat(String extension) {
+            this.extension = extension;
+        }
+    }
+
+    public static final int DEFAULT_OUTPUT_BUFFER_SIZE = 1024 * 1024;
+    private static final int MIN_OUTPUT_BUFFER_SIZE = 8192;
+
     public static final String PROP_EXTRACT_IMAGES = "extractImages";
     public static final String PROP_FILE_EXTENSION = "extension";
 
@@ -134,6 +148,10 @@ public class StreamConsumerSettings implements IDataTransferSettings {
     private boolean outputClipboard = false;
     private boolean useSingleFile = false;
     private boolean compressResults = false;
+    @NotNull
+    private CompressionFormat compressionFormat = CompressionFormat.ZIP;
+    private boolean compressInBackground = false;
+    private int outputBufferSize = DEFAULT_OUTPUT_BUFFER_SIZE;
     private boolean splitOutFiles = false;
     private long maxOutFileSize = 10 * 1000 * 1000;
     private final Map<DBSDataContainer, StreamMappingContainer> dataMappings = new LinkedHashMap<>();
@@ -243,6 +261,37 @@ public class StreamConsumerSettings implements IDataTransferSettings {
         this.compressResults = compressResults;
     }
 
+    @NotNull
+    public CompressionFormat getCompressionFormat() {
+        return compressionFormat;
+    }
+
+    public void setCompressionFormat(@NotNull CompressionFormat compressionFormat) {
+        this.compressionFormat = compressionFormat;
+    }
+
+    /**
+     * Compress output in a separate thread. Makes sense for large exports on multicore machines.
+     */
+    public boolean isCompressInBackground() {
+        return compressInBackground;
+    }
+
+    public void setCompressInBackground(boolean compressInBackground) {
+        this.compressInBackground = compressInBackground;
+    }
+
+    /**
+     * Output file buffer size in bytes
+     */
+    public int getOutputBufferSize() {
+        return outputBufferSize;
+    }
+
+    public void setOutputBufferSize(int outputBufferSize) {
+        this.outputBufferSize = Math.max(outputBufferSize, MIN_OUTPUT_BUFFER_SIZE);
+    }
+
     public boolean isSplitOutFiles() {
         return splitOutFiles;
     }
@@ -331,6 +380,9 @@ public class StreamConsumerSettings implements IDataTransferSettings {
         }
 
         compressResults = CommonUtils.getBoolean(settings.get("compressResults"), compressResults);
+        compressionFormat = CommonUtils.valueOf(CompressionFormat.class, CommonUtils.toString(settings.get("compressionFormat")), CompressionFormat.ZIP);
+        compressInBackground = CommonUtils.getBoolean(settings.get("compressInBackground"), compressInBackground);
+        outputBufferSize = Math.max(CommonUtils.toInt(settings.get("outputBufferSize"), outputBufferSize), MIN_OUTPUT_BUFFER_SIZE);
         splitOutFiles = CommonUtils.getBoolean(settings.get("splitOutFiles"), splitOutFiles);
         maxOutFileSize = CommonUtils.toLong(settings.get("maxOutFileSize"), maxOutFileSize);
 
@@ -409,6 +461,9 @@ public class StreamConsumerSettings implements IDataTransferSettings {
         settings.put("useSingleFile", useSingleFile);
 
         settings.put("compressResults", compressResults);
+        settings.put("compressionFormat", compressionFormat.name());
+        settings.put("compressInBackground", compressInBackground);
+        settings.put("outputBufferSize", outputBufferSize);
         settings.put("splitOutFiles", splitOutFiles);
         settings.put("maxOutFileSize", maxOutFileSize);
 
@@ -452,6 +507,9 @@ public class StreamConsumerSettings implements IDataTransferSettings {
         }
 
         DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_checkbox_compress, compressResults);
+        if (compressResults) {
+            DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_output_label_compression_format, compressionFormat.name());
+        }
 
         DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_settings_label_binaries, lobExtractType);
         DTUtils.addSummary(summary, DTMessages.data_transfer_wizard_settings_label_encoding, lobEncoding);
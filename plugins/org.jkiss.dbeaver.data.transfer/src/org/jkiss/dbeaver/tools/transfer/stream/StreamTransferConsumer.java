@@ -27,12 +27,14 @@ import org.jkiss.dbeaver.model.data.*;
 import org.jkiss.dbeaver.model.exec.DBCException;
 import org.jkiss.dbeaver.model.exec.DBCResultSet;
 import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.exec.DBCStatistics;
 import org.jkiss.dbeaver.model.meta.DBSerializable;
 import org.jkiss.dbeaver.model.preferences.DBPPreferenceStore;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.DBRRunnableContext;
 import org.jkiss.dbeaver.model.sql.SQLQueryContainer;
 import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.jkiss.dbeaver.model.struct.DBSDataBulkUnloader;
 import org.jkiss.dbeaver.model.struct.DBSDataContainer;
 import org.jkiss.dbeaver.model.struct.DBSObject;
 import org.jkiss.dbeaver.model.struct.rdb.DBSCatalog;
@@ -43,6 +45,7 @@ import org.jkiss.dbeaver.runtime.serialize.DBPObjectSerializer;
 import org.jkiss.dbeaver.runtime.ui.DBPPlatformUI.UserChoiceResponse;
 import org.jkiss.dbeaver.tools.transfer.DTConstants;
 import org.jkiss.dbeaver.tools.transfer.DTUtils;
+import org.jkiss.dbeaver.tools.transfer.DataTransferCheckpoints;
 import org.jkiss.dbeaver.tools.transfer.IDataTransferConsumer;
 import org.jkiss.dbeaver.tools.transfer.IDataTransferEventProcessor;
 import org.jkiss.dbeaver.tools.transfer.internal.DTActivator;
@@ -52,6 +55,7 @@ import org.jkiss.dbeaver.tools.transfer.registry.DataTransferRegistry;
 import org.jkiss.dbeaver.tools.transfer.stream.StreamConsumerSettings.BlobFileConflictBehavior;
 import org.jkiss.dbeaver.tools.transfer.stream.StreamConsumerSettings.ConsumerRuntimeParameters;
 import org.jkiss.dbeaver.tools.transfer.stream.StreamConsumerSettings.DataFileConflictBehavior;
+import org.jkiss.dbeaver.tools.transfer.stream.exporter.DataExporterCSV;
 import org.jkiss.dbeaver.utils.ContentUtils;
 import org.jkiss.dbeaver.utils.GeneralUtils;
 import org.jkiss.dbeaver.utils.RuntimeUtils;
@@ -61,9 +65,14 @@ import org.jkiss.utils.IOUtils;
 import org.jkiss.utils.io.ByteOrderMark;
 
 import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
 import java.text.SimpleDateFormat;
 import java.util.*;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
@@ -125,7 +134,9 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
     private DBSDataContainer dataContainer;
 
     private OutputStream outputStream;
-    private ZipOutputStream zipStream;
+    private DeflaterOutputStream compressStream;
+    private BackgroundOutputStream backgroundStream;
+    private EncodingBufferedWriter outputWriter;
     private PrintWriter writer;
     private int multiFileNumber;
     private long bytesWritten = 0;
@@ -141,6 +152,12 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
     private boolean initialized = false;
     private boolean firstRow = true;
     private TransferParameters parameters;
+    private DataTransferCheckpoints.Checkpoint checkpoint;
+    // Rows written to complete files by the previous run of the task
+    private long checkpointOffset;
+    private long rowsExported;
+    // Output file was left incomplete by the interrupted run
+    private boolean overwriteOutputFile;
 
     private final List<File> outputFiles = new ArrayList<>();
     private StatOutputStream statStream;
@@ -154,7 +171,7 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
 
     @Override
     public void fetchStart(DBCSession session, DBCResultSet resultSet, long offset, long maxRows) throws DBCException {
-        if (!initialized) {
+        if (exportSite == null) {
             // Can be invoked multiple times in case of per-segment transfer
             initExporter(session);
         }
@@ -192,13 +209,20 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
     public void fetchRow(DBCSession session, DBCResultSet resultSet) throws DBCException {
         try {
             // Check for file split
-            if (settings.isSplitOutFiles() && !parameters.isBinary && !firstRow) {
-                writer.flush();
+            if (settings.isSplitOutFiles() && !firstRow) {
+                if (outputWriter != null) {
+                    // Pass encoded data to the size counter without flushing the file
+                    outputWriter.flushBuffer();
+                }
                 if (bytesWritten >= settings.getMaxOutFileSize()) {
                     // First add footer for the previous file
                     exportFooterInFile(session.getProgressMonitor());
                     // Make new file with the header
                     createNewOutFile();
+                    if (checkpoint != null) {
+                        // All rows before the current one are in complete files
+                        checkpoint.commit(checkpointOffset + rowsExported, multiFileNumber);
+                    }
                     exportHeaderInFile(session);
                 }
             }
@@ -235,6 +259,7 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
             // Export row
             processor.exportRow(session, resultSet, targetRow);
             firstRow = false;
+            rowsExported++;
         } catch (IOException e) {
             throw new DBCException("IO error", e);
         } catch (Throwable e) {
@@ -242,6 +267,50 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
         }
     }
 
+    /**
+     * Exports all data of the source container with the database native unloader, bypassing the row-by-row export.
+     * It is possible only if the exporter settings can be reproduced by the unloader
+     * and data is neither filtered by column mapping nor split into several files.
+     *
+     * @return export statistics or null if native export can't be used and data must be exported in a regular way
+     */
+    @Nullable
+    public DBCStatistics exportNativeData(@NotNull DBCSession session, @NotNull DBSDataBulkUnloader unloader) throws DBCException {
+        if (initialized || parameters.isBinary || settings.isOutputClipboard() || settings.isSplitOutFiles() ||
+            !(processor instanceof DataExporterCSV))
+        {
+            return null;
+        }
+        final StreamMappingContainer mapping = settings.getDataMapping(dataContainer);
+        if (mapping != null && mapping.isComplete() &&
+            mapping.getAttributes(session.getProgressMonitor()).stream().anyMatch(attr -> attr.getMappingType() != StreamMappingType.export))
+        {
+            return null;
+        }
+        if (exportSite == null) {
+            initExporter(session);
+        }
+        // Settings may be changed during initialization (e.g. header is omitted when appending to existing file)
+        DBSDataBulkUnloader.TextFormat format = ((DataExporterCSV) processor).getNativeExportFormat();
+        if (format == null || !unloader.isUnloadSupported(dataContainer, format)) {
+            return null;
+        }
+
+        DBCStatistics statistics = new DBCStatistics();
+        long startTime = System.currentTimeMillis();
+        try {
+            writer.flush();
+            statistics.setRowsFetched(unloader.unloadData(session, dataContainer, format, outputStream));
+            outputStream.flush();
+        } catch (IOException e) {
+            throw new DBCException("IO error", e);
+        }
+        statistics.setFetchTime(System.currentTimeMillis() - startTime);
+        initialized = true;
+        firstRow = false;
+        return statistics;
+    }
+
     private void exportHeaderInFile(@NotNull DBCSession session) throws DBCException {
         try {
             processor.exportHeader(session);
@@ -374,7 +443,11 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
                 openOutputStreams();
             }
         } catch (IOException e) {
-            closeExporter();
+            try {
+                closeExporter();
+            } catch (IOException e1) {
+                e.addSuppressed(e1);
+            }
             throw new DBCException("Data transfer IO error", e);
         }
 
@@ -386,12 +459,13 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
         }
     }
 
-    private void closeExporter() {
+    private void closeExporter() throws IOException {
+        IOException error = null;
         if (exportSite != null) {
             try {
                 exportSite.flush();
             } catch (IOException e) {
-                log.debug(e);
+                error = e;
             }
         }
 
@@ -404,7 +478,14 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
             }
             processor = null;
         }
-        closeOutputStreams();
+        try {
+            closeOutputStreams();
+        } catch (IOException e) {
+            error = chainError(error, e);
+        }
+        if (error != null) {
+            throw error;
+        }
     }
     
     private DataFileConflictBehavior prepareDataFileConflictBehavior(String fileName) {
@@ -470,7 +551,10 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
     private void openOutputStreams() throws IOException {
         final boolean truncate;
         
-        if (outputFile.isFile()) {
+        if (overwriteOutputFile) {
+            overwriteOutputFile = false;
+            truncate = true;
+        } else if (outputFile.isFile()) {
             DataFileConflictBehavior behavior = prepareDataFileConflictBehavior(outputFile.getName());
             switch (behavior) {
                 case APPEND:
@@ -490,13 +574,24 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
             truncate = true;
         }
 
-        this.outputStream = new BufferedOutputStream(new FileOutputStream(outputFile, !truncate), OUT_FILE_BUFFER_SIZE);
+        final FileChannel channel = truncate ?
+            FileChannel.open(outputFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING) :
+            FileChannel.open(outputFile.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        this.outputStream = new BufferedChannelOutputStream(channel, settings.getOutputBufferSize());
         this.outputStream = this.statStream = new StatOutputStream(outputStream);
 
         if (settings.isCompressResults()) {
-            this.zipStream = new ZipOutputStream(this.outputStream);
-            this.zipStream.putNextEntry(new ZipEntry(getOutputFileName()));
-            this.outputStream = zipStream;
+            if (settings.getCompressionFormat() == StreamConsumerSettings.CompressionFormat.GZIP) {
+                this.compressStream = new GZIPOutputStream(this.outputStream, OUT_FILE_BUFFER_SIZE);
+            } else {
+                final ZipOutputStream zipStream = new ZipOutputStream(this.outputStream);
+                zipStream.putNextEntry(new ZipEntry(getOutputFileName()));
+                this.compressStream = zipStream;
+            }
+            this.outputStream = compressStream;
+            if (settings.isCompressInBackground()) {
+                this.outputStream = this.backgroundStream = new BackgroundOutputStream(this.outputStream, settings.getOutputBufferSize());
+            }
         }
 
         // If we need to split files - use stream wrapper to calculate file size
@@ -516,39 +611,73 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
         }
 
         if (!parameters.isBinary) {
-            this.writer = new PrintWriter(new OutputStreamWriter(this.outputStream, settings.getOutputEncoding()), true);
+            final Charset charset;
+            try {
+                charset = Charset.forName(settings.getOutputEncoding());
+            } catch (IllegalArgumentException e) {
+                throw new UnsupportedEncodingException(settings.getOutputEncoding());
+            }
+            // No auto-flush: data goes to the file only when the buffers are full
+            this.outputWriter = new EncodingBufferedWriter(this.outputStream, charset, OUT_FILE_BUFFER_SIZE);
+            this.writer = new PrintWriter(outputWriter, false);
         }
     }
 
-    private void closeOutputStreams() {
+    /**
+     * Flushes and closes output file streams.
+     * All streams are closed even if some of them fail, the first error is thrown then.
+     */
+    private void closeOutputStreams() throws IOException {
+        IOException error = null;
         if (this.writer != null) {
             this.writer.flush();
+            // Print writer doesn't throw errors of the underlying stream
+            if (outputWriter != null && this.writer.checkError()) {
+                error = new IOException("Error writing output file " + outputFile.getName());
+            }
         }
+        outputWriter = null;
 
-        // Finish zip stream
-        if (zipStream != null) {
+        // Wait for background compression before finishing the archive
+        if (backgroundStream != null) {
             try {
-                zipStream.closeEntry();
+                backgroundStream.flush();
             } catch (IOException e) {
-                log.debug(e);
+                error = chainError(error, e);
             }
+            backgroundStream = null;
+        }
+
+        // Finish compressed stream
+        if (compressStream != null) {
             try {
-                zipStream.finish();
+                compressStream.finish();
             } catch (IOException e) {
-                log.debug(e);
+                error = chainError(error, e);
             }
-            zipStream = null;
+            compressStream = null;
         }
 
         if (outputStream != null) {
             try {
-                outputStream.flush();
+                outputStream.close();
             } catch (IOException e) {
-                log.debug(e);
+                error = chainError(error, e);
             }
-            ContentUtils.close(outputStream);
             outputStream = null;
         }
+        if (error != null) {
+            throw error;
+        }
+    }
+
+    @NotNull
+    private static IOException chainError(@Nullable IOException error, @NotNull IOException e) {
+        if (error == null) {
+            return e;
+        }
+        error.addSuppressed(e);
+        return error;
     }
 
     private void createNewOutFile() throws IOException {
@@ -575,6 +704,21 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
         this.processor = processor;
         this.settings = settings;
         this.processorProperties = processorProperties;
+        this.checkpoint = parameters.checkpoint;
+        if (checkpoint != null) {
+            if (!settings.isSplitOutFiles() || settings.isUseSingleFile() || settings.isOutputClipboard() || parameters.isBinary) {
+                // Only separate split files can be continued
+                if (checkpoint.getCommittedRows() > 0) {
+                    checkpoint.reset();
+                }
+                checkpoint = null;
+            } else if (checkpoint.getCommittedRows() > 0) {
+                // Continue with the next file part
+                checkpointOffset = checkpoint.getCommittedRows();
+                multiFileNumber = checkpoint.getPartNumber();
+                overwriteOutputFile = true;
+            }
+        }
         
         if (runtimeParameters == null) {
             runtimeParameters = settings.prepareRuntimeParameters();
@@ -598,16 +742,20 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
     }
 
     @Override
-    public void finishTransfer(DBRProgressMonitor monitor, boolean last) {
+    public void finishTransfer(DBRProgressMonitor monitor, boolean last) throws DBException {
         finishTransfer(monitor, null, last);
     }
 
     @Override
-    public void finishTransfer(@NotNull DBRProgressMonitor monitor, @Nullable Exception exception, boolean last) {
+    public void finishTransfer(@NotNull DBRProgressMonitor monitor, @Nullable Exception exception, boolean last) throws DBException {
         if (!last && exception == null) {
             exportFooterInFile(monitor);
 
-            closeExporter();
+            try {
+                closeExporter();
+            } catch (IOException e) {
+                throw new DBException("Error finishing output file", e);
+            }
             return;
         }
 
@@ -753,7 +901,7 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
         }
         String fileName = getOutputFileName(suffix);
         if (settings.isCompressResults()) {
-            fileName += ".zip";
+            fileName += "." + settings.getCompressionFormat().extension;
         }
         return new File(dir, fileName);
     }
@@ -1044,6 +1192,11 @@ public class StreamTransferConsumer implements IDataTransferConsumer<StreamConsu
         public String getOutputEncoding() {
             return settings == null ? StandardCharsets.UTF_8.displayName() : settings.getOutputEncoding();
         }
+
+        @Override
+        public long getMaxOutFileSize() {
+            return settings != null && settings.isSplitOutFiles() ? settings.getMaxOutFileSize() : 0;
+        }
     }
 
     private class OutputStreamStatProxy extends OutputStream {
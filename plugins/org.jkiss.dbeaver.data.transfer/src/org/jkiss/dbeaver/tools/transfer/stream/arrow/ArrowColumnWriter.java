@@ -0,0 +1,251 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.arrow;
+
+import org.jkiss.code.NotNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * Accumulates values of a single field for the current record batch
+ */
+public class ArrowColumnWriter {
+
+    private static final byte[] PADDING = new byte[8];
+
+    private final ArrowField field;
+    private final int valueWidth;
+    private final boolean variableWidth;
+
+    private int rowCount;
+    private int nullCount;
+    private byte[] validity = new byte[128];
+    private byte[] values;
+    private int valuesSize;
+    private int[] offsets;
+
+    public ArrowColumnWriter(@NotNull ArrowField field) {
+        if (field.getTypeId() == ArrowConstants.TYPE_NULL || field.isLargeVariableWidth()) {
+            throw new IllegalArgumentException("Field type " + field.getTypeId() + " is not supported for writing");
+        }
+        this.field = field;
+        this.valueWidth = field.getValueWidth();
+        this.variableWidth = field.isVariableWidth();
+        this.values = new byte[variableWidth ? 4096 : Math.max(128, valueWidth * 1024)];
+        if (variableWidth) {
+            offsets = new int[1025];
+        }
+    }
+
+    @NotNull
+    public ArrowField getField() {
+        return field;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Approximate size of buffered data in bytes
+     */
+    public long getBufferedSize() {
+        return (long) valuesSize + (variableWidth ? rowCount * 4L : 0) + rowCount / 8;
+    }
+
+    public void writeNull() {
+        if (!field.isNullable()) {
+            throw new IllegalStateException("NULL value for non-nullable field " + field.getName());
+        }
+        nextRow(false);
+        nullCount++;
+        if (variableWidth) {
+            offsets[rowCount] = valuesSize;
+        } else if (valueWidth > 0) {
+            reserve(valueWidth);
+            Arrays.fill(values, valuesSize, valuesSize + valueWidth, (byte) 0);
+            valuesSize += valueWidth;
+        }
+    }
+
+    public void writeBoolean(boolean value) {
+        nextRow(true);
+        int bit = rowCount - 1;
+        reserve(0);
+        if (value) {
+            values[bit >> 3] |= (byte) (1 << (bit & 7));
+        }
+        valuesSize = (rowCount + 7) >> 3;
+    }
+
+    public void writeInt(int value) {
+        nextRow(true);
+        reserve(valueWidth);
+        switch (valueWidth) {
+            case 1:
+                values[valuesSize] = (byte) value;
+                break;
+            case 2:
+                putShort(valuesSize, value);
+                break;
+            default:
+                putInt(valuesSize, value);
+                break;
+        }
+        valuesSize += valueWidth;
+    }
+
+    public void writeLong(long value) {
+        nextRow(true);
+        reserve(8);
+        putInt(valuesSize, (int) value);
+        putInt(valuesSize + 4, (int) (value >> 32));
+        valuesSize += 8;
+    }
+
+    public void writeFloat(float value) {
+        writeInt(Float.floatToRawIntBits(value));
+    }
+
+    public void writeDouble(double value) {
+        writeLong(Double.doubleToRawLongBits(value));
+    }
+
+    /**
+     * Writes two's complement big-endian value (as returned by BigInteger.toByteArray) in little-endian order
+     * extending the sign to the field width.
+     */
+    public void writeDecimal(@NotNull byte[] bigEndianValue) {
+        if (bigEndianValue.length > valueWidth) {
+            throw new IllegalArgumentException("Decimal value doesn't fit into " + valueWidth + " bytes");
+        }
+        nextRow(true);
+        reserve(valueWidth);
+        byte sign = bigEndianValue.length > 0 && bigEndianValue[0] < 0 ? (byte) 0xFF : 0;
+        for (int i = 0; i < valueWidth; i++) {
+            int sourceIndex = bigEndianValue.length - 1 - i;
+            values[valuesSize + i] = sourceIndex >= 0 ? bigEndianValue[sourceIndex] : sign;
+        }
+        valuesSize += valueWidth;
+    }
+
+    public void writeBytes(@NotNull byte[] value) {
+        nextRow(true);
+        reserve(value.length);
+        System.arraycopy(value, 0, values, valuesSize, value.length);
+        valuesSize += value.length;
+        if (variableWidth) {
+            offsets[rowCount] = valuesSize;
+        }
+    }
+
+    private void nextRow(boolean valid) {
+        int row = rowCount++;
+        if ((row >> 3) >= validity.length) {
+            validity = Arrays.copyOf(validity, validity.length * 2);
+        }
+        if (valid) {
+            validity[row >> 3] |= (byte) (1 << (row & 7));
+        }
+        if (variableWidth && rowCount >= offsets.length) {
+            offsets = Arrays.copyOf(offsets, offsets.length * 2);
+        }
+        if (field.getTypeId() == ArrowConstants.TYPE_BOOL && !valid) {
+            reserve(0);
+            valuesSize = (rowCount + 7) >> 3;
+        }
+    }
+
+    private void reserve(int length) {
+        int required = field.getTypeId() == ArrowConstants.TYPE_BOOL ? (rowCount + 7) >> 3 : valuesSize + length;
+        if (required > values.length) {
+            values = Arrays.copyOf(values, Math.max(values.length * 2, required));
+        }
+    }
+
+    private void putShort(int position, int value) {
+        values[position] = (byte) value;
+        values[position + 1] = (byte) (value >> 8);
+    }
+
+    private void putInt(int position, int value) {
+        values[position] = (byte) value;
+        values[position + 1] = (byte) (value >> 8);
+        values[position + 2] = (byte) (value >> 16);
+        values[position + 3] = (byte) (value >> 24);
+    }
+
+    /**
+     * Returns lengths of IPC buffers (validity, [offsets,] values) for the current batch
+     */
+    long[] getBufferLengths() {
+        long validityLength = nullCount == 0 ? 0 : (rowCount + 7) >> 3;
+        if (variableWidth) {
+            return new long[] { validityLength, (rowCount + 1) * 4L, valuesSize };
+        }
+        return new long[] { validityLength, valuesSize };
+    }
+
+    int getNullCount() {
+        return nullCount;
+    }
+
+    /**
+     * Writes batch buffers, each one padded to 8 bytes
+     */
+    void writeBuffers(@NotNull OutputStream out) throws IOException {
+        if (nullCount > 0) {
+            writePadded(out, validity, (rowCount + 7) >> 3);
+        }
+        if (variableWidth) {
+            byte[] offsetBytes = new byte[(rowCount + 1) * 4];
+            for (int i = 0; i <= rowCount; i++) {
+                int offset = offsets[i];
+                offsetBytes[i * 4] = (byte) offset;
+                offsetBytes[i * 4 + 1] = (byte) (offset >> 8);
+                offsetBytes[i * 4 + 2] = (byte) (offset >> 16);
+                offsetBytes[i * 4 + 3] = (byte) (offset >> 24);
+            }
+            writePadded(out, offsetBytes, offsetBytes.length);
+        }
+        writePadded(out, values, valuesSize);
+    }
+
+    static long getPaddedLength(long length) {
+        return (length + 7) & ~7L;
+    }
+
+    private static void writePadded(OutputStream out, byte[] data, int length) throws IOException {
+        out.write(data, 0, length);
+        int padding = (int) (getPaddedLength(length) - length);
+        if (padding > 0) {
+            out.write(PADDING, 0, padding);
+        }
+    }
+
+    void reset() {
+        Arrays.fill(validity, 0, Math.min(validity.length, (rowCount + 7) >> 3), (byte) 0);
+        if (field.getTypeId() == ArrowConstants.TYPE_BOOL) {
+            Arrays.fill(values, 0, Math.min(values.length, valuesSize), (byte) 0);
+        }
+        rowCount = 0;
+        nullCount = 0;
+        valuesSize = 0;
+    }
+}
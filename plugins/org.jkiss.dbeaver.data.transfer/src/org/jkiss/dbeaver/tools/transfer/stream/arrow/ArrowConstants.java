@@ -0,0 +1,72 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.arrow;
+
+/**
+ * Arrow IPC format constants (see Schema.fbs, Message.fbs and File.fbs)
+ */
+public class ArrowConstants {
+
+    public static final byte[] MAGIC = {'A', 'R', 'R', 'O', 'W', '1'};
+    public static final int CONTINUATION_MARKER = 0xFFFFFFFF;
+    public static final short METADATA_VERSION_V5 = 4;
+
+    // Message header union
+    public static final byte MESSAGE_SCHEMA = 1;
+    public static final byte MESSAGE_DICTIONARY_BATCH = 2;
+    public static final byte MESSAGE_RECORD_BATCH = 3;
+
+    // Type union
+    public static final byte TYPE_NULL = 1;
+    public static final byte TYPE_INT = 2;
+    public static final byte TYPE_FLOATING_POINT = 3;
+    public static final byte TYPE_BINARY = 4;
+    public static final byte TYPE_UTF8 = 5;
+    public static final byte TYPE_BOOL = 6;
+    public static final byte TYPE_DECIMAL = 7;
+    public static final byte TYPE_DATE = 8;
+    public static final byte TYPE_TIME = 9;
+    public static final byte TYPE_TIMESTAMP = 10;
+    public static final byte TYPE_INTERVAL = 11;
+    public static final byte TYPE_LIST = 12;
+    public static final byte TYPE_STRUCT = 13;
+    public static final byte TYPE_UNION = 14;
+    public static final byte TYPE_FIXED_SIZE_BINARY = 15;
+    public static final byte TYPE_FIXED_SIZE_LIST = 16;
+    public static final byte TYPE_MAP = 17;
+    public static final byte TYPE_DURATION = 18;
+    public static final byte TYPE_LARGE_BINARY = 19;
+    public static final byte TYPE_LARGE_UTF8 = 20;
+
+    // Floating point precision
+    public static final short PRECISION_HALF = 0;
+    public static final short PRECISION_SINGLE = 1;
+    public static final short PRECISION_DOUBLE = 2;
+
+    // Date units
+    public static final short DATE_UNIT_DAY = 0;
+    public static final short DATE_UNIT_MILLISECOND = 1;
+
+    // Time units
+    public static final short TIME_UNIT_SECOND = 0;
+    public static final short TIME_UNIT_MILLISECOND = 1;
+    public static final short TIME_UNIT_MICROSECOND = 2;
+    public static final short TIME_UNIT_NANOSECOND = 3;
+
+    private ArrowConstants() {
+    }
+}
@@ -0,0 +1,298 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.arrow;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.util.Collections;
+
+/**
+ * Flat (non-nested) Arrow field definition
+ */
+public class ArrowField {
+
+    private final String name;
+    private final byte typeId;
+    private boolean nullable = true;
+    private int bitWidth;
+    private boolean signed = true;
+    private short precision;
+    private int decimalPrecision;
+    private int decimalScale;
+    private short unit;
+    private String timezone;
+    private int byteWidth;
+
+    public ArrowField(@NotNull String name, byte typeId) {
+        this.name = name;
+        this.typeId = typeId;
+    }
+
+    public static ArrowField ofInt(@NotNull String name, int bitWidth, boolean signed) {
+        ArrowField field = new ArrowField(name, ArrowConstants.TYPE_INT);
+        field.bitWidth = bitWidth;
+        field.signed = signed;
+        return field;
+    }
+
+    public static ArrowField ofFloatingPoint(@NotNull String name, short precision) {
+        ArrowField field = new ArrowField(name, ArrowConstants.TYPE_FLOATING_POINT);
+        field.precision = precision;
+        return field;
+    }
+
+    public static ArrowField ofDecimal(@NotNull String name, int precision, int scale, int bitWidth) {
+        ArrowField field = new ArrowField(name, ArrowConstants.TYPE_DECIMAL);
+        field.decimalPrecision = precision;
+        field.decimalScale = scale;
+        field.bitWidth = bitWidth;
+        return field;
+    }
+
+    public static ArrowField ofDate(@NotNull String name, short unit) {
+        ArrowField field = new ArrowField(name, ArrowConstants.TYPE_DATE);
+        field.unit = unit;
+        return field;
+    }
+
+    public static ArrowField ofTime(@NotNull String name, short unit, int bitWidth) {
+        ArrowField field = new ArrowField(name, ArrowConstants.TYPE_TIME);
+        field.unit = unit;
+        field.bitWidth = bitWidth;
+        return field;
+    }
+
+    public static ArrowField ofTimestamp(@NotNull String name, short unit, @Nullable String timezone) {
+        ArrowField field = new ArrowField(name, ArrowConstants.TYPE_TIMESTAMP);
+        field.unit = unit;
+        field.timezone = timezone;
+        return field;
+    }
+
+    public static ArrowField ofDuration(@NotNull String name, short unit) {
+        ArrowField field = new ArrowField(name, ArrowConstants.TYPE_DURATION);
+        field.unit = unit;
+        return field;
+    }
+
+    public static ArrowField ofFixedSizeBinary(@NotNull String name, int byteWidth) {
+        ArrowField field = new ArrowField(name, ArrowConstants.TYPE_FIXED_SIZE_BINARY);
+        field.byteWidth = byteWidth;
+        return field;
+    }
+
+    @NotNull
+    public String getName() {
+        return name;
+    }
+
+    public byte getTypeId() {
+        return typeId;
+    }
+
+    public boolean isNullable() {
+        return nullable;
+    }
+
+    public ArrowField setNullable(boolean nullable) {
+        this.nullable = nullable;
+        return this;
+    }
+
+    public int getBitWidth() {
+        return bitWidth;
+    }
+
+    public boolean isSigned() {
+        return signed;
+    }
+
+    public short getPrecision() {
+        return precision;
+    }
+
+    public int getDecimalPrecision() {
+        return decimalPrecision;
+    }
+
+    public int getDecimalScale() {
+        return decimalScale;
+    }
+
+    public short getUnit() {
+        return unit;
+    }
+
+    @Nullable
+    public String getTimezone() {
+        return timezone;
+    }
+
+    /**
+     * Value width in bytes for fixed-width types, 0 for boolean and variable-width types.
+     */
+    public int getValueWidth() {
+        switch (typeId) {
+            case ArrowConstants.TYPE_INT:
+            case ArrowConstants.TYPE_DECIMAL:
+                return bitWidth / 8;
+            case ArrowConstants.TYPE_FLOATING_POINT:
+                return precision == ArrowConstants.PRECISION_HALF ? 2 : precision == ArrowConstants.PRECISION_SINGLE ? 4 : 8;
+            case ArrowConstants.TYPE_DATE:
+                return unit == ArrowConstants.DATE_UNIT_DAY ? 4 : 8;
+            case ArrowConstants.TYPE_TIME:
+                return bitWidth / 8;
+            case ArrowConstants.TYPE_TIMESTAMP:
+            case ArrowConstants.TYPE_DURATION:
+                return 8;
+            case ArrowConstants.TYPE_FIXED_SIZE_BINARY:
+                return byteWidth;
+            default:
+                return 0;
+        }
+    }
+
+    public boolean isVariableWidth() {
+        return typeId == ArrowConstants.TYPE_UTF8 || typeId == ArrowConstants.TYPE_BINARY ||
+            typeId == ArrowConstants.TYPE_LARGE_UTF8 || typeId == ArrowConstants.TYPE_LARGE_BINARY;
+    }
+
+    public boolean isLargeVariableWidth() {
+        return typeId == ArrowConstants.TYPE_LARGE_UTF8 || typeId == ArrowConstants.TYPE_LARGE_BINARY;
+    }
+
+    /**
+     * Number of IPC buffers used by this field
+     */
+    public int getBufferCount() {
+        if (typeId == ArrowConstants.TYPE_NULL) {
+            return 0;
+        }
+        return isVariableWidth() ? 3 : 2;
+    }
+
+    @NotNull
+    FlatBufferWriter.Table serialize() {
+        FlatBufferWriter.Table type = new FlatBufferWriter.Table();
+        switch (typeId) {
+            case ArrowConstants.TYPE_INT:
+                type.addInt(0, bitWidth).addBool(1, signed);
+                break;
+            case ArrowConstants.TYPE_FLOATING_POINT:
+                type.addShort(0, precision);
+                break;
+            case ArrowConstants.TYPE_DECIMAL:
+                type.addInt(0, decimalPrecision).addInt(1, decimalScale).addInt(2, bitWidth);
+                break;
+            case ArrowConstants.TYPE_DATE:
+            case ArrowConstants.TYPE_DURATION:
+                type.addShort(0, unit);
+                break;
+            case ArrowConstants.TYPE_TIME:
+                type.addShort(0, unit).addInt(1, bitWidth);
+                break;
+            case ArrowConstants.TYPE_TIMESTAMP:
+                type.addShort(0, unit);
+                if (timezone != null) {
+                    type.addString(1, timezone);
+                }
+                break;
+            case ArrowConstants.TYPE_FIXED_SIZE_BINARY:
+                type.addInt(0, byteWidth);
+                break;
+            default:
+                break;
+        }
+        return new FlatBufferWriter.Table()
+            .addString(0, name)
+            .addBool(1, nullable)
+            .addByte(2, typeId)
+            .addTable(3, type)
+            .addTableVector(5, Collections.emptyList());
+    }
+
+    /**
+     * Reads field from the Schema.Field table
+     */
+    @NotNull
+    static ArrowField deserialize(@NotNull FlatTable table) throws ArrowFormatException {
+        String name = table.getString(0);
+        byte typeId = table.getByte(2, (byte) 0);
+        FlatTable type = table.getTable(3);
+        if (table.hasField(4)) {
+            throw new ArrowFormatException("Dictionary encoded field '" + name + "' is not supported");
+        }
+        if (table.getVectorLength(5) > 0) {
+            throw new ArrowFormatException("Nested field '" + name + "' is not supported");
+        }
+        ArrowField field = new ArrowField(name == null ? "" : name, typeId);
+        field.nullable = table.getBool(1, false);
+        switch (typeId) {
+            case ArrowConstants.TYPE_NULL:
+            case ArrowConstants.TYPE_BOOL:
+            case ArrowConstants.TYPE_UTF8:
+            case ArrowConstants.TYPE_BINARY:
+            case ArrowConstants.TYPE_LARGE_UTF8:
+            case ArrowConstants.TYPE_LARGE_BINARY:
+                break;
+            case ArrowConstants.TYPE_INT:
+                field.bitWidth = type == null ? 0 : type.getInt(0, 0);
+                field.signed = type == null || type.getBool(1, false);
+                break;
+            case ArrowConstants.TYPE_FLOATING_POINT:
+                field.precision = type == null ? ArrowConstants.PRECISION_DOUBLE : type.getShort(0, ArrowConstants.PRECISION_HALF);
+                if (field.precision == ArrowConstants.PRECISION_HALF) {
+                    throw new ArrowFormatException("Half-precision floating point field '" + name + "' is not supported");
+                }
+                break;
+            case ArrowConstants.TYPE_DECIMAL:
+                if (type == null) {
+                    throw new ArrowFormatException("Decimal field '" + name + "' has no type information");
+                }
+                field.decimalPrecision = type.getInt(0, 0);
+                field.decimalScale = type.getInt(1, 0);
+                field.bitWidth = type.getInt(2, 128);
+                break;
+            case ArrowConstants.TYPE_DATE:
+                field.unit = type == null ? ArrowConstants.DATE_UNIT_MILLISECOND : type.getShort(0, ArrowConstants.DATE_UNIT_MILLISECOND);
+                break;
+            case ArrowConstants.TYPE_TIME:
+                field.unit = type == null ? ArrowConstants.TIME_UNIT_MILLISECOND : type.getShort(0, ArrowConstants.TIME_UNIT_MILLISECOND);
+                field.bitWidth = type == null ? 32 : type.getInt(1, 32);
+                break;
+            case ArrowConstants.TYPE_TIMESTAMP:
+                field.unit = type == null ? ArrowConstants.TIME_UNIT_SECOND : type.getShort(0, ArrowConstants.TIME_UNIT_SECOND);
+                field.timezone = type == null ? null : type.getString(1);
+                break;
+            case ArrowConstants.TYPE_DURATION:
+                field.unit = type == null ? ArrowConstants.TIME_UNIT_MILLISECOND : type.getShort(0, ArrowConstants.TIME_UNIT_MILLISECOND);
+                break;
+            case ArrowConstants.TYPE_FIXED_SIZE_BINARY:
+                field.byteWidth = type == null ? 0 : type.getInt(0, 0);
+                break;
+            default:
+                throw new ArrowFormatException("Arrow type " + typeId + " of field '" + name + "' is not supported");
+        }
+        return field;
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + typeId + ")";
+    }
+}
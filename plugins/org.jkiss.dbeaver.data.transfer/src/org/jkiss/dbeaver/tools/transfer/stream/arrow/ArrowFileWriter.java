@@ -0,0 +1,206 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.arrow;
+
+import org.jkiss.code.NotNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes Arrow IPC file format (Feather v2).
+ * Rows are accumulated in column writers and written as record batches, so memory usage is bounded by the batch size.
+ */
+public class ArrowFileWriter {
+
+    public static final int DEFAULT_BATCH_ROWS = 64 * 1024;
+    public static final long DEFAULT_BATCH_SIZE = 64L * 1024 * 1024;
+
+    private static final int BLOCK_SIZE = 24;
+
+    private final OutputStream out;
+    private final List<ArrowField> fields;
+    private final ArrowColumnWriter[] columnWriters;
+    private final List<long[]> blocks = new ArrayList<>();
+    private int batchRows = DEFAULT_BATCH_ROWS;
+    private long batchSize = DEFAULT_BATCH_SIZE;
+
+    private long position;
+    private int bufferedRows;
+    private long totalRows;
+
+    public ArrowFileWriter(@NotNull OutputStream out, @NotNull List<ArrowField> fields) {
+        this.out = out;
+        this.fields = fields;
+        this.columnWriters = new ArrowColumnWriter[fields.size()];
+        for (int i = 0; i < columnWriters.length; i++) {
+            columnWriters[i] = new ArrowColumnWriter(fields.get(i));
+        }
+    }
+
+    /**
+     * Maximum number of rows in a record batch
+     */
+    public void setBatchRows(int batchRows) {
+        this.batchRows = Math.max(1, batchRows);
+    }
+
+    /**
+     * Maximum amount of buffered data (in bytes) in a record batch
+     */
+    public void setBatchSize(long batchSize) {
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @NotNull
+    public ArrowColumnWriter getColumnWriter(int index) {
+        return columnWriters[index];
+    }
+
+    public long getTotalRows() {
+        return totalRows + bufferedRows;
+    }
+
+    public void start() throws IOException {
+        out.write(ArrowConstants.MAGIC);
+        out.write(new byte[2]);
+        position = 8;
+        writeMessage(ArrowConstants.MESSAGE_SCHEMA, serializeSchema(), 0);
+    }
+
+    /**
+     * Must be called after values of all columns were written
+     */
+    public void endRow() throws IOException {
+        bufferedRows++;
+        if (bufferedRows >= batchRows || ((bufferedRows & 0xFF) == 0 && getBufferedSize() >= batchSize)) {
+            flushBatch();
+        }
+    }
+
+    private long getBufferedSize() {
+        long size = 0;
+        for (ArrowColumnWriter writer : columnWriters) {
+            size += writer.getBufferedSize();
+        }
+        return size;
+    }
+
+    /**
+     * Writes buffered rows as a record batch
+     */
+    public void flushBatch() throws IOException {
+        if (bufferedRows == 0) {
+            return;
+        }
+        long[] nodes = new long[columnWriters.length * 2];
+        List<Long> bufferLengths = new ArrayList<>();
+        for (int i = 0; i < columnWriters.length; i++) {
+            ArrowColumnWriter writer = columnWriters[i];
+            if (writer.getRowCount() != bufferedRows) {
+                throw new IOException("Column '" + writer.getField().getName() + "' has " +
+                    writer.getRowCount() + " values while " + bufferedRows + " rows were written");
+            }
+            nodes[i * 2] = bufferedRows;
+            nodes[i * 2 + 1] = writer.getNullCount();
+            for (long length : writer.getBufferLengths()) {
+                bufferLengths.add(length);
+            }
+        }
+        long[] buffers = new long[bufferLengths.size() * 2];
+        long bodyLength = 0;
+        for (int i = 0; i < bufferLengths.size(); i++) {
+            buffers[i * 2] = bodyLength;
+            buffers[i * 2 + 1] = bufferLengths.get(i);
+            bodyLength += ArrowColumnWriter.getPaddedLength(bufferLengths.get(i));
+        }
+        FlatBufferWriter.Table recordBatch = new FlatBufferWriter.Table()
+            .addLong(0, bufferedRows)
+            .addStructVector(1, nodes, 16)
+            .addStructVector(2, buffers, 16);
+        writeMessage(ArrowConstants.MESSAGE_RECORD_BATCH, recordBatch, bodyLength);
+        for (ArrowColumnWriter writer : columnWriters) {
+            writer.writeBuffers(out);
+            writer.reset();
+        }
+        position += bodyLength;
+        totalRows += bufferedRows;
+        bufferedRows = 0;
+    }
+
+    /**
+     * Flushes remaining rows, writes end-of-stream marker and file footer. Doesn't close the output stream.
+     */
+    public void finish() throws IOException {
+        flushBatch();
+        writeInt(ArrowConstants.CONTINUATION_MARKER);
+        writeInt(0);
+        position += 8;
+
+        long[] recordBatches = new long[blocks.size() * 3];
+        for (int i = 0; i < blocks.size(); i++) {
+            System.arraycopy(blocks.get(i), 0, recordBatches, i * 3, 3);
+        }
+        FlatBufferWriter.Table footer = new FlatBufferWriter.Table()
+            .addShort(0, ArrowConstants.METADATA_VERSION_V5)
+            .addTable(1, serializeSchema())
+            .addStructVector(2, new long[0], BLOCK_SIZE)
+            .addStructVector(3, recordBatches, BLOCK_SIZE);
+        byte[] footerBytes = FlatBufferWriter.serialize(footer);
+        out.write(footerBytes);
+        writeInt(footerBytes.length);
+        out.write(ArrowConstants.MAGIC);
+        position += footerBytes.length + 4 + ArrowConstants.MAGIC.length;
+        out.flush();
+    }
+
+    private FlatBufferWriter.Table serializeSchema() {
+        List<FlatBufferWriter.Table> fieldTables = new ArrayList<>(fields.size());
+        for (ArrowField field : fields) {
+            fieldTables.add(field.serialize());
+        }
+        return new FlatBufferWriter.Table()
+            .addShort(0, 0)
+            .addTableVector(1, fieldTables);
+    }
+
+    private void writeMessage(byte headerType, FlatBufferWriter.Table header, long bodyLength) throws IOException {
+        FlatBufferWriter.Table message = new FlatBufferWriter.Table()
+            .addShort(0, ArrowConstants.METADATA_VERSION_V5)
+            .addByte(1, headerType)
+            .addTable(2, header)
+            .addLong(3, bodyLength);
+        byte[] metadata = FlatBufferWriter.serialize(message);
+        if (headerType == ArrowConstants.MESSAGE_RECORD_BATCH) {
+            // Block: offset, metadata length (int + padding), body length
+            blocks.add(new long[] { position, 8 + metadata.length, bodyLength });
+        }
+        writeInt(ArrowConstants.CONTINUATION_MARKER);
+        writeInt(metadata.length);
+        out.write(metadata);
+        position += 8 + metadata.length;
+    }
+
+    private void writeInt(int value) throws IOException {
+        out.write(value);
+        out.write(value >>> 8);
+        out.write(value >>> 16);
+        out.write(value >>> 24);
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.arrow;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.*;
+import java.util.List;
+
+/**
+ * Record batch read from Arrow IPC data.
+ * Column vectors are views over the batch body buffer, values are decoded only when accessed.
+ */
+public class ArrowRecordBatch {
+
+    private final int rowCount;
+    private final Vector[] vectors;
+
+    ArrowRecordBatch(@NotNull List<ArrowField> fields, @NotNull FlatTable recordBatch, @NotNull ByteBuffer body) throws ArrowFormatException {
+        if (recordBatch.hasField(3)) {
+            throw new ArrowFormatException("Compressed Arrow record batches are not supported");
+        }
+        long length = recordBatch.getLong(0, 0);
+        if (length > Integer.MAX_VALUE) {
+            throw new ArrowFormatException("Too many rows in Arrow record batch: " + length);
+        }
+        this.rowCount = (int) length;
+        this.vectors = new Vector[fields.size()];
+        int nodeCount = recordBatch.getVectorLength(1);
+        int bufferCount = recordBatch.getVectorLength(2);
+        if (nodeCount < fields.size()) {
+            throw new ArrowFormatException("Arrow record batch has " + nodeCount + " nodes for " + fields.size() + " fields");
+        }
+        int bufferIndex = 0;
+        for (int i = 0; i < fields.size(); i++) {
+            ArrowField field = fields.get(i);
+            long nullCount = recordBatch.getVectorStructLong(1, i, 16, 8);
+            ByteBuffer[] buffers = new ByteBuffer[field.getBufferCount()];
+            if (bufferIndex + buffers.length > bufferCount) {
+                throw new ArrowFormatException("Not enough buffers in Arrow record batch");
+            }
+            for (int b = 0; b < buffers.length; b++, bufferIndex++) {
+                long offset = recordBatch.getVectorStructLong(2, bufferIndex, 16, 0);
+                long bufferLength = recordBatch.getVectorStructLong(2, bufferIndex, 16, 8);
+                if (offset < 0 || bufferLength < 0 || offset + bufferLength > body.capacity()) {
+                    throw new ArrowFormatException("Arrow buffer is out of message body bounds");
+                }
+                ByteBuffer slice = body.duplicate();
+                slice.position((int) offset);
+                slice.limit((int) (offset + bufferLength));
+                buffers[b] = slice.slice().order(ByteOrder.LITTLE_ENDIAN);
+            }
+            vectors[i] = new Vector(field, buffers, nullCount);
+        }
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public int getColumnCount() {
+        return vectors.length;
+    }
+
+    public boolean isNull(int column, int row) {
+        return vectors[column].isNull(row);
+    }
+
+    /**
+     * Returns value converted to a JDBC-compatible Java object
+     */
+    @Nullable
+    public Object getObject(int column, int row) {
+        return vectors[column].getObject(row);
+    }
+
+    private static class Vector {
+        private final ArrowField field;
+        private final ByteBuffer validity;
+        private final ByteBuffer offsets;
+        private final ByteBuffer data;
+        private final int valueWidth;
+
+        Vector(ArrowField field, ByteBuffer[] buffers, long nullCount) {
+            this.field = field;
+            this.valueWidth = field.getValueWidth();
+            if (buffers.length == 0) {
+                validity = offsets = data = null;
+            } else {
+                validity = nullCount == 0 || buffers[0].capacity() == 0 ? null : buffers[0];
+                offsets = buffers.length == 3 ? buffers[1] : null;
+                data = buffers[buffers.length - 1];
+            }
+        }
+
+        boolean isNull(int row) {
+            if (field.getTypeId() == ArrowConstants.TYPE_NULL) {
+                return true;
+            }
+            return validity != null && (validity.get(row >> 3) & (1 << (row & 7))) == 0;
+        }
+
+        Object getObject(int row) {
+            if (isNull(row)) {
+                return null;
+            }
+            switch (field.getTypeId()) {
+                case ArrowConstants.TYPE_BOOL:
+                    return (data.get(row >> 3) & (1 << (row & 7))) != 0;
+                case ArrowConstants.TYPE_INT:
+                    return getInteger(row);
+                case ArrowConstants.TYPE_FLOATING_POINT:
+                    return valueWidth == 4 ? (Object) data.getFloat(row * 4) : (Object) data.getDouble(row * 8);
+                case ArrowConstants.TYPE_DECIMAL: {
+                    byte[] bigEndian = new byte[valueWidth];
+                    for (int i = 0; i < valueWidth; i++) {
+                        bigEndian[i] = data.get(row * valueWidth + valueWidth - 1 - i);
+                    }
+                    return new BigDecimal(new BigInteger(bigEndian), field.getDecimalScale());
+                }
+                case ArrowConstants.TYPE_DATE: {
+                    LocalDate date = field.getUnit() == ArrowConstants.DATE_UNIT_DAY ?
+                        LocalDate.ofEpochDay(data.getInt(row * 4)) :
+                        LocalDate.ofEpochDay(Math.floorDiv(data.getLong(row * 8), 86_400_000L));
+                    return Date.valueOf(date);
+                }
+                case ArrowConstants.TYPE_TIME: {
+                    long value = valueWidth == 4 ? data.getInt(row * 4) : data.getLong(row * 8);
+                    return Time.valueOf(LocalTime.ofNanoOfDay(toNanos(value, field.getUnit())));
+                }
+                case ArrowConstants.TYPE_TIMESTAMP: {
+                    Instant instant = toInstant(data.getLong(row * 8), field.getUnit());
+                    if (field.getTimezone() == null || field.getTimezone().isEmpty()) {
+                        // Local date/time without zone
+                        return Timestamp.valueOf(LocalDateTime.ofEpochSecond(instant.getEpochSecond(), instant.getNano(), ZoneOffset.UTC));
+                    }
+                    return Timestamp.from(instant);
+                }
+                case ArrowConstants.TYPE_DURATION:
+                    return data.getLong(row * 8);
+                case ArrowConstants.TYPE_FIXED_SIZE_BINARY: {
+                    byte[] bytes = new byte[valueWidth];
+                    ByteBuffer bb = data.duplicate();
+                    bb.position(row * valueWidth);
+                    bb.get(bytes);
+                    return bytes;
+                }
+                case ArrowConstants.TYPE_UTF8:
+                case ArrowConstants.TYPE_LARGE_UTF8:
+                case ArrowConstants.TYPE_BINARY:
+                case ArrowConstants.TYPE_LARGE_BINARY: {
+                    int start, end;
+                    if (field.isLargeVariableWidth()) {
+                        start = (int) offsets.getLong(row * 8);
+                        end = (int) offsets.getLong(row * 8 + 8);
+                    } else {
+                        start = offsets.getInt(row * 4);
+                        end = offsets.getInt(row * 4 + 4);
+                    }
+                    byte[] bytes = new byte[end - start];
+                    ByteBuffer bb = data.duplicate();
+                    bb.position(start);
+                    bb.get(bytes);
+                    if (field.getTypeId() == ArrowConstants.TYPE_UTF8 || field.getTypeId() == ArrowConstants.TYPE_LARGE_UTF8) {
+                        return new String(bytes, StandardCharsets.UTF_8);
+                    }
+                    return bytes;
+                }
+                default:
+                    return null;
+            }
+        }
+
+        private Object getInteger(int row) {
+            switch (valueWidth) {
+                case 1: {
+                    byte value = data.get(row);
+                    return field.isSigned() ? (int) value : value & 0xFF;
+                }
+                case 2: {
+                    short value = data.getShort(row * 2);
+                    return field.isSigned() ? (int) value : value & 0xFFFF;
+                }
+                case 4: {
+                    int value = data.getInt(row * 4);
+                    return field.isSigned() ? (Object) value : (Object) (value & 0xFFFFFFFFL);
+                }
+                default: {
+                    long value = data.getLong(row * 8);
+                    if (field.isSigned() || value >= 0) {
+                        return value;
+                    }
+                    return new BigInteger(Long.toUnsignedString(value));
+                }
+            }
+        }
+
+        private static long toNanos(long value, short unit) {
+            switch (unit) {
+                case ArrowConstants.TIME_UNIT_SECOND: return value * 1_000_000_000L;
+                case ArrowConstants.TIME_UNIT_MILLISECOND: return value * 1_000_000L;
+                case ArrowConstants.TIME_UNIT_MICROSECOND: return value * 1_000L;
+                default: return value;
+            }
+        }
+
+        private static Instant toInstant(long value, short unit) {
+            switch (unit) {
+                case ArrowConstants.TIME_UNIT_SECOND:
+                    return Instant.ofEpochSecond(value);
+                case ArrowConstants.TIME_UNIT_MILLISECOND:
+                    return Instant.ofEpochMilli(value);
+                case ArrowConstants.TIME_UNIT_MICROSECOND:
+                    return Instant.ofEpochSecond(Math.floorDiv(value, 1_000_000L), Math.floorMod(value, 1_000_000L) * 1_000L);
+                default:
+                    return Instant.ofEpochSecond(Math.floorDiv(value, 1_000_000_000L), Math.floorMod(value, 1_000_000_000L));
+            }
+        }
+    }
+}
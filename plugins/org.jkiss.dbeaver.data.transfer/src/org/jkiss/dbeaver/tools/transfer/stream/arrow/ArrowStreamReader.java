@@ -0,0 +1,166 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.arrow;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Sequential reader of Arrow IPC data. Supports both file (Feather v2) and stream formats.
+ * The file footer is not used, so data is read in a single pass and only one record batch is kept in memory.
+ */
+public class ArrowStreamReader implements Closeable {
+
+    private final DataInputStream in;
+    private List<ArrowField> fields;
+    private boolean finished;
+
+    public ArrowStreamReader(@NotNull InputStream inputStream) {
+        this.in = new DataInputStream(inputStream.markSupported() ? inputStream : new BufferedInputStream(inputStream, 64 * 1024));
+    }
+
+    /**
+     * Reads schema message. Must be called before reading batches.
+     */
+    @NotNull
+    public List<ArrowField> readSchema() throws IOException {
+        if (fields != null) {
+            return fields;
+        }
+        in.mark(8);
+        byte[] header = new byte[8];
+        try {
+            in.readFully(header);
+        } catch (EOFException e) {
+            throw new ArrowFormatException("Empty or truncated Arrow data");
+        }
+        if (!Arrays.equals(Arrays.copyOf(header, ArrowConstants.MAGIC.length), ArrowConstants.MAGIC)) {
+            // Stream format, no file header
+            in.reset();
+        }
+        Message message = readMessage();
+        if (message == null || message.headerType != ArrowConstants.MESSAGE_SCHEMA) {
+            throw new ArrowFormatException("Arrow schema message not found");
+        }
+        FlatTable schema = message.header;
+        if (schema.getShort(0, (short) 0) != 0) {
+            throw new ArrowFormatException("Big-endian Arrow data is not supported");
+        }
+        int fieldCount = schema.getVectorLength(1);
+        List<ArrowField> result = new ArrayList<>(fieldCount);
+        for (int i = 0; i < fieldCount; i++) {
+            result.add(ArrowField.deserialize(schema.getVectorTable(1, i)));
+        }
+        fields = Collections.unmodifiableList(result);
+        return fields;
+    }
+
+    /**
+     * Reads next record batch or returns null at the end of stream
+     */
+    @Nullable
+    public ArrowRecordBatch readBatch() throws IOException {
+        readSchema();
+        while (!finished) {
+            Message message = readMessage();
+            if (message == null) {
+                finished = true;
+                break;
+            }
+            switch (message.headerType) {
+                case ArrowConstants.MESSAGE_RECORD_BATCH:
+                    return new ArrowRecordBatch(fields, message.header, message.body);
+                case ArrowConstants.MESSAGE_DICTIONARY_BATCH:
+                    throw new ArrowFormatException("Arrow dictionary batches are not supported");
+                default:
+                    // Skip unknown messages
+                    break;
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    private Message readMessage() throws IOException {
+        int metadataLength;
+        try {
+            metadataLength = readInt();
+        } catch (EOFException e) {
+            return null;
+        }
+        if (metadataLength == ArrowConstants.CONTINUATION_MARKER) {
+            metadataLength = readInt();
+        }
+        if (metadataLength == 0) {
+            // End of stream
+            return null;
+        }
+        if (metadataLength < 0) {
+            throw new ArrowFormatException("Invalid Arrow message length: " + metadataLength);
+        }
+        byte[] metadata = new byte[metadataLength];
+        in.readFully(metadata);
+        FlatTable message = FlatTable.getRoot(ByteBuffer.wrap(metadata));
+        byte headerType = message.getByte(1, (byte) 0);
+        FlatTable header = message.getTable(2);
+        long bodyLength = message.getLong(3, 0);
+        if (header == null) {
+            throw new ArrowFormatException("Arrow message has no header");
+        }
+        if (bodyLength > Integer.MAX_VALUE - 8) {
+            throw new ArrowFormatException("Arrow record batch is too big (" + bodyLength + " bytes)");
+        }
+        ByteBuffer body;
+        if (bodyLength > 0) {
+            byte[] bodyBytes = new byte[(int) bodyLength];
+            in.readFully(bodyBytes);
+            body = ByteBuffer.wrap(bodyBytes).order(ByteOrder.LITTLE_ENDIAN);
+        } else {
+            body = ByteBuffer.allocate(0).order(ByteOrder.LITTLE_ENDIAN);
+        }
+        return new Message(headerType, header, body);
+    }
+
+    private int readInt() throws IOException {
+        return Integer.reverseBytes(in.readInt());
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private static class Message {
+        final byte headerType;
+        final FlatTable header;
+        final ByteBuffer body;
+
+        Message(byte headerType, FlatTable header, ByteBuffer body) {
+            this.headerType = headerType;
+            this.header = header;
+            this.body = body;
+        }
+    }
+}
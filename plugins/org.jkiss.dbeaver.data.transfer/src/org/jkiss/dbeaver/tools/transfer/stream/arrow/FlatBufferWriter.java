@@ -0,0 +1,289 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.arrow;
+
+import org.jkiss.code.NotNull;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Minimal FlatBuffers serializer.
+ * Objects are described as a tree and written front to back: every object is placed after the object
+ * which references it, so all offsets are positive as FlatBuffers requires.
+ */
+public class FlatBufferWriter {
+
+    private byte[] buffer = new byte[256];
+    private int size;
+
+    private FlatBufferWriter() {
+    }
+
+    /**
+     * Serializes table tree into a FlatBuffers buffer. Result length is padded to 8 bytes.
+     */
+    @NotNull
+    public static byte[] serialize(@NotNull Table root) {
+        FlatBufferWriter writer = new FlatBufferWriter();
+        ArrayDeque<PendingObject> queue = new ArrayDeque<>();
+        writer.size = 4;
+        queue.add(new PendingObject(0, root));
+        while (!queue.isEmpty()) {
+            PendingObject pending = queue.poll();
+            int position = pending.object.write(writer, queue);
+            writer.putInt(pending.referencePosition, position - pending.referencePosition);
+        }
+        writer.align(8, 0);
+        return Arrays.copyOf(writer.buffer, writer.size);
+    }
+
+    private void align(int alignment, int shift) {
+        while ((size + shift) % alignment != 0) {
+            ensureCapacity(1);
+            buffer[size++] = 0;
+        }
+    }
+
+    private void ensureCapacity(int length) {
+        if (size + length > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + length));
+        }
+    }
+
+    private int reserve(int length) {
+        ensureCapacity(length);
+        int position = size;
+        size += length;
+        return position;
+    }
+
+    private void putShort(int position, int value) {
+        buffer[position] = (byte) value;
+        buffer[position + 1] = (byte) (value >> 8);
+    }
+
+    private void putInt(int position, int value) {
+        buffer[position] = (byte) value;
+        buffer[position + 1] = (byte) (value >> 8);
+        buffer[position + 2] = (byte) (value >> 16);
+        buffer[position + 3] = (byte) (value >> 24);
+    }
+
+    private void putLong(int position, long value) {
+        putInt(position, (int) value);
+        putInt(position + 4, (int) (value >> 32));
+    }
+
+    private static class PendingObject {
+        final int referencePosition;
+        final FlatObject object;
+
+        PendingObject(int referencePosition, FlatObject object) {
+            this.referencePosition = referencePosition;
+            this.object = object;
+        }
+    }
+
+    private interface FlatObject {
+        /**
+         * Writes object and returns its position
+         */
+        int write(FlatBufferWriter writer, ArrayDeque<PendingObject> queue);
+    }
+
+    /**
+     * Table builder. Fields are identified by slot (field index in schema).
+     */
+    public static class Table implements FlatObject {
+        private final List<Field> fields = new ArrayList<>();
+
+        public Table addByte(int slot, int value) {
+            fields.add(new Field(slot, 1, value, null));
+            return this;
+        }
+
+        public Table addBool(int slot, boolean value) {
+            return addByte(slot, value ? 1 : 0);
+        }
+
+        public Table addShort(int slot, int value) {
+            fields.add(new Field(slot, 2, value, null));
+            return this;
+        }
+
+        public Table addInt(int slot, int value) {
+            fields.add(new Field(slot, 4, value, null));
+            return this;
+        }
+
+        public Table addLong(int slot, long value) {
+            fields.add(new Field(slot, 8, value, null));
+            return this;
+        }
+
+        public Table addTable(int slot, @NotNull Table table) {
+            fields.add(new Field(slot, 4, 0, table));
+            return this;
+        }
+
+        public Table addString(int slot, @NotNull String value) {
+            fields.add(new Field(slot, 4, 0, new StringObject(value)));
+            return this;
+        }
+
+        public Table addTableVector(int slot, @NotNull List<Table> tables) {
+            fields.add(new Field(slot, 4, 0, new TableVector(tables)));
+            return this;
+        }
+
+        /**
+         * Adds vector of structs. Each struct consists of 8-byte values.
+         */
+        public Table addStructVector(int slot, @NotNull long[] values, int structSize) {
+            fields.add(new Field(slot, 4, 0, new StructVector(values, structSize)));
+            return this;
+        }
+
+        @Override
+        public int write(FlatBufferWriter writer, ArrayDeque<PendingObject> queue) {
+            // Larger fields first to keep them aligned
+            List<Field> sorted = new ArrayList<>(fields);
+            sorted.sort((f1, f2) -> f2.size - f1.size);
+            int maxSlot = -1;
+            for (Field field : fields) {
+                maxSlot = Math.max(maxSlot, field.slot);
+            }
+            int[] slotOffsets = new int[maxSlot + 1];
+            int tableSize = 4;
+            boolean hasLongs = !sorted.isEmpty() && sorted.get(0).size == 8;
+            if (hasLongs) {
+                tableSize += 4;
+            }
+            for (Field field : sorted) {
+                slotOffsets[field.slot] = tableSize;
+                field.offset = tableSize;
+                tableSize += field.size;
+            }
+
+            // Vtable
+            writer.align(2, 0);
+            int vtablePosition = writer.reserve(4 + slotOffsets.length * 2);
+            writer.putShort(vtablePosition, 4 + slotOffsets.length * 2);
+            writer.putShort(vtablePosition + 2, tableSize);
+            for (int i = 0; i < slotOffsets.length; i++) {
+                writer.putShort(vtablePosition + 4 + i * 2, slotOffsets[i]);
+            }
+
+            // Table itself: soffset must be 4-aligned, 8-byte fields follow 4 bytes of padding
+            writer.align(hasLongs ? 8 : 4, hasLongs ? 4 : 0);
+            int tablePosition = writer.reserve(tableSize);
+            writer.putInt(tablePosition, tablePosition - vtablePosition);
+            for (Field field : sorted) {
+                int position = tablePosition + field.offset;
+                if (field.reference != null) {
+                    queue.add(new PendingObject(position, field.reference));
+                    continue;
+                }
+                switch (field.size) {
+                    case 1: writer.buffer[position] = (byte) field.value; break;
+                    case 2: writer.putShort(position, (int) field.value); break;
+                    case 4: writer.putInt(position, (int) field.value); break;
+                    default: writer.putLong(position, field.value); break;
+                }
+            }
+            return tablePosition;
+        }
+    }
+
+    private static class Field {
+        final int slot;
+        final int size;
+        final long value;
+        final FlatObject reference;
+        int offset;
+
+        Field(int slot, int size, long value, FlatObject reference) {
+            this.slot = slot;
+            this.size = size;
+            this.value = value;
+            this.reference = reference;
+        }
+    }
+
+    private static class StringObject implements FlatObject {
+        private final byte[] bytes;
+
+        StringObject(String value) {
+            this.bytes = value.getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public int write(FlatBufferWriter writer, ArrayDeque<PendingObject> queue) {
+            writer.align(4, 0);
+            int position = writer.reserve(4 + bytes.length + 1);
+            writer.putInt(position, bytes.length);
+            System.arraycopy(bytes, 0, writer.buffer, position + 4, bytes.length);
+            writer.buffer[position + 4 + bytes.length] = 0;
+            return position;
+        }
+    }
+
+    private static class TableVector implements FlatObject {
+        private final List<Table> tables;
+
+        TableVector(List<Table> tables) {
+            this.tables = tables;
+        }
+
+        @Override
+        public int write(FlatBufferWriter writer, ArrayDeque<PendingObject> queue) {
+            writer.align(4, 0);
+            int position = writer.reserve(4 + tables.size() * 4);
+            writer.putInt(position, tables.size());
+            for (int i = 0; i < tables.size(); i++) {
+                queue.add(new PendingObject(position + 4 + i * 4, tables.get(i)));
+            }
+            return position;
+        }
+    }
+
+    private static class StructVector implements FlatObject {
+        private final long[] values;
+        private final int structSize;
+
+        StructVector(long[] values, int structSize) {
+            this.values = values;
+            this.structSize = structSize;
+        }
+
+        @Override
+        public int write(FlatBufferWriter writer, ArrayDeque<PendingObject> queue) {
+            // Elements must be 8-aligned
+            writer.align(8, 4);
+            int position = writer.reserve(4 + values.length * 8);
+            writer.putInt(position, values.length * 8 / structSize);
+            for (int i = 0; i < values.length; i++) {
+                writer.putLong(position + 4 + i * 8, values[i]);
+            }
+            return position;
+        }
+    }
+}
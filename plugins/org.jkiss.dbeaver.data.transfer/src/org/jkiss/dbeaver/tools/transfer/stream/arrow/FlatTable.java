@@ -0,0 +1,137 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.arrow;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Read-only view of a FlatBuffers table
+ */
+public class FlatTable {
+
+    private final ByteBuffer buffer;
+    private final int position;
+    private final int vtablePosition;
+    private final int vtableSize;
+
+    private FlatTable(@NotNull ByteBuffer buffer, int position) {
+        this.buffer = buffer;
+        this.position = position;
+        this.vtablePosition = position - buffer.getInt(position);
+        this.vtableSize = buffer.getShort(vtablePosition) & 0xFFFF;
+    }
+
+    /**
+     * Returns root table of a serialized buffer
+     */
+    @NotNull
+    public static FlatTable getRoot(@NotNull ByteBuffer buffer) {
+        ByteBuffer bb = buffer.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        int start = bb.position();
+        return new FlatTable(bb, start + bb.getInt(start));
+    }
+
+    private int getFieldPosition(int slot) {
+        int vtableOffset = 4 + slot * 2;
+        if (vtableOffset >= vtableSize) {
+            return 0;
+        }
+        int offset = buffer.getShort(vtablePosition + vtableOffset) & 0xFFFF;
+        return offset == 0 ? 0 : position + offset;
+    }
+
+    public boolean hasField(int slot) {
+        return getFieldPosition(slot) != 0;
+    }
+
+    public byte getByte(int slot, byte defaultValue) {
+        int fieldPosition = getFieldPosition(slot);
+        return fieldPosition == 0 ? defaultValue : buffer.get(fieldPosition);
+    }
+
+    public boolean getBool(int slot, boolean defaultValue) {
+        int fieldPosition = getFieldPosition(slot);
+        return fieldPosition == 0 ? defaultValue : buffer.get(fieldPosition) != 0;
+    }
+
+    public short getShort(int slot, short defaultValue) {
+        int fieldPosition = getFieldPosition(slot);
+        return fieldPosition == 0 ? defaultValue : buffer.getShort(fieldPosition);
+    }
+
+    public int getInt(int slot, int defaultValue) {
+        int fieldPosition = getFieldPosition(slot);
+        return fieldPosition == 0 ? defaultValue : buffer.getInt(fieldPosition);
+    }
+
+    public long getLong(int slot, long defaultValue) {
+        int fieldPosition = getFieldPosition(slot);
+        return fieldPosition == 0 ? defaultValue : buffer.getLong(fieldPosition);
+    }
+
+    private int getReference(int slot) {
+        int fieldPosition = getFieldPosition(slot);
+        return fieldPosition == 0 ? 0 : fieldPosition + buffer.getInt(fieldPosition);
+    }
+
+    @Nullable
+    public FlatTable getTable(int slot) {
+        int reference = getReference(slot);
+        return reference == 0 ? null : new FlatTable(buffer, reference);
+    }
+
+    @Nullable
+    public String getString(int slot) {
+        int reference = getReference(slot);
+        if (reference == 0) {
+            return null;
+        }
+        int length = buffer.getInt(reference);
+        byte[] bytes = new byte[length];
+        ByteBuffer bb = buffer.duplicate();
+        bb.position(reference + 4);
+        bb.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public int getVectorLength(int slot) {
+        int reference = getReference(slot);
+        return reference == 0 ? 0 : buffer.getInt(reference);
+    }
+
+    @NotNull
+    public FlatTable getVectorTable(int slot, int index) {
+        int elementPosition = getReference(slot) + 4 + index * 4;
+        return new FlatTable(buffer, elementPosition + buffer.getInt(elementPosition));
+    }
+
+    /**
+     * Reads 8-byte value from the struct element of vector
+     */
+    public long getVectorStructLong(int slot, int index, int structSize, int fieldOffset) {
+        return buffer.getLong(getReference(slot) + 4 + index * structSize + fieldOffset);
+    }
+
+    public int getVectorStructInt(int slot, int index, int structSize, int fieldOffset) {
+        return buffer.getInt(getReference(slot) + 4 + index * structSize + fieldOffset);
+    }
+}
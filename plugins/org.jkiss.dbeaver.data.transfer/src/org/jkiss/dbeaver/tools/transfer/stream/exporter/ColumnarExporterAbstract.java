@@ -0,0 +1,338 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.exporter;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.data.DBDContent;
+import org.jkiss.dbeaver.model.data.DBDContentStorage;
+import org.jkiss.dbeaver.model.exec.DBCResultSet;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.tools.transfer.DTUtils;
+import org.jkiss.dbeaver.utils.ContentUtils;
+import org.jkiss.utils.CommonUtils;
+import org.jkiss.utils.IOUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.sql.Types;
+import java.time.*;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Base class for columnar binary exporters.
+ * Maps attribute types to a small set of value types and converts row values to primitives.
+ */
+public abstract class ColumnarExporterAbstract extends StreamExporterAbstract {
+
+    protected static final int MAX_DECIMAL_PRECISION = 38;
+
+    private static final LocalDateTime LOCAL_EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    protected enum ValueType {
+        BOOLEAN, INT32, INT64, FLOAT, DOUBLE, DECIMAL, DATE, TIME, TIMESTAMP, TIMESTAMP_UTC, BINARY, STRING
+    }
+
+    private DBDAttributeBinding[] columns;
+    private ValueType[] valueTypes;
+    private String[] columnNames;
+
+    @Override
+    public void exportHeader(DBCSession session) throws DBException, IOException {
+        columns = getSite().getAttributes();
+        valueTypes = new ValueType[columns.length];
+        columnNames = new String[columns.length];
+        Set<String> uniqueNames = new HashSet<>();
+        for (int i = 0; i < columns.length; i++) {
+            DBDAttributeBinding column = columns[i];
+            String columnName = column.getLabel();
+            if (CommonUtils.isEmpty(columnName)) {
+                columnName = column.getName();
+            }
+            String uniqueName = columnName;
+            for (int index = 1; !uniqueNames.add(uniqueName); index++) {
+                uniqueName = columnName + "_" + index;
+            }
+            columnNames[i] = uniqueName;
+            valueTypes[i] = resolveValueType(column);
+        }
+        startFile();
+    }
+
+    @Override
+    public void exportRow(DBCSession session, DBCResultSet resultSet, Object[] row) throws DBException, IOException {
+        for (int i = 0; i < columns.length; i++) {
+            Object value = row[i];
+            if (value instanceof DBDContent) {
+                DBDContent content = (DBDContent) value;
+                try {
+                    value = readContent(session.getProgressMonitor(), content, valueTypes[i]);
+                } finally {
+                    DTUtils.closeContents(resultSet, content);
+                }
+            }
+            if (DBUtils.isNullValue(value)) {
+                writeNull(i);
+                continue;
+            }
+            try {
+                writeValue(i, valueTypes[i], value);
+            } catch (RuntimeException e) {
+                throw new DBException("Error converting value of column '" + columnNames[i] + "'", e);
+            }
+        }
+        endRow();
+    }
+
+    /**
+     * Creates file writer. Columns, value types and names are already resolved.
+     */
+    protected abstract void startFile() throws DBException, IOException;
+
+    protected abstract void writeNull(int index);
+
+    protected abstract void writeValue(int index, @NotNull ValueType valueType, @NotNull Object value);
+
+    protected abstract void endRow() throws IOException;
+
+    protected DBDAttributeBinding[] getColumns() {
+        return columns;
+    }
+
+    protected ValueType getValueType(int index) {
+        return valueTypes[index];
+    }
+
+    protected String getColumnName(int index) {
+        return columnNames[index];
+    }
+
+    @NotNull
+    protected static ValueType resolveValueType(@NotNull DBDAttributeBinding column) {
+        switch (column.getTypeID()) {
+            case Types.BOOLEAN:
+            case Types.BIT:
+                return column.getDataKind() == DBPDataKind.BOOLEAN ? ValueType.BOOLEAN : ValueType.STRING;
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+                return ValueType.INT32;
+            case Types.BIGINT:
+                return ValueType.INT64;
+            case Types.REAL:
+                return ValueType.FLOAT;
+            case Types.FLOAT:
+            case Types.DOUBLE:
+                return ValueType.DOUBLE;
+            case Types.DECIMAL:
+            case Types.NUMERIC: {
+                Integer precision = column.getPrecision();
+                Integer scale = column.getScale();
+                if (precision != null && precision > 0 && precision <= MAX_DECIMAL_PRECISION && scale != null && scale >= 0 && scale <= precision) {
+                    return ValueType.DECIMAL;
+                }
+                // Unknown precision. Keep exact value as text
+                return ValueType.STRING;
+            }
+            case Types.DATE:
+                return ValueType.DATE;
+            case Types.TIME:
+            case Types.TIME_WITH_TIMEZONE:
+                return ValueType.TIME;
+            case Types.TIMESTAMP:
+                return ValueType.TIMESTAMP;
+            case Types.TIMESTAMP_WITH_TIMEZONE:
+                return ValueType.TIMESTAMP_UTC;
+            case Types.BINARY:
+            case Types.VARBINARY:
+            case Types.LONGVARBINARY:
+            case Types.BLOB:
+                return ValueType.BINARY;
+            case Types.CLOB:
+            case Types.NCLOB:
+            case Types.SQLXML:
+                return ValueType.STRING;
+            default:
+                break;
+        }
+        switch (column.getDataKind()) {
+            case BOOLEAN:
+                return ValueType.BOOLEAN;
+            case NUMERIC:
+                return ValueType.DOUBLE;
+            case DATETIME:
+                return ValueType.TIMESTAMP;
+            case BINARY:
+                return ValueType.BINARY;
+            case CONTENT:
+                return ContentUtils.isTextMime(column.getValueHandler().getValueContentType(column)) ? ValueType.STRING : ValueType.BINARY;
+            default:
+                return ValueType.STRING;
+        }
+    }
+
+    /**
+     * Converts value to UTF-8 text. Non-string values are formatted with the export value format.
+     */
+    @NotNull
+    protected byte[] toText(int index, @NotNull Object value) {
+        String strValue = value instanceof String ? (String) value : getValueDisplayString(columns[index], value);
+        return strValue.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @NotNull
+    protected byte[] toBinary(int index, @NotNull Object value) {
+        return value instanceof byte[] ? (byte[]) value : toText(index, value);
+    }
+
+    protected static boolean toBoolean(@NotNull Object value) {
+        return value instanceof Boolean ? (Boolean) value : CommonUtils.toBoolean(value);
+    }
+
+    /**
+     * Returns unscaled decimal value with the specified scale
+     */
+    @NotNull
+    protected static BigInteger toUnscaledDecimal(@NotNull Object value, int scale) {
+        Number number = toNumber(value);
+        BigDecimal decimal = number instanceof BigDecimal ? (BigDecimal) number : new BigDecimal(number.toString());
+        return decimal.setScale(scale, RoundingMode.HALF_UP).unscaledValue();
+    }
+
+    protected static int toEpochDay(@NotNull Object value) {
+        return (int) toLocalDate(value).toEpochDay();
+    }
+
+    protected static long toMicrosOfDay(@NotNull Object value) {
+        return toLocalTime(value).toNanoOfDay() / 1000;
+    }
+
+    /**
+     * Microseconds since 1970-01-01 00:00 in the local (wall clock) time
+     */
+    protected static long toLocalEpochMicros(@NotNull Object value) {
+        return ChronoUnit.MICROS.between(LOCAL_EPOCH, toLocalDateTime(value));
+    }
+
+    /**
+     * Microseconds since the UTC epoch
+     */
+    protected static long toUtcEpochMicros(@NotNull Object value) {
+        return ChronoUnit.MICROS.between(Instant.EPOCH, toInstant(value));
+    }
+
+    private static Object readContent(@NotNull DBRProgressMonitor monitor, @NotNull DBDContent content, @NotNull ValueType valueType)
+        throws DBException, IOException
+    {
+        DBDContentStorage cs = content.getContents(monitor);
+        if (cs == null) {
+            return null;
+        }
+        if (valueType == ValueType.BINARY) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            try (InputStream in = cs.getContentStream()) {
+                IOUtils.copyStream(in, buffer);
+            }
+            return buffer.toByteArray();
+        } else {
+            try (Reader in = cs.getContentReader()) {
+                return IOUtils.readToString(in);
+            }
+        }
+    }
+
+    @NotNull
+    protected static Number toNumber(@NotNull Object value) {
+        if (value instanceof Number) {
+            return (Number) value;
+        } else if (value instanceof Boolean) {
+            return (Boolean) value ? 1 : 0;
+        }
+        return new BigDecimal(value.toString().trim());
+    }
+
+    @NotNull
+    private static LocalDate toLocalDate(@NotNull Object value) {
+        if (value instanceof java.sql.Date) {
+            return ((java.sql.Date) value).toLocalDate();
+        } else if (value instanceof LocalDate) {
+            return (LocalDate) value;
+        }
+        return toLocalDateTime(value).toLocalDate();
+    }
+
+    @NotNull
+    private static LocalTime toLocalTime(@NotNull Object value) {
+        if (value instanceof java.sql.Time) {
+            return ((java.sql.Time) value).toLocalTime();
+        } else if (value instanceof LocalTime) {
+            return (LocalTime) value;
+        } else if (value instanceof OffsetTime) {
+            return ((OffsetTime) value).toLocalTime();
+        }
+        return toLocalDateTime(value).toLocalTime();
+    }
+
+    @NotNull
+    private static LocalDateTime toLocalDateTime(@NotNull Object value) {
+        if (value instanceof java.sql.Timestamp) {
+            return ((java.sql.Timestamp) value).toLocalDateTime();
+        } else if (value instanceof LocalDateTime) {
+            return (LocalDateTime) value;
+        } else if (value instanceof LocalDate) {
+            return ((LocalDate) value).atStartOfDay();
+        } else if (value instanceof OffsetDateTime) {
+            return ((OffsetDateTime) value).toLocalDateTime();
+        } else if (value instanceof ZonedDateTime) {
+            return ((ZonedDateTime) value).toLocalDateTime();
+        }
+        return LocalDateTime.ofInstant(toInstant(value), ZoneId.systemDefault());
+    }
+
+    @NotNull
+    private static Instant toInstant(@NotNull Object value) {
+        if (value instanceof Instant) {
+            return (Instant) value;
+        } else if (value instanceof java.sql.Timestamp) {
+            return ((java.sql.Timestamp) value).toInstant();
+        } else if (value instanceof Date) {
+            return Instant.ofEpochMilli(((Date) value).getTime());
+        } else if (value instanceof OffsetDateTime) {
+            return ((OffsetDateTime) value).toInstant();
+        } else if (value instanceof ZonedDateTime) {
+            return ((ZonedDateTime) value).toInstant();
+        } else if (value instanceof LocalDateTime) {
+            return ((LocalDateTime) value).atZone(ZoneId.systemDefault()).toInstant();
+        } else if (value instanceof Number) {
+            return Instant.ofEpochMilli(((Number) value).longValue());
+        }
+        throw new IllegalArgumentException("Unsupported date/time value type: " + value.getClass().getName());
+    }
+}
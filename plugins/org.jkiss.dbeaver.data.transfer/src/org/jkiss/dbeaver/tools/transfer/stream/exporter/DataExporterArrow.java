@@ -0,0 +1,166 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.exporter;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.tools.transfer.stream.IStreamDataExporterSite;
+import org.jkiss.dbeaver.tools.transfer.stream.arrow.ArrowColumnWriter;
+import org.jkiss.dbeaver.tools.transfer.stream.arrow.ArrowConstants;
+import org.jkiss.dbeaver.tools.transfer.stream.arrow.ArrowField;
+import org.jkiss.dbeaver.tools.transfer.stream.arrow.ArrowFileWriter;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.IOException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Apache Arrow IPC file (Feather v2) exporter
+ */
+public class DataExporterArrow extends ColumnarExporterAbstract {
+
+    public static final String PROP_BATCH_ROWS = "batchRows";
+    public static final String PROP_BATCH_SIZE = "batchSize";
+
+    private int batchRows;
+    private long batchSize;
+
+    private ArrowFileWriter fileWriter;
+
+    @Override
+    public void init(IStreamDataExporterSite site) throws DBException {
+        super.init(site);
+        Map<String, Object> properties = site.getProperties();
+        batchRows = CommonUtils.toInt(properties.get(PROP_BATCH_ROWS), ArrowFileWriter.DEFAULT_BATCH_ROWS);
+        batchSize = CommonUtils.toLong(properties.get(PROP_BATCH_SIZE), 64) * 1024 * 1024;
+
+        long maxFileSize = site.getMaxOutFileSize();
+        if (maxFileSize > 0 && batchSize > maxFileSize) {
+            // Files are split between record batches
+            batchSize = maxFileSize;
+        }
+    }
+
+    @Override
+    protected void startFile() throws IOException {
+        DBDAttributeBinding[] columns = getColumns();
+        List<ArrowField> fields = new ArrayList<>(columns.length);
+        for (int i = 0; i < columns.length; i++) {
+            fields.add(makeArrowField(getColumnName(i), columns[i], getValueType(i)));
+        }
+        fileWriter = new ArrowFileWriter(getOutputStream(), fields);
+        fileWriter.setBatchRows(batchRows);
+        fileWriter.setBatchSize(batchSize);
+        fileWriter.start();
+    }
+
+    @Override
+    protected void writeNull(int index) {
+        fileWriter.getColumnWriter(index).writeNull();
+    }
+
+    @Override
+    protected void writeValue(int index, @NotNull ValueType valueType, @NotNull Object value) {
+        ArrowColumnWriter writer = fileWriter.getColumnWriter(index);
+        switch (valueType) {
+            case BOOLEAN:
+                writer.writeBoolean(toBoolean(value));
+                break;
+            case INT32:
+                writer.writeInt(toNumber(value).intValue());
+                break;
+            case INT64:
+                writer.writeLong(toNumber(value).longValue());
+                break;
+            case FLOAT:
+                writer.writeFloat(toNumber(value).floatValue());
+                break;
+            case DOUBLE:
+                writer.writeDouble(toNumber(value).doubleValue());
+                break;
+            case DECIMAL:
+                writer.writeDecimal(toUnscaledDecimal(value, writer.getField().getDecimalScale()).toByteArray());
+                break;
+            case DATE:
+                writer.writeInt(toEpochDay(value));
+                break;
+            case TIME:
+                writer.writeLong(toMicrosOfDay(value));
+                break;
+            case TIMESTAMP:
+                writer.writeLong(toLocalEpochMicros(value));
+                break;
+            case TIMESTAMP_UTC:
+                writer.writeLong(toUtcEpochMicros(value));
+                break;
+            case BINARY:
+                writer.writeBytes(toBinary(index, value));
+                break;
+            default:
+                writer.writeBytes(toText(index, value));
+                break;
+        }
+    }
+
+    @Override
+    protected void endRow() throws IOException {
+        fileWriter.endRow();
+    }
+
+    @Override
+    public void exportFooter(DBRProgressMonitor monitor) throws DBException, IOException {
+        if (fileWriter != null) {
+            fileWriter.finish();
+            fileWriter = null;
+        }
+    }
+
+    @NotNull
+    private static ArrowField makeArrowField(@NotNull String name, @NotNull DBDAttributeBinding column, @NotNull ValueType valueType) {
+        switch (valueType) {
+            case BOOLEAN:
+                return new ArrowField(name, ArrowConstants.TYPE_BOOL);
+            case INT32:
+                return ArrowField.ofInt(name, column.getTypeID() == Types.TINYINT ? 8 : column.getTypeID() == Types.SMALLINT ? 16 : 32, true);
+            case INT64:
+                return ArrowField.ofInt(name, 64, true);
+            case FLOAT:
+                return ArrowField.ofFloatingPoint(name, ArrowConstants.PRECISION_SINGLE);
+            case DOUBLE:
+                return ArrowField.ofFloatingPoint(name, ArrowConstants.PRECISION_DOUBLE);
+            case DECIMAL:
+                return ArrowField.ofDecimal(name, CommonUtils.toInt(column.getPrecision()), CommonUtils.toInt(column.getScale()), 128);
+            case DATE:
+                return ArrowField.ofDate(name, ArrowConstants.DATE_UNIT_DAY);
+            case TIME:
+                return ArrowField.ofTime(name, ArrowConstants.TIME_UNIT_MICROSECOND, 64);
+            case TIMESTAMP:
+                return ArrowField.ofTimestamp(name, ArrowConstants.TIME_UNIT_MICROSECOND, null);
+            case TIMESTAMP_UTC:
+                return ArrowField.ofTimestamp(name, ArrowConstants.TIME_UNIT_MICROSECOND, "UTC");
+            case BINARY:
+                return new ArrowField(name, ArrowConstants.TYPE_BINARY);
+            default:
+                return new ArrowField(name, ArrowConstants.TYPE_UTF8);
+        }
+    }
+}
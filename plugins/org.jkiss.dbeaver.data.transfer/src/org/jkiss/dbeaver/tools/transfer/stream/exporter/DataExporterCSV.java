@@ -17,6 +17,7 @@
 package org.jkiss.dbeaver.tools.transfer.stream.exporter;
 
 import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.model.DBConstants;
 import org.jkiss.dbeaver.model.DBPDataKind;
@@ -30,6 +31,7 @@ import org.jkiss.dbeaver.model.exec.DBCResultSet;
 import org.jkiss.dbeaver.model.exec.DBCSession;
 import org.jkiss.dbeaver.model.exec.DBExecUtils;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSDataBulkUnloader;
 import org.jkiss.dbeaver.model.struct.DBSEntity;
 import org.jkiss.dbeaver.tools.transfer.DTUtils;
 import org.jkiss.dbeaver.tools.transfer.stream.IAppendableDataExporter;
@@ -60,6 +62,7 @@ public class DataExporterCSV extends StreamExporterAbstract implements IAppendab
     private static final String PROP_QUOTE_NEVER = "quoteNever";
     private static final String PROP_NULL_STRING = "nullString";
     private static final String PROP_FORMAT_NUMBERS = "formatNumbers";
+    private static final String PROP_NATIVE_EXPORT = "nativeExport";
 
     private static final String DEF_QUOTE_CHAR = "\"";
     private boolean formatNumbers;
@@ -88,6 +91,7 @@ public class DataExporterCSV extends StreamExporterAbstract implements IAppendab
     private HeaderPosition headerPosition;
     private HeaderFormat headerFormat;
     private DBDAttributeBinding[] columns;
+    private boolean nativeExport;
 
     private final StringBuilder buffer = new StringBuilder();
 
@@ -121,6 +125,34 @@ public class DataExporterCSV extends StreamExporterAbstract implements IAppendab
 
         headerFormat = CommonUtils.valueOf(HeaderFormat.class, String.valueOf(properties.get(PROP_HEADER_FORMAT)), HeaderFormat.label);
         formatNumbers = CommonUtils.toBoolean(getSite().getProperties().get(PROP_FORMAT_NUMBERS));
+        nativeExport = CommonUtils.toBoolean(properties.get(PROP_NATIVE_EXPORT));
+    }
+
+    /**
+     * Returns format for the database native export or null if native export is disabled
+     * or the current settings can't be reproduced by it.
+     * Native export writes values in database text representation and always terminates lines with LF.
+     */
+    @Nullable
+    public DBSDataBulkUnloader.TextFormat getNativeExportFormat() {
+        if (!nativeExport || formatNumbers || !useQuotes || delimiter.length() != 1 || !"\n".equals(rowDelimiter)) {
+            return null;
+        }
+        if (quoteStrategy != QuoteStrategy.DISABLED && quoteStrategy != QuoteStrategy.ALL) {
+            return null;
+        }
+        if (headerPosition == HeaderPosition.bottom || headerPosition == HeaderPosition.both ||
+            (headerPosition == HeaderPosition.top && headerFormat != HeaderFormat.label))
+        {
+            return null;
+        }
+        return new DBSDataBulkUnloader.TextFormat(
+            delimiter.charAt(0),
+            quoteChar,
+            quoteStrategy == QuoteStrategy.ALL,
+            headerPosition == HeaderPosition.top,
+            nullString,
+            getSite().getOutputEncoding());
     }
 
     @Override
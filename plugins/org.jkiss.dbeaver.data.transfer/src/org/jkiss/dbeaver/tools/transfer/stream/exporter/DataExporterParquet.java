@@ -0,0 +1,186 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.exporter;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.tools.transfer.stream.IStreamDataExporterSite;
+import org.jkiss.dbeaver.tools.transfer.stream.parquet.*;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Apache Parquet exporter
+ */
+public class DataExporterParquet extends ColumnarExporterAbstract {
+
+    public static final String PROP_COMPRESSION = "compression";
+    public static final String PROP_ROW_GROUP_SIZE = "rowGroupSize";
+    public static final String PROP_PAGE_SIZE = "pageSize";
+    public static final String PROP_DICTIONARY_ENCODING = "dictionaryEncoding";
+
+    private ParquetCompression compression;
+    private long rowGroupSize;
+    private int pageSize;
+    private boolean dictionaryEncoding;
+
+    private ParquetFileWriter fileWriter;
+
+    @Override
+    public void init(IStreamDataExporterSite site) throws DBException {
+        super.init(site);
+        Map<String, Object> properties = site.getProperties();
+        compression = CommonUtils.valueOf(
+            ParquetCompression.class,
+            CommonUtils.toString(properties.get(PROP_COMPRESSION)).toUpperCase(Locale.ENGLISH),
+            ParquetCompression.SNAPPY);
+        rowGroupSize = CommonUtils.toLong(properties.get(PROP_ROW_GROUP_SIZE), 64) * 1024 * 1024;
+        pageSize = CommonUtils.toInt(properties.get(PROP_PAGE_SIZE), 1024) * 1024;
+        dictionaryEncoding = CommonUtils.getBoolean(properties.get(PROP_DICTIONARY_ENCODING), true);
+
+        long maxFileSize = site.getMaxOutFileSize();
+        if (maxFileSize > 0 && rowGroupSize > maxFileSize) {
+            // Files are split between row groups, so keep them smaller than a single file
+            rowGroupSize = maxFileSize;
+        }
+    }
+
+    @Override
+    protected void startFile() throws IOException {
+        DBDAttributeBinding[] columns = getColumns();
+        List<ParquetColumn> schema = new ArrayList<>(columns.length);
+        for (int i = 0; i < columns.length; i++) {
+            schema.add(makeParquetColumn(getColumnName(i), columns[i], getValueType(i)));
+        }
+        fileWriter = new ParquetFileWriter(getOutputStream(), schema, compression);
+        fileWriter.setRowGroupSize(rowGroupSize);
+        fileWriter.setPageSize(pageSize);
+        fileWriter.setDictionaryEnabled(dictionaryEncoding);
+        fileWriter.start();
+    }
+
+    @Override
+    protected void writeNull(int index) {
+        fileWriter.getColumnWriter(index).writeNull();
+    }
+
+    @Override
+    protected void writeValue(int index, @NotNull ValueType valueType, @NotNull Object value) {
+        ParquetColumnWriter writer = fileWriter.getColumnWriter(index);
+        switch (valueType) {
+            case BOOLEAN:
+                writer.writeBoolean(toBoolean(value));
+                break;
+            case INT32:
+                writer.writeInt(toNumber(value).intValue());
+                break;
+            case INT64:
+                writer.writeLong(toNumber(value).longValue());
+                break;
+            case FLOAT:
+                writer.writeFloat(toNumber(value).floatValue());
+                break;
+            case DOUBLE:
+                writer.writeDouble(toNumber(value).doubleValue());
+                break;
+            case DECIMAL: {
+                BigInteger unscaled = toUnscaledDecimal(value, writer.getColumn().getScale());
+                switch (writer.getColumn().getPhysicalType()) {
+                    case ParquetConstants.TYPE_INT32: writer.writeInt(unscaled.intValueExact()); break;
+                    case ParquetConstants.TYPE_INT64: writer.writeLong(unscaled.longValueExact()); break;
+                    default: writer.writeBinary(unscaled.toByteArray()); break;
+                }
+                break;
+            }
+            case DATE:
+                writer.writeInt(toEpochDay(value));
+                break;
+            case TIME:
+                writer.writeLong(toMicrosOfDay(value));
+                break;
+            case TIMESTAMP:
+                writer.writeLong(toLocalEpochMicros(value));
+                break;
+            case TIMESTAMP_UTC:
+                writer.writeLong(toUtcEpochMicros(value));
+                break;
+            case BINARY:
+                writer.writeBinary(toBinary(index, value));
+                break;
+            default:
+                writer.writeBinary(toText(index, value));
+                break;
+        }
+    }
+
+    @Override
+    protected void endRow() throws IOException {
+        fileWriter.endRow();
+    }
+
+    @Override
+    public void exportFooter(DBRProgressMonitor monitor) throws DBException, IOException {
+        if (fileWriter != null) {
+            fileWriter.finish();
+            fileWriter = null;
+        }
+    }
+
+    @NotNull
+    private static ParquetColumn makeParquetColumn(@NotNull String name, @NotNull DBDAttributeBinding column, @NotNull ValueType valueType) {
+        switch (valueType) {
+            case BOOLEAN:
+                return new ParquetColumn(name, ParquetConstants.TYPE_BOOLEAN);
+            case INT32:
+                return new ParquetColumn(name, ParquetConstants.TYPE_INT32).asInteger(
+                    column.getTypeID() == Types.TINYINT ? 8 : column.getTypeID() == Types.SMALLINT ? 16 : 32);
+            case INT64:
+                return new ParquetColumn(name, ParquetConstants.TYPE_INT64).asInteger(64);
+            case FLOAT:
+                return new ParquetColumn(name, ParquetConstants.TYPE_FLOAT);
+            case DOUBLE:
+                return new ParquetColumn(name, ParquetConstants.TYPE_DOUBLE);
+            case DECIMAL: {
+                int precision = CommonUtils.toInt(column.getPrecision());
+                int physicalType = precision <= 9 ? ParquetConstants.TYPE_INT32 :
+                    precision <= 18 ? ParquetConstants.TYPE_INT64 : ParquetConstants.TYPE_BYTE_ARRAY;
+                return new ParquetColumn(name, physicalType).asDecimal(precision, CommonUtils.toInt(column.getScale()));
+            }
+            case DATE:
+                return new ParquetColumn(name, ParquetConstants.TYPE_INT32).asDate();
+            case TIME:
+                return new ParquetColumn(name, ParquetConstants.TYPE_INT64).asTime(ParquetConstants.TIME_UNIT_MICROS);
+            case TIMESTAMP:
+                return new ParquetColumn(name, ParquetConstants.TYPE_INT64).asTimestamp(ParquetConstants.TIME_UNIT_MICROS, false);
+            case TIMESTAMP_UTC:
+                return new ParquetColumn(name, ParquetConstants.TYPE_INT64).asTimestamp(ParquetConstants.TIME_UNIT_MICROS, true);
+            case BINARY:
+                return new ParquetColumn(name, ParquetConstants.TYPE_BYTE_ARRAY);
+            default:
+                return new ParquetColumn(name, ParquetConstants.TYPE_BYTE_ARRAY).asString();
+        }
+    }
+}
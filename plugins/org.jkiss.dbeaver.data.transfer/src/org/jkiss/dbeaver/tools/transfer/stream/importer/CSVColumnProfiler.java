@@ -0,0 +1,198 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.importer;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.tools.transfer.database.DatabaseTransferUtils;
+import org.jkiss.dbeaver.tools.transfer.stream.StreamDataImporterColumnInfo;
+import org.jkiss.utils.Pair;
+import org.jkiss.utils.csv.CSVRecord;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Collects per-column statistics of CSV records: the most specific type which fits all values,
+ * max value length and count of empty values. Memory usage doesn't depend on the number of records.
+ */
+class CSVColumnProfiler {
+
+    private static final Log log = Log.getLog(CSVColumnProfiler.class);
+
+    /**
+     * Type lattice. Each value type may be generalized to the types on the right.
+     * INTEGER generalizes to REAL, any other mix of types generalizes to STRING.
+     */
+    private enum ValueType {
+        UNKNOWN(DBPDataKind.UNKNOWN, null),
+        BOOLEAN(DBPDataKind.BOOLEAN, "BOOLEAN"),
+        INTEGER(DBPDataKind.NUMERIC, "INTEGER"),
+        REAL(DBPDataKind.NUMERIC, "REAL"),
+        STRING(DBPDataKind.STRING, "VARCHAR");
+
+        private final DBPDataKind dataKind;
+        private final String typeName;
+
+        ValueType(DBPDataKind dataKind, String typeName) {
+            this.dataKind = dataKind;
+            this.typeName = typeName;
+        }
+
+        @NotNull
+        static ValueType of(@NotNull Pair<DBPDataKind, String> dataType) {
+            switch (dataType.getFirst()) {
+                case BOOLEAN:
+                    return BOOLEAN;
+                case NUMERIC:
+                    return INTEGER.typeName.equals(dataType.getSecond()) ? INTEGER : REAL;
+                case STRING:
+                    return STRING;
+                default:
+                    return UNKNOWN;
+            }
+        }
+
+        @NotNull
+        ValueType merge(@NotNull ValueType other) {
+            if (this == other || other == UNKNOWN) {
+                return this;
+            } else if (this == UNKNOWN) {
+                return other;
+            } else if ((this == INTEGER || this == REAL) && (other == INTEGER || other == REAL)) {
+                return REAL;
+            } else {
+                return STRING;
+            }
+        }
+    }
+
+    private final int columnCount;
+    @Nullable
+    private final Charset byteLengthCharset;
+    private final ValueType[] types;
+    private final long[] maxLengths;
+    private final long[] emptyCounts;
+    private long recordCount;
+    private long lastChangeRecord;
+
+    /**
+     * @param byteLengthCharset if specified then value lengths are counted in bytes of this charset
+     */
+    CSVColumnProfiler(int columnCount, @Nullable Charset byteLengthCharset) {
+        this.columnCount = columnCount;
+        this.byteLengthCharset = byteLengthCharset;
+        this.types = new ValueType[columnCount];
+        this.maxLengths = new long[columnCount];
+        this.emptyCounts = new long[columnCount];
+        for (int i = 0; i < columnCount; i++) {
+            types[i] = ValueType.UNKNOWN;
+        }
+    }
+
+    void addRecord(@NotNull CSVRecord record) {
+        recordCount++;
+        int fieldCount = Math.min(record.getFieldCount(), columnCount);
+        for (int i = 0; i < fieldCount; i++) {
+            if (record.isNull(i) || record.getFieldLength(i) == 0) {
+                emptyCounts[i]++;
+                continue;
+            }
+            if (types[i] != ValueType.STRING) {
+                ValueType type = types[i].merge(ValueType.of(DatabaseTransferUtils.getDataType(record.getString(i))));
+                if (type != types[i]) {
+                    types[i] = type;
+                    lastChangeRecord = recordCount;
+                }
+            }
+            long length = getValueLength(record, i);
+            if (length > maxLengths[i]) {
+                maxLengths[i] = length;
+            }
+        }
+        for (int i = fieldCount; i < columnCount; i++) {
+            emptyCounts[i]++;
+        }
+    }
+
+    int getColumnCount() {
+        return columnCount;
+    }
+
+    long getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * @return number of records read since the last change of any column type
+     */
+    long getStableRecordCount() {
+        return recordCount - lastChangeRecord;
+    }
+
+    /**
+     * Updates type and length of columns
+     */
+    void applyTo(@NotNull List<StreamDataImporterColumnInfo> columnsInfo) {
+        for (int i = 0; i < columnCount && i < columnsInfo.size(); i++) {
+            StreamDataImporterColumnInfo columnInfo = columnsInfo.get(i);
+            ValueType type = types[i];
+            if (type != ValueType.UNKNOWN) {
+                columnInfo.updateType(type.dataKind, type.typeName);
+            }
+            if (type == ValueType.STRING) {
+                columnInfo.updateMaxLength(maxLengths[i]);
+            }
+            if (log.isDebugEnabled() && recordCount > 0) {
+                log.debug("Column '" + columnInfo.getName() + "': " + type.name() + ", max length " + maxLengths[i] +
+                    ", " + (emptyCounts[i] * 100 / recordCount) + "% empty values in " + recordCount + " records");
+            }
+        }
+    }
+
+    private long getValueLength(@NotNull CSVRecord record, int field) {
+        if (byteLengthCharset == null) {
+            return record.getFieldLength(field);
+        }
+        if (byteLengthCharset.equals(StandardCharsets.UTF_8)) {
+            long length = 0;
+            int fieldLength = record.getFieldLength(field);
+            for (int i = 0; i < fieldLength; i++) {
+                char c = record.charAt(field, i);
+                if (c < 0x80) {
+                    length++;
+                } else if (c < 0x800) {
+                    length += 2;
+                } else if (Character.isHighSurrogate(c) && i + 1 < fieldLength && Character.isLowSurrogate(record.charAt(field, i + 1))) {
+                    // Surrogate pair is encoded with 4 bytes
+                    length += 4;
+                    i++;
+                } else if (Character.isSurrogate(c)) {
+                    // Malformed surrogate is replaced with '?'
+                    length++;
+                } else {
+                    length += 3;
+                }
+            }
+            return length;
+        }
+        return record.getString(field).getBytes(byteLengthCharset).length;
+    }
+}
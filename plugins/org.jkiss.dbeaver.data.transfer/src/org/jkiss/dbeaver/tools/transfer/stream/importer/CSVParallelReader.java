@@ -0,0 +1,276 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.importer;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.utils.csv.CSVReader;
+import org.jkiss.utils.csv.CSVRecord;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.StringReader;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.Function;
+
+/**
+ * Parallel CSV reader of a local file.
+ * <p>
+ * The file is memory-mapped and split into chunks at record boundaries. Boundaries are found
+ * by a sequential byte scan which follows quoting rules of {@link org.jkiss.utils.csv.CSVParser},
+ * so multi-line quoted values never cross chunks. Chunks are decoded and parsed on a thread pool.
+ * Batches are returned either in file order or in order of completion.
+ * <p>
+ * Only charsets where ASCII bytes always mean ASCII characters are supported (see {@link #isSupportedCharset}).
+ */
+public class CSVParallelReader implements Closeable {
+
+    public static final int DEFAULT_CHUNK_SIZE = 4 * 1024 * 1024;
+    // Protection from un-terminated quotes which would make the whole file a single chunk
+    private static final int MAX_CHUNK_SIZE = 512 * 1024 * 1024;
+    private static final int SCAN_WINDOW_SIZE = 64 * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final Charset charset;
+    private final char separator;
+    private final char quoteChar;
+    private final char escapeChar;
+    private final boolean preserveOrder;
+    private final int maxChunksInFlight;
+    private final long fileSize;
+    private final ExecutorService executor;
+    private final CompletionService<List<Object[]>> completionService;
+    private final Deque<Future<List<Object[]>>> pendingChunks = new ArrayDeque<>();
+
+    private int chunkSize = DEFAULT_CHUNK_SIZE;
+    private boolean skipFirstRecord;
+    private Function<CSVRecord, Object[]> recordConverter = CSVRecord::toArray;
+
+    private long scanPosition;
+    private MappedByteBuffer scanWindow;
+    private long scanWindowStart;
+    private boolean firstChunk = true;
+
+    public CSVParallelReader(
+        @NotNull FileChannel channel,
+        @NotNull Charset charset,
+        char separator,
+        char quoteChar,
+        char escapeChar,
+        int threads,
+        boolean preserveOrder
+    ) throws IOException {
+        if (!isSupportedCharset(charset)) {
+            throw new IOException("Charset " + charset.name() + " is not supported by parallel CSV reader");
+        }
+        this.channel = channel;
+        this.charset = charset;
+        this.separator = separator;
+        this.quoteChar = quoteChar;
+        this.escapeChar = escapeChar;
+        this.preserveOrder = preserveOrder;
+        this.maxChunksInFlight = threads * 2;
+        this.fileSize = channel.size();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "CSV chunk parser");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.completionService = new ExecutorCompletionService<>(executor);
+        this.scanPosition = hasUtf8BOM() ? 3 : 0;
+    }
+
+    /**
+     * Checks whether bytes of CSV special characters can be searched in the raw file data.
+     * It is true for single-byte charsets based on ASCII and for UTF-8.
+     */
+    public static boolean isSupportedCharset(@NotNull Charset charset) {
+        String name = charset.name();
+        return charset.equals(StandardCharsets.UTF_8) || charset.equals(StandardCharsets.US_ASCII) ||
+            name.startsWith("ISO-8859-") || name.startsWith("windows-125");
+    }
+
+    /**
+     * Checks whether characters can be matched by their byte values
+     */
+    public static boolean isSupportedSpecialChar(char c) {
+        return c < 0x80 && c != '\n' && c != '\r';
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+
+    /**
+     * Skips the first non-empty record of the file (header)
+     */
+    public void setSkipFirstRecord(boolean skipFirstRecord) {
+        this.skipFirstRecord = skipFirstRecord;
+    }
+
+    /**
+     * Sets function which converts parsed records into rows on a parser thread.
+     * Records are reused, so the converter must not keep references to them.
+     * By default records are converted into arrays of strings.
+     */
+    public void setRecordConverter(@NotNull Function<CSVRecord, Object[]> recordConverter) {
+        this.recordConverter = recordConverter;
+    }
+
+    /**
+     * Returns records of the next parsed chunk or null if the whole file was read.
+     * Returned batch may be empty.
+     */
+    @Nullable
+    public List<Object[]> nextBatch() throws IOException {
+        while (pendingChunks.size() < maxChunksInFlight && scanPosition < fileSize) {
+            long chunkStart = scanPosition;
+            long chunkEnd = findChunkEnd(chunkStart);
+            boolean skipFirst = firstChunk && skipFirstRecord;
+            firstChunk = false;
+            Callable<List<Object[]>> task = () -> parseChunk(chunkStart, chunkEnd, skipFirst);
+            pendingChunks.add(preserveOrder ? executor.submit(task) : completionService.submit(task));
+            scanPosition = chunkEnd;
+        }
+        if (pendingChunks.isEmpty()) {
+            return null;
+        }
+        try {
+            Future<List<Object[]>> future;
+            if (preserveOrder) {
+                future = pendingChunks.poll();
+            } else {
+                future = completionService.take();
+                pendingChunks.remove(future);
+            }
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("CSV reading interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Error parsing CSV chunk", e.getCause());
+        }
+    }
+
+    /**
+     * Finds the end of the first record which ends after chunk size bytes from the chunk start.
+     */
+    private long findChunkEnd(long start) throws IOException {
+        final long target = start + chunkSize;
+        final byte separator = (byte) this.separator;
+        final byte quote = (byte) this.quoteChar;
+        final byte escape = (byte) this.escapeChar;
+        boolean inQuotes = false;
+        boolean inField = false;
+        for (long pos = start; pos < fileSize; ) {
+            if (pos - start > MAX_CHUNK_SIZE) {
+                throw new IOException("CSV record at position " + start + " is too long. Probably a quote is not terminated");
+            }
+            byte b = byteAt(pos++);
+            if (b == '\n' || b == '\r') {
+                if (b == '\r' && pos < fileSize && byteAt(pos) == '\n') {
+                    pos++;
+                }
+                if (!inQuotes) {
+                    // Record ends with this line
+                    inField = false;
+                    if (pos >= target) {
+                        return pos;
+                    }
+                }
+                continue;
+            }
+            if (b == escape) {
+                if ((inQuotes || inField) && pos < fileSize && isEscapable(byteAt(pos), quote, escape)) {
+                    pos++;
+                }
+            } else if (b == quote) {
+                if ((inQuotes || inField) && pos < fileSize && byteAt(pos) == quote) {
+                    pos++;
+                } else {
+                    inQuotes = !inQuotes;
+                }
+                inField = !inField;
+            } else if (b == separator && !inQuotes) {
+                inField = false;
+            } else {
+                inField = true;
+            }
+        }
+        if (inQuotes) {
+            throw new IOException("Un-terminated quote sequence was detected");
+        }
+        return fileSize;
+    }
+
+    private static boolean isEscapable(byte b, byte quote, byte escape) {
+        return b == quote || b == escape;
+    }
+
+    private byte byteAt(long pos) throws IOException {
+        long offset = pos - scanWindowStart;
+        if (scanWindow == null || offset < 0 || offset >= scanWindow.limit()) {
+            scanWindowStart = pos;
+            scanWindow = channel.map(FileChannel.MapMode.READ_ONLY, pos, Math.min(SCAN_WINDOW_SIZE, fileSize - pos));
+            offset = 0;
+        }
+        return scanWindow.get((int) offset);
+    }
+
+    private boolean hasUtf8BOM() throws IOException {
+        return charset.equals(StandardCharsets.UTF_8) && fileSize >= 3 &&
+            byteAt(0) == (byte) 0xEF && byteAt(1) == (byte) 0xBB && byteAt(2) == (byte) 0xBF;
+    }
+
+    @NotNull
+    private List<Object[]> parseChunk(long start, long end, boolean skipFirst) throws IOException {
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        String text = charset.decode(buffer).toString();
+        List<Object[]> records = new ArrayList<>();
+        try (CSVReader reader = new CSVReader(new StringReader(text), separator, quoteChar, escapeChar)) {
+            CSVRecord record = new CSVRecord();
+            while (reader.readRecord(record)) {
+                if (skipFirst) {
+                    skipFirst = false;
+                    continue;
+                }
+                records.add(recordConverter.apply(record));
+            }
+            if (reader.getParser().isPending()) {
+                throw new IOException("Un-terminated quote sequence was detected");
+            }
+        }
+        return records;
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
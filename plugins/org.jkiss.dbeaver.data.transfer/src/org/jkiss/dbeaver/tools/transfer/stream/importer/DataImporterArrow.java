@@ -0,0 +1,224 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.importer;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.DBFetchProgress;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
+import org.jkiss.dbeaver.model.exec.DBCExecutionPurpose;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.impl.local.LocalStatement;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.tools.transfer.IDataTransferConsumer;
+import org.jkiss.dbeaver.tools.transfer.stream.IStreamDataImporterSite;
+import org.jkiss.dbeaver.tools.transfer.stream.StreamDataImporterColumnInfo;
+import org.jkiss.dbeaver.tools.transfer.stream.StreamEntityMapping;
+import org.jkiss.dbeaver.tools.transfer.stream.StreamTransferResultSet;
+import org.jkiss.dbeaver.tools.transfer.stream.arrow.ArrowConstants;
+import org.jkiss.dbeaver.tools.transfer.stream.arrow.ArrowField;
+import org.jkiss.dbeaver.tools.transfer.stream.arrow.ArrowRecordBatch;
+import org.jkiss.dbeaver.tools.transfer.stream.arrow.ArrowStreamReader;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Apache Arrow IPC (file and stream format) importer.
+ * Record batches are read one by one, so files of any size can be imported.
+ */
+public class DataImporterArrow extends StreamImporterAbstract {
+
+    @NotNull
+    @Override
+    public List<StreamDataImporterColumnInfo> readColumnsInfo(StreamEntityMapping entityMapping, @NotNull InputStream inputStream) throws DBException {
+        final int columnMinimalLength = Math.max(CommonUtils.toInt(getSite().getProcessorProperties().get(PROP_COLUMN_TYPE_LENGTH), 1), 1);
+        List<StreamDataImporterColumnInfo> columnsInfo = new ArrayList<>();
+        try (ArrowStreamReader reader = new ArrowStreamReader(inputStream)) {
+            List<ArrowField> fields = reader.readSchema();
+            for (int i = 0; i < fields.size(); i++) {
+                columnsInfo.add(makeColumnInfo(entityMapping, i, fields.get(i), columnMinimalLength));
+            }
+            // Use the first batch to estimate lengths of variable-width columns
+            ArrowRecordBatch batch = reader.readBatch();
+            if (batch != null) {
+                for (int i = 0; i < fields.size(); i++) {
+                    StreamDataImporterColumnInfo columnInfo = columnsInfo.get(i);
+                    if (columnInfo.getDataKind() != DBPDataKind.STRING && columnInfo.getDataKind() != DBPDataKind.BINARY) {
+                        continue;
+                    }
+                    for (int row = 0; row < batch.getRowCount(); row++) {
+                        Object value = batch.getObject(i, row);
+                        if (value instanceof String) {
+                            columnInfo.updateMaxLength(((String) value).length());
+                        } else if (value instanceof byte[]) {
+                            columnInfo.updateMaxLength(((byte[]) value).length);
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new DBException("IO error reading Arrow data", e);
+        }
+        return columnsInfo;
+    }
+
+    @NotNull
+    private static StreamDataImporterColumnInfo makeColumnInfo(
+        @NotNull StreamEntityMapping entityMapping,
+        int index,
+        @NotNull ArrowField field,
+        int minimalLength
+    ) {
+        String columnName = CommonUtils.isEmptyTrimmed(field.getName()) ? "Column" + (index + 1) : field.getName();
+        DBPDataKind dataKind;
+        String typeName;
+        int typeId;
+        switch (field.getTypeId()) {
+            case ArrowConstants.TYPE_BOOL:
+                dataKind = DBPDataKind.BOOLEAN;
+                typeName = "BOOLEAN";
+                typeId = Types.BOOLEAN;
+                break;
+            case ArrowConstants.TYPE_INT:
+                dataKind = DBPDataKind.NUMERIC;
+                if (field.getBitWidth() < 32 || (field.getBitWidth() == 32 && field.isSigned())) {
+                    typeName = field.getBitWidth() < 32 ? "SMALLINT" : "INTEGER";
+                    typeId = field.getBitWidth() < 32 ? Types.SMALLINT : Types.INTEGER;
+                } else if (field.getBitWidth() == 32 || field.isSigned()) {
+                    typeName = "BIGINT";
+                    typeId = Types.BIGINT;
+                } else {
+                    typeName = "NUMERIC";
+                    typeId = Types.NUMERIC;
+                }
+                break;
+            case ArrowConstants.TYPE_DURATION:
+                dataKind = DBPDataKind.NUMERIC;
+                typeName = "BIGINT";
+                typeId = Types.BIGINT;
+                break;
+            case ArrowConstants.TYPE_FLOATING_POINT:
+                dataKind = DBPDataKind.NUMERIC;
+                if (field.getPrecision() == ArrowConstants.PRECISION_SINGLE) {
+                    typeName = "REAL";
+                    typeId = Types.REAL;
+                } else {
+                    typeName = "DOUBLE";
+                    typeId = Types.DOUBLE;
+                }
+                break;
+            case ArrowConstants.TYPE_DECIMAL:
+                dataKind = DBPDataKind.NUMERIC;
+                typeName = "DECIMAL";
+                typeId = Types.DECIMAL;
+                break;
+            case ArrowConstants.TYPE_DATE:
+                dataKind = DBPDataKind.DATETIME;
+                typeName = "DATE";
+                typeId = Types.DATE;
+                break;
+            case ArrowConstants.TYPE_TIME:
+                dataKind = DBPDataKind.DATETIME;
+                typeName = "TIME";
+                typeId = Types.TIME;
+                break;
+            case ArrowConstants.TYPE_TIMESTAMP:
+                dataKind = DBPDataKind.DATETIME;
+                typeName = "TIMESTAMP";
+                typeId = Types.TIMESTAMP;
+                break;
+            case ArrowConstants.TYPE_BINARY:
+            case ArrowConstants.TYPE_LARGE_BINARY:
+            case ArrowConstants.TYPE_FIXED_SIZE_BINARY:
+                dataKind = DBPDataKind.BINARY;
+                typeName = "VARBINARY";
+                typeId = Types.VARBINARY;
+                break;
+            default:
+                dataKind = DBPDataKind.STRING;
+                typeName = "VARCHAR";
+                typeId = Types.VARCHAR;
+                break;
+        }
+        StreamDataImporterColumnInfo columnInfo = new StreamDataImporterColumnInfo(entityMapping, index, columnName, typeName, minimalLength, dataKind);
+        columnInfo.setValueType(typeId);
+        columnInfo.setRequired(!field.isNullable());
+        columnInfo.setMappingMetadataPresent(true);
+        if (field.getTypeId() == ArrowConstants.TYPE_DECIMAL) {
+            columnInfo.setPrecision(field.getDecimalPrecision());
+            columnInfo.setScale(field.getDecimalScale());
+        } else if (typeId == Types.NUMERIC) {
+            columnInfo.setPrecision(20);
+            columnInfo.setScale(0);
+        }
+        return columnInfo;
+    }
+
+    @Override
+    public void runImport(@NotNull DBRProgressMonitor monitor, @NotNull DBPDataSource streamDataSource, @NotNull InputStream inputStream, @NotNull IDataTransferConsumer consumer) throws DBException {
+        IStreamDataImporterSite site = getSite();
+        StreamEntityMapping entityMapping = site.getSourceObject();
+
+        DBCExecutionContext context = streamDataSource.getDefaultInstance().getDefaultContext(monitor, false);
+        try (DBCSession producerSession = context.openSession(monitor, DBCExecutionPurpose.UTIL, "Transfer stream data")) {
+            LocalStatement localStatement = new LocalStatement(producerSession, "SELECT * FROM Stream");
+            StreamTransferResultSet resultSet = new StreamTransferResultSet(producerSession, localStatement, entityMapping);
+
+            consumer.fetchStart(producerSession, resultSet, -1, -1);
+            try (ArrowStreamReader reader = new ArrowStreamReader(inputStream)) {
+                int columnCount = Math.min(reader.readSchema().size(), entityMapping.getStreamColumns().size());
+                int targetAttrSize = entityMapping.getStreamColumns().size();
+                int maxRows = site.getSettings().getMaxRows();
+                long rowNum = 0;
+                readBatches:
+                for (ArrowRecordBatch batch = reader.readBatch(); batch != null; batch = reader.readBatch()) {
+                    for (int row = 0; row < batch.getRowCount(); row++) {
+                        if (monitor.isCanceled() || (maxRows > 0 && rowNum >= maxRows)) {
+                            break readBatches;
+                        }
+                        Object[] streamRow = new Object[targetAttrSize];
+                        for (int i = 0; i < columnCount; i++) {
+                            streamRow[i] = batch.getObject(i, row);
+                        }
+                        resultSet.setStreamRow(streamRow);
+                        consumer.fetchRow(producerSession, resultSet);
+                        rowNum++;
+
+                        if (DBFetchProgress.monitorFetchProgress(rowNum)) {
+                            monitor.subTask(rowNum + " rows processed");
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                throw new DBException("IO error reading Arrow data", e);
+            } finally {
+                try {
+                    consumer.fetchEnd(producerSession, resultSet);
+                } finally {
+                    consumer.close();
+                }
+            }
+        }
+    }
+}
@@ -17,6 +17,7 @@
 package org.jkiss.dbeaver.tools.transfer.stream.importer;
 
 import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.DBFetchProgress;
@@ -28,20 +29,26 @@ import org.jkiss.dbeaver.model.exec.DBCExecutionPurpose;
 import org.jkiss.dbeaver.model.exec.DBCSession;
 import org.jkiss.dbeaver.model.impl.local.LocalStatement;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
 import org.jkiss.dbeaver.tools.transfer.IDataTransferConsumer;
-import org.jkiss.dbeaver.tools.transfer.database.DatabaseTransferUtils;
+import org.jkiss.dbeaver.tools.transfer.database.DatabaseTransferConsumer;
 import org.jkiss.dbeaver.tools.transfer.stream.*;
 import org.jkiss.dbeaver.utils.GeneralUtils;
 import org.jkiss.utils.CommonUtils;
-import org.jkiss.utils.Pair;
+import org.jkiss.utils.csv.CSVParser;
 import org.jkiss.utils.csv.CSVReader;
+import org.jkiss.utils.csv.CSVRecord;
 import org.jkiss.utils.io.BOMInputStream;
 
 import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
+import java.sql.Types;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
 /**
  * CSV importer
@@ -57,6 +64,12 @@ public class DataImporterCSV extends StreamImporterAbstract {
     private static final String PROP_EMPTY_STRING_NULL = "emptyStringNull";
     private static final String PROP_ESCAPE_CHAR = "escapeChar";
     private static final String PROP_TRIM_WHITESPACES = "trimWhitespaces";
+    private static final String PROP_PARSE_THREADS = "parseThreads";
+    private static final String PROP_PRESERVE_ROW_ORDER = "preserveRowOrder";
+    private static final String PROP_COLUMN_TYPE_PROFILE = "columnTypeProfile";
+    private static final String PROP_COLUMN_TYPE_STABLE_RECORDS = "columnTypeStableRecords";
+    private static final int PROFILE_STRATA_COUNT = 100;
+    private static final int STRATUM_WINDOW_SIZE = 256 * 1024;
     public static final int READ_BUFFER_SIZE = 255 * 1024;
 
     public enum HeaderPosition {
@@ -64,6 +77,18 @@ public class DataImporterCSV extends StreamImporterAbstract {
         top,
     }
 
+    /**
+     * Defines which records are used to guess column types
+     */
+    public enum ColumnTypeProfile {
+        // First records of the file
+        samples,
+        // All records of the file
+        full,
+        // Records at evenly distributed offsets of a local file
+        sampled,
+    }
+
     public DataImporterCSV() {
     }
 
@@ -79,12 +104,23 @@ public class DataImporterCSV extends StreamImporterAbstract {
         final int columnMinimalLength = Math.max(CommonUtils.toInt(processorProperties.get(PROP_COLUMN_TYPE_LENGTH), 1), 1);
         final boolean columnIsByteLength = CommonUtils.getBoolean(processorProperties.get(PROP_COLUMN_IS_BYTE_LENGTH), false);
 
+        final long columnStableRecords = Math.max(CommonUtils.toLong(processorProperties.get(PROP_COLUMN_TYPE_STABLE_RECORDS)), 0);
+        ColumnTypeProfile profile = CommonUtils.valueOf(
+            ColumnTypeProfile.class, CommonUtils.toString(processorProperties.get(PROP_COLUMN_TYPE_PROFILE)), ColumnTypeProfile.samples);
+        if (profile == ColumnTypeProfile.sampled &&
+            (!(inputStream instanceof FileInputStream) || !CSVParallelReader.isSupportedCharset(Charset.forName(encoding))))
+        {
+            log.debug("Sampling of '" + entityMapping.getEntityName() + "' by file offsets is not possible, reading the whole file");
+            profile = ColumnTypeProfile.full;
+        }
+
         try (Reader reader = openStreamReader(inputStream, processorProperties, true)) {
             try (CSVReader csvReader = openCSVReader(reader, processorProperties)) {
-                String[] header = getNextLine(csvReader);
-                if (header == null) {
+                CSVRecord record = new CSVRecord();
+                if (!csvReader.readRecord(record)) {
                     return columnsInfo;
                 }
+                String[] header = record.toArray();
 
                 for (int i = 0; i < header.length; i++) {
                     String column = null;
@@ -99,36 +135,24 @@ public class DataImporterCSV extends StreamImporterAbstract {
                     columnsInfo.add(columnInfo);
                 }
 
-                for (int sample = 0; sample < columnSamplesCount; sample++) {
-                    String[] line;
-
-                    if (sample == 0 && headerPosition == HeaderPosition.none) {
-                        // Include first line (header that does not exist) for sampling
-                        line = header;
-                    } else {
-                        line = getNextLine(csvReader);
-                        if (line == null) {
-                            break;
-                        }
-                    }
-
-                    for (int i = 0; i < Math.min(line.length, header.length); i++) {
-                        Pair<DBPDataKind, String> dataType = DatabaseTransferUtils.getDataType(line[i]);
-                        StreamDataImporterColumnInfo columnInfo = columnsInfo.get(i);
-
-                        switch (dataType.getFirst()) {
-                            case STRING:
-                                columnInfo.updateMaxLength(columnIsByteLength ? line[i].getBytes(encoding).length : line[i].length());
-                                /* fall-through */
-                            case NUMERIC:
-                            case BOOLEAN:
-                                columnInfo.updateType(dataType.getFirst(), dataType.getSecond());
-                                break;
-                            default:
-                                break;
-                        }
-                    }
+                CSVColumnProfiler profiler = new CSVColumnProfiler(header.length, columnIsByteLength ? Charset.forName(encoding) : null);
+                if (headerPosition == HeaderPosition.none && (profile != ColumnTypeProfile.samples || columnSamplesCount > 0)) {
+                    // Include first line (header that does not exist) for sampling
+                    profiler.addRecord(record);
+                }
+                switch (profile) {
+                    case samples:
+                        profileRecords(csvReader, record, profiler, columnSamplesCount, 0);
+                        break;
+                    case full:
+                        profileRecords(csvReader, record, profiler, Long.MAX_VALUE, columnStableRecords);
+                        break;
+                    case sampled:
+                        profileRecords(csvReader, record, profiler, columnSamplesCount, columnStableRecords);
+                        profileFileStrata((FileInputStream) inputStream, processorProperties, profiler, columnSamplesCount, columnStableRecords);
+                        break;
                 }
+                profiler.applyTo(columnsInfo);
 
                 for (StreamDataImporterColumnInfo columnInfo : columnsInfo) {
                     if (columnInfo.getDataKind() == DBPDataKind.UNKNOWN) {
@@ -144,6 +168,114 @@ public class DataImporterCSV extends StreamImporterAbstract {
         return columnsInfo;
     }
 
+    /**
+     * Reads records into the profiler until the limit of total profiled records is reached
+     * or column types are not changed for the specified number of records.
+     */
+    private static void profileRecords(
+        @NotNull CSVReader csvReader,
+        @NotNull CSVRecord record,
+        @NotNull CSVColumnProfiler profiler,
+        long maxRecords,
+        long stableRecords
+    ) throws IOException {
+        while (profiler.getRecordCount() < maxRecords && !isProfileStable(profiler, stableRecords)) {
+            if (!csvReader.readRecord(record)) {
+                break;
+            }
+            profiler.addRecord(record);
+        }
+    }
+
+    private static boolean isProfileStable(@NotNull CSVColumnProfiler profiler, long stableRecords) {
+        return stableRecords > 0 && profiler.getStableRecordCount() >= stableRecords;
+    }
+
+    /**
+     * Profiles records at evenly distributed offsets of the file.
+     * <p>
+     * Reading starts from the middle of a record and it is not known whether the next line starts inside a quoted value.
+     * Both variants are checked and the one which gives less misplaced quotes is used.
+     */
+    private void profileFileStrata(
+        @NotNull FileInputStream inputStream,
+        @NotNull Map<String, Object> processorProperties,
+        @NotNull CSVColumnProfiler profiler,
+        int recordsPerStratum,
+        long stableRecords
+    ) throws IOException {
+        FileChannel channel = inputStream.getChannel();
+        long fileSize = channel.size();
+        Charset charset = Charset.forName(CommonUtils.toString(processorProperties.get(PROP_ENCODING), GeneralUtils.UTF8_ENCODING));
+        CSVParser parser = createCSVParser(processorProperties);
+        char[] window = new char[STRATUM_WINDOW_SIZE];
+        for (int stratum = 1; stratum < PROFILE_STRATA_COUNT && !isProfileStable(profiler, stableRecords); stratum++) {
+            channel.position(fileSize * stratum / PROFILE_STRATA_COUNT);
+            // Do not close the reader, it would close the channel
+            Reader reader = new InputStreamReader(Channels.newInputStream(channel), charset);
+            int length = 0;
+            for (int count; length < window.length && (count = reader.read(window, length, window.length - length)) > 0; ) {
+                length += count;
+            }
+            String text = new String(window, 0, length);
+            int start = text.indexOf('\n') + 1;
+            if (start == 0) {
+                continue;
+            }
+            text = text.substring(start);
+            boolean inQuotes = countMisplacedQuotes(text, parser, true) < countMisplacedQuotes(text, parser, false);
+            try (CSVReader csvReader = openCSVReader(new StringReader(inQuotes ? parser.getQuotechar() + text : text), processorProperties)) {
+                CSVRecord record = new CSVRecord();
+                if (inQuotes && !csvReader.readRecord(record)) {
+                    // The first record is the tail of a quoted value
+                    continue;
+                }
+                for (int i = 0; i < recordsPerStratum && csvReader.readRecord(record); i++) {
+                    if (csvReader.getParser().isPending()) {
+                        // Truncated by the end of window
+                        break;
+                    }
+                    if (record.getFieldCount() == profiler.getColumnCount()) {
+                        profiler.addRecord(record);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Counts quotes which are not at the start or at the end of a field if the text is parsed with the specified initial state
+     */
+    private static int countMisplacedQuotes(@NotNull String text, @NotNull CSVParser parser, boolean inQuotes) {
+        final char quote = parser.getQuotechar();
+        final char escape = parser.getEscape();
+        final char separator = parser.getSeparator();
+        int errors = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            char next = i + 1 < text.length() ? text.charAt(i + 1) : '\n';
+            if (inQuotes && c == escape && (next == quote || next == escape)) {
+                i++;
+            } else if (c == quote) {
+                if (!inQuotes) {
+                    char prev = i > 0 ? text.charAt(i - 1) : '\n';
+                    if (prev != separator && prev != '\n' && prev != '\r') {
+                        errors++;
+                    }
+                    inQuotes = true;
+                } else if (next == quote) {
+                    i++;
+                } else {
+                    if (next != separator && next != '\n' && next != '\r') {
+                        errors++;
+                    }
+                    inQuotes = false;
+                }
+            }
+        }
+        return errors;
+    }
+
     private int roundToNextPowerOf2(int value) {
         int power = 1;
         while(power < value)
@@ -156,6 +288,10 @@ public class DataImporterCSV extends StreamImporterAbstract {
     }
 
     private CSVReader openCSVReader(Reader reader, Map<String, Object> processorProperties) {
+        return new CSVReader(reader, CSVReader.DEFAULT_SKIP_LINES, createCSVParser(processorProperties));
+    }
+
+    private CSVParser createCSVParser(Map<String, Object> processorProperties) {
         String delimiter = StreamTransferUtils.getDelimiterString(processorProperties, PROP_DELIMITER);
         String quoteChar = CommonUtils.toString(processorProperties.get(PROP_QUOTE_CHAR));
         if (CommonUtils.isEmpty(quoteChar)) {
@@ -165,7 +301,7 @@ public class DataImporterCSV extends StreamImporterAbstract {
         if (CommonUtils.isEmpty(escapeChar)) {
             escapeChar = "\\";
         }
-        return new CSVReader(reader, delimiter.charAt(0), quoteChar.charAt(0), escapeChar.charAt(0));
+        return new CSVParser(delimiter.charAt(0), quoteChar.charAt(0), escapeChar.charAt(0));
     }
 
     private Reader openStreamReader(InputStream inputStream, Map<String, Object> processorProperties, boolean useBufferedStream) throws UnsupportedEncodingException {
@@ -182,16 +318,164 @@ public class DataImporterCSV extends StreamImporterAbstract {
         return new InputStreamReader(inputStream, charset);
     }
 
-    private String[] getNextLine(CSVReader csvReader) throws IOException {
-        while (true) {
-            String[] line = csvReader.readNext();
-            if (line == null) {
-                return null;
+    /**
+     * Converts parsed records into stream rows.
+     * Values of numeric target columns are parsed directly from the record buffer,
+     * unmapped columns are not materialized at all.
+     */
+    private static class RecordConverter implements Function<CSVRecord, Object[]> {
+
+        private enum ValueKind {
+            SKIP,
+            STRING,
+            LONG,
+            DOUBLE
+        }
+
+        private final int targetAttrSize;
+        private final boolean trimWhitespaces;
+        private final boolean emptyStringNull;
+        private final String nullValueMark;
+        @Nullable
+        private final ValueKind[] valueKinds;
+
+        RecordConverter(
+            int targetAttrSize,
+            boolean trimWhitespaces,
+            boolean emptyStringNull,
+            @Nullable String nullValueMark,
+            @Nullable DatabaseTransferConsumer.ColumnMapping[] columnMappings
+        ) {
+            this.targetAttrSize = targetAttrSize;
+            this.trimWhitespaces = trimWhitespaces;
+            this.emptyStringNull = emptyStringNull;
+            this.nullValueMark = CommonUtils.isEmpty(nullValueMark) ? null : nullValueMark;
+            if (columnMappings == null) {
+                this.valueKinds = null;
+            } else {
+                this.valueKinds = new ValueKind[columnMappings.length];
+                for (int i = 0; i < columnMappings.length; i++) {
+                    valueKinds[i] = getValueKind(columnMappings[i]);
+                }
             }
-            if (line.length == 0) {
-                continue;
+        }
+
+        @NotNull
+        private static ValueKind getValueKind(@Nullable DatabaseTransferConsumer.ColumnMapping mapping) {
+            if (mapping == null) {
+                return ValueKind.SKIP;
+            }
+            DBSEntityAttribute targetAttr = mapping.targetAttr == null ? null : mapping.targetAttr.getTarget();
+            if (targetAttr == null || !mapping.targetAttr.getMappingType().isValid() || targetAttr.getDataKind() != DBPDataKind.NUMERIC) {
+                return ValueKind.STRING;
+            }
+            switch (targetAttr.getTypeID()) {
+                case Types.TINYINT:
+                case Types.SMALLINT:
+                case Types.INTEGER:
+                case Types.BIGINT:
+                case Types.DECIMAL:
+                case Types.NUMERIC:
+                    return ValueKind.LONG;
+                case Types.FLOAT:
+                case Types.DOUBLE:
+                    return ValueKind.DOUBLE;
+                default:
+                    return ValueKind.STRING;
+            }
+        }
+
+        @Override
+        public Object[] apply(CSVRecord record) {
+            if (trimWhitespaces) {
+                record.trimFields();
+            }
+            int fieldCount = record.getFieldCount();
+            // Stream row may be shorter than header
+            Object[] row = new Object[Math.max(fieldCount, targetAttrSize)];
+            for (int i = 0; i < fieldCount; i++) {
+                ValueKind kind = valueKinds == null || i >= valueKinds.length ? ValueKind.STRING : valueKinds[i];
+                if (kind == ValueKind.SKIP || record.isNull(i) ||
+                    (emptyStringNull && record.getFieldLength(i) == 0) ||
+                    (nullValueMark != null && record.contentEquals(i, nullValueMark)))
+                {
+                    continue;
+                }
+                try {
+                    switch (kind) {
+                        case LONG:
+                            row[i] = record.parseLong(i);
+                            continue;
+                        case DOUBLE:
+                            row[i] = record.parseDouble(i);
+                            continue;
+                    }
+                } catch (NumberFormatException e) {
+                    // Not a plain number. Let target value handler convert it.
+                }
+                row[i] = record.getString(i);
+            }
+            return row;
+        }
+    }
+
+    /**
+     * Parallel parsing requires random access to a local file and a charset where CSV special characters are single bytes
+     */
+    private boolean isParallelImportEnabled(StreamEntityMapping entityMapping, InputStream inputStream, Map<String, Object> properties) {
+        if (CommonUtils.toInt(properties.get(PROP_PARSE_THREADS), 1) <= 1 || !(inputStream instanceof FileInputStream)) {
+            return false;
+        }
+        CSVParser parser = createCSVParser(properties);
+        String encoding = CommonUtils.toString(properties.get(PROP_ENCODING), GeneralUtils.UTF8_ENCODING);
+        if (!CSVParallelReader.isSupportedCharset(Charset.forName(encoding)) ||
+            !CSVParallelReader.isSupportedSpecialChar(parser.getSeparator()) ||
+            !CSVParallelReader.isSupportedSpecialChar(parser.getQuotechar()) ||
+            !CSVParallelReader.isSupportedSpecialChar(parser.getEscape()))
+        {
+            log.debug("Parallel import of '" + entityMapping.getEntityName() + "' is not possible with current CSV settings, reading sequentially");
+            return false;
+        }
+        return true;
+    }
+
+    private void runParallelImport(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBCSession producerSession,
+        @NotNull StreamTransferResultSet resultSet,
+        @NotNull IDataTransferConsumer consumer,
+        @NotNull FileInputStream inputStream,
+        @NotNull Map<String, Object> properties,
+        @NotNull RecordConverter recordConverter
+    ) throws IOException, DBException {
+        int parseThreads = CommonUtils.toInt(properties.get(PROP_PARSE_THREADS), 1);
+        boolean preserveRowOrder = CommonUtils.getBoolean(properties.get(PROP_PRESERVE_ROW_ORDER), true);
+        int maxRows = getSite().getSettings().getMaxRows();
+        CSVParser parser = createCSVParser(properties);
+        Charset charset = Charset.forName(CommonUtils.toString(properties.get(PROP_ENCODING), GeneralUtils.UTF8_ENCODING));
+
+        FileChannel channel = inputStream.getChannel();
+        try (CSVParallelReader reader = new CSVParallelReader(
+            channel, charset, parser.getSeparator(), parser.getQuotechar(), parser.getEscape(), parseThreads, preserveRowOrder))
+        {
+            reader.setSkipFirstRecord(getHeaderPosition(properties) != HeaderPosition.none);
+            reader.setRecordConverter(recordConverter);
+            long lineNum = 0;
+            readBatches:
+            for (List<Object[]> batch = reader.nextBatch(); batch != null; batch = reader.nextBatch()) {
+                for (Object[] line : batch) {
+                    if (monitor.isCanceled() || (maxRows > 0 && lineNum >= maxRows)) {
+                        break readBatches;
+                    }
+                    resultSet.setStreamRow(line);
+                    consumer.fetchRow(producerSession, resultSet);
+                    lineNum++;
+
+                    if (DBFetchProgress.monitorFetchProgress(lineNum)) {
+                        monitor.subTask(Long.toUnsignedString(lineNum) + " rows processed");
+                    }
+                }
             }
-            return line;
         }
     }
 
@@ -214,70 +498,45 @@ public class DataImporterCSV extends StreamImporterAbstract {
 
             applyTransformHints(resultSet, consumer, properties, PROP_TIMESTAMP_FORMAT, PROP_TIMESTAMP_ZONE);
 
-            try (Reader reader = openStreamReader(inputStream, properties, true)) {
-                try (CSVReader csvReader = openCSVReader(reader, properties)) {
-
-                    int maxRows = site.getSettings().getMaxRows();
-                    int targetAttrSize = entityMapping.getStreamColumns().size();
-                    boolean headerRead = false;
-                    for (long lineNum = 0; ; ) {
-                        if (monitor.isCanceled()) {
-                            break;
-                        }
-                        String[] line = csvReader.readNext();
-                        if (line == null) {
-                            if (csvReader.getParser().isPending()) {
-                                throw new IOException("Un-terminated quote sequence was detected");
-                            }
-                            break;
-                        }
-                        if (line.length == 0) {
-                            continue;
-                        }
-                        if (headerPosition != HeaderPosition.none && !headerRead) {
-                            // First line is a header
-                            headerRead = true;
-                            continue;
-                        }
-                        if (maxRows > 0 && lineNum >= maxRows) {
-                            break;
-                        }
-
-                        if (line.length < targetAttrSize) {
-                            // Stream row may be shorter than header
-                            String[] newLine = new String[targetAttrSize];
-                            System.arraycopy(line, 0, newLine, 0, line.length);
-                            for (int i = line.length; i < targetAttrSize; i++) {
-                                newLine[i] = null;
-                            }
-                            line = newLine;
-                        }
-                        if (trimWhitespaces) {
-                            for (int i = 0; i < line.length; i++) {
-                                line[i] = line[i].trim();
-                            }
-                        }
-                        if (emptyStringNull) {
-                            for (int i = 0; i < line.length; i++) {
-                                if ("".equals(line[i])) {
-                                    line[i] = null;
+            int maxRows = site.getSettings().getMaxRows();
+            int targetAttrSize = entityMapping.getStreamColumns().size();
+            RecordConverter recordConverter = new RecordConverter(
+                targetAttrSize, trimWhitespaces, emptyStringNull, nullValueMark, getStreamColumnMappings(consumer, resultSet));
+            try {
+                if (isParallelImportEnabled(entityMapping, inputStream, properties)) {
+                    runParallelImport(monitor, producerSession, resultSet, consumer, (FileInputStream) inputStream, properties, recordConverter);
+                } else {
+                    try (Reader reader = openStreamReader(inputStream, properties, true)) {
+                        try (CSVReader csvReader = openCSVReader(reader, properties)) {
+                            CSVRecord record = new CSVRecord();
+                            boolean headerRead = false;
+                            for (long lineNum = 0; ; ) {
+                                if (monitor.isCanceled()) {
+                                    break;
                                 }
-                            }
-                        }
-                        if (!CommonUtils.isEmpty(nullValueMark)) {
-                            for (int i = 0; i < line.length; i++) {
-                                if (nullValueMark.equals(line[i])) {
-                                    line[i] = null;
+                                if (!csvReader.readRecord(record)) {
+                                    if (csvReader.getParser().isPending()) {
+                                        throw new IOException("Un-terminated quote sequence was detected");
+                                    }
+                                    break;
+                                }
+                                if (headerPosition != HeaderPosition.none && !headerRead) {
+                                    // First line is a header
+                                    headerRead = true;
+                                    continue;
+                                }
+                                if (maxRows > 0 && lineNum >= maxRows) {
+                                    break;
                                 }
-                            }
-                        }
 
-                        resultSet.setStreamRow(line);
-                        consumer.fetchRow(producerSession, resultSet);
-                        lineNum++;
+                                resultSet.setStreamRow(recordConverter.apply(record));
+                                consumer.fetchRow(producerSession, resultSet);
+                                lineNum++;
 
-                        if (DBFetchProgress.monitorFetchProgress(lineNum)) {
-                            monitor.subTask(Long.toUnsignedString(lineNum) + " rows processed");
+                                if (DBFetchProgress.monitorFetchProgress(lineNum)) {
+                                    monitor.subTask(Long.toUnsignedString(lineNum) + " rows processed");
+                                }
+                            }
                         }
                     }
                 }
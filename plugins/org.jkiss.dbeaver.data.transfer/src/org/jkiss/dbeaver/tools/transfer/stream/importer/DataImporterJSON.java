@@ -0,0 +1,382 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.importer;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBFetchProgress;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
+import org.jkiss.dbeaver.model.exec.DBCExecutionPurpose;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.impl.local.LocalStatement;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.tools.transfer.IDataTransferConsumer;
+import org.jkiss.dbeaver.tools.transfer.database.DatabaseTransferUtils;
+import org.jkiss.dbeaver.tools.transfer.stream.*;
+import org.jkiss.dbeaver.utils.GeneralUtils;
+import org.jkiss.utils.CommonUtils;
+import org.jkiss.utils.Pair;
+import org.jkiss.utils.io.BOMInputStream;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.util.*;
+
+/**
+ * JSON importer.
+ * Reads JSON lines (one object per line), a top-level array of objects or
+ * an array wrapped into an object (as produced by the JSON exporter).
+ * Records are parsed one by one with a pull parser, so memory usage doesn't depend on file size.
+ */
+public class DataImporterJSON extends StreamImporterAbstract {
+    private static final Log log = Log.getLog(DataImporterJSON.class);
+
+    private static final String PROP_ENCODING = "encoding";
+    private static final String PROP_FORMAT = "format";
+    private static final String PROP_NESTED_OBJECTS = "nestedObjects";
+
+    private static final int READ_BUFFER_SIZE = 255 * 1024;
+    // Maximum amount of characters inspected to detect the file layout
+    private static final int LAYOUT_DETECT_LIMIT = 1024 * 1024;
+
+    public enum InputFormat {
+        auto,
+        lines,
+        array,
+    }
+
+    public enum NestedObjects {
+        flatten,
+        json,
+    }
+
+    @NotNull
+    @Override
+    public List<StreamDataImporterColumnInfo> readColumnsInfo(StreamEntityMapping entityMapping, @NotNull InputStream inputStream) throws DBException {
+        Map<String, Object> processorProperties = getSite().getProcessorProperties();
+        final int columnSamplesCount = Math.max(CommonUtils.toInt(processorProperties.get(PROP_COLUMN_TYPE_SAMPLES), 1000), 1);
+        final int columnMinimalLength = Math.max(CommonUtils.toInt(processorProperties.get(PROP_COLUMN_TYPE_LENGTH), 1), 1);
+
+        Map<String, StreamDataImporterColumnInfo> columnsInfo = new LinkedHashMap<>();
+        try (RecordReader reader = openRecordReader(inputStream, processorProperties)) {
+            for (int sample = 0; sample < columnSamplesCount; sample++) {
+                Map<String, Object> record = reader.nextRecord();
+                if (record == null) {
+                    break;
+                }
+                for (Map.Entry<String, Object> entry : record.entrySet()) {
+                    StreamDataImporterColumnInfo columnInfo = columnsInfo.get(entry.getKey());
+                    if (columnInfo == null) {
+                        columnInfo = new StreamDataImporterColumnInfo(entityMapping, columnsInfo.size(), entry.getKey(), null, columnMinimalLength, DBPDataKind.UNKNOWN);
+                        columnInfo.setMappingMetadataPresent(true);
+                        columnsInfo.put(entry.getKey(), columnInfo);
+                    }
+                    Object value = entry.getValue();
+                    if (value instanceof String) {
+                        columnInfo.updateMaxLength(((String) value).length());
+                        columnInfo.updateType(DBPDataKind.STRING, "VARCHAR");
+                    } else if (value instanceof Number || value instanceof Boolean) {
+                        Pair<DBPDataKind, String> dataType = DatabaseTransferUtils.getDataType(value.toString());
+                        columnInfo.updateType(dataType.getFirst(), dataType.getSecond());
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new DBException("IO error reading JSON", e);
+        }
+
+        for (StreamDataImporterColumnInfo columnInfo : columnsInfo.values()) {
+            if (columnInfo.getDataKind() == DBPDataKind.UNKNOWN) {
+                log.warn("Cannot guess data type for column '" + columnInfo.getName() + "', defaulting to VARCHAR");
+                columnInfo.updateType(DBPDataKind.STRING, "VARCHAR");
+            }
+        }
+        return new ArrayList<>(columnsInfo.values());
+    }
+
+    @Override
+    public void runImport(@NotNull DBRProgressMonitor monitor, @NotNull DBPDataSource streamDataSource, @NotNull InputStream inputStream, @NotNull IDataTransferConsumer consumer) throws DBException {
+        IStreamDataImporterSite site = getSite();
+        StreamEntityMapping entityMapping = site.getSourceObject();
+        Map<String, Object> properties = site.getProcessorProperties();
+
+        DBCExecutionContext context = streamDataSource.getDefaultInstance().getDefaultContext(monitor, false);
+        try (DBCSession producerSession = context.openSession(monitor, DBCExecutionPurpose.UTIL, "Transfer stream data")) {
+            LocalStatement localStatement = new LocalStatement(producerSession, "SELECT * FROM Stream");
+            StreamTransferResultSet resultSet = new StreamTransferResultSet(producerSession, localStatement, entityMapping);
+
+            consumer.fetchStart(producerSession, resultSet, -1, -1);
+
+            applyTransformHints(resultSet, consumer, properties, PROP_TIMESTAMP_FORMAT, PROP_TIMESTAMP_ZONE);
+
+            try (RecordReader reader = openRecordReader(inputStream, properties)) {
+                List<StreamDataImporterColumnInfo> streamColumns = entityMapping.getStreamColumns();
+                Map<String, Integer> columnIndexes = new HashMap<>();
+                for (int i = 0; i < streamColumns.size(); i++) {
+                    columnIndexes.put(streamColumns.get(i).getName(), i);
+                }
+                int maxRows = site.getSettings().getMaxRows();
+                int targetAttrSize = streamColumns.size();
+                for (long rowNum = 0; ; ) {
+                    if (monitor.isCanceled() || (maxRows > 0 && rowNum >= maxRows)) {
+                        break;
+                    }
+                    Map<String, Object> record = reader.nextRecord();
+                    if (record == null) {
+                        break;
+                    }
+                    Object[] streamRow = new Object[targetAttrSize];
+                    for (Map.Entry<String, Object> entry : record.entrySet()) {
+                        Integer index = columnIndexes.get(entry.getKey());
+                        if (index != null) {
+                            streamRow[index] = entry.getValue();
+                        }
+                    }
+                    resultSet.setStreamRow(streamRow);
+                    consumer.fetchRow(producerSession, resultSet);
+                    rowNum++;
+
+                    if (DBFetchProgress.monitorFetchProgress(rowNum)) {
+                        monitor.subTask(rowNum + " rows processed");
+                    }
+                }
+            } catch (IOException e) {
+                throw new DBException("IO error reading JSON", e);
+            } finally {
+                try {
+                    consumer.fetchEnd(producerSession, resultSet);
+                } finally {
+                    consumer.close();
+                }
+            }
+        }
+    }
+
+    @NotNull
+    private RecordReader openRecordReader(@NotNull InputStream inputStream, @NotNull Map<String, Object> processorProperties) throws IOException {
+        final String encoding = CommonUtils.toString(processorProperties.get(PROP_ENCODING), GeneralUtils.UTF8_ENCODING);
+        final Charset charset = Charset.forName(encoding);
+        inputStream = new BufferedInputStream(inputStream, READ_BUFFER_SIZE);
+        try {
+            inputStream = new BOMInputStream(inputStream, charset);
+        } catch (IllegalArgumentException ignored) {
+            // This charset does not have BOM, suppress and continue
+        }
+        InputFormat format = CommonUtils.valueOf(InputFormat.class, CommonUtils.toString(processorProperties.get(PROP_FORMAT)), InputFormat.auto);
+        NestedObjects nestedObjects = CommonUtils.valueOf(NestedObjects.class, CommonUtils.toString(processorProperties.get(PROP_NESTED_OBJECTS)), NestedObjects.flatten);
+        return new RecordReader(new BufferedReader(new InputStreamReader(inputStream, charset)), format, nestedObjects == NestedObjects.flatten);
+    }
+
+    /**
+     * Reads JSON objects one by one. Nested objects are either flattened into dotted names or kept as JSON text.
+     */
+    static class RecordReader implements Closeable {
+        private final BufferedReader reader;
+        private final boolean flatten;
+        private InputFormat format;
+        private JsonReader json;
+        private boolean wrapped;
+        private boolean finished;
+
+        RecordReader(@NotNull BufferedReader reader, @NotNull InputFormat format, boolean flatten) {
+            this.reader = reader;
+            this.format = format;
+            this.flatten = flatten;
+        }
+
+        /**
+         * Reads the next record
+         * @return attribute values in the order of appearance or null if there are no more records
+         */
+        @Nullable
+        Map<String, Object> nextRecord() throws IOException {
+            if (finished) {
+                return null;
+            }
+            if (json == null) {
+                start();
+            }
+            if (format == InputFormat.array ? !json.hasNext() : json.peek() == JsonToken.END_DOCUMENT) {
+                finished = true;
+                return null;
+            }
+            if (json.peek() != JsonToken.BEGIN_OBJECT) {
+                throw new IOException("JSON object expected but " + json.peek() + " found at " + json.getPath());
+            }
+            Map<String, Object> record = new LinkedHashMap<>();
+            json.beginObject();
+            while (json.hasNext()) {
+                readValue(json.nextName(), record);
+            }
+            json.endObject();
+            return record;
+        }
+
+        private void start() throws IOException {
+            if (format == InputFormat.auto) {
+                format = detectFormat();
+            }
+            json = new JsonReader(reader);
+            // Lenient mode allows several top-level values (JSON lines)
+            json.setLenient(true);
+            if (format == InputFormat.array) {
+                if (wrapped) {
+                    json.beginObject();
+                    json.nextName();
+                }
+                json.beginArray();
+            }
+        }
+
+        private InputFormat detectFormat() throws IOException {
+            reader.mark(LAYOUT_DETECT_LIMIT);
+            try {
+                JsonReader probe = new JsonReader(reader);
+                probe.setLenient(true);
+                JsonToken token = probe.peek();
+                if (token == JsonToken.BEGIN_ARRAY) {
+                    return InputFormat.array;
+                }
+                if (token == JsonToken.BEGIN_OBJECT) {
+                    // Array of objects wrapped into an object with a single attribute
+                    probe.beginObject();
+                    if (probe.hasNext()) {
+                        probe.nextName();
+                        if (probe.peek() == JsonToken.BEGIN_ARRAY) {
+                            probe.beginArray();
+                            if (!probe.hasNext() || probe.peek() == JsonToken.BEGIN_OBJECT) {
+                                wrapped = true;
+                                return InputFormat.array;
+                            }
+                        }
+                    }
+                }
+                return InputFormat.lines;
+            } finally {
+                reader.reset();
+            }
+        }
+
+        private void readValue(@NotNull String name, @NotNull Map<String, Object> record) throws IOException {
+            switch (json.peek()) {
+                case BEGIN_OBJECT:
+                    if (flatten) {
+                        json.beginObject();
+                        while (json.hasNext()) {
+                            readValue(name + "." + json.nextName(), record);
+                        }
+                        json.endObject();
+                    } else {
+                        record.put(name, readJsonText());
+                    }
+                    break;
+                case BEGIN_ARRAY:
+                    record.put(name, readJsonText());
+                    break;
+                case NUMBER:
+                    record.put(name, parseNumber(json.nextString()));
+                    break;
+                case BOOLEAN:
+                    record.put(name, json.nextBoolean());
+                    break;
+                case NULL:
+                    json.nextNull();
+                    record.put(name, null);
+                    break;
+                default:
+                    record.put(name, json.nextString());
+                    break;
+            }
+        }
+
+        /**
+         * Copies the current value as JSON text
+         */
+        @NotNull
+        private String readJsonText() throws IOException {
+            StringWriter buffer = new StringWriter();
+            try (JsonWriter writer = new JsonWriter(buffer)) {
+                copyValue(writer);
+            }
+            return buffer.toString();
+        }
+
+        private void copyValue(@NotNull JsonWriter writer) throws IOException {
+            switch (json.peek()) {
+                case BEGIN_OBJECT:
+                    json.beginObject();
+                    writer.beginObject();
+                    while (json.hasNext()) {
+                        writer.name(json.nextName());
+                        copyValue(writer);
+                    }
+                    json.endObject();
+                    writer.endObject();
+                    break;
+                case BEGIN_ARRAY:
+                    json.beginArray();
+                    writer.beginArray();
+                    while (json.hasNext()) {
+                        copyValue(writer);
+                    }
+                    json.endArray();
+                    writer.endArray();
+                    break;
+                case NUMBER:
+                    writer.jsonValue(json.nextString());
+                    break;
+                case BOOLEAN:
+                    writer.value(json.nextBoolean());
+                    break;
+                case NULL:
+                    json.nextNull();
+                    writer.nullValue();
+                    break;
+                default:
+                    writer.value(json.nextString());
+                    break;
+            }
+        }
+
+        @NotNull
+        private static Object parseNumber(@NotNull String text) {
+            try {
+                return Long.parseLong(text);
+            } catch (NumberFormatException ignored) {
+            }
+            try {
+                return new BigDecimal(text);
+            } catch (NumberFormatException ignored) {
+                // NaN or Infinity in lenient mode
+                return Double.parseDouble(text);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+}
@@ -0,0 +1,343 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.importer;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBFetchProgress;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.exec.DBCExecutionContext;
+import org.jkiss.dbeaver.model.exec.DBCExecutionPurpose;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.impl.local.LocalStatement;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.tools.transfer.IDataTransferConsumer;
+import org.jkiss.dbeaver.tools.transfer.database.DatabaseTransferConsumer;
+import org.jkiss.dbeaver.tools.transfer.stream.IStreamDataImporterSite;
+import org.jkiss.dbeaver.tools.transfer.stream.StreamDataImporterColumnInfo;
+import org.jkiss.dbeaver.tools.transfer.stream.StreamEntityMapping;
+import org.jkiss.dbeaver.tools.transfer.stream.StreamTransferResultSet;
+import org.jkiss.dbeaver.tools.transfer.stream.parquet.ParquetColumn;
+import org.jkiss.dbeaver.tools.transfer.stream.parquet.ParquetConstants;
+import org.jkiss.dbeaver.tools.transfer.stream.parquet.ParquetFileReader;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.sql.Types;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Apache Parquet importer.
+ * Row groups are read one by one and only columns mapped to target attributes are decoded.
+ * Several row groups may be decoded in parallel, rows are still passed to the consumer in file order.
+ */
+public class DataImporterParquet extends StreamImporterAbstract {
+
+    private static final Log log = Log.getLog(DataImporterParquet.class);
+
+    private static final String PROP_DECODE_THREADS = "decodeThreads";
+
+    @NotNull
+    @Override
+    public List<StreamDataImporterColumnInfo> readColumnsInfo(StreamEntityMapping entityMapping, @NotNull InputStream inputStream) throws DBException {
+        final int columnMinimalLength = Math.max(CommonUtils.toInt(getSite().getProcessorProperties().get(PROP_COLUMN_TYPE_LENGTH), 1), 1);
+        List<StreamDataImporterColumnInfo> columnsInfo = new ArrayList<>();
+        try (FileChannel channel = openChannel(entityMapping, inputStream)) {
+            ParquetFileReader reader = new ParquetFileReader(channel);
+            if (!reader.getUnsupportedColumns().isEmpty()) {
+                log.warn("Nested columns are not supported and will be skipped: " + reader.getUnsupportedColumns());
+            }
+            List<ParquetColumn> columns = reader.getColumns();
+            boolean[] sampledColumns = new boolean[columns.size()];
+            boolean hasSampledColumns = false;
+            for (int i = 0; i < columns.size(); i++) {
+                StreamDataImporterColumnInfo columnInfo = makeColumnInfo(entityMapping, i, columns.get(i), columnMinimalLength);
+                columnsInfo.add(columnInfo);
+                if (columnInfo.getDataKind() == DBPDataKind.STRING || columnInfo.getDataKind() == DBPDataKind.BINARY) {
+                    sampledColumns[i] = hasSampledColumns = true;
+                }
+            }
+            // Use the first row group to estimate lengths of variable-width columns
+            if (hasSampledColumns && reader.getRowGroupCount() > 0) {
+                Object[][] values = reader.readRowGroup(0, sampledColumns);
+                for (int i = 0; i < columns.size(); i++) {
+                    if (values[i] == null) {
+                        continue;
+                    }
+                    StreamDataImporterColumnInfo columnInfo = columnsInfo.get(i);
+                    for (Object value : values[i]) {
+                        if (value instanceof String) {
+                            columnInfo.updateMaxLength(((String) value).length());
+                        } else if (value instanceof byte[]) {
+                            columnInfo.updateMaxLength(((byte[]) value).length);
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new DBException("IO error reading Parquet data", e);
+        }
+        return columnsInfo;
+    }
+
+    @NotNull
+    private static StreamDataImporterColumnInfo makeColumnInfo(
+        @NotNull StreamEntityMapping entityMapping,
+        int index,
+        @NotNull ParquetColumn column,
+        int minimalLength
+    ) {
+        String columnName = CommonUtils.isEmptyTrimmed(column.getName()) ? "Column" + (index + 1) : column.getName();
+        DBPDataKind dataKind;
+        String typeName;
+        int typeId;
+        switch (column.getLogicalType()) {
+            case ParquetConstants.LOGICAL_DECIMAL:
+                dataKind = DBPDataKind.NUMERIC;
+                typeName = "DECIMAL";
+                typeId = Types.DECIMAL;
+                break;
+            case ParquetConstants.LOGICAL_DATE:
+                dataKind = DBPDataKind.DATETIME;
+                typeName = "DATE";
+                typeId = Types.DATE;
+                break;
+            case ParquetConstants.LOGICAL_TIME:
+                dataKind = DBPDataKind.DATETIME;
+                typeName = "TIME";
+                typeId = Types.TIME;
+                break;
+            case ParquetConstants.LOGICAL_TIMESTAMP:
+                dataKind = DBPDataKind.DATETIME;
+                typeName = "TIMESTAMP";
+                typeId = Types.TIMESTAMP;
+                break;
+            case ParquetConstants.LOGICAL_INTEGER:
+                dataKind = DBPDataKind.NUMERIC;
+                if (column.getBitWidth() < 32) {
+                    typeName = "SMALLINT";
+                    typeId = Types.SMALLINT;
+                } else if (column.getBitWidth() == 32 && column.isSigned()) {
+                    typeName = "INTEGER";
+                    typeId = Types.INTEGER;
+                } else if (column.getBitWidth() == 32 || column.isSigned()) {
+                    typeName = "BIGINT";
+                    typeId = Types.BIGINT;
+                } else {
+                    typeName = "NUMERIC";
+                    typeId = Types.NUMERIC;
+                }
+                break;
+            case ParquetConstants.LOGICAL_STRING:
+            case ParquetConstants.LOGICAL_ENUM:
+            case ParquetConstants.LOGICAL_JSON:
+            case ParquetConstants.LOGICAL_UUID:
+                dataKind = DBPDataKind.STRING;
+                typeName = "VARCHAR";
+                typeId = Types.VARCHAR;
+                break;
+            default:
+                switch (column.getPhysicalType()) {
+                    case ParquetConstants.TYPE_BOOLEAN:
+                        dataKind = DBPDataKind.BOOLEAN;
+                        typeName = "BOOLEAN";
+                        typeId = Types.BOOLEAN;
+                        break;
+                    case ParquetConstants.TYPE_INT32:
+                        dataKind = DBPDataKind.NUMERIC;
+                        typeName = "INTEGER";
+                        typeId = Types.INTEGER;
+                        break;
+                    case ParquetConstants.TYPE_INT64:
+                        dataKind = DBPDataKind.NUMERIC;
+                        typeName = "BIGINT";
+                        typeId = Types.BIGINT;
+                        break;
+                    case ParquetConstants.TYPE_INT96:
+                        dataKind = DBPDataKind.DATETIME;
+                        typeName = "TIMESTAMP";
+                        typeId = Types.TIMESTAMP;
+                        break;
+                    case ParquetConstants.TYPE_FLOAT:
+                        dataKind = DBPDataKind.NUMERIC;
+                        typeName = "REAL";
+                        typeId = Types.REAL;
+                        break;
+                    case ParquetConstants.TYPE_DOUBLE:
+                        dataKind = DBPDataKind.NUMERIC;
+                        typeName = "DOUBLE";
+                        typeId = Types.DOUBLE;
+                        break;
+                    default:
+                        dataKind = DBPDataKind.BINARY;
+                        typeName = "VARBINARY";
+                        typeId = Types.VARBINARY;
+                        break;
+                }
+                break;
+        }
+        StreamDataImporterColumnInfo columnInfo = new StreamDataImporterColumnInfo(entityMapping, index, columnName, typeName, minimalLength, dataKind);
+        columnInfo.setValueType(typeId);
+        columnInfo.setRequired(!column.isOptional());
+        columnInfo.setMappingMetadataPresent(true);
+        if (typeId == Types.DECIMAL) {
+            columnInfo.setPrecision(column.getPrecision());
+            columnInfo.setScale(column.getScale());
+        } else if (typeId == Types.NUMERIC) {
+            columnInfo.setPrecision(20);
+            columnInfo.setScale(0);
+        } else if (column.getLogicalType() == ParquetConstants.LOGICAL_UUID) {
+            columnInfo.updateMaxLength(36);
+        } else if (column.getPhysicalType() == ParquetConstants.TYPE_FIXED_LEN_BYTE_ARRAY) {
+            columnInfo.updateMaxLength(column.getTypeLength());
+        }
+        return columnInfo;
+    }
+
+    @Override
+    public void runImport(@NotNull DBRProgressMonitor monitor, @NotNull DBPDataSource streamDataSource, @NotNull InputStream inputStream, @NotNull IDataTransferConsumer consumer) throws DBException {
+        IStreamDataImporterSite site = getSite();
+        StreamEntityMapping entityMapping = site.getSourceObject();
+        int decodeThreads = Math.max(CommonUtils.toInt(site.getProcessorProperties().get(PROP_DECODE_THREADS), 1), 1);
+
+        DBCExecutionContext context = streamDataSource.getDefaultInstance().getDefaultContext(monitor, false);
+        try (DBCSession producerSession = context.openSession(monitor, DBCExecutionPurpose.UTIL, "Transfer stream data")) {
+            LocalStatement localStatement = new LocalStatement(producerSession, "SELECT * FROM Stream");
+            StreamTransferResultSet resultSet = new StreamTransferResultSet(producerSession, localStatement, entityMapping);
+
+            consumer.fetchStart(producerSession, resultSet, -1, -1);
+            ExecutorService executor = null;
+            try (FileChannel channel = openChannel(entityMapping, inputStream)) {
+                ParquetFileReader reader = new ParquetFileReader(channel);
+                int columnCount = Math.min(reader.getColumns().size(), entityMapping.getStreamColumns().size());
+                boolean[] projection = getProjection(consumer, resultSet, reader.getColumns().size());
+                int targetAttrSize = entityMapping.getStreamColumns().size();
+                int maxRows = site.getSettings().getMaxRows();
+                int rowGroupCount = reader.getRowGroupCount();
+
+                Deque<Future<Object[][]>> pendingGroups = new ArrayDeque<>();
+                int nextGroup = 0;
+                if (decodeThreads > 1 && rowGroupCount > 1) {
+                    executor = Executors.newFixedThreadPool(Math.min(decodeThreads, rowGroupCount), runnable -> {
+                        Thread thread = new Thread(runnable, "Parquet row group decoder");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                }
+
+                long rowNum = 0;
+                readGroups:
+                for (int group = 0; group < rowGroupCount; group++) {
+                    Object[][] values;
+                    if (executor == null) {
+                        values = reader.readRowGroup(group, projection);
+                    } else {
+                        // Keep a limited number of row groups in flight to bound memory usage
+                        while (nextGroup < rowGroupCount && pendingGroups.size() < decodeThreads) {
+                            final int groupIndex = nextGroup++;
+                            pendingGroups.add(executor.submit(() -> reader.readRowGroup(groupIndex, projection)));
+                        }
+                        values = getRowGroup(pendingGroups.poll());
+                    }
+                    int groupRows = (int) reader.getRowGroupRows(group);
+                    for (int row = 0; row < groupRows; row++) {
+                        if (monitor.isCanceled() || (maxRows > 0 && rowNum >= maxRows)) {
+                            break readGroups;
+                        }
+                        Object[] streamRow = new Object[targetAttrSize];
+                        for (int i = 0; i < columnCount; i++) {
+                            if (values[i] != null) {
+                                streamRow[i] = values[i][row];
+                            }
+                        }
+                        resultSet.setStreamRow(streamRow);
+                        consumer.fetchRow(producerSession, resultSet);
+                        rowNum++;
+
+                        if (DBFetchProgress.monitorFetchProgress(rowNum)) {
+                            monitor.subTask(rowNum + " rows processed");
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                throw new DBException("IO error reading Parquet data", e);
+            } finally {
+                if (executor != null) {
+                    executor.shutdownNow();
+                }
+                try {
+                    consumer.fetchEnd(producerSession, resultSet);
+                } finally {
+                    consumer.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * Columns which are mapped to target attributes. Null means that all columns must be read.
+     */
+    @Nullable
+    private static boolean[] getProjection(@NotNull IDataTransferConsumer consumer, @NotNull StreamTransferResultSet resultSet, int columnCount) {
+        DatabaseTransferConsumer.ColumnMapping[] columnMappings = getStreamColumnMappings(consumer, resultSet);
+        if (columnMappings == null) {
+            return null;
+        }
+        boolean[] projection = new boolean[columnCount];
+        for (int i = 0; i < columnCount && i < columnMappings.length; i++) {
+            projection[i] = columnMappings[i] != null;
+        }
+        return projection;
+    }
+
+    @NotNull
+    private static Object[][] getRowGroup(@NotNull Future<Object[][]> future) throws IOException, DBException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DBException("Parquet import interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new DBException("Error decoding Parquet row group", e.getCause());
+        }
+    }
+
+    @NotNull
+    private static FileChannel openChannel(@NotNull StreamEntityMapping entityMapping, @NotNull InputStream inputStream) throws IOException {
+        if (inputStream instanceof FileInputStream) {
+            return ((FileInputStream) inputStream).getChannel();
+        }
+        return FileChannel.open(entityMapping.getInputFile().toPath(), StandardOpenOption.READ);
+    }
+}
@@ -33,6 +33,7 @@ import org.jkiss.utils.CommonUtils;
 
 import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -128,4 +129,32 @@ public abstract class StreamImporterAbstract implements IStreamDataImporter {
         }
     }
 
+    /**
+     * Returns column mappings of the database consumer indexed by stream column.
+     * Unmapped columns have null mappings. Returns null if the consumer is not a database consumer.
+     */
+    @Nullable
+    protected static DatabaseTransferConsumer.ColumnMapping[] getStreamColumnMappings(@NotNull IDataTransferConsumer consumer, @NotNull StreamTransferResultSet resultSet) {
+        if (!(consumer instanceof DatabaseTransferConsumer)) {
+            return null;
+        }
+        DatabaseTransferConsumer.ColumnMapping[] columnMappings = ((DatabaseTransferConsumer) consumer).getColumnMappings();
+        if (columnMappings == null) {
+            return null;
+        }
+        List<StreamDataImporterColumnInfo> attributes = resultSet.getAttributeMappings();
+        DatabaseTransferConsumer.ColumnMapping[] result = new DatabaseTransferConsumer.ColumnMapping[attributes.size()];
+        for (DatabaseTransferConsumer.ColumnMapping cm : columnMappings) {
+            if (cm == null) {
+                continue;
+            }
+            for (int i = 0; i < attributes.size(); i++) {
+                if (cm.sourceAttr.getName().equals(attributes.get(i).getName())) {
+                    result[i] = cm;
+                }
+            }
+        }
+        return result;
+    }
+
 }
\ No newline at end of file
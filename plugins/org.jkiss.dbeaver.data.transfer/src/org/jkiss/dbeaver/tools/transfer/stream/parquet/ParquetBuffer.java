@@ -0,0 +1,75 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.parquet;
+
+import java.io.ByteArrayOutputStream;
+
+/**
+ * Growable byte buffer with little-endian and varint helpers
+ */
+public class ParquetBuffer extends ByteArrayOutputStream {
+
+    public ParquetBuffer() {
+        super(1024);
+    }
+
+    public ParquetBuffer(int size) {
+        super(Math.max(size, 16));
+    }
+
+    /**
+     * Internal buffer. Only first size() bytes are valid.
+     */
+    public byte[] getBuffer() {
+        return buf;
+    }
+
+    @Override
+    public void write(byte[] b) {
+        write(b, 0, b.length);
+    }
+
+    public void writeIntLE(int value) {
+        write(value);
+        write(value >>> 8);
+        write(value >>> 16);
+        write(value >>> 24);
+    }
+
+    public void writeLongLE(long value) {
+        writeIntLE((int) value);
+        writeIntLE((int) (value >>> 32));
+    }
+
+    public void writeVarInt(long value) {
+        while ((value & ~0x7FL) != 0) {
+            write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        write((int) value);
+    }
+
+    /**
+     * Overwrites 4 bytes at the specified position
+     */
+    public void setIntLE(int position, int value) {
+        buf[position] = (byte) value;
+        buf[position + 1] = (byte) (value >>> 8);
+        buf[position + 2] = (byte) (value >>> 16);
+        buf[position + 3] = (byte) (value >>> 24);
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.parquet;
+
+import org.jkiss.code.NotNull;
+
+/**
+ * Flat (non-nested) Parquet column definition
+ */
+public class ParquetColumn {
+
+    private final String name;
+    private final int physicalType;
+    private final int repetition;
+    private int typeLength;
+    private int convertedType = -1;
+    private int logicalType = -1;
+    private int precision;
+    private int scale;
+    private int bitWidth;
+    private boolean signed = true;
+    private int timeUnit;
+    private boolean adjustedToUTC;
+
+    public ParquetColumn(@NotNull String name, int physicalType, int repetition) {
+        this.name = name;
+        this.physicalType = physicalType;
+        this.repetition = repetition;
+    }
+
+    public ParquetColumn(@NotNull String name, int physicalType) {
+        this(name, physicalType, ParquetConstants.REPETITION_OPTIONAL);
+    }
+
+    @NotNull
+    public String getName() {
+        return name;
+    }
+
+    public int getPhysicalType() {
+        return physicalType;
+    }
+
+    public int getRepetition() {
+        return repetition;
+    }
+
+    public boolean isOptional() {
+        return repetition == ParquetConstants.REPETITION_OPTIONAL;
+    }
+
+    public int getTypeLength() {
+        return typeLength;
+    }
+
+    public int getConvertedType() {
+        return convertedType;
+    }
+
+    public int getLogicalType() {
+        return logicalType;
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    public int getScale() {
+        return scale;
+    }
+
+    public int getBitWidth() {
+        return bitWidth;
+    }
+
+    public boolean isSigned() {
+        return signed;
+    }
+
+    public int getTimeUnit() {
+        return timeUnit;
+    }
+
+    public boolean isAdjustedToUTC() {
+        return adjustedToUTC;
+    }
+
+    ParquetColumn withTypeLength(int typeLength) {
+        this.typeLength = typeLength;
+        return this;
+    }
+
+    ParquetColumn withConvertedType(int convertedType) {
+        this.convertedType = convertedType;
+        return this;
+    }
+
+    public ParquetColumn asString() {
+        this.logicalType = ParquetConstants.LOGICAL_STRING;
+        this.convertedType = ParquetConstants.CONVERTED_UTF8;
+        return this;
+    }
+
+    public ParquetColumn asJson() {
+        this.logicalType = ParquetConstants.LOGICAL_JSON;
+        this.convertedType = ParquetConstants.CONVERTED_JSON;
+        return this;
+    }
+
+    public ParquetColumn asDecimal(int precision, int scale) {
+        this.logicalType = ParquetConstants.LOGICAL_DECIMAL;
+        this.convertedType = ParquetConstants.CONVERTED_DECIMAL;
+        this.precision = precision;
+        this.scale = scale;
+        return this;
+    }
+
+    public ParquetColumn asDate() {
+        this.logicalType = ParquetConstants.LOGICAL_DATE;
+        this.convertedType = ParquetConstants.CONVERTED_DATE;
+        return this;
+    }
+
+    public ParquetColumn asTime(int timeUnit) {
+        this.logicalType = ParquetConstants.LOGICAL_TIME;
+        this.timeUnit = timeUnit;
+        if (timeUnit == ParquetConstants.TIME_UNIT_MILLIS) {
+            this.convertedType = ParquetConstants.CONVERTED_TIME_MILLIS;
+        } else if (timeUnit == ParquetConstants.TIME_UNIT_MICROS) {
+            this.convertedType = ParquetConstants.CONVERTED_TIME_MICROS;
+        }
+        return this;
+    }
+
+    public ParquetColumn asTimestamp(int timeUnit, boolean adjustedToUTC) {
+        this.logicalType = ParquetConstants.LOGICAL_TIMESTAMP;
+        this.timeUnit = timeUnit;
+        this.adjustedToUTC = adjustedToUTC;
+        if (timeUnit == ParquetConstants.TIME_UNIT_MILLIS) {
+            this.convertedType = ParquetConstants.CONVERTED_TIMESTAMP_MILLIS;
+        } else if (timeUnit == ParquetConstants.TIME_UNIT_MICROS) {
+            this.convertedType = ParquetConstants.CONVERTED_TIMESTAMP_MICROS;
+        }
+        return this;
+    }
+
+    public ParquetColumn asInteger(int bitWidth) {
+        this.logicalType = ParquetConstants.LOGICAL_INTEGER;
+        this.bitWidth = bitWidth;
+        switch (bitWidth) {
+            case 8: this.convertedType = ParquetConstants.CONVERTED_INT_8; break;
+            case 16: this.convertedType = ParquetConstants.CONVERTED_INT_16; break;
+            case 32: this.convertedType = ParquetConstants.CONVERTED_INT_32; break;
+            default: this.convertedType = ParquetConstants.CONVERTED_INT_64; break;
+        }
+        return this;
+    }
+
+    void setLogicalType(int logicalType) {
+        this.logicalType = logicalType;
+    }
+
+    void setPrecision(int precision) {
+        this.precision = precision;
+    }
+
+    void setScale(int scale) {
+        this.scale = scale;
+    }
+
+    void setBitWidth(int bitWidth) {
+        this.bitWidth = bitWidth;
+    }
+
+    void setSigned(boolean signed) {
+        this.signed = signed;
+    }
+
+    void setTimeUnit(int timeUnit) {
+        this.timeUnit = timeUnit;
+    }
+
+    void setAdjustedToUTC(boolean adjustedToUTC) {
+        this.adjustedToUTC = adjustedToUTC;
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + physicalType + ")";
+    }
+}
@@ -0,0 +1,480 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.parquet;
+
+import org.jkiss.code.NotNull;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Decodes a single column chunk of a flat (non-nested) column into Java values
+ */
+class ParquetColumnReader {
+
+    private static final long JULIAN_EPOCH_OFFSET_DAYS = 2_440_588;
+
+    private final ParquetColumn column;
+    private final ParquetCompression compression;
+    private Object[] dictionary;
+
+    ParquetColumnReader(@NotNull ParquetColumn column, @NotNull ParquetCompression compression) {
+        this.column = column;
+        this.compression = compression;
+    }
+
+    /**
+     * Decodes all pages of a column chunk
+     */
+    @NotNull
+    Object[] readChunk(@NotNull byte[] data, int offset, int end, int rowCount) throws IOException {
+        Object[] values = new Object[rowCount];
+        int valueCount = 0;
+        int pos = offset;
+        try {
+            while (valueCount < rowCount && pos < end) {
+                ThriftCompactReader reader = new ThriftCompactReader(data, pos, end);
+                PageHeader header = readPageHeader(reader);
+                pos = reader.getPosition();
+                int pageEnd = pos + header.compressedSize;
+                if (pageEnd > end || header.compressedSize < 0) {
+                    throw new IOException("Page exceeds column chunk bounds");
+                }
+                switch (header.type) {
+                    case ParquetConstants.PAGE_DICTIONARY: {
+                        byte[] page = decompress(data, pos, header.compressedSize, header.uncompressedSize);
+                        dictionary = new Object[header.numValues];
+                        decodePlain(page, 0, page.length, header.numValues, dictionary);
+                        break;
+                    }
+                    case ParquetConstants.PAGE_DATA:
+                        valueCount += readDataPage(header, decompress(data, pos, header.compressedSize, header.uncompressedSize), values, valueCount);
+                        break;
+                    case ParquetConstants.PAGE_DATA_V2:
+                        valueCount += readDataPageV2(header, data, pos, pageEnd, values, valueCount);
+                        break;
+                    default:
+                        // Index pages are not needed
+                        break;
+                }
+                pos = pageEnd;
+            }
+        } catch (IndexOutOfBoundsException e) {
+            throw new IOException("Corrupted data in column '" + column.getName() + "'", e);
+        }
+        if (valueCount < rowCount) {
+            throw new IOException("Column '" + column.getName() + "' contains " + valueCount + " values while " + rowCount + " rows expected");
+        }
+        return values;
+    }
+
+    private int readDataPage(PageHeader header, byte[] page, Object[] values, int offset) throws IOException {
+        int count = Math.min(header.numValues, values.length - offset);
+        int pos = 0;
+        int[] definitionLevels = null;
+        if (column.isOptional()) {
+            if (header.definitionLevelEncoding != ParquetConstants.ENCODING_RLE) {
+                throw new IOException("Unsupported definition level encoding " + header.definitionLevelEncoding + " in column '" + column.getName() + "'");
+            }
+            int length = readIntLE(page, pos);
+            pos += 4;
+            definitionLevels = new int[count];
+            ParquetEncoding.readHybrid(page, pos, pos + length, 1, definitionLevels, count);
+            pos += length;
+        }
+        readValues(header.encoding, page, pos, page.length, definitionLevels, values, offset, count);
+        return count;
+    }
+
+    private int readDataPageV2(PageHeader header, byte[] data, int pos, int pageEnd, Object[] values, int offset) throws IOException {
+        int count = Math.min(header.numValues, values.length - offset);
+        int levelsEnd = pos + header.repetitionLevelsLength + header.definitionLevelsLength;
+        int[] definitionLevels = null;
+        if (column.isOptional()) {
+            definitionLevels = new int[count];
+            int levelsStart = pos + header.repetitionLevelsLength;
+            ParquetEncoding.readHybrid(data, levelsStart, levelsEnd, 1, definitionLevels, count);
+        }
+        if (header.compressed && compression != ParquetCompression.UNCOMPRESSED) {
+            byte[] page = decompress(data, levelsEnd, pageEnd - levelsEnd, header.uncompressedSize - (levelsEnd - pos));
+            readValues(header.encoding, page, 0, page.length, definitionLevels, values, offset, count);
+        } else {
+            readValues(header.encoding, data, levelsEnd, pageEnd, definitionLevels, values, offset, count);
+        }
+        return count;
+    }
+
+    private void readValues(int encoding, byte[] page, int pos, int end, int[] definitionLevels, Object[] values, int offset, int count) throws IOException {
+        int nonNullCount = count;
+        if (definitionLevels != null) {
+            nonNullCount = 0;
+            for (int i = 0; i < count; i++) {
+                nonNullCount += definitionLevels[i];
+            }
+        }
+        Object[] decoded = nonNullCount == count ? null : new Object[nonNullCount];
+        if (decoded == null) {
+            // No nulls, decode directly into the result
+            decodeValues(encoding, page, pos, end, nonNullCount, values, offset);
+            return;
+        }
+        decodeValues(encoding, page, pos, end, nonNullCount, decoded, 0);
+        for (int i = 0, k = 0; i < count; i++) {
+            values[offset + i] = definitionLevels[i] == 0 ? null : decoded[k++];
+        }
+    }
+
+    private void decodeValues(int encoding, byte[] page, int pos, int end, int count, Object[] target, int offset) throws IOException {
+        switch (encoding) {
+            case ParquetConstants.ENCODING_PLAIN:
+                if (offset == 0) {
+                    decodePlain(page, pos, end, count, target);
+                } else {
+                    Object[] decoded = new Object[count];
+                    decodePlain(page, pos, end, count, decoded);
+                    System.arraycopy(decoded, 0, target, offset, count);
+                }
+                break;
+            case ParquetConstants.ENCODING_PLAIN_DICTIONARY:
+            case ParquetConstants.ENCODING_RLE_DICTIONARY: {
+                if (dictionary == null) {
+                    throw new IOException("Dictionary page is missing in column '" + column.getName() + "'");
+                }
+                int[] indexes = new int[count];
+                if (count > 0) {
+                    ParquetEncoding.readHybrid(page, pos + 1, end, page[pos], indexes, count);
+                }
+                for (int i = 0; i < count; i++) {
+                    target[offset + i] = dictionary[indexes[i]];
+                }
+                break;
+            }
+            case ParquetConstants.ENCODING_RLE: {
+                if (column.getPhysicalType() != ParquetConstants.TYPE_BOOLEAN) {
+                    throw new IOException("RLE encoding is supported for boolean columns only");
+                }
+                int length = readIntLE(page, pos);
+                int[] bits = new int[count];
+                ParquetEncoding.readHybrid(page, pos + 4, pos + 4 + length, 1, bits, count);
+                for (int i = 0; i < count; i++) {
+                    target[offset + i] = bits[i] != 0;
+                }
+                break;
+            }
+            case ParquetConstants.ENCODING_DELTA_BINARY_PACKED: {
+                long[] decoded = new long[count];
+                ParquetEncoding.readDeltaBinaryPacked(page, pos, decoded, count);
+                boolean isInt = column.getPhysicalType() == ParquetConstants.TYPE_INT32;
+                for (int i = 0; i < count; i++) {
+                    target[offset + i] = isInt ? convertInt((int) decoded[i]) : convertLong(decoded[i]);
+                }
+                break;
+            }
+            case ParquetConstants.ENCODING_DELTA_LENGTH_BYTE_ARRAY: {
+                long[] lengths = new long[count];
+                pos = ParquetEncoding.readDeltaBinaryPacked(page, pos, lengths, count);
+                for (int i = 0; i < count; i++) {
+                    int length = (int) lengths[i];
+                    target[offset + i] = convertBinary(page, pos, length);
+                    pos += length;
+                }
+                break;
+            }
+            case ParquetConstants.ENCODING_DELTA_BYTE_ARRAY: {
+                long[] prefixLengths = new long[count];
+                long[] suffixLengths = new long[count];
+                pos = ParquetEncoding.readDeltaBinaryPacked(page, pos, prefixLengths, count);
+                pos = ParquetEncoding.readDeltaBinaryPacked(page, pos, suffixLengths, count);
+                byte[] previous = new byte[0];
+                for (int i = 0; i < count; i++) {
+                    int prefixLength = (int) prefixLengths[i];
+                    int suffixLength = (int) suffixLengths[i];
+                    byte[] value = Arrays.copyOf(previous, prefixLength + suffixLength);
+                    System.arraycopy(page, pos, value, prefixLength, suffixLength);
+                    pos += suffixLength;
+                    target[offset + i] = convertBinary(value, 0, value.length);
+                    previous = value;
+                }
+                break;
+            }
+            case ParquetConstants.ENCODING_BYTE_STREAM_SPLIT: {
+                // Bytes of each value are scattered across value width streams
+                int width = getValueWidth();
+                byte[] plain = new byte[count * width];
+                for (int i = 0; i < count; i++) {
+                    for (int b = 0; b < width; b++) {
+                        plain[i * width + b] = page[pos + b * count + i];
+                    }
+                }
+                Object[] decoded = new Object[count];
+                decodePlain(plain, 0, plain.length, count, decoded);
+                System.arraycopy(decoded, 0, target, offset, count);
+                break;
+            }
+            default:
+                throw new IOException("Unsupported encoding " + encoding + " in column '" + column.getName() + "'");
+        }
+    }
+
+    private void decodePlain(byte[] page, int pos, int end, int count, Object[] target) throws IOException {
+        switch (column.getPhysicalType()) {
+            case ParquetConstants.TYPE_BOOLEAN:
+                for (int i = 0; i < count; i++) {
+                    target[i] = ((page[pos + (i >>> 3)] >>> (i & 7)) & 1) != 0;
+                }
+                break;
+            case ParquetConstants.TYPE_INT32:
+                for (int i = 0; i < count; i++, pos += 4) {
+                    target[i] = convertInt(readIntLE(page, pos));
+                }
+                break;
+            case ParquetConstants.TYPE_INT64:
+                for (int i = 0; i < count; i++, pos += 8) {
+                    target[i] = convertLong(readLongLE(page, pos));
+                }
+                break;
+            case ParquetConstants.TYPE_INT96:
+                for (int i = 0; i < count; i++, pos += 12) {
+                    long nanosOfDay = readLongLE(page, pos);
+                    long epochDay = readIntLE(page, pos + 8) - JULIAN_EPOCH_OFFSET_DAYS;
+                    target[i] = Timestamp.from(Instant.ofEpochSecond(epochDay * 86_400L, nanosOfDay));
+                }
+                break;
+            case ParquetConstants.TYPE_FLOAT:
+                for (int i = 0; i < count; i++, pos += 4) {
+                    target[i] = Float.intBitsToFloat(readIntLE(page, pos));
+                }
+                break;
+            case ParquetConstants.TYPE_DOUBLE:
+                for (int i = 0; i < count; i++, pos += 8) {
+                    target[i] = Double.longBitsToDouble(readLongLE(page, pos));
+                }
+                break;
+            case ParquetConstants.TYPE_BYTE_ARRAY:
+                for (int i = 0; i < count; i++) {
+                    int length = readIntLE(page, pos);
+                    if (length < 0 || pos + 4 + length > end) {
+                        throw new IOException("Invalid value length " + length + " in column '" + column.getName() + "'");
+                    }
+                    target[i] = convertBinary(page, pos + 4, length);
+                    pos += 4 + length;
+                }
+                break;
+            case ParquetConstants.TYPE_FIXED_LEN_BYTE_ARRAY: {
+                int length = column.getTypeLength();
+                for (int i = 0; i < count; i++, pos += length) {
+                    target[i] = convertBinary(page, pos, length);
+                }
+                break;
+            }
+            default:
+                throw new IOException("Unsupported physical type " + column.getPhysicalType());
+        }
+    }
+
+    private int getValueWidth() throws IOException {
+        switch (column.getPhysicalType()) {
+            case ParquetConstants.TYPE_INT32:
+            case ParquetConstants.TYPE_FLOAT:
+                return 4;
+            case ParquetConstants.TYPE_INT64:
+            case ParquetConstants.TYPE_DOUBLE:
+                return 8;
+            case ParquetConstants.TYPE_FIXED_LEN_BYTE_ARRAY:
+                return column.getTypeLength();
+            default:
+                throw new IOException("Byte stream split encoding is not supported for column '" + column.getName() + "'");
+        }
+    }
+
+    private Object convertInt(int value) {
+        switch (column.getLogicalType()) {
+            case ParquetConstants.LOGICAL_DATE:
+                return Date.valueOf(LocalDate.ofEpochDay(value));
+            case ParquetConstants.LOGICAL_TIME:
+                return Time.valueOf(LocalTime.ofNanoOfDay(value * 1_000_000L));
+            case ParquetConstants.LOGICAL_DECIMAL:
+                return BigDecimal.valueOf(value, column.getScale());
+            case ParquetConstants.LOGICAL_INTEGER:
+                if (!column.isSigned() && column.getBitWidth() == 32) {
+                    return Integer.toUnsignedLong(value);
+                }
+                return value;
+            default:
+                return value;
+        }
+    }
+
+    private Object convertLong(long value) {
+        switch (column.getLogicalType()) {
+            case ParquetConstants.LOGICAL_TIMESTAMP: {
+                Instant instant = toInstant(value);
+                if (!column.isAdjustedToUTC()) {
+                    // Local date/time without zone
+                    return Timestamp.valueOf(LocalDateTime.ofEpochSecond(instant.getEpochSecond(), instant.getNano(), ZoneOffset.UTC));
+                }
+                return Timestamp.from(instant);
+            }
+            case ParquetConstants.LOGICAL_TIME: {
+                Instant instant = toInstant(value);
+                return Time.valueOf(LocalTime.ofNanoOfDay(instant.getEpochSecond() * 1_000_000_000L + instant.getNano()));
+            }
+            case ParquetConstants.LOGICAL_DECIMAL:
+                return BigDecimal.valueOf(value, column.getScale());
+            case ParquetConstants.LOGICAL_INTEGER:
+                if (!column.isSigned()) {
+                    return new BigInteger(Long.toUnsignedString(value));
+                }
+                return value;
+            default:
+                return value;
+        }
+    }
+
+    private Instant toInstant(long value) {
+        switch (column.getTimeUnit()) {
+            case ParquetConstants.TIME_UNIT_MILLIS:
+                return Instant.ofEpochMilli(value);
+            case ParquetConstants.TIME_UNIT_NANOS:
+                return Instant.ofEpochSecond(0, value);
+            default:
+                return Instant.ofEpochSecond(Math.floorDiv(value, 1_000_000L), Math.floorMod(value, 1_000_000L) * 1000);
+        }
+    }
+
+    private Object convertBinary(byte[] data, int offset, int length) {
+        switch (column.getLogicalType()) {
+            case ParquetConstants.LOGICAL_STRING:
+            case ParquetConstants.LOGICAL_ENUM:
+            case ParquetConstants.LOGICAL_JSON:
+                return new String(data, offset, length, StandardCharsets.UTF_8);
+            case ParquetConstants.LOGICAL_DECIMAL:
+                if (length == 0) {
+                    return BigDecimal.ZERO;
+                }
+                return new BigDecimal(new BigInteger(data, offset, length), column.getScale());
+            case ParquetConstants.LOGICAL_UUID:
+                if (length == 16) {
+                    return new UUID(readLongBE(data, offset), readLongBE(data, offset + 8)).toString();
+                }
+                break;
+            default:
+                break;
+        }
+        return Arrays.copyOfRange(data, offset, offset + length);
+    }
+
+    private byte[] decompress(byte[] data, int offset, int length, int uncompressedLength) throws IOException {
+        return compression.decompress(data, offset, length, uncompressedLength);
+    }
+
+    private PageHeader readPageHeader(ThriftCompactReader reader) throws IOException {
+        PageHeader header = new PageHeader();
+        reader.structBegin();
+        while (reader.nextField()) {
+            switch (reader.getFieldId()) {
+                case 1: header.type = reader.readI32(); break;
+                case 2: header.uncompressedSize = reader.readI32(); break;
+                case 3: header.compressedSize = reader.readI32(); break;
+                case 5: {
+                    // DataPageHeader
+                    reader.structBegin();
+                    while (reader.nextField()) {
+                        switch (reader.getFieldId()) {
+                            case 1: header.numValues = reader.readI32(); break;
+                            case 2: header.encoding = reader.readI32(); break;
+                            case 3: header.definitionLevelEncoding = reader.readI32(); break;
+                            default: reader.skipField(); break;
+                        }
+                    }
+                    break;
+                }
+                case 7: {
+                    // DictionaryPageHeader
+                    reader.structBegin();
+                    while (reader.nextField()) {
+                        switch (reader.getFieldId()) {
+                            case 1: header.numValues = reader.readI32(); break;
+                            case 2: header.encoding = reader.readI32(); break;
+                            default: reader.skipField(); break;
+                        }
+                    }
+                    break;
+                }
+                case 8: {
+                    // DataPageHeaderV2
+                    reader.structBegin();
+                    while (reader.nextField()) {
+                        switch (reader.getFieldId()) {
+                            case 1: header.numValues = reader.readI32(); break;
+                            case 4: header.encoding = reader.readI32(); break;
+                            case 5: header.definitionLevelsLength = reader.readI32(); break;
+                            case 6: header.repetitionLevelsLength = reader.readI32(); break;
+                            case 7: header.compressed = reader.getFieldBool(); break;
+                            default: reader.skipField(); break;
+                        }
+                    }
+                    break;
+                }
+                default:
+                    reader.skipField();
+                    break;
+            }
+        }
+        return header;
+    }
+
+    private static int readIntLE(byte[] data, int pos) {
+        return (data[pos] & 0xff) | (data[pos + 1] & 0xff) << 8 | (data[pos + 2] & 0xff) << 16 | (data[pos + 3] & 0xff) << 24;
+    }
+
+    private static long readLongLE(byte[] data, int pos) {
+        return (readIntLE(data, pos) & 0xFFFFFFFFL) | (long) readIntLE(data, pos + 4) << 32;
+    }
+
+    private static long readLongBE(byte[] data, int pos) {
+        long result = 0;
+        for (int i = 0; i < 8; i++) {
+            result = (result << 8) | (data[pos + i] & 0xff);
+        }
+        return result;
+    }
+
+    private static class PageHeader {
+        int type;
+        int uncompressedSize;
+        int compressedSize;
+        int numValues;
+        int encoding;
+        int definitionLevelEncoding = ParquetConstants.ENCODING_RLE;
+        int definitionLevelsLength;
+        int repetitionLevelsLength;
+        boolean compressed = true;
+    }
+}
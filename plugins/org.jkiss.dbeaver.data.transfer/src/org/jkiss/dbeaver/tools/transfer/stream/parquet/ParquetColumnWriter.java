@@ -0,0 +1,398 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.parquet;
+
+import org.jkiss.code.NotNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.*;
+
+/**
+ * Buffers values of a single column for the current row group and writes them as a column chunk.
+ * Values are kept in primitive arrays; dictionary or plain encoding is chosen when the chunk is flushed.
+ */
+public class ParquetColumnWriter {
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MAX_DICTIONARY_ENTRIES = 1 << 16;
+    private static final int MAX_DICTIONARY_SIZE = 1024 * 1024;
+    private static final int BINARY_VALUE_OVERHEAD = 16;
+
+    private final ParquetColumn column;
+    private final int physicalType;
+
+    private int rowCount;
+    private int[] definitionLevels = new int[INITIAL_CAPACITY];
+    private int valueCount;
+    private boolean[] booleanValues;
+    private int[] intValues;
+    private long[] longValues;
+    private float[] floatValues;
+    private double[] doubleValues;
+    private byte[][] binaryValues;
+    private long bufferedSize;
+
+    public ParquetColumnWriter(@NotNull ParquetColumn column) {
+        this.column = column;
+        this.physicalType = column.getPhysicalType();
+        switch (physicalType) {
+            case ParquetConstants.TYPE_BOOLEAN: booleanValues = new boolean[INITIAL_CAPACITY]; break;
+            case ParquetConstants.TYPE_INT32: intValues = new int[INITIAL_CAPACITY]; break;
+            case ParquetConstants.TYPE_INT64: longValues = new long[INITIAL_CAPACITY]; break;
+            case ParquetConstants.TYPE_FLOAT: floatValues = new float[INITIAL_CAPACITY]; break;
+            case ParquetConstants.TYPE_DOUBLE: doubleValues = new double[INITIAL_CAPACITY]; break;
+            case ParquetConstants.TYPE_BYTE_ARRAY:
+            case ParquetConstants.TYPE_FIXED_LEN_BYTE_ARRAY: binaryValues = new byte[INITIAL_CAPACITY][]; break;
+            default: throw new IllegalArgumentException("Unsupported Parquet type " + physicalType);
+        }
+    }
+
+    @NotNull
+    public ParquetColumn getColumn() {
+        return column;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Approximate memory used by buffered values
+     */
+    public long getBufferedSize() {
+        return bufferedSize;
+    }
+
+    public void writeNull() {
+        if (!column.isOptional()) {
+            throw new IllegalStateException("NULL value for required column " + column.getName());
+        }
+        addRow(0);
+    }
+
+    public void writeBoolean(boolean value) {
+        addRow(1);
+        if (valueCount == booleanValues.length) {
+            booleanValues = Arrays.copyOf(booleanValues, valueCount * 2);
+        }
+        booleanValues[valueCount++] = value;
+        bufferedSize += 1;
+    }
+
+    public void writeInt(int value) {
+        addRow(1);
+        if (valueCount == intValues.length) {
+            intValues = Arrays.copyOf(intValues, valueCount * 2);
+        }
+        intValues[valueCount++] = value;
+        bufferedSize += 4;
+    }
+
+    public void writeLong(long value) {
+        addRow(1);
+        if (valueCount == longValues.length) {
+            longValues = Arrays.copyOf(longValues, valueCount * 2);
+        }
+        longValues[valueCount++] = value;
+        bufferedSize += 8;
+    }
+
+    public void writeFloat(float value) {
+        addRow(1);
+        if (valueCount == floatValues.length) {
+            floatValues = Arrays.copyOf(floatValues, valueCount * 2);
+        }
+        floatValues[valueCount++] = value;
+        bufferedSize += 4;
+    }
+
+    public void writeDouble(double value) {
+        addRow(1);
+        if (valueCount == doubleValues.length) {
+            doubleValues = Arrays.copyOf(doubleValues, valueCount * 2);
+        }
+        doubleValues[valueCount++] = value;
+        bufferedSize += 8;
+    }
+
+    public void writeBinary(@NotNull byte[] value) {
+        addRow(1);
+        if (valueCount == binaryValues.length) {
+            binaryValues = Arrays.copyOf(binaryValues, valueCount * 2);
+        }
+        binaryValues[valueCount++] = value;
+        bufferedSize += value.length + BINARY_VALUE_OVERHEAD;
+    }
+
+    private void addRow(int definitionLevel) {
+        if (rowCount == definitionLevels.length) {
+            definitionLevels = Arrays.copyOf(definitionLevels, rowCount * 2);
+        }
+        definitionLevels[rowCount++] = definitionLevel;
+    }
+
+    /**
+     * Writes buffered values as a column chunk and resets the buffer.
+     */
+    @NotNull
+    ChunkInfo writeChunk(
+        @NotNull OutputStream out,
+        long fileOffset,
+        @NotNull ParquetCompression compression,
+        int pageSize,
+        boolean useDictionary
+    ) throws IOException {
+        ChunkInfo chunk = new ChunkInfo(fileOffset, rowCount, rowCount - valueCount);
+        ParquetBuffer pageBuffer = new ParquetBuffer(Math.min(pageSize, (int) Math.min(Integer.MAX_VALUE / 2, bufferedSize)) + 64);
+
+        int[] dictionaryIndexes = null;
+        int dictionaryBitWidth = 0;
+        if (useDictionary && physicalType != ParquetConstants.TYPE_BOOLEAN && valueCount > 0) {
+            Map<Object, Integer> dictionary = new LinkedHashMap<>();
+            dictionaryIndexes = buildDictionary(dictionary);
+            if (dictionaryIndexes != null) {
+                dictionaryBitWidth = Math.max(1, ParquetEncoding.getBitWidth(dictionary.size() - 1));
+                // Dictionary page
+                for (Object key : dictionary.keySet()) {
+                    writePlainValue(pageBuffer, key);
+                }
+                chunk.dictionaryPageOffset = chunk.position;
+                writePage(out, chunk, pageBuffer, compression, ParquetConstants.PAGE_DICTIONARY, dictionary.size(), ParquetConstants.ENCODING_PLAIN);
+                chunk.encodings.add(ParquetConstants.ENCODING_PLAIN);
+            }
+        }
+
+        // Data pages
+        int valueSize = dictionaryIndexes != null ? Math.max(1, dictionaryBitWidth / 8) : getAveragePlainSize();
+        int rowsPerPage = Math.max(1, pageSize / Math.max(1, valueSize));
+        chunk.dataPageOffset = chunk.position;
+        int valueStart = 0;
+        for (int rowStart = 0; rowStart < rowCount; rowStart += rowsPerPage) {
+            int rowEnd = Math.min(rowCount, rowStart + rowsPerPage);
+            int valueEnd = valueStart;
+            for (int i = rowStart; i < rowEnd; i++) {
+                valueEnd += definitionLevels[i];
+            }
+            pageBuffer.reset();
+            if (column.isOptional()) {
+                int lengthPosition = pageBuffer.size();
+                pageBuffer.writeIntLE(0);
+                ParquetEncoding.writeHybrid(pageBuffer, definitionLevels, rowStart, rowEnd, 1);
+                pageBuffer.setIntLE(lengthPosition, pageBuffer.size() - lengthPosition - 4);
+            }
+            int encoding;
+            if (dictionaryIndexes != null) {
+                pageBuffer.write(dictionaryBitWidth);
+                ParquetEncoding.writeHybrid(pageBuffer, dictionaryIndexes, valueStart, valueEnd, dictionaryBitWidth);
+                encoding = ParquetConstants.ENCODING_RLE_DICTIONARY;
+            } else {
+                writePlainValues(pageBuffer, valueStart, valueEnd);
+                encoding = ParquetConstants.ENCODING_PLAIN;
+            }
+            writePage(out, chunk, pageBuffer, compression, ParquetConstants.PAGE_DATA, rowEnd - rowStart, encoding);
+            chunk.encodings.add(encoding);
+            valueStart = valueEnd;
+        }
+        chunk.encodings.add(ParquetConstants.ENCODING_RLE);
+
+        reset();
+        return chunk;
+    }
+
+    private void writePage(
+        OutputStream out,
+        ChunkInfo chunk,
+        ParquetBuffer page,
+        ParquetCompression compression,
+        int pageType,
+        int valueCount,
+        int encoding
+    ) throws IOException {
+        byte[] compressed = compression.compress(page.getBuffer(), page.size());
+        ParquetBuffer header = new ParquetBuffer(64);
+        ThriftCompactWriter writer = new ThriftCompactWriter(header);
+        writer.structBegin();
+        writer.fieldI32(1, pageType);
+        writer.fieldI32(2, page.size());
+        writer.fieldI32(3, compressed.length);
+        if (pageType == ParquetConstants.PAGE_DICTIONARY) {
+            writer.fieldStructBegin(7);
+            writer.fieldI32(1, valueCount);
+            writer.fieldI32(2, encoding);
+            writer.structEnd();
+        } else {
+            writer.fieldStructBegin(5);
+            writer.fieldI32(1, valueCount);
+            writer.fieldI32(2, encoding);
+            writer.fieldI32(3, ParquetConstants.ENCODING_RLE);
+            writer.fieldI32(4, ParquetConstants.ENCODING_RLE);
+            writer.structEnd();
+        }
+        writer.structEnd();
+        header.writeTo(out);
+        out.write(compressed);
+        chunk.position += header.size() + compressed.length;
+        chunk.uncompressedSize += header.size() + page.size();
+        chunk.compressedSize += header.size() + compressed.length;
+    }
+
+    private int[] buildDictionary(Map<Object, Integer> dictionary) {
+        int[] indexes = new int[valueCount];
+        long dictionarySize = 0;
+        for (int i = 0; i < valueCount; i++) {
+            Object key;
+            int keySize;
+            switch (physicalType) {
+                case ParquetConstants.TYPE_INT32: key = intValues[i]; keySize = 4; break;
+                case ParquetConstants.TYPE_INT64: key = longValues[i]; keySize = 8; break;
+                case ParquetConstants.TYPE_FLOAT: key = floatValues[i]; keySize = 4; break;
+                case ParquetConstants.TYPE_DOUBLE: key = doubleValues[i]; keySize = 8; break;
+                default: key = ByteBuffer.wrap(binaryValues[i]); keySize = binaryValues[i].length + 4; break;
+            }
+            Integer index = dictionary.get(key);
+            if (index == null) {
+                index = dictionary.size();
+                dictionarySize += keySize;
+                if (index >= MAX_DICTIONARY_ENTRIES || dictionarySize > MAX_DICTIONARY_SIZE) {
+                    // Too many distinct values, plain encoding will be better
+                    return null;
+                }
+                dictionary.put(key, index);
+            }
+            indexes[i] = index;
+        }
+        long plainSize = (long) getAveragePlainSize() * valueCount;
+        long dictionaryEncodedSize = dictionarySize + (long) valueCount * ParquetEncoding.getBitWidth(dictionary.size()) / 8;
+        return dictionaryEncodedSize < plainSize ? indexes : null;
+    }
+
+    private int getAveragePlainSize() {
+        switch (physicalType) {
+            case ParquetConstants.TYPE_BOOLEAN: return 1;
+            case ParquetConstants.TYPE_INT32:
+            case ParquetConstants.TYPE_FLOAT: return 4;
+            case ParquetConstants.TYPE_INT64:
+            case ParquetConstants.TYPE_DOUBLE: return 8;
+            default:
+                return valueCount == 0 ? 4 : (int) Math.min(Integer.MAX_VALUE, bufferedSize / valueCount - BINARY_VALUE_OVERHEAD + 4);
+        }
+    }
+
+    private void writePlainValues(ParquetBuffer out, int from, int to) {
+        switch (physicalType) {
+            case ParquetConstants.TYPE_BOOLEAN: {
+                int bits = 0;
+                int current = 0;
+                for (int i = from; i < to; i++) {
+                    if (booleanValues[i]) {
+                        current |= 1 << bits;
+                    }
+                    if (++bits == 8) {
+                        out.write(current);
+                        bits = 0;
+                        current = 0;
+                    }
+                }
+                if (bits > 0) {
+                    out.write(current);
+                }
+                break;
+            }
+            case ParquetConstants.TYPE_INT32:
+                for (int i = from; i < to; i++) {
+                    out.writeIntLE(intValues[i]);
+                }
+                break;
+            case ParquetConstants.TYPE_INT64:
+                for (int i = from; i < to; i++) {
+                    out.writeLongLE(longValues[i]);
+                }
+                break;
+            case ParquetConstants.TYPE_FLOAT:
+                for (int i = from; i < to; i++) {
+                    out.writeIntLE(Float.floatToRawIntBits(floatValues[i]));
+                }
+                break;
+            case ParquetConstants.TYPE_DOUBLE:
+                for (int i = from; i < to; i++) {
+                    out.writeLongLE(Double.doubleToRawLongBits(doubleValues[i]));
+                }
+                break;
+            case ParquetConstants.TYPE_FIXED_LEN_BYTE_ARRAY:
+                for (int i = from; i < to; i++) {
+                    out.write(binaryValues[i], 0, binaryValues[i].length);
+                }
+                break;
+            default:
+                for (int i = from; i < to; i++) {
+                    out.writeIntLE(binaryValues[i].length);
+                    out.write(binaryValues[i], 0, binaryValues[i].length);
+                }
+                break;
+        }
+    }
+
+    private void writePlainValue(ParquetBuffer out, Object value) {
+        switch (physicalType) {
+            case ParquetConstants.TYPE_INT32: out.writeIntLE((Integer) value); break;
+            case ParquetConstants.TYPE_INT64: out.writeLongLE((Long) value); break;
+            case ParquetConstants.TYPE_FLOAT: out.writeIntLE(Float.floatToRawIntBits((Float) value)); break;
+            case ParquetConstants.TYPE_DOUBLE: out.writeLongLE(Double.doubleToRawLongBits((Double) value)); break;
+            default: {
+                ByteBuffer bytes = (ByteBuffer) value;
+                if (physicalType == ParquetConstants.TYPE_BYTE_ARRAY) {
+                    out.writeIntLE(bytes.remaining());
+                }
+                out.write(bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining());
+                break;
+            }
+        }
+    }
+
+    private void reset() {
+        rowCount = 0;
+        valueCount = 0;
+        bufferedSize = 0;
+        if (binaryValues != null) {
+            Arrays.fill(binaryValues, null);
+        }
+    }
+
+    /**
+     * Column chunk metadata collected while writing
+     */
+    static class ChunkInfo {
+        final long fileOffset;
+        final int numValues;
+        final int nullCount;
+        final Set<Integer> encodings = new LinkedHashSet<>();
+        long position;
+        long dictionaryPageOffset = -1;
+        long dataPageOffset;
+        long uncompressedSize;
+        long compressedSize;
+
+        ChunkInfo(long fileOffset, int numValues, int nullCount) {
+            this.fileOffset = fileOffset;
+            this.position = fileOffset;
+            this.numValues = numValues;
+            this.nullCount = nullCount;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.parquet;
+
+import org.jkiss.code.NotNull;
+
+import java.io.IOException;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Parquet page compression codecs.
+ * Values match CompressionCodec enum from parquet.thrift.
+ */
+public enum ParquetCompression {
+    UNCOMPRESSED(0),
+    SNAPPY(1),
+    GZIP(2);
+
+    private final int codecId;
+
+    ParquetCompression(int codecId) {
+        this.codecId = codecId;
+    }
+
+    public int getCodecId() {
+        return codecId;
+    }
+
+    @NotNull
+    public static ParquetCompression fromCodecId(int codecId) throws IOException {
+        for (ParquetCompression compression : values()) {
+            if (compression.codecId == codecId) {
+                return compression;
+            }
+        }
+        throw new IOException("Unsupported Parquet compression codec: " + codecId);
+    }
+
+    @NotNull
+    public byte[] compress(@NotNull byte[] data, int length) {
+        switch (this) {
+            case SNAPPY:
+                return SnappyCodec.compress(data, 0, length);
+            case GZIP: {
+                Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+                try {
+                    ParquetBuffer out = new ParquetBuffer(length / 2 + 64);
+                    // GZIP header (no file name, no timestamp)
+                    out.write(new byte[]{0x1f, (byte) 0x8b, 8, 0, 0, 0, 0, 0, 0, (byte) 0xff});
+                    deflater.setInput(data, 0, length);
+                    deflater.finish();
+                    byte[] chunk = new byte[8192];
+                    while (!deflater.finished()) {
+                        int count = deflater.deflate(chunk);
+                        out.write(chunk, 0, count);
+                    }
+                    CRC32 crc = new CRC32();
+                    crc.update(data, 0, length);
+                    out.writeIntLE((int) crc.getValue());
+                    out.writeIntLE(length);
+                    return out.toByteArray();
+                } finally {
+                    deflater.end();
+                }
+            }
+            default: {
+                if (data.length == length) {
+                    return data;
+                }
+                byte[] result = new byte[length];
+                System.arraycopy(data, 0, result, 0, length);
+                return result;
+            }
+        }
+    }
+
+    @NotNull
+    public byte[] decompress(@NotNull byte[] data, int offset, int length, int uncompressedLength) throws IOException {
+        switch (this) {
+            case SNAPPY:
+                return SnappyCodec.decompress(data, offset, length);
+            case GZIP: {
+                // Skip GZIP header
+                int flags = data[offset + 3];
+                int pos = offset + 10;
+                if ((flags & 4) != 0) {
+                    pos += 2 + ((data[pos] & 0xff) | (data[pos + 1] & 0xff) << 8);
+                }
+                if ((flags & 8) != 0) {
+                    while (data[pos++] != 0) {
+                        // file name
+                    }
+                }
+                if ((flags & 16) != 0) {
+                    while (data[pos++] != 0) {
+                        // comment
+                    }
+                }
+                if ((flags & 2) != 0) {
+                    pos += 2;
+                }
+                Inflater inflater = new Inflater(true);
+                try {
+                    inflater.setInput(data, pos, offset + length - pos);
+                    byte[] result = new byte[uncompressedLength];
+                    int count = 0;
+                    while (count < uncompressedLength && !inflater.finished()) {
+                        int read = inflater.inflate(result, count, uncompressedLength - count);
+                        if (read == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                            break;
+                        }
+                        count += read;
+                    }
+                    if (count != uncompressedLength) {
+                        throw new IOException("Corrupted GZIP page: " + count + " bytes read while " + uncompressedLength + " expected");
+                    }
+                    return result;
+                } catch (DataFormatException e) {
+                    throw new IOException("Corrupted GZIP page", e);
+                } finally {
+                    inflater.end();
+                }
+            }
+            default: {
+                byte[] result = new byte[length];
+                System.arraycopy(data, offset, result, 0, length);
+                return result;
+            }
+        }
+    }
+}
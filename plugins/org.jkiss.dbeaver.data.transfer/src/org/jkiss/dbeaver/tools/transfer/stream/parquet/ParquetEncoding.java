@@ -0,0 +1,215 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.parquet;
+
+import org.jkiss.code.NotNull;
+
+import java.io.IOException;
+
+/**
+ * RLE/bit-packing hybrid encoding used for definition levels and dictionary indexes.
+ * Also decodes delta encodings produced by Parquet v2 writers.
+ */
+public class ParquetEncoding {
+
+    private static final int MIN_REPEAT_RUN = 8;
+
+    private ParquetEncoding() {
+    }
+
+    public static int getBitWidth(int maxValue) {
+        return maxValue == 0 ? 0 : 32 - Integer.numberOfLeadingZeros(maxValue);
+    }
+
+    /**
+     * Writes values [from, to) in RLE/bit-packed hybrid encoding (without length prefix)
+     */
+    public static void writeHybrid(@NotNull ParquetBuffer out, @NotNull int[] values, int from, int to, int bitWidth) {
+        int byteWidth = (bitWidth + 7) / 8;
+        int pos = from;
+        while (pos < to) {
+            int repeatCount = getRepeatCount(values, pos, to, Integer.MAX_VALUE);
+            if (repeatCount >= MIN_REPEAT_RUN) {
+                out.writeVarInt((long) repeatCount << 1);
+                int value = values[pos];
+                for (int i = 0; i < byteWidth; i++) {
+                    out.write(value >>> (i * 8));
+                }
+                pos += repeatCount;
+                continue;
+            }
+            // Bit-packed groups of 8 values until a long repeated run starts at a group boundary
+            int end = pos;
+            do {
+                end = Math.min(end + 8, to);
+            } while (end < to && getRepeatCount(values, end, to, MIN_REPEAT_RUN) < MIN_REPEAT_RUN);
+            int groupCount = (end - pos + 7) / 8;
+            out.writeVarInt(((long) groupCount << 1) | 1);
+            writeBitPacked(out, values, pos, end, groupCount * 8, bitWidth);
+            pos = end;
+        }
+    }
+
+    private static int getRepeatCount(int[] values, int pos, int to, int limit) {
+        int value = values[pos];
+        int count = 1;
+        while (pos + count < to && count < limit && values[pos + count] == value) {
+            count++;
+        }
+        return count;
+    }
+
+    private static void writeBitPacked(ParquetBuffer out, int[] values, int from, int to, int count, int bitWidth) {
+        long mask = (1L << bitWidth) - 1;
+        long buffer = 0;
+        int bits = 0;
+        for (int i = 0; i < count; i++) {
+            long value = from + i < to ? values[from + i] & mask : 0;
+            buffer |= value << bits;
+            bits += bitWidth;
+            while (bits >= 8) {
+                out.write((int) buffer);
+                buffer >>>= 8;
+                bits -= 8;
+            }
+        }
+        if (bits > 0) {
+            out.write((int) buffer);
+        }
+    }
+
+    /**
+     * Reads values in RLE/bit-packed hybrid encoding.
+     * @return position after the last read byte
+     */
+    public static int readHybrid(@NotNull byte[] data, int pos, int end, int bitWidth, @NotNull int[] result, int count) {
+        int byteWidth = (bitWidth + 7) / 8;
+        int read = 0;
+        while (read < count && pos < end) {
+            long header = 0;
+            for (int shift = 0; ; shift += 7) {
+                int b = data[pos++];
+                header |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    break;
+                }
+            }
+            if ((header & 1) == 0) {
+                int repeatCount = (int) (header >>> 1);
+                int value = 0;
+                for (int i = 0; i < byteWidth; i++) {
+                    value |= (data[pos++] & 0xff) << (i * 8);
+                }
+                int n = Math.min(repeatCount, count - read);
+                for (int i = 0; i < n; i++) {
+                    result[read++] = value;
+                }
+            } else {
+                int valueCount = (int) (header >>> 1) * 8;
+                long mask = (1L << bitWidth) - 1;
+                long buffer = 0;
+                int bits = 0;
+                for (int i = 0; i < valueCount; i++) {
+                    while (bits < bitWidth) {
+                        buffer |= (long) (data[pos++] & 0xff) << bits;
+                        bits += 8;
+                    }
+                    if (read < count) {
+                        result[read++] = (int) (buffer & mask);
+                    }
+                    buffer >>>= bitWidth;
+                    bits -= bitWidth;
+                }
+            }
+        }
+        return pos;
+    }
+
+    /**
+     * Reads values in DELTA_BINARY_PACKED encoding.
+     * @return position after the last read byte
+     */
+    public static int readDeltaBinaryPacked(@NotNull byte[] data, int pos, @NotNull long[] result, int count) throws IOException {
+        int[] cursor = {pos};
+        int blockSize = (int) readUnsignedVarInt(data, cursor);
+        int miniBlockCount = (int) readUnsignedVarInt(data, cursor);
+        int totalCount = (int) readUnsignedVarInt(data, cursor);
+        long value = readZigZagVarInt(data, cursor);
+        if (miniBlockCount <= 0 || blockSize % miniBlockCount != 0 || (blockSize / miniBlockCount) % 8 != 0) {
+            throw new IOException("Invalid delta encoding header: block size " + blockSize + ", mini blocks " + miniBlockCount);
+        }
+        int miniBlockValues = blockSize / miniBlockCount;
+        int read = 0;
+        if (totalCount > 0 && count > 0) {
+            result[read] = value;
+        }
+        read++;
+        while (read < totalCount) {
+            long minDelta = readZigZagVarInt(data, cursor);
+            int bitWidthsPos = cursor[0];
+            cursor[0] += miniBlockCount;
+            for (int i = 0; i < miniBlockCount && read < totalCount; i++) {
+                int bitWidth = data[bitWidthsPos + i] & 0xff;
+                if (bitWidth > 64) {
+                    throw new IOException("Invalid delta encoding bit width: " + bitWidth);
+                }
+                int start = cursor[0];
+                for (int k = 0; k < miniBlockValues && read < totalCount; k++) {
+                    value += minDelta + readBits(data, start, (long) k * bitWidth, bitWidth);
+                    if (read < count) {
+                        result[read] = value;
+                    }
+                    read++;
+                }
+                cursor[0] = start + miniBlockValues / 8 * bitWidth;
+            }
+        }
+        return cursor[0];
+    }
+
+    private static long readBits(byte[] data, int start, long bitPosition, int bitWidth) {
+        if (bitWidth == 0) {
+            return 0;
+        }
+        int index = start + (int) (bitPosition >>> 3);
+        int shift = (int) (bitPosition & 7);
+        long value = 0;
+        int bits = 0;
+        while (bits < bitWidth) {
+            value |= (long) ((data[index++] & 0xff) >>> shift) << bits;
+            bits += 8 - shift;
+            shift = 0;
+        }
+        return bitWidth == 64 ? value : value & ((1L << bitWidth) - 1);
+    }
+
+    private static long readUnsignedVarInt(byte[] data, int[] cursor) {
+        long result = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = data[cursor[0]++];
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+    }
+
+    private static long readZigZagVarInt(byte[] data, int[] cursor) {
+        long value = readUnsignedVarInt(data, cursor);
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,451 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.parquet;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reads flat tables in Apache Parquet format.
+ * Only the footer is read on open. Row groups are read on demand and only for the requested columns.
+ * Reading of different row groups is thread-safe.
+ * Nested and repeated columns are not supported and are excluded from the column list.
+ */
+public class ParquetFileReader {
+
+    private static final int FOOTER_TAIL_LENGTH = 8;
+
+    private final FileChannel channel;
+    private final List<ParquetColumn> columns = new ArrayList<>();
+    private final List<String> unsupportedColumns = new ArrayList<>();
+    // Index of the column chunk (schema leaf) for each column
+    private int[] leafIndexes;
+    private final List<RowGroupInfo> rowGroups = new ArrayList<>();
+    private long totalRows;
+
+    public ParquetFileReader(@NotNull FileChannel channel) throws IOException {
+        this.channel = channel;
+        readFooter();
+    }
+
+    @NotNull
+    public List<ParquetColumn> getColumns() {
+        return columns;
+    }
+
+    /**
+     * Names of nested or repeated columns which can't be read
+     */
+    @NotNull
+    public List<String> getUnsupportedColumns() {
+        return unsupportedColumns;
+    }
+
+    public long getTotalRows() {
+        return totalRows;
+    }
+
+    public int getRowGroupCount() {
+        return rowGroups.size();
+    }
+
+    public long getRowGroupRows(int rowGroup) {
+        return rowGroups.get(rowGroup).numRows;
+    }
+
+    /**
+     * Reads and decodes a row group.
+     * @param projection columns to read or null to read all columns
+     * @return values of each column. Columns which weren't requested are null.
+     */
+    @NotNull
+    public Object[][] readRowGroup(int rowGroup, @Nullable boolean[] projection) throws IOException {
+        RowGroupInfo info = rowGroups.get(rowGroup);
+        if (info.numRows > Integer.MAX_VALUE) {
+            throw new IOException("Row group is too big: " + info.numRows + " rows");
+        }
+        Object[][] result = new Object[columns.size()][];
+        for (int i = 0; i < columns.size(); i++) {
+            if (projection != null && !projection[i]) {
+                continue;
+            }
+            ChunkInfo chunk = info.chunks[leafIndexes[i]];
+            if (chunk == null) {
+                throw new IOException("Column chunk of '" + columns.get(i).getName() + "' is missing in row group " + rowGroup);
+            }
+            if (chunk.length > Integer.MAX_VALUE) {
+                throw new IOException("Column chunk is too big: " + chunk.length + " bytes");
+            }
+            byte[] data = new byte[(int) chunk.length];
+            readFully(chunk.offset, data);
+            result[i] = new ParquetColumnReader(columns.get(i), ParquetCompression.fromCodecId(chunk.codec))
+                .readChunk(data, 0, data.length, (int) info.numRows);
+        }
+        return result;
+    }
+
+    private void readFully(long position, byte[] data) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(data);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Unexpected end of Parquet file");
+            }
+        }
+    }
+
+    private void readFooter() throws IOException {
+        long fileSize = channel.size();
+        if (fileSize < ParquetConstants.MAGIC.length + FOOTER_TAIL_LENGTH) {
+            throw new IOException("File is too small to be a Parquet file");
+        }
+        byte[] tail = new byte[FOOTER_TAIL_LENGTH];
+        readFully(fileSize - FOOTER_TAIL_LENGTH, tail);
+        if (!Arrays.equals(Arrays.copyOfRange(tail, 4, 8), ParquetConstants.MAGIC)) {
+            throw new IOException("Not a Parquet file (magic number mismatch)");
+        }
+        int footerLength = (tail[0] & 0xff) | (tail[1] & 0xff) << 8 | (tail[2] & 0xff) << 16 | (tail[3] & 0xff) << 24;
+        if (footerLength <= 0 || footerLength > fileSize - FOOTER_TAIL_LENGTH - ParquetConstants.MAGIC.length) {
+            throw new IOException("Invalid Parquet footer length: " + footerLength);
+        }
+        byte[] footer = new byte[footerLength];
+        readFully(fileSize - FOOTER_TAIL_LENGTH - footerLength, footer);
+
+        List<SchemaElement> schema = new ArrayList<>();
+        ThriftCompactReader reader = new ThriftCompactReader(footer, 0, footer.length);
+        reader.structBegin();
+        while (reader.nextField()) {
+            switch (reader.getFieldId()) {
+                case 2: {
+                    int size = reader.readListBegin();
+                    for (int i = 0; i < size; i++) {
+                        schema.add(readSchemaElement(reader));
+                    }
+                    break;
+                }
+                case 3:
+                    totalRows = reader.readI64();
+                    break;
+                case 4: {
+                    int size = reader.readListBegin();
+                    for (int i = 0; i < size; i++) {
+                        rowGroups.add(readRowGroup(reader));
+                    }
+                    break;
+                }
+                default:
+                    reader.skipField();
+                    break;
+            }
+        }
+        if (schema.isEmpty()) {
+            throw new IOException("Parquet schema is empty");
+        }
+        resolveColumns(schema);
+    }
+
+    private void resolveColumns(List<SchemaElement> schema) throws IOException {
+        List<Integer> leaves = new ArrayList<>();
+        int leafCount = 0;
+        int pos = 1;
+        for (int i = 0; i < schema.get(0).numChildren; i++) {
+            if (pos >= schema.size()) {
+                throw new IOException("Corrupted Parquet schema");
+            }
+            SchemaElement element = schema.get(pos);
+            if (element.numChildren > 0 || element.column.getRepetition() == ParquetConstants.REPETITION_REPEATED) {
+                int end = skipElement(schema, pos);
+                leafCount += countLeaves(schema, pos, end);
+                unsupportedColumns.add(element.column.getName());
+                pos = end;
+            } else {
+                columns.add(element.column);
+                leaves.add(leafCount++);
+                pos++;
+            }
+        }
+        leafIndexes = new int[leaves.size()];
+        for (int i = 0; i < leafIndexes.length; i++) {
+            leafIndexes[i] = leaves.get(i);
+        }
+    }
+
+    /**
+     * Returns position of the next sibling of the element
+     */
+    private static int skipElement(List<SchemaElement> schema, int pos) {
+        int children = schema.get(pos).numChildren;
+        pos++;
+        for (int i = 0; i < children && pos < schema.size(); i++) {
+            pos = skipElement(schema, pos);
+        }
+        return pos;
+    }
+
+    private static int countLeaves(List<SchemaElement> schema, int from, int to) {
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            if (schema.get(i).numChildren == 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static SchemaElement readSchemaElement(ThriftCompactReader reader) throws IOException {
+        int physicalType = -1, typeLength = 0, repetition = ParquetConstants.REPETITION_REQUIRED;
+        int convertedType = -1, scale = 0, precision = 0, numChildren = 0;
+        String name = "";
+        ParquetColumn logicalType = null;
+        reader.structBegin();
+        while (reader.nextField()) {
+            switch (reader.getFieldId()) {
+                case 1: physicalType = reader.readI32(); break;
+                case 2: typeLength = reader.readI32(); break;
+                case 3: repetition = reader.readI32(); break;
+                case 4: name = reader.readString(); break;
+                case 5: numChildren = reader.readI32(); break;
+                case 6: convertedType = reader.readI32(); break;
+                case 7: scale = reader.readI32(); break;
+                case 8: precision = reader.readI32(); break;
+                case 10:
+                    logicalType = new ParquetColumn(name, physicalType);
+                    readLogicalType(reader, logicalType);
+                    break;
+                default:
+                    reader.skipField();
+                    break;
+            }
+        }
+        ParquetColumn column = new ParquetColumn(name, physicalType, repetition)
+            .withTypeLength(typeLength)
+            .withConvertedType(convertedType);
+        if (logicalType != null && logicalType.getLogicalType() >= 0) {
+            column.setLogicalType(logicalType.getLogicalType());
+            column.setPrecision(logicalType.getPrecision());
+            column.setScale(logicalType.getScale());
+            column.setBitWidth(logicalType.getBitWidth());
+            column.setSigned(logicalType.isSigned());
+            column.setTimeUnit(logicalType.getTimeUnit());
+            column.setAdjustedToUTC(logicalType.isAdjustedToUTC());
+        } else if (convertedType >= 0) {
+            applyConvertedType(column, convertedType, precision, scale);
+        }
+        return new SchemaElement(column, numChildren);
+    }
+
+    private static void readLogicalType(ThriftCompactReader reader, ParquetColumn column) throws IOException {
+        reader.structBegin();
+        while (reader.nextField()) {
+            int logicalType = reader.getFieldId();
+            column.setLogicalType(logicalType);
+            reader.structBegin();
+            while (reader.nextField()) {
+                switch (logicalType) {
+                    case ParquetConstants.LOGICAL_DECIMAL:
+                        if (reader.getFieldId() == 1) {
+                            column.setScale(reader.readI32());
+                        } else if (reader.getFieldId() == 2) {
+                            column.setPrecision(reader.readI32());
+                        } else {
+                            reader.skipField();
+                        }
+                        break;
+                    case ParquetConstants.LOGICAL_TIME:
+                    case ParquetConstants.LOGICAL_TIMESTAMP:
+                        if (reader.getFieldId() == 1) {
+                            column.setAdjustedToUTC(reader.getFieldBool());
+                        } else if (reader.getFieldId() == 2) {
+                            // TimeUnit union
+                            reader.structBegin();
+                            while (reader.nextField()) {
+                                column.setTimeUnit(reader.getFieldId());
+                                reader.skipField();
+                            }
+                        } else {
+                            reader.skipField();
+                        }
+                        break;
+                    case ParquetConstants.LOGICAL_INTEGER:
+                        if (reader.getFieldId() == 1) {
+                            column.setBitWidth(reader.readByte());
+                        } else if (reader.getFieldId() == 2) {
+                            column.setSigned(reader.getFieldBool());
+                        } else {
+                            reader.skipField();
+                        }
+                        break;
+                    default:
+                        reader.skipField();
+                        break;
+                }
+            }
+        }
+    }
+
+    private static void applyConvertedType(ParquetColumn column, int convertedType, int precision, int scale) {
+        switch (convertedType) {
+            case ParquetConstants.CONVERTED_UTF8:
+                column.setLogicalType(ParquetConstants.LOGICAL_STRING);
+                break;
+            case ParquetConstants.CONVERTED_ENUM:
+                column.setLogicalType(ParquetConstants.LOGICAL_ENUM);
+                break;
+            case ParquetConstants.CONVERTED_JSON:
+                column.setLogicalType(ParquetConstants.LOGICAL_JSON);
+                break;
+            case ParquetConstants.CONVERTED_DECIMAL:
+                column.asDecimal(precision, scale);
+                break;
+            case ParquetConstants.CONVERTED_DATE:
+                column.asDate();
+                break;
+            case ParquetConstants.CONVERTED_TIME_MILLIS:
+                column.asTime(ParquetConstants.TIME_UNIT_MILLIS);
+                column.setAdjustedToUTC(true);
+                break;
+            case ParquetConstants.CONVERTED_TIME_MICROS:
+                column.asTime(ParquetConstants.TIME_UNIT_MICROS);
+                column.setAdjustedToUTC(true);
+                break;
+            case ParquetConstants.CONVERTED_TIMESTAMP_MILLIS:
+                column.asTimestamp(ParquetConstants.TIME_UNIT_MILLIS, true);
+                break;
+            case ParquetConstants.CONVERTED_TIMESTAMP_MICROS:
+                column.asTimestamp(ParquetConstants.TIME_UNIT_MICROS, true);
+                break;
+            case ParquetConstants.CONVERTED_UINT_8:
+            case ParquetConstants.CONVERTED_UINT_16:
+            case ParquetConstants.CONVERTED_UINT_32:
+            case ParquetConstants.CONVERTED_UINT_64:
+                column.asInteger(8 << (convertedType - ParquetConstants.CONVERTED_UINT_8));
+                column.setSigned(false);
+                break;
+            case ParquetConstants.CONVERTED_INT_8:
+            case ParquetConstants.CONVERTED_INT_16:
+            case ParquetConstants.CONVERTED_INT_32:
+            case ParquetConstants.CONVERTED_INT_64:
+                column.asInteger(8 << (convertedType - ParquetConstants.CONVERTED_INT_8));
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static RowGroupInfo readRowGroup(ThriftCompactReader reader) throws IOException {
+        List<ChunkInfo> chunks = new ArrayList<>();
+        long numRows = 0;
+        reader.structBegin();
+        while (reader.nextField()) {
+            switch (reader.getFieldId()) {
+                case 1: {
+                    int size = reader.readListBegin();
+                    for (int i = 0; i < size; i++) {
+                        chunks.add(readColumnChunk(reader));
+                    }
+                    break;
+                }
+                case 3:
+                    numRows = reader.readI64();
+                    break;
+                default:
+                    reader.skipField();
+                    break;
+            }
+        }
+        return new RowGroupInfo(numRows, chunks.toArray(new ChunkInfo[0]));
+    }
+
+    @Nullable
+    private static ChunkInfo readColumnChunk(ThriftCompactReader reader) throws IOException {
+        ChunkInfo chunk = null;
+        boolean external = false;
+        reader.structBegin();
+        while (reader.nextField()) {
+            switch (reader.getFieldId()) {
+                case 1:
+                    // Column data is stored in another file
+                    reader.skipField();
+                    external = true;
+                    break;
+                case 3:
+                    chunk = readColumnMetaData(reader);
+                    break;
+                default:
+                    reader.skipField();
+                    break;
+            }
+        }
+        return external ? null : chunk;
+    }
+
+    private static ChunkInfo readColumnMetaData(ThriftCompactReader reader) throws IOException {
+        int codec = 0;
+        long compressedSize = 0, dataPageOffset = 0, dictionaryPageOffset = 0;
+        reader.structBegin();
+        while (reader.nextField()) {
+            switch (reader.getFieldId()) {
+                case 4: codec = reader.readI32(); break;
+                case 7: compressedSize = reader.readI64(); break;
+                case 9: dataPageOffset = reader.readI64(); break;
+                case 11: dictionaryPageOffset = reader.readI64(); break;
+                default: reader.skipField(); break;
+            }
+        }
+        long offset = dictionaryPageOffset > 0 && dictionaryPageOffset < dataPageOffset ? dictionaryPageOffset : dataPageOffset;
+        return new ChunkInfo(codec, offset, compressedSize);
+    }
+
+    private static class SchemaElement {
+        final ParquetColumn column;
+        final int numChildren;
+
+        SchemaElement(ParquetColumn column, int numChildren) {
+            this.column = column;
+            this.numChildren = numChildren;
+        }
+    }
+
+    private static class RowGroupInfo {
+        final long numRows;
+        final ChunkInfo[] chunks;
+
+        RowGroupInfo(long numRows, ChunkInfo[] chunks) {
+            this.numRows = numRows;
+            this.chunks = chunks;
+        }
+    }
+
+    private static class ChunkInfo {
+        final int codec;
+        final long offset;
+        final long length;
+
+        ChunkInfo(int codec, long offset, long length) {
+            this.codec = codec;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+}
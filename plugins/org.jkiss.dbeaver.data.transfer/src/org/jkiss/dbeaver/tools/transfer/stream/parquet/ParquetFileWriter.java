@@ -0,0 +1,264 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.parquet;
+
+import org.jkiss.code.NotNull;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes flat tables in Apache Parquet format.
+ * Rows are buffered per column and flushed as row groups once the buffered size reaches the row group size.
+ */
+public class ParquetFileWriter {
+
+    public static final int DEFAULT_ROW_GROUP_SIZE = 64 * 1024 * 1024;
+    public static final int DEFAULT_PAGE_SIZE = 1024 * 1024;
+
+    private final OutputStream out;
+    private final ParquetColumn[] columns;
+    private final ParquetColumnWriter[] columnWriters;
+    private final ParquetCompression compression;
+    private final List<RowGroupInfo> rowGroups = new ArrayList<>();
+    private long rowGroupSize = DEFAULT_ROW_GROUP_SIZE;
+    private int pageSize = DEFAULT_PAGE_SIZE;
+    private boolean dictionaryEnabled = true;
+
+    private long position;
+    private long totalRows;
+    private int bufferedRows;
+    private boolean started;
+
+    public ParquetFileWriter(@NotNull OutputStream out, @NotNull List<ParquetColumn> columns, @NotNull ParquetCompression compression) {
+        this.out = out;
+        this.columns = columns.toArray(new ParquetColumn[0]);
+        this.columnWriters = new ParquetColumnWriter[this.columns.length];
+        for (int i = 0; i < this.columns.length; i++) {
+            columnWriters[i] = new ParquetColumnWriter(this.columns[i]);
+        }
+        this.compression = compression;
+    }
+
+    public void setRowGroupSize(long rowGroupSize) {
+        this.rowGroupSize = Math.max(1, rowGroupSize);
+    }
+
+    public void setPageSize(int pageSize) {
+        this.pageSize = Math.max(1024, pageSize);
+    }
+
+    public void setDictionaryEnabled(boolean dictionaryEnabled) {
+        this.dictionaryEnabled = dictionaryEnabled;
+    }
+
+    @NotNull
+    public ParquetColumnWriter getColumnWriter(int index) {
+        return columnWriters[index];
+    }
+
+    public long getTotalRows() {
+        return totalRows + bufferedRows;
+    }
+
+    public void start() throws IOException {
+        out.write(ParquetConstants.MAGIC);
+        position = ParquetConstants.MAGIC.length;
+        started = true;
+    }
+
+    /**
+     * Must be called after values of all columns were written
+     */
+    public void endRow() throws IOException {
+        bufferedRows++;
+        if ((bufferedRows & 0x3FF) == 0 && getBufferedSize() >= rowGroupSize) {
+            flushRowGroup();
+        }
+    }
+
+    private long getBufferedSize() {
+        long size = 0;
+        for (ParquetColumnWriter writer : columnWriters) {
+            size += writer.getBufferedSize();
+        }
+        return size;
+    }
+
+    /**
+     * Writes all buffered rows as a new row group
+     */
+    public void flushRowGroup() throws IOException {
+        if (!started) {
+            start();
+        }
+        if (bufferedRows == 0) {
+            return;
+        }
+        for (ParquetColumnWriter writer : columnWriters) {
+            if (writer.getRowCount() != bufferedRows) {
+                throw new IOException("Column '" + writer.getColumn().getName() + "' has " +
+                    writer.getRowCount() + " values while " + bufferedRows + " rows were written");
+            }
+        }
+        RowGroupInfo rowGroup = new RowGroupInfo(position, bufferedRows);
+        for (ParquetColumnWriter writer : columnWriters) {
+            ParquetColumnWriter.ChunkInfo chunk = writer.writeChunk(out, position, compression, pageSize, dictionaryEnabled);
+            position = chunk.position;
+            rowGroup.chunks.add(chunk);
+        }
+        rowGroups.add(rowGroup);
+        totalRows += bufferedRows;
+        bufferedRows = 0;
+    }
+
+    /**
+     * Flushes remaining rows and writes file footer. Doesn't close the output stream.
+     */
+    public void finish() throws IOException {
+        flushRowGroup();
+        ParquetBuffer footer = new ParquetBuffer(1024);
+        writeFileMetaData(new ThriftCompactWriter(footer));
+        footer.writeIntLE(footer.size());
+        footer.write(ParquetConstants.MAGIC);
+        footer.writeTo(out);
+        position += footer.size();
+        out.flush();
+    }
+
+    private void writeFileMetaData(ThriftCompactWriter writer) {
+        writer.structBegin();
+        writer.fieldI32(1, 1);
+        writer.fieldListBegin(2, ThriftCompactWriter.TYPE_STRUCT, columns.length + 1);
+        {
+            writer.structBegin();
+            writer.fieldString(4, "schema");
+            writer.fieldI32(5, columns.length);
+            writer.structEnd();
+            for (ParquetColumn column : columns) {
+                writeSchemaElement(writer, column);
+            }
+        }
+        writer.fieldI64(3, totalRows);
+        writer.fieldListBegin(4, ThriftCompactWriter.TYPE_STRUCT, rowGroups.size());
+        for (RowGroupInfo rowGroup : rowGroups) {
+            writeRowGroup(writer, rowGroup);
+        }
+        writer.fieldString(6, ParquetConstants.CREATED_BY);
+        writer.structEnd();
+    }
+
+    private void writeSchemaElement(ThriftCompactWriter writer, ParquetColumn column) {
+        writer.structBegin();
+        writer.fieldI32(1, column.getPhysicalType());
+        if (column.getPhysicalType() == ParquetConstants.TYPE_FIXED_LEN_BYTE_ARRAY) {
+            writer.fieldI32(2, column.getTypeLength());
+        }
+        writer.fieldI32(3, column.getRepetition());
+        writer.fieldString(4, column.getName());
+        if (column.getConvertedType() >= 0) {
+            writer.fieldI32(6, column.getConvertedType());
+        }
+        if (column.getLogicalType() == ParquetConstants.LOGICAL_DECIMAL) {
+            writer.fieldI32(7, column.getScale());
+            writer.fieldI32(8, column.getPrecision());
+        }
+        if (column.getLogicalType() >= 0) {
+            writer.fieldStructBegin(10);
+            writer.fieldStructBegin(column.getLogicalType());
+            switch (column.getLogicalType()) {
+                case ParquetConstants.LOGICAL_DECIMAL:
+                    writer.fieldI32(1, column.getScale());
+                    writer.fieldI32(2, column.getPrecision());
+                    break;
+                case ParquetConstants.LOGICAL_TIME:
+                case ParquetConstants.LOGICAL_TIMESTAMP:
+                    writer.fieldBool(1, column.isAdjustedToUTC());
+                    writer.fieldStructBegin(2);
+                    writer.fieldStructBegin(column.getTimeUnit());
+                    writer.structEnd();
+                    writer.structEnd();
+                    break;
+                case ParquetConstants.LOGICAL_INTEGER:
+                    writer.fieldByte(1, column.getBitWidth());
+                    writer.fieldBool(2, true);
+                    break;
+                default:
+                    break;
+            }
+            writer.structEnd();
+            writer.structEnd();
+        }
+        writer.structEnd();
+    }
+
+    private void writeRowGroup(ThriftCompactWriter writer, RowGroupInfo rowGroup) {
+        long uncompressedSize = 0, compressedSize = 0;
+        writer.structBegin();
+        writer.fieldListBegin(1, ThriftCompactWriter.TYPE_STRUCT, rowGroup.chunks.size());
+        for (int i = 0; i < rowGroup.chunks.size(); i++) {
+            ParquetColumnWriter.ChunkInfo chunk = rowGroup.chunks.get(i);
+            ParquetColumn column = columns[i];
+            uncompressedSize += chunk.uncompressedSize;
+            compressedSize += chunk.compressedSize;
+
+            writer.structBegin();
+            writer.fieldI64(2, chunk.fileOffset);
+            writer.fieldStructBegin(3);
+            {
+                writer.fieldI32(1, column.getPhysicalType());
+                writer.fieldListBegin(2, ThriftCompactWriter.TYPE_I32, chunk.encodings.size());
+                for (Integer encoding : chunk.encodings) {
+                    writer.writeI32(encoding);
+                }
+                writer.fieldListBegin(3, ThriftCompactWriter.TYPE_BINARY, 1);
+                writer.writeString(column.getName());
+                writer.fieldI32(4, compression.getCodecId());
+                writer.fieldI64(5, chunk.numValues);
+                writer.fieldI64(6, chunk.uncompressedSize);
+                writer.fieldI64(7, chunk.compressedSize);
+                writer.fieldI64(9, chunk.dataPageOffset);
+                if (chunk.dictionaryPageOffset >= 0) {
+                    writer.fieldI64(11, chunk.dictionaryPageOffset);
+                }
+                writer.fieldStructBegin(12);
+                writer.fieldI64(3, chunk.nullCount);
+                writer.structEnd();
+            }
+            writer.structEnd();
+            writer.structEnd();
+        }
+        writer.fieldI64(2, uncompressedSize);
+        writer.fieldI64(3, rowGroup.numRows);
+        writer.fieldI64(5, rowGroup.fileOffset);
+        writer.fieldI64(6, compressedSize);
+        writer.structEnd();
+    }
+
+    private static class RowGroupInfo {
+        final long fileOffset;
+        final long numRows;
+        final List<ParquetColumnWriter.ChunkInfo> chunks = new ArrayList<>();
+
+        RowGroupInfo(long fileOffset, long numRows) {
+            this.fileOffset = fileOffset;
+            this.numRows = numRows;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.parquet;
+
+import org.jkiss.code.NotNull;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Snappy block format codec (https://github.com/google/snappy/blob/main/format_description.txt).
+ * Compressor is a simple greedy LZ77 matcher over 64K blocks, it produces standard snappy stream.
+ */
+public class SnappyCodec {
+
+    private static final int BLOCK_SIZE = 1 << 16;
+    private static final int HASH_BITS = 14;
+    private static final int MIN_MATCH = 4;
+
+    private SnappyCodec() {
+    }
+
+    @NotNull
+    public static byte[] compress(@NotNull byte[] data, int offset, int length) {
+        ParquetBuffer out = new ParquetBuffer(32 + length + length / 6);
+        out.writeVarInt(length);
+        int[] table = new int[1 << HASH_BITS];
+        for (int blockStart = offset; blockStart < offset + length; blockStart += BLOCK_SIZE) {
+            compressBlock(data, blockStart, Math.min(blockStart + BLOCK_SIZE, offset + length), table, out);
+        }
+        return out.toByteArray();
+    }
+
+    private static void compressBlock(byte[] data, int start, int end, int[] table, ParquetBuffer out) {
+        Arrays.fill(table, -1);
+        int pos = start;
+        int literalStart = start;
+        int limit = end - MIN_MATCH;
+        while (pos <= limit) {
+            int value = readIntLE(data, pos);
+            int hash = (value * 0x1e35a7bd) >>> (32 - HASH_BITS);
+            int candidate = table[hash];
+            table[hash] = pos;
+            if (candidate >= start && readIntLE(data, candidate) == value) {
+                int matchLength = MIN_MATCH;
+                while (pos + matchLength < end && data[candidate + matchLength] == data[pos + matchLength]) {
+                    matchLength++;
+                }
+                emitLiteral(data, literalStart, pos - literalStart, out);
+                emitCopy(pos - candidate, matchLength, out);
+                pos += matchLength;
+                literalStart = pos;
+            } else {
+                pos++;
+            }
+        }
+        emitLiteral(data, literalStart, end - literalStart, out);
+    }
+
+    private static void emitLiteral(byte[] data, int offset, int length, ParquetBuffer out) {
+        if (length == 0) {
+            return;
+        }
+        int n = length - 1;
+        if (n < 60) {
+            out.write(n << 2);
+        } else if (n < (1 << 8)) {
+            out.write(60 << 2);
+            out.write(n);
+        } else if (n < (1 << 16)) {
+            out.write(61 << 2);
+            out.write(n);
+            out.write(n >>> 8);
+        } else if (n < (1 << 24)) {
+            out.write(62 << 2);
+            out.write(n);
+            out.write(n >>> 8);
+            out.write(n >>> 16);
+        } else {
+            out.write(63 << 2);
+            out.writeIntLE(n);
+        }
+        out.write(data, offset, length);
+    }
+
+    private static void emitCopy(int offset, int length, ParquetBuffer out) {
+        while (length >= 68) {
+            emitCopy2(offset, 64, out);
+            length -= 64;
+        }
+        if (length > 64) {
+            emitCopy2(offset, 60, out);
+            length -= 60;
+        }
+        if (length < 12 && offset < 2048) {
+            out.write(1 | ((length - 4) << 2) | ((offset >>> 8) << 5));
+            out.write(offset);
+        } else {
+            emitCopy2(offset, length, out);
+        }
+    }
+
+    private static void emitCopy2(int offset, int length, ParquetBuffer out) {
+        out.write(2 | ((length - 1) << 2));
+        out.write(offset);
+        out.write(offset >>> 8);
+    }
+
+    @NotNull
+    public static byte[] decompress(@NotNull byte[] data, int offset, int length) throws IOException {
+        int end = offset + length;
+        int pos = offset;
+        // Uncompressed length varint
+        int resultLength = 0;
+        for (int shift = 0; ; shift += 7) {
+            if (pos >= end || shift > 28) {
+                throw new IOException("Corrupted snappy stream");
+            }
+            int b = data[pos++];
+            resultLength |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                break;
+            }
+        }
+        byte[] result = new byte[resultLength];
+        int outPos = 0;
+        try {
+            while (pos < end) {
+                int tag = data[pos++] & 0xff;
+                int copyLength;
+                int copyOffset;
+                switch (tag & 3) {
+                    case 0: {
+                        int literalLength = tag >>> 2;
+                        if (literalLength >= 60) {
+                            int extraBytes = literalLength - 59;
+                            literalLength = 0;
+                            for (int i = 0; i < extraBytes; i++) {
+                                literalLength |= (data[pos++] & 0xff) << (8 * i);
+                            }
+                        }
+                        literalLength++;
+                        System.arraycopy(data, pos, result, outPos, literalLength);
+                        pos += literalLength;
+                        outPos += literalLength;
+                        continue;
+                    }
+                    case 1:
+                        copyLength = ((tag >>> 2) & 7) + 4;
+                        copyOffset = ((tag >>> 5) << 8) | (data[pos++] & 0xff);
+                        break;
+                    case 2:
+                        copyLength = (tag >>> 2) + 1;
+                        copyOffset = (data[pos] & 0xff) | (data[pos + 1] & 0xff) << 8;
+                        pos += 2;
+                        break;
+                    default:
+                        copyLength = (tag >>> 2) + 1;
+                        copyOffset = readIntLE(data, pos);
+                        pos += 4;
+                        break;
+                }
+                if (copyOffset <= 0 || copyOffset > outPos) {
+                    throw new IOException("Corrupted snappy stream: bad copy offset " + copyOffset);
+                }
+                // Overlapping copy must be done byte by byte
+                for (int i = 0; i < copyLength; i++) {
+                    result[outPos] = result[outPos - copyOffset];
+                    outPos++;
+                }
+            }
+        } catch (IndexOutOfBoundsException e) {
+            throw new IOException("Corrupted snappy stream", e);
+        }
+        if (outPos != resultLength) {
+            throw new IOException("Corrupted snappy stream: " + outPos + " bytes decoded while " + resultLength + " expected");
+        }
+        return result;
+    }
+
+    private static int readIntLE(byte[] data, int pos) {
+        return (data[pos] & 0xff) | (data[pos + 1] & 0xff) << 8 | (data[pos + 2] & 0xff) << 16 | (data[pos + 3] & 0xff) << 24;
+    }
+}
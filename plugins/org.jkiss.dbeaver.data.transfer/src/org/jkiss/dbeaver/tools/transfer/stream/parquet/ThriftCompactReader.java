@@ -0,0 +1,221 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.parquet;
+
+import org.jkiss.code.NotNull;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Minimal Thrift compact protocol reader, enough to deserialize Parquet metadata structures.
+ * Unknown fields are skipped.
+ */
+public class ThriftCompactReader {
+
+    private final byte[] data;
+    private final int end;
+    private int pos;
+    private int[] fieldIdStack = new int[16];
+    private int stackDepth;
+    private int lastFieldId;
+    private int fieldId;
+    private int fieldType;
+    private int listElementType;
+
+    public ThriftCompactReader(@NotNull byte[] data, int offset, int end) {
+        this.data = data;
+        this.pos = offset;
+        this.end = end;
+    }
+
+    public int getPosition() {
+        return pos;
+    }
+
+    public void structBegin() {
+        if (stackDepth == fieldIdStack.length) {
+            fieldIdStack = Arrays.copyOf(fieldIdStack, stackDepth * 2);
+        }
+        fieldIdStack[stackDepth++] = lastFieldId;
+        lastFieldId = 0;
+    }
+
+    /**
+     * Reads next field header of the current struct.
+     * @return false if the end of struct was reached
+     */
+    public boolean nextField() throws IOException {
+        int header = readByte() & 0xff;
+        if (header == ThriftCompactWriter.TYPE_STOP) {
+            lastFieldId = fieldIdStack[--stackDepth];
+            return false;
+        }
+        int delta = header >>> 4;
+        fieldType = header & 0x0F;
+        fieldId = delta == 0 ? readI32() : lastFieldId + delta;
+        lastFieldId = fieldId;
+        return true;
+    }
+
+    public int getFieldId() {
+        return fieldId;
+    }
+
+    public int getFieldType() {
+        return fieldType;
+    }
+
+    /**
+     * Value of a boolean field. Boolean values are stored in field headers.
+     */
+    public boolean getFieldBool() {
+        return fieldType == ThriftCompactWriter.TYPE_BOOLEAN_TRUE;
+    }
+
+    public int readByte() throws IOException {
+        if (pos >= end) {
+            throw new IOException("Unexpected end of Thrift data");
+        }
+        return data[pos++];
+    }
+
+    public int readI32() throws IOException {
+        long value = readVarInt();
+        return (int) (value >>> 1) ^ -(int) (value & 1);
+    }
+
+    public long readI64() throws IOException {
+        long value = readVarInt();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    @NotNull
+    public byte[] readBinary() throws IOException {
+        int length = (int) readVarInt();
+        if (length < 0 || pos + length > end) {
+            throw new IOException("Invalid Thrift binary length: " + length);
+        }
+        byte[] result = Arrays.copyOfRange(data, pos, pos + length);
+        pos += length;
+        return result;
+    }
+
+    @NotNull
+    public String readString() throws IOException {
+        return new String(readBinary(), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reads list header.
+     * @return number of list elements. Element type is available via {@link #getListElementType()}
+     */
+    public int readListBegin() throws IOException {
+        int header = readByte() & 0xff;
+        listElementType = header & 0x0F;
+        int size = header >>> 4;
+        if (size == 15) {
+            size = (int) readVarInt();
+        }
+        return size;
+    }
+
+    public int getListElementType() {
+        return listElementType;
+    }
+
+    /**
+     * Skips value of the current field
+     */
+    public void skipField() throws IOException {
+        skip(fieldType);
+    }
+
+    public void skip(int type) throws IOException {
+        switch (type) {
+            case ThriftCompactWriter.TYPE_BOOLEAN_TRUE:
+            case ThriftCompactWriter.TYPE_BOOLEAN_FALSE:
+                // Value is a part of the field header
+                break;
+            case ThriftCompactWriter.TYPE_BYTE:
+                readByte();
+                break;
+            case ThriftCompactWriter.TYPE_I16:
+            case ThriftCompactWriter.TYPE_I32:
+            case ThriftCompactWriter.TYPE_I64:
+                readVarInt();
+                break;
+            case ThriftCompactWriter.TYPE_DOUBLE:
+                pos += 8;
+                break;
+            case ThriftCompactWriter.TYPE_BINARY: {
+                int length = (int) readVarInt();
+                pos += length;
+                break;
+            }
+            case ThriftCompactWriter.TYPE_LIST:
+            case ThriftCompactWriter.TYPE_SET: {
+                int size = readListBegin();
+                int elementType = listElementType;
+                for (int i = 0; i < size; i++) {
+                    if (elementType == ThriftCompactWriter.TYPE_BOOLEAN_TRUE || elementType == ThriftCompactWriter.TYPE_BOOLEAN_FALSE) {
+                        // Booleans inside collections take one byte
+                        readByte();
+                    } else {
+                        skip(elementType);
+                    }
+                }
+                break;
+            }
+            case ThriftCompactWriter.TYPE_MAP: {
+                int size = (int) readVarInt();
+                if (size > 0) {
+                    int types = readByte() & 0xff;
+                    for (int i = 0; i < size; i++) {
+                        skip(types >>> 4);
+                        skip(types & 0x0F);
+                    }
+                }
+                break;
+            }
+            case ThriftCompactWriter.TYPE_STRUCT:
+                structBegin();
+                while (nextField()) {
+                    skipField();
+                }
+                break;
+            default:
+                throw new IOException("Unsupported Thrift type: " + type);
+        }
+        if (pos > end) {
+            throw new IOException("Unexpected end of Thrift data");
+        }
+    }
+
+    private long readVarInt() throws IOException {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new IOException("Malformed Thrift varint");
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.stream.parquet;
+
+import org.jkiss.code.NotNull;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Minimal Thrift compact protocol writer, enough to serialize Parquet metadata structures.
+ */
+public class ThriftCompactWriter {
+
+    static final int TYPE_STOP = 0;
+    static final int TYPE_BOOLEAN_TRUE = 1;
+    static final int TYPE_BOOLEAN_FALSE = 2;
+    static final int TYPE_BYTE = 3;
+    static final int TYPE_I16 = 4;
+    static final int TYPE_I32 = 5;
+    static final int TYPE_I64 = 6;
+    static final int TYPE_DOUBLE = 7;
+    static final int TYPE_BINARY = 8;
+    static final int TYPE_LIST = 9;
+    static final int TYPE_SET = 10;
+    static final int TYPE_MAP = 11;
+    static final int TYPE_STRUCT = 12;
+
+    private final ParquetBuffer out;
+    private int[] fieldIdStack = new int[16];
+    private int stackDepth;
+    private int lastFieldId;
+
+    public ThriftCompactWriter(@NotNull ParquetBuffer out) {
+        this.out = out;
+    }
+
+    public void structBegin() {
+        if (stackDepth == fieldIdStack.length) {
+            fieldIdStack = Arrays.copyOf(fieldIdStack, stackDepth * 2);
+        }
+        fieldIdStack[stackDepth++] = lastFieldId;
+        lastFieldId = 0;
+    }
+
+    public void structEnd() {
+        out.write(TYPE_STOP);
+        lastFieldId = fieldIdStack[--stackDepth];
+    }
+
+    public void fieldStructBegin(int fieldId) {
+        fieldHeader(fieldId, TYPE_STRUCT);
+        structBegin();
+    }
+
+    public void fieldBool(int fieldId, boolean value) {
+        fieldHeader(fieldId, value ? TYPE_BOOLEAN_TRUE : TYPE_BOOLEAN_FALSE);
+    }
+
+    public void fieldByte(int fieldId, int value) {
+        fieldHeader(fieldId, TYPE_BYTE);
+        out.write(value);
+    }
+
+    public void fieldI32(int fieldId, int value) {
+        fieldHeader(fieldId, TYPE_I32);
+        writeI32(value);
+    }
+
+    public void fieldI64(int fieldId, long value) {
+        fieldHeader(fieldId, TYPE_I64);
+        writeI64(value);
+    }
+
+    public void fieldString(int fieldId, @NotNull String value) {
+        fieldHeader(fieldId, TYPE_BINARY);
+        writeString(value);
+    }
+
+    public void fieldBinary(int fieldId, @NotNull byte[] value) {
+        fieldHeader(fieldId, TYPE_BINARY);
+        out.writeVarInt(value.length);
+        out.write(value, 0, value.length);
+    }
+
+    public void fieldListBegin(int fieldId, int elementType, int size) {
+        fieldHeader(fieldId, TYPE_LIST);
+        if (size < 15) {
+            out.write((size << 4) | elementType);
+        } else {
+            out.write(0xF0 | elementType);
+            out.writeVarInt(size);
+        }
+    }
+
+    public void writeI32(int value) {
+        out.writeVarInt(((value << 1) ^ (value >> 31)) & 0xFFFFFFFFL);
+    }
+
+    public void writeI64(long value) {
+        out.writeVarInt((value << 1) ^ (value >> 63));
+    }
+
+    public void writeString(@NotNull String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeVarInt(bytes.length);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    private void fieldHeader(int fieldId, int type) {
+        int delta = fieldId - lastFieldId;
+        if (delta > 0 && delta <= 15) {
+            out.write((delta << 4) | type);
+        } else {
+            out.write(type);
+            writeI32(fieldId);
+        }
+        lastFieldId = fieldId;
+    }
+}
@@ -20,6 +20,7 @@ import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.data.json.JSONUtils;
 import org.jkiss.dbeaver.model.exec.DBCStatistics;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.DBRRunnableContext;
@@ -30,14 +31,17 @@ import org.jkiss.dbeaver.model.task.DBTTaskRunStatus;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
 import org.jkiss.dbeaver.tools.transfer.*;
 import org.jkiss.dbeaver.tools.transfer.database.DatabaseConsumerSettings;
+import org.jkiss.dbeaver.tools.transfer.database.DatabaseProducerSettings;
 import org.jkiss.dbeaver.tools.transfer.database.DatabaseTransferConsumer;
 import org.jkiss.dbeaver.tools.transfer.internal.DTMessages;
 
 import java.io.PrintStream;
 import java.lang.reflect.InvocationTargetException;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
 /**
  * DTTaskHandlerTransfer
@@ -84,9 +88,24 @@ public class DTTaskHandlerTransfer implements DBTTaskHandler {
                                     DataTransferSettings settings) throws DBException {
         listener.taskStarted(task);
         int indexOfLastPipeWithDisabledReferentialIntegrity = -1;
+        if (settings.isResumeFromCheckpoint()) {
+            settings.setCheckpoints(DataTransferCheckpoints.forTask(task));
+        } else {
+            // Progress of earlier runs is stale once the task was run from scratch
+            DataTransferCheckpoints checkpoints = DataTransferCheckpoints.forTask(task);
+            if (checkpoints != null) {
+                checkpoints.clear();
+            }
+        }
         try {
             indexOfLastPipeWithDisabledReferentialIntegrity = initializePipes(runnableContext, settings);
             Throwable error = runDataTransferJobs(runnableContext, task, locale, log, listener, settings);
+            DataTransferCheckpoints checkpoints = settings.getCheckpoints();
+            if (checkpoints != null && error == null && isAllPipesCompleted(settings)) {
+                // Next run starts from scratch
+                checkpoints.clear();
+            }
+            saveWatermarks(task, settings);
             listener.taskFinished(task, null, error, settings);
         } catch (InvocationTargetException e) {
             DBWorkbench.getPlatformUI().showError(
@@ -162,6 +181,45 @@ public class DTTaskHandlerTransfer implements DBTTaskHandler {
         return error;
     }
 
+    /**
+     * Saves watermarks of incremental transfer in the task configuration, so the next run continues after them.
+     * Watermarks are moved only for tables which were transferred and stored by the consumer without errors
+     * (see {@link IDataTransferProducer#transferCompleted()}),
+     * so they are saved even if some other table failed.
+     */
+    private static void saveWatermarks(@Nullable DBTTask task, @NotNull DataTransferSettings settings) {
+        if (task == null || task.isTemporary() || settings.getProducer() == null) {
+            return;
+        }
+        IDataTransferSettings producerSettings = settings.getNodeSettings(settings.getProducer());
+        if (!(producerSettings instanceof DatabaseProducerSettings) || !((DatabaseProducerSettings) producerSettings).isWatermarksChanged()) {
+            return;
+        }
+        Map<String, Object> properties = new LinkedHashMap<>(task.getProperties());
+        Map<String, Object> configuration = new LinkedHashMap<>(JSONUtils.getObject(properties, "configuration"));
+        String nodeName = settings.getProducer().getNodeClass().getSimpleName();
+        Map<String, Object> producerSection = new LinkedHashMap<>(JSONUtils.getObject(configuration, nodeName));
+        ((DatabaseProducerSettings) producerSettings).saveWatermarks(producerSection);
+        configuration.put(nodeName, producerSection);
+        properties.put("configuration", configuration);
+        task.setProperties(properties);
+        try {
+            task.getProject().getTaskManager().updateTaskConfiguration(task);
+        } catch (DBException e) {
+            log.error("Error saving incremental transfer watermarks", e);
+        }
+    }
+
+    private static boolean isAllPipesCompleted(@NotNull DataTransferSettings settings) {
+        for (DataTransferPipe pipe : settings.getDataPipes()) {
+            DataTransferCheckpoints.Checkpoint checkpoint = pipe.getCheckpoint();
+            if (checkpoint == null || !checkpoint.isCompleted()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private void restoreReferentialIntegrity(@NotNull DBRRunnableContext runnableContext,
                                              @NotNull List<DataTransferPipe> pipes) throws DBException {
         DBException[] firstDBException = {null};
@@ -16,9 +16,12 @@
  */
 package org.jkiss.dbeaver.tools.transfer.transformers;
 
+import org.apache.commons.jexl3.JexlArithmetic;
 import org.apache.commons.jexl3.JexlContext;
+import org.apache.commons.jexl3.JexlEngine;
 import org.apache.commons.jexl3.JexlExpression;
 import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.model.DBUtils;
 import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
@@ -28,21 +31,47 @@ import org.jkiss.dbeaver.model.exec.DBCSession;
 import org.jkiss.dbeaver.model.virtual.DBVUtils;
 import org.jkiss.dbeaver.tools.transfer.IDataTransferAttributeTransformer;
 
-import java.util.Map;
+import java.util.*;
 
 /**
- * Expression attribute transformer
+ * Expression attribute transformer.
+ * <p>
+ * Variable names are resolved to attribute indexes once and the same variables context is used for all rows.
+ * Simple expressions (variables and literals combined with arithmetic operators) are compiled into evaluators
+ * which call JEXL arithmetic directly. If some operand is null or evaluation fails then the JEXL expression
+ * is evaluated, so results and errors are the same.
  */
 public class DataTransferTransformerExpression implements IDataTransferAttributeTransformer {
 
+    private static final Set<String> RESERVED_WORDS = new HashSet<>(Arrays.asList(
+        "or", "and", "eq", "ne", "lt", "gt", "le", "ge", "div", "mod", "not", "null", "true", "false",
+        "new", "var", "do", "while", "for", "if", "else", "break", "continue", "function", "return",
+        "empty", "size", "NaN"));
+
+    private JexlEngine jexlEngine;
     private JexlExpression jexlExpression;
+    private final VariablesContext context = new VariablesContext();
+    private CompiledExpression compiledExpression;
 
     @Override
     public Object transformAttribute(@NotNull DBCSession session, @NotNull DBDAttributeBinding[] dataAttributes, @NotNull Object[] dataRow, @NotNull DBDAttributeBinding attribute, Object attrValue, @NotNull Map<String, Object> options) throws DBException {
         JexlExpression jexlExpression = getJexlExpression(options);
 
-        JexlContext context = new VariablesContext(session, dataAttributes, dataRow);
+        if (context.setAttributes(dataAttributes)) {
+            compiledExpression = compileExpression(jexlExpression.getSourceText(), context.attributeIndexes, jexlEngine.getArithmetic());
+        }
+        context.setDataRow(dataRow);
 
+        if (compiledExpression != null) {
+            try {
+                Object result = compiledExpression.evaluate(context);
+                if (result != null) {
+                    return result;
+                }
+            } catch (RuntimeException e) {
+                // Evaluate JEXL expression to get the same error
+            }
+        }
         return jexlExpression.evaluate(context);
     }
 
@@ -52,32 +81,130 @@ public class DataTransferTransformerExpression implements IDataTransferAttribute
             if (expr == null) {
                 throw new DBCException("Expression property not specified");
             }
-            jexlExpression = DBVUtils.parseExpression(expr);
+            jexlEngine = DBVUtils.createExpressionEngine();
+            jexlExpression = jexlEngine.createExpression(expr);
         }
 
         return jexlExpression;
     }
 
-    private static class VariablesContext implements JexlContext {
+    /**
+     * Compiles expression consisting of variables and literals combined with operators of the same precedence.
+     * Returns null if expression is more complex.
+     */
+    @Nullable
+    static CompiledExpression compileExpression(
+        @NotNull String expression,
+        @NotNull Map<String, Integer> attributeIndexes,
+        @NotNull JexlArithmetic arithmetic
+    ) {
+        ExpressionTokenizer tokenizer = new ExpressionTokenizer(expression);
+        CompiledExpression result = compileOperand(tokenizer, attributeIndexes);
+        if (result == null) {
+            return null;
+        }
+        char precedenceGroup = 0;
+        for (char operator = tokenizer.nextOperator(); operator != ExpressionTokenizer.END; operator = tokenizer.nextOperator()) {
+            char group = operator == '+' || operator == '-' ? '+' : '*';
+            if (operator == 0 || (precedenceGroup != 0 && group != precedenceGroup)) {
+                return null;
+            }
+            precedenceGroup = group;
+            CompiledExpression left = result;
+            CompiledExpression right = compileOperand(tokenizer, attributeIndexes);
+            if (right == null) {
+                return null;
+            }
+            result = makeOperation(operator, left, right, arithmetic);
+        }
+        return result;
+    }
+
+    @Nullable
+    private static CompiledExpression compileOperand(@NotNull ExpressionTokenizer tokenizer, @NotNull Map<String, Integer> attributeIndexes) {
+        Object token = tokenizer.nextOperand();
+        if (token instanceof ExpressionTokenizer.Identifier) {
+            Integer index = attributeIndexes.get(((ExpressionTokenizer.Identifier) token).name);
+            if (index == null) {
+                return null;
+            }
+            int attributeIndex = index;
+            return context -> context.getValue(attributeIndex);
+        } else if (token != null) {
+            return context -> token;
+        }
+        return null;
+    }
+
+    @NotNull
+    private static CompiledExpression makeOperation(char operator, CompiledExpression left, CompiledExpression right, JexlArithmetic arithmetic) {
+        return context -> {
+            Object leftValue = left.evaluate(context);
+            if (leftValue == null) {
+                return null;
+            }
+            Object rightValue = right.evaluate(context);
+            if (rightValue == null) {
+                return null;
+            }
+            switch (operator) {
+                case '+':
+                    return arithmetic.add(leftValue, rightValue);
+                case '-':
+                    return arithmetic.subtract(leftValue, rightValue);
+                case '*':
+                    return arithmetic.multiply(leftValue, rightValue);
+                case '/':
+                    return arithmetic.divide(leftValue, rightValue);
+                default:
+                    return arithmetic.mod(leftValue, rightValue);
+            }
+        };
+    }
+
+    @FunctionalInterface
+    interface CompiledExpression {
+        /**
+         * Returns expression value or null if it can't be evaluated without JEXL
+         */
+        @Nullable
+        Object evaluate(@NotNull VariablesContext context);
+    }
+
+    static class VariablesContext implements JexlContext {
 
-        private final DBCSession session;
-        private final DBDAttributeBinding[] dataAttributes;
-        private final Object[] dataRow;
+        private DBDAttributeBinding[] dataAttributes;
+        private final Map<String, Integer> attributeIndexes = new HashMap<>();
+        private Object[] dataRow;
 
-        public VariablesContext(DBCSession session, DBDAttributeBinding[] dataAttributes, Object[] dataRow) {
-            this.session = session;
+        /**
+         * Returns true if attributes were changed
+         */
+        boolean setAttributes(@NotNull DBDAttributeBinding[] dataAttributes) {
+            if (this.dataAttributes == dataAttributes) {
+                return false;
+            }
             this.dataAttributes = dataAttributes;
+            attributeIndexes.clear();
+            for (int i = 0; i < dataAttributes.length; i++) {
+                attributeIndexes.putIfAbsent(dataAttributes[i].getName(), i);
+            }
+            return true;
+        }
+
+        void setDataRow(@NotNull Object[] dataRow) {
             this.dataRow = dataRow;
         }
 
+        @Nullable
+        Object getValue(int index) {
+            return DBUtils.getAttributeValue(dataAttributes[index], dataAttributes, dataRow);
+        }
+
         @Override
         public Object get(String s) {
-            for (int i = 0; i < dataAttributes.length; i++) {
-                if (dataAttributes[i].getName().equals(s)) {
-                    return DBUtils.getAttributeValue(dataAttributes[i], dataAttributes, dataRow);
-                }
-            }
-            return null;
+            Integer index = attributeIndexes.get(s);
+            return index == null ? null : getValue(index);
         }
 
         @Override
@@ -91,4 +218,87 @@ public class DataTransferTransformerExpression implements IDataTransferAttribute
         }
     }
 
+    private static class ExpressionTokenizer {
+        static final char END = (char) -1;
+
+        static class Identifier {
+            final String name;
+
+            Identifier(String name) {
+                this.name = name;
+            }
+        }
+
+        private final String text;
+        private int pos;
+
+        ExpressionTokenizer(String text) {
+            this.text = text;
+        }
+
+        private void skipSpaces() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        /**
+         * Returns operator character, END at the end of text or 0 for anything else
+         */
+        char nextOperator() {
+            skipSpaces();
+            if (pos >= text.length()) {
+                return END;
+            }
+            char c = text.charAt(pos++);
+            return "+-*/%".indexOf(c) >= 0 ? c : 0;
+        }
+
+        /**
+         * Returns identifier, literal value or null if there is no supported operand
+         */
+        @Nullable
+        Object nextOperand() {
+            skipSpaces();
+            if (pos >= text.length()) {
+                return null;
+            }
+            int start = pos;
+            char c = text.charAt(pos);
+            if (Character.isJavaIdentifierStart(c)) {
+                while (pos < text.length() && Character.isJavaIdentifierPart(text.charAt(pos))) {
+                    pos++;
+                }
+                String name = text.substring(start, pos);
+                return RESERVED_WORDS.contains(name) ? null : new Identifier(name);
+            } else if (Character.isDigit(c)) {
+                while (pos < text.length() && (Character.isDigit(text.charAt(pos)) || text.charAt(pos) == '.')) {
+                    pos++;
+                }
+                if (pos < text.length() && Character.isJavaIdentifierPart(text.charAt(pos))) {
+                    // Typed literal or hex number
+                    return null;
+                }
+                String number = text.substring(start, pos);
+                try {
+                    if (number.indexOf('.') >= 0) {
+                        return Double.valueOf(number);
+                    }
+                    long value = Long.parseLong(number);
+                    return value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE ? (Object) (int) value : (Object) value;
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            } else if (c == '\'' || c == '"') {
+                int end = text.indexOf(c, pos + 1);
+                if (end < 0 || text.lastIndexOf('\\', end) > pos) {
+                    return null;
+                }
+                pos = end + 1;
+                return text.substring(start + 1, end);
+            }
+            return null;
+        }
+    }
+
 }
@@ -24,4 +24,7 @@ public class ClickhouseConstants {
     public static final String SSL_MODE = "sslmode"; //$NON-NLS-1$
 
     public static final String SSL_ROOT_CERTIFICATE = "sslrootcert"; //$NON-NLS-1$
+
+    public static final String PROP_BULK_INSERT_BLOCK_SIZE = "bulk-insert-block-size"; //$NON-NLS-1$
+    public static final int DEFAULT_BULK_INSERT_BLOCK_SIZE = 100_000;
 }
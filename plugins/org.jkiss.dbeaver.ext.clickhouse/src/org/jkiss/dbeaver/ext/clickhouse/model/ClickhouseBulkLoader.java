@@ -0,0 +1,241 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.clickhouse.model;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ext.clickhouse.ClickhouseConstants;
+import org.jkiss.dbeaver.ext.generic.model.GenericTableBase;
+import org.jkiss.dbeaver.ext.generic.model.GenericTableColumn;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDCollection;
+import org.jkiss.dbeaver.model.data.DBDContent;
+import org.jkiss.dbeaver.model.data.DBDValue;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCExecutionSource;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.exec.DBCStatistics;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.jkiss.dbeaver.model.struct.DBSDataBulkLoader;
+import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+import org.jkiss.dbeaver.utils.ContentUtils;
+import org.jkiss.utils.ArrayUtils;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bulk loader which sends big blocks of rows in RowBinary format.
+ * <p>
+ * ClickHouse creates a new data part for each insert, so rows are accumulated until the block size
+ * ({@link ClickhouseConstants#PROP_BULK_INSERT_BLOCK_SIZE}) is reached, regardless of commit batches.
+ * Blocks are sent with {@code INSERT ... FORMAT RowBinary} through the stream insert API of the driver:
+ * a stream parameter of the prepared statement for com.clickhouse driver or
+ * the statement writer (with reflection) for legacy ru.yandex driver.
+ */
+public class ClickhouseBulkLoader implements DBSDataBulkLoader, DBSDataBulkLoader.BulkLoadManager {
+
+    private static final Log log = Log.getLog(ClickhouseBulkLoader.class);
+
+    private static final String LEGACY_DRIVER_PACKAGE = "ru.yandex.clickhouse.";
+    private static final String LEGACY_FORMAT_CLASS = "ru.yandex.clickhouse.domain.ClickHouseFormat";
+    private static final String FORMAT_ROW_BINARY = "RowBinary";
+    // Send block earlier if it becomes too big
+    private static final int MAX_BLOCK_BYTES = 256 * 1024 * 1024;
+
+    private final ClickhouseDataSource dataSource;
+    private GenericTableBase table;
+    private int[] srcPositions;
+    private ClickhouseRowBinaryEncoder encoder;
+    private String insertQuery;
+    private int blockSize;
+    private int blockRows;
+    private Object[] rowValues;
+    private final DBCStatistics statistics = new DBCStatistics();
+
+    public ClickhouseBulkLoader(ClickhouseDataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @NotNull
+    @Override
+    public BulkLoadManager createBulkLoad(
+        @NotNull DBCSession session,
+        @NotNull DBSDataContainer dataContainer,
+        @NotNull DBSAttributeBase[] attributes,
+        @NotNull DBCExecutionSource source,
+        int batchSize,
+        Map<String, Object> options) throws DBCException
+    {
+        this.table = (GenericTableBase) dataContainer;
+        Object blockSizeOption = options == null ? null : options.get(ClickhouseConstants.PROP_BULK_INSERT_BLOCK_SIZE);
+        if (blockSizeOption == null) {
+            blockSizeOption = dataSource.getContainer().getConnectionConfiguration().getProviderProperty(ClickhouseConstants.PROP_BULK_INSERT_BLOCK_SIZE);
+        }
+        this.blockSize = Math.max(1, CommonUtils.toInt(blockSizeOption, ClickhouseConstants.DEFAULT_BULK_INSERT_BLOCK_SIZE));
+
+        List<GenericTableColumn> columns = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        try {
+            for (GenericTableColumn attr : CommonUtils.safeCollection(table.getAttributes(session.getProgressMonitor()))) {
+                int srcPos = ArrayUtils.indexOf(attributes, attr);
+                if (srcPos >= 0) {
+                    columns.add(attr);
+                    positions.add(srcPos);
+                }
+            }
+        } catch (Exception e) {
+            throw new DBCException("Can't read table columns", e);
+        }
+        String[] columnTypes = new String[columns.size()];
+        StringBuilder query = new StringBuilder();
+        query.append("INSERT INTO ").append(table.getFullyQualifiedName(DBPEvaluationContext.DML)).append(" (");
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                query.append(",");
+            }
+            query.append(DBUtils.getQuotedIdentifier(columns.get(i)));
+            columnTypes[i] = columns.get(i).getFullTypeName();
+        }
+        query.append(")");
+        insertQuery = query.toString();
+        srcPositions = positions.stream().mapToInt(Integer::intValue).toArray();
+        rowValues = new Object[srcPositions.length];
+        try {
+            encoder = new ClickhouseRowBinaryEncoder(columnTypes);
+        } catch (IllegalArgumentException e) {
+            throw new DBCException("Can't use bulk insert for table " + table.getName() + ": " + e.getMessage(), e);
+        }
+        return this;
+    }
+
+    @Nullable
+    @Override
+    public DBCStatistics getStatistics() {
+        return statistics;
+    }
+
+    @Override
+    public void addRow(@NotNull DBCSession session, @NotNull Object[] attributeValues) throws DBCException {
+        for (int i = 0; i < srcPositions.length; i++) {
+            Object value = attributeValues[srcPositions[i]];
+            if (DBUtils.isNullValue(value)) {
+                value = null;
+            } else if (value instanceof DBDContent) {
+                value = ContentUtils.getContentStringValue(session.getProgressMonitor(), (DBDContent) value);
+            } else if (value instanceof DBDValue && !(value instanceof DBDCollection)) {
+                value = ((DBDValue) value).getRawValue();
+            }
+            rowValues[i] = value;
+        }
+        try {
+            encoder.writeRow(rowValues);
+        } catch (RuntimeException e) {
+            throw new DBCException("Can't encode row for bulk insert: " + e.getMessage(), e);
+        }
+        blockRows++;
+        if (blockRows >= blockSize || encoder.getOutput().size() >= MAX_BLOCK_BYTES) {
+            sendBlock(session);
+        }
+    }
+
+    @Override
+    public void flushRows(@NotNull DBCSession session) throws DBCException {
+        // ClickHouse has no transactions. Keep accumulating rows until the block is full.
+    }
+
+    @Override
+    public long getPendingRowCount() {
+        return blockRows;
+    }
+
+    @Override
+    public void finishBulkLoad(@NotNull DBCSession session) throws DBCException {
+        sendBlock(session);
+        log.debug("Bulk insert into " + table.getName() + " finished (" + statistics.getRowsUpdated() + " rows)");
+    }
+
+    @Override
+    public void close() {
+        encoder.getOutput().reset();
+        blockRows = 0;
+    }
+
+    private void sendBlock(@NotNull DBCSession session) throws DBCException {
+        if (blockRows == 0) {
+            return;
+        }
+        session.getProgressMonitor().subTask("Insert block of " + blockRows + " rows into " + table.getName());
+        long startTime = System.currentTimeMillis();
+        ClickhouseRowBinaryEncoder.Output output = encoder.getOutput();
+        InputStream data = new ByteArrayInputStream(output.getBuffer(), 0, output.size());
+        try {
+            Connection connection = ((JDBCSession) session).getOriginal();
+            if (connection.getClass().getName().startsWith(LEGACY_DRIVER_PACKAGE)) {
+                sendLegacy(connection, data);
+            } else {
+                try (PreparedStatement dbStat = connection.prepareStatement(insertQuery + " FORMAT " + FORMAT_ROW_BINARY)) {
+                    try {
+                        dbStat.setObject(1, data);
+                    } catch (SQLFeatureNotSupportedException e) {
+                        dbStat.setBinaryStream(1, data);
+                    }
+                    dbStat.executeUpdate();
+                }
+            }
+            statistics.addRowsUpdated(blockRows);
+            statistics.addStatementsCount();
+            statistics.addExecuteTime(System.currentTimeMillis() - startTime);
+        } catch (SQLException e) {
+            throw new DBCException(e, session.getExecutionContext());
+        } catch (Throwable e) {
+            if (e instanceof InvocationTargetException) {
+                e = ((InvocationTargetException) e).getTargetException();
+            }
+            throw new DBCException("Error sending data block to ClickHouse", e);
+        } finally {
+            output.reset();
+            blockRows = 0;
+        }
+    }
+
+    private void sendLegacy(@NotNull Connection connection, @NotNull InputStream data) throws Exception {
+        // statement.write().send(sql, data, ClickHouseFormat.RowBinary)
+        ClassLoader driverClassLoader = connection.getClass().getClassLoader();
+        Class<?> formatClass = Class.forName(LEGACY_FORMAT_CLASS, true, driverClassLoader);
+        Object format = formatClass.getField(FORMAT_ROW_BINARY).get(null);
+        try (Statement dbStat = connection.createStatement()) {
+            Object writer = dbStat.getClass().getMethod("write").invoke(dbStat);
+            Method sendMethod = writer.getClass().getMethod("send", String.class, InputStream.class, formatClass);
+            sendMethod.invoke(writer, insertQuery, data, format);
+        }
+    }
+}
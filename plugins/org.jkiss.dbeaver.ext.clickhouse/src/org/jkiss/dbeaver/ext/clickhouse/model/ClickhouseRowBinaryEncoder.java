@@ -0,0 +1,605 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.clickhouse.model;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.data.DBDCollection;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
+import java.time.*;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Encoder of rows in ClickHouse RowBinary format.
+ * <p>
+ * Each column is described by a writer created from the full ClickHouse type name, e.g. {@code Nullable(Decimal(18, 4))}.
+ * Values are written in little-endian byte order, strings are prefixed by LEB128 length.
+ * Null values of non-nullable columns are written as type defaults, as the server does for regular inserts.
+ */
+class ClickhouseRowBinaryEncoder {
+
+    private static final Pattern ENUM_ENTRY_PATTERN = Pattern.compile("'((?:[^'\\\\]|\\\\.)*)'\\s*=\\s*(-?\\d+)");
+
+    private final Output output = new Output();
+
+    /**
+     * Byte buffer with little-endian primitives
+     */
+    static class Output extends ByteArrayOutputStream {
+
+        Output() {
+            super(64 * 1024);
+        }
+
+        byte[] getBuffer() {
+            return buf;
+        }
+
+        void writeFixed(long value, int width) {
+            for (int i = 0; i < width; i++) {
+                write((int) (value >>> (i * 8)));
+            }
+        }
+
+        void writeBigInteger(@NotNull BigInteger value, int width) {
+            byte[] bigEndian = value.toByteArray();
+            if (bigEndian.length > width + (value.signum() >= 0 && bigEndian[0] == 0 ? 1 : 0)) {
+                throw new ArithmeticException("Value " + value + " is out of " + width * 8 + "-bit integer range");
+            }
+            int fill = value.signum() < 0 ? 0xFF : 0;
+            for (int i = 0; i < width; i++) {
+                write(i < bigEndian.length ? bigEndian[bigEndian.length - 1 - i] : fill);
+            }
+        }
+
+        void writeVarInt(long value) {
+            while ((value & ~0x7FL) != 0) {
+                write((int) ((value & 0x7F) | 0x80));
+                value >>>= 7;
+            }
+            write((int) value);
+        }
+
+        void writeString(@NotNull byte[] bytes) {
+            writeVarInt(bytes.length);
+            write(bytes, 0, bytes.length);
+        }
+
+        void writeZeros(int count) {
+            for (int i = 0; i < count; i++) {
+                write(0);
+            }
+        }
+    }
+
+    /**
+     * Column value writer
+     */
+    abstract static class TypeWriter {
+        abstract void write(@NotNull Output out, @NotNull Object value);
+
+        abstract void writeDefault(@NotNull Output out);
+
+        void writeValue(@NotNull Output out, @Nullable Object value) {
+            if (value == null) {
+                writeDefault(out);
+            } else {
+                write(out, value);
+            }
+        }
+    }
+
+    private final TypeWriter[] writers;
+
+    ClickhouseRowBinaryEncoder(@NotNull String[] columnTypes) {
+        writers = new TypeWriter[columnTypes.length];
+        for (int i = 0; i < columnTypes.length; i++) {
+            writers[i] = createWriter(columnTypes[i]);
+        }
+    }
+
+    @NotNull
+    Output getOutput() {
+        return output;
+    }
+
+    void writeRow(@NotNull Object[] values) {
+        for (int i = 0; i < writers.length; i++) {
+            writers[i].writeValue(output, values[i]);
+        }
+    }
+
+    /**
+     * Creates writer for the full type name.
+     * @throws IllegalArgumentException if type is not supported
+     */
+    @NotNull
+    static TypeWriter createWriter(@NotNull String fullTypeName) {
+        String type = fullTypeName.trim();
+        String name = type;
+        List<String> args = Collections.emptyList();
+        int divPos = type.indexOf('(');
+        if (divPos > 0 && type.endsWith(")")) {
+            name = type.substring(0, divPos).trim();
+            args = splitArguments(type.substring(divPos + 1, type.length() - 1));
+        }
+        switch (name) {
+            case "Nullable":
+                return new NullableWriter(createWriter(args.get(0)));
+            case "LowCardinality":
+                return createWriter(args.get(0));
+            case "Array":
+                return new ArrayWriter(createWriter(args.get(0)));
+            case "Bool":
+            case "Int8":
+            case "UInt8":
+                return new IntWriter(1);
+            case "Int16":
+            case "UInt16":
+                return new IntWriter(2);
+            case "Int32":
+            case "UInt32":
+                return new IntWriter(4);
+            case "Int64":
+            case "UInt64":
+                return new IntWriter(8);
+            case "Int128":
+            case "UInt128":
+                return new IntWriter(16);
+            case "Int256":
+            case "UInt256":
+                return new IntWriter(32);
+            case "Float32":
+                return new FloatWriter(false);
+            case "Float64":
+                return new FloatWriter(true);
+            case "Decimal": {
+                int precision = Integer.parseInt(args.get(0).trim());
+                int scale = args.size() > 1 ? Integer.parseInt(args.get(1).trim()) : 0;
+                return new DecimalWriter(precision <= 9 ? 4 : precision <= 18 ? 8 : precision <= 38 ? 16 : 32, scale);
+            }
+            case "Decimal32":
+                return new DecimalWriter(4, Integer.parseInt(args.get(0).trim()));
+            case "Decimal64":
+                return new DecimalWriter(8, Integer.parseInt(args.get(0).trim()));
+            case "Decimal128":
+                return new DecimalWriter(16, Integer.parseInt(args.get(0).trim()));
+            case "Decimal256":
+                return new DecimalWriter(32, Integer.parseInt(args.get(0).trim()));
+            case "String":
+                return new StringWriter(-1);
+            case "FixedString":
+                return new StringWriter(Integer.parseInt(args.get(0).trim()));
+            case "UUID":
+                return new UUIDWriter();
+            case "Date":
+                return new DateWriter(2);
+            case "Date32":
+                return new DateWriter(4);
+            case "DateTime":
+                return new DateTimeWriter(-1, args.isEmpty() ? null : unquote(args.get(0)));
+            case "DateTime64":
+                return new DateTimeWriter(Integer.parseInt(args.get(0).trim()), args.size() > 1 ? unquote(args.get(1)) : null);
+            case "Enum8":
+            case "Enum16":
+                return new EnumWriter(name.equals("Enum8") ? 1 : 2, parseEnumEntries(type));
+            case "IPv4":
+                return new InetWriter(4);
+            case "IPv6":
+                return new InetWriter(16);
+            default:
+                throw new IllegalArgumentException("Type " + fullTypeName + " is not supported in RowBinary format");
+        }
+    }
+
+    @NotNull
+    static List<String> splitArguments(@NotNull String args) {
+        List<String> result = new ArrayList<>();
+        int depth = 0, start = 0;
+        boolean quoted = false;
+        for (int i = 0; i < args.length(); i++) {
+            char c = args.charAt(i);
+            if (quoted) {
+                if (c == '\\') {
+                    i++;
+                } else if (c == '\'') {
+                    quoted = false;
+                }
+            } else if (c == '\'') {
+                quoted = true;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == ',' && depth == 0) {
+                result.add(args.substring(start, i).trim());
+                start = i + 1;
+            }
+        }
+        result.add(args.substring(start).trim());
+        return result;
+    }
+
+    @NotNull
+    private static String unquote(@NotNull String str) {
+        str = str.trim();
+        if (str.length() >= 2 && str.startsWith("'") && str.endsWith("'")) {
+            return str.substring(1, str.length() - 1);
+        }
+        return str;
+    }
+
+    @NotNull
+    static Map<String, Integer> parseEnumEntries(@NotNull String type) {
+        Map<String, Integer> entries = new LinkedHashMap<>();
+        Matcher matcher = ENUM_ENTRY_PATTERN.matcher(type);
+        while (matcher.find()) {
+            entries.put(matcher.group(1).replaceAll("\\\\(.)", "$1"), Integer.parseInt(matcher.group(2)));
+        }
+        return entries;
+    }
+
+    @NotNull
+    private static BigInteger toBigInteger(@NotNull Object value) {
+        if (value instanceof BigInteger) {
+            return (BigInteger) value;
+        } else if (value instanceof BigDecimal) {
+            return ((BigDecimal) value).toBigIntegerExact();
+        } else if (value instanceof Boolean) {
+            return (Boolean) value ? BigInteger.ONE : BigInteger.ZERO;
+        } else if (value instanceof Number) {
+            return BigInteger.valueOf(((Number) value).longValue());
+        }
+        return new BigDecimal(value.toString().trim()).toBigIntegerExact();
+    }
+
+    @NotNull
+    private static Instant toInstant(@NotNull Object value, @NotNull ZoneId zone) {
+        if (value instanceof java.sql.Timestamp) {
+            return ((java.sql.Timestamp) value).toInstant();
+        } else if (value instanceof java.sql.Date) {
+            return ((java.sql.Date) value).toLocalDate().atStartOfDay(zone).toInstant();
+        } else if (value instanceof java.util.Date) {
+            return ((java.util.Date) value).toInstant();
+        } else if (value instanceof Instant) {
+            return (Instant) value;
+        } else if (value instanceof OffsetDateTime) {
+            return ((OffsetDateTime) value).toInstant();
+        } else if (value instanceof ZonedDateTime) {
+            return ((ZonedDateTime) value).toInstant();
+        } else if (value instanceof LocalDateTime) {
+            return ((LocalDateTime) value).atZone(zone).toInstant();
+        } else if (value instanceof LocalDate) {
+            return ((LocalDate) value).atStartOfDay(zone).toInstant();
+        } else if (value instanceof Number) {
+            return Instant.ofEpochSecond(((Number) value).longValue());
+        }
+        return java.sql.Timestamp.valueOf(value.toString().trim()).toLocalDateTime().atZone(zone).toInstant();
+    }
+
+    private static class NullableWriter extends TypeWriter {
+        private final TypeWriter valueWriter;
+
+        NullableWriter(TypeWriter valueWriter) {
+            this.valueWriter = valueWriter;
+        }
+
+        @Override
+        void write(@NotNull Output out, @NotNull Object value) {
+            out.write(0);
+            valueWriter.write(out, value);
+        }
+
+        @Override
+        void writeDefault(@NotNull Output out) {
+            out.write(1);
+        }
+    }
+
+    private static class ArrayWriter extends TypeWriter {
+        private final TypeWriter itemWriter;
+
+        ArrayWriter(TypeWriter itemWriter) {
+            this.itemWriter = itemWriter;
+        }
+
+        @Override
+        void write(@NotNull Output out, @NotNull Object value) {
+            List<Object> items = new ArrayList<>();
+            if (value instanceof DBDCollection) {
+                DBDCollection collection = (DBDCollection) value;
+                for (int i = 0; i < collection.getItemCount(); i++) {
+                    items.add(collection.getItem(i));
+                }
+            } else if (value instanceof java.sql.Array) {
+                try {
+                    value = ((java.sql.Array) value).getArray();
+                } catch (SQLException e) {
+                    throw new IllegalArgumentException("Can't read array value", e);
+                }
+            }
+            if (value instanceof Collection) {
+                items.addAll((Collection<?>) value);
+            } else if (value != null && value.getClass().isArray()) {
+                int length = java.lang.reflect.Array.getLength(value);
+                for (int i = 0; i < length; i++) {
+                    items.add(java.lang.reflect.Array.get(value, i));
+                }
+            } else if (!(value instanceof DBDCollection)) {
+                throw new IllegalArgumentException("Value of type " + value.getClass().getName() + " is not an array");
+            }
+            out.writeVarInt(items.size());
+            for (Object item : items) {
+                itemWriter.writeValue(out, item);
+            }
+        }
+
+        @Override
+        void writeDefault(@NotNull Output out) {
+            out.writeVarInt(0);
+        }
+    }
+
+    private static class IntWriter extends TypeWriter {
+        private final int width;
+
+        IntWriter(int width) {
+            this.width = width;
+        }
+
+        @Override
+        void write(@NotNull Output out, @NotNull Object value) {
+            if (width <= 8 && (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte)) {
+                out.writeFixed(((Number) value).longValue(), width);
+            } else if (width <= 8 && value instanceof Boolean) {
+                out.writeFixed((Boolean) value ? 1 : 0, width);
+            } else {
+                out.writeBigInteger(toBigInteger(value), width);
+            }
+        }
+
+        @Override
+        void writeDefault(@NotNull Output out) {
+            out.writeZeros(width);
+        }
+    }
+
+    private static class FloatWriter extends TypeWriter {
+        private final boolean isDouble;
+
+        FloatWriter(boolean isDouble) {
+            this.isDouble = isDouble;
+        }
+
+        @Override
+        void write(@NotNull Output out, @NotNull Object value) {
+            double doubleValue = value instanceof Number ? ((Number) value).doubleValue() : Double.parseDouble(value.toString().trim());
+            if (isDouble) {
+                out.writeFixed(Double.doubleToLongBits(doubleValue), 8);
+            } else {
+                out.writeFixed(Float.floatToIntBits((float) doubleValue), 4);
+            }
+        }
+
+        @Override
+        void writeDefault(@NotNull Output out) {
+            out.writeZeros(isDouble ? 8 : 4);
+        }
+    }
+
+    private static class DecimalWriter extends TypeWriter {
+        private final int width;
+        private final int scale;
+
+        DecimalWriter(int width, int scale) {
+            this.width = width;
+            this.scale = scale;
+        }
+
+        @Override
+        void write(@NotNull Output out, @NotNull Object value) {
+            BigDecimal decimal = value instanceof BigDecimal ? (BigDecimal) value : new BigDecimal(value.toString().trim());
+            out.writeBigInteger(decimal.setScale(scale, RoundingMode.HALF_UP).unscaledValue(), width);
+        }
+
+        @Override
+        void writeDefault(@NotNull Output out) {
+            out.writeZeros(width);
+        }
+    }
+
+    private static class StringWriter extends TypeWriter {
+        private final int fixedLength;
+
+        StringWriter(int fixedLength) {
+            this.fixedLength = fixedLength;
+        }
+
+        @Override
+        void write(@NotNull Output out, @NotNull Object value) {
+            byte[] bytes = value instanceof byte[] ? (byte[]) value : value.toString().getBytes(StandardCharsets.UTF_8);
+            if (fixedLength < 0) {
+                out.writeString(bytes);
+            } else {
+                if (bytes.length > fixedLength) {
+                    throw new IllegalArgumentException("Value is too long for FixedString(" + fixedLength + ")");
+                }
+                out.write(bytes, 0, bytes.length);
+                out.writeZeros(fixedLength - bytes.length);
+            }
+        }
+
+        @Override
+        void writeDefault(@NotNull Output out) {
+            if (fixedLength < 0) {
+                out.writeVarInt(0);
+            } else {
+                out.writeZeros(fixedLength);
+            }
+        }
+    }
+
+    private static class UUIDWriter extends TypeWriter {
+        @Override
+        void write(@NotNull Output out, @NotNull Object value) {
+            UUID uuid = value instanceof UUID ? (UUID) value : UUID.fromString(value.toString().trim());
+            out.writeFixed(uuid.getMostSignificantBits(), 8);
+            out.writeFixed(uuid.getLeastSignificantBits(), 8);
+        }
+
+        @Override
+        void writeDefault(@NotNull Output out) {
+            out.writeZeros(16);
+        }
+    }
+
+    private static class DateWriter extends TypeWriter {
+        private final int width;
+
+        DateWriter(int width) {
+            this.width = width;
+        }
+
+        @Override
+        void write(@NotNull Output out, @NotNull Object value) {
+            LocalDate date;
+            if (value instanceof java.sql.Date) {
+                date = ((java.sql.Date) value).toLocalDate();
+            } else if (value instanceof LocalDate) {
+                date = (LocalDate) value;
+            } else if (value instanceof String) {
+                date = LocalDate.parse(((String) value).trim());
+            } else {
+                date = LocalDateTime.ofInstant(toInstant(value, ZoneId.systemDefault()), ZoneId.systemDefault()).toLocalDate();
+            }
+            out.writeFixed(date.toEpochDay(), width);
+        }
+
+        @Override
+        void writeDefault(@NotNull Output out) {
+            out.writeZeros(width);
+        }
+    }
+
+    private static class DateTimeWriter extends TypeWriter {
+        private final int precision;
+        private final ZoneId zone;
+
+        DateTimeWriter(int precision, @Nullable String timeZone) {
+            this.precision = precision;
+            this.zone = timeZone == null || timeZone.isEmpty() ? ZoneId.systemDefault() : ZoneId.of(timeZone);
+        }
+
+        @Override
+        void write(@NotNull Output out, @NotNull Object value) {
+            Instant instant = toInstant(value, zone);
+            if (precision < 0) {
+                out.writeFixed(instant.getEpochSecond(), 4);
+            } else {
+                long ticks = Math.addExact(
+                    Math.multiplyExact(instant.getEpochSecond(), BigInteger.TEN.pow(precision).longValueExact()),
+                    instant.getNano() / BigInteger.TEN.pow(9 - Math.min(precision, 9)).longValueExact());
+                out.writeFixed(ticks, 8);
+            }
+        }
+
+        @Override
+        void writeDefault(@NotNull Output out) {
+            out.writeZeros(precision < 0 ? 4 : 8);
+        }
+    }
+
+    private static class EnumWriter extends TypeWriter {
+        private final int width;
+        private final Map<String, Integer> entries;
+
+        EnumWriter(int width, Map<String, Integer> entries) {
+            this.width = width;
+            this.entries = entries;
+        }
+
+        @Override
+        void write(@NotNull Output out, @NotNull Object value) {
+            if (value instanceof Number) {
+                out.writeFixed(((Number) value).longValue(), width);
+                return;
+            }
+            Integer code = entries.get(value.toString());
+            if (code == null) {
+                throw new IllegalArgumentException("Unknown enum value '" + value + "'");
+            }
+            out.writeFixed(code, width);
+        }
+
+        @Override
+        void writeDefault(@NotNull Output out) {
+            out.writeFixed(entries.isEmpty() ? 0 : entries.values().iterator().next(), width);
+        }
+    }
+
+    private static class InetWriter extends TypeWriter {
+        private final int width;
+
+        InetWriter(int width) {
+            this.width = width;
+        }
+
+        @Override
+        void write(@NotNull Output out, @NotNull Object value) {
+            byte[] address;
+            if (value instanceof InetAddress) {
+                address = ((InetAddress) value).getAddress();
+            } else {
+                try {
+                    address = InetAddress.getByName(value.toString().trim()).getAddress();
+                } catch (UnknownHostException e) {
+                    throw new IllegalArgumentException("Bad IP address '" + value + "'", e);
+                }
+            }
+            if (width == 4) {
+                if (address.length != 4) {
+                    throw new IllegalArgumentException("Bad IPv4 address '" + value + "'");
+                }
+                // Stored as UInt32
+                out.writeFixed(((address[0] & 0xFFL) << 24) | ((address[1] & 0xFFL) << 16) | ((address[2] & 0xFFL) << 8) | (address[3] & 0xFFL), 4);
+            } else {
+                if (address.length == 4) {
+                    // IPv4-mapped IPv6 address
+                    out.writeZeros(10);
+                    out.write(0xFF);
+                    out.write(0xFF);
+                }
+                out.write(address, 0, address.length);
+            }
+        }
+
+        @Override
+        void writeDefault(@NotNull Output out) {
+            out.writeZeros(width);
+        }
+    }
+}
@@ -99,6 +99,9 @@ public class SQLServerConstants {
     public static final String PROP_SHOW_ALL_DATABASES = "show-all-databases-azure";
     public static final String PROP_SHOW_ALL_SCHEMAS = DBConstants.INTERNAL_PROP_PREFIX + "show-all-schemas@";
     public static final String PROP_ENCRYPT_PASSWORD = DBConstants.INTERNAL_PROP_PREFIX + "encrypt-password@";
+    public static final String PROP_BULK_COPY_BATCH_SIZE = DBConstants.INTERNAL_PROP_PREFIX + "bulk-copy-batch-size@";
+    public static final String PROP_BULK_COPY_TABLE_LOCK = DBConstants.INTERNAL_PROP_PREFIX + "bulk-copy-table-lock@";
+    public static final String PROP_BULK_COPY_CHECK_CONSTRAINTS = DBConstants.INTERNAL_PROP_PREFIX + "bulk-copy-check-constraints@";
 
     public static final String PROP_CONNECTION_INTEGRATED_SECURITY = "integratedSecurity";
     public static final String PROP_CONNECTION_AUTHENTICATION = "authentication";
@@ -140,6 +143,9 @@ public class SQLServerConstants {
     public static final String PROP_MS_DESCRIPTION = "MS_Description";
 
     public static final String SQL_SERVER_EXCEPTION_CLASS_NAME = "com.microsoft.sqlserver.jdbc.SQLServerException";
+    public static final String SQL_SERVER_BULK_COPY_CLASS_NAME = "com.microsoft.sqlserver.jdbc.SQLServerBulkCopy";
+    public static final String SQL_SERVER_BULK_COPY_OPTIONS_CLASS_NAME = "com.microsoft.sqlserver.jdbc.SQLServerBulkCopyOptions";
+    public static final String SQL_SERVER_BULK_RECORD_CLASS_NAME = "com.microsoft.sqlserver.jdbc.ISQLServerBulkRecord";
 
     @Deprecated
     public static final String PROP_CONNECTION_WINDOWS_AUTH = DBConstants.INTERNAL_PROP_PREFIX + "connection-windows-auth@";
@@ -0,0 +1,265 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.mssql.model;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ext.mssql.SQLServerConstants;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDContent;
+import org.jkiss.dbeaver.model.data.DBDValue;
+import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.jkiss.dbeaver.model.struct.DBSDataBulkLoader;
+import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+import org.jkiss.dbeaver.utils.ContentUtils;
+import org.jkiss.utils.ArrayUtils;
+import org.jkiss.utils.CommonUtils;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bulk loader based on SQLServerBulkCopy.
+ * <p>
+ * Rows of each commit batch are passed to the driver through {@link SQLServerBulkRecord}.
+ * Driver classes are accessed with reflection, so this works only with Microsoft JDBC driver.
+ * Batch size, table lock and check constraints options can be set in loader options or in
+ * connection provider properties ({@link SQLServerConstants#PROP_BULK_COPY_BATCH_SIZE} and others).
+ */
+public class SQLServerBulkLoader implements DBSDataBulkLoader, DBSDataBulkLoader.BulkLoadManager {
+
+    private static final Log log = Log.getLog(SQLServerBulkLoader.class);
+
+    private final SQLServerDataSource dataSource;
+    private SQLServerTableBase table;
+    private Object bulkCopy;
+    private Method writeToServerMethod;
+    private Class<?> bulkRecordClass;
+
+    private AttrMapping[] mappings;
+    private SQLServerBulkRecord.Column[] columns;
+    private final List<Object[]> rows = new ArrayList<>();
+    private final DBCStatistics statistics = new DBCStatistics();
+
+    private static class AttrMapping {
+        SQLServerTableColumn tableAttr;
+        int srcPos;
+
+        AttrMapping(SQLServerTableColumn tableAttr, int srcPos) {
+            this.tableAttr = tableAttr;
+            this.srcPos = srcPos;
+        }
+    }
+
+    public SQLServerBulkLoader(SQLServerDataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @NotNull
+    @Override
+    public BulkLoadManager createBulkLoad(
+        @NotNull DBCSession session,
+        @NotNull DBSDataContainer dataContainer,
+        @NotNull DBSAttributeBase[] attributes,
+        @NotNull DBCExecutionSource source,
+        int batchSize,
+        Map<String, Object> options) throws DBCException
+    {
+        this.table = (SQLServerTableBase) dataContainer;
+        try {
+            List<AttrMapping> attrMappings = new ArrayList<>();
+            boolean keepIdentity = false;
+            for (SQLServerTableColumn attr : CommonUtils.safeCollection(table.getAttributes(session.getProgressMonitor()))) {
+                int srcPos = ArrayUtils.indexOf(attributes, attr);
+                if (srcPos >= 0 && CommonUtils.isEmpty(attr.getComputedDefinition())) {
+                    attrMappings.add(new AttrMapping(attr, srcPos));
+                    keepIdentity |= attr.isIdentity();
+                }
+            }
+            mappings = attrMappings.toArray(new AttrMapping[0]);
+            columns = new SQLServerBulkRecord.Column[mappings.length];
+            for (int i = 0; i < mappings.length; i++) {
+                columns[i] = makeColumn(mappings[i].tableAttr);
+            }
+
+            // Use reflection to create bulk copy
+            Connection connection = ((JDBCSession) session).getOriginal();
+            ClassLoader driverClassLoader = connection.getClass().getClassLoader();
+
+            Class<?> bulkCopyClass = Class.forName(SQLServerConstants.SQL_SERVER_BULK_COPY_CLASS_NAME, true, driverClassLoader);
+            Class<?> optionsClass = Class.forName(SQLServerConstants.SQL_SERVER_BULK_COPY_OPTIONS_CLASS_NAME, true, driverClassLoader);
+            bulkRecordClass = Class.forName(SQLServerConstants.SQL_SERVER_BULK_RECORD_CLASS_NAME, true, driverClassLoader);
+
+            Object copyOptions = optionsClass.getConstructor().newInstance();
+            optionsClass.getMethod("setBatchSize", Integer.TYPE).invoke(
+                copyOptions, CommonUtils.toInt(getOption(options, SQLServerConstants.PROP_BULK_COPY_BATCH_SIZE), batchSize));
+            optionsClass.getMethod("setTableLock", Boolean.TYPE).invoke(
+                copyOptions, CommonUtils.getBoolean(getOption(options, SQLServerConstants.PROP_BULK_COPY_TABLE_LOCK), false));
+            optionsClass.getMethod("setCheckConstraints", Boolean.TYPE).invoke(
+                copyOptions, CommonUtils.getBoolean(getOption(options, SQLServerConstants.PROP_BULK_COPY_CHECK_CONSTRAINTS), true));
+            optionsClass.getMethod("setKeepIdentity", Boolean.TYPE).invoke(copyOptions, keepIdentity);
+            // Default timeout is 60 seconds which is too small for big batches
+            optionsClass.getMethod("setBulkCopyTimeout", Integer.TYPE).invoke(copyOptions, 0);
+
+            bulkCopy = bulkCopyClass.getConstructor(Connection.class).newInstance(connection);
+            bulkCopyClass.getMethod("setBulkCopyOptions", optionsClass).invoke(bulkCopy, copyOptions);
+            bulkCopyClass.getMethod("setDestinationTableName", String.class).invoke(
+                bulkCopy, table.getFullyQualifiedName(DBPEvaluationContext.DML));
+            Method addColumnMappingMethod = bulkCopyClass.getMethod("addColumnMapping", Integer.TYPE, String.class);
+            for (int i = 0; i < mappings.length; i++) {
+                addColumnMappingMethod.invoke(bulkCopy, i + 1, mappings[i].tableAttr.getName());
+            }
+            writeToServerMethod = findWriteToServerMethod(bulkCopyClass, bulkRecordClass);
+        } catch (Exception e) {
+            if (e instanceof InvocationTargetException) {
+                e = (Exception) ((InvocationTargetException) e).getTargetException();
+            }
+            throw new DBCException("Can't instantiate SQLServerBulkCopy", e);
+        }
+        return this;
+    }
+
+    @Nullable
+    @Override
+    public DBCStatistics getStatistics() {
+        return statistics;
+    }
+
+    @Override
+    public void addRow(@NotNull DBCSession session, @NotNull Object[] attributeValues) throws DBCException {
+        Object[] row = new Object[mappings.length];
+        for (int i = 0; i < mappings.length; i++) {
+            row[i] = convertValue(session.getProgressMonitor(), mappings[i].tableAttr, attributeValues[mappings[i].srcPos]);
+        }
+        rows.add(row);
+    }
+
+    @Override
+    public void flushRows(@NotNull DBCSession session) throws DBCException {
+        if (rows.isEmpty()) {
+            return;
+        }
+        session.getProgressMonitor().subTask("Bulk copy " + rows.size() + " rows into " + table.getName());
+        long startTime = System.currentTimeMillis();
+        try {
+            Object bulkRecord = new SQLServerBulkRecord(columns, rows).createProxy(bulkRecordClass);
+            writeToServerMethod.invoke(bulkCopy, bulkRecord);
+            statistics.addRowsUpdated(rows.size());
+            statistics.addStatementsCount();
+            statistics.addExecuteTime(System.currentTimeMillis() - startTime);
+        } catch (Throwable e) {
+            if (e instanceof InvocationTargetException) {
+                e = ((InvocationTargetException) e).getTargetException();
+            }
+            throw new DBCException("Error copying dataset on remote server", e);
+        } finally {
+            rows.clear();
+        }
+    }
+
+    @Override
+    public void finishBulkLoad(@NotNull DBCSession session) throws DBCException {
+        flushRows(session);
+
+        // Commit changes
+        DBCTransactionManager txnManager = DBUtils.getTransactionManager(session.getExecutionContext());
+        if (txnManager != null && !txnManager.isAutoCommit()) {
+            session.getProgressMonitor().subTask("Commit bulk copy");
+            txnManager.commit(session);
+        }
+        log.debug("Bulk copy into " + table.getName() + " finished (" + statistics.getRowsUpdated() + " rows)");
+    }
+
+    @Override
+    public void close() {
+        rows.clear();
+        if (bulkCopy != null) {
+            try {
+                bulkCopy.getClass().getMethod("close").invoke(bulkCopy);
+            } catch (Exception e) {
+                log.debug("Error closing bulk copy", e);
+            }
+            bulkCopy = null;
+        }
+    }
+
+    @Nullable
+    private Object getOption(@Nullable Map<String, Object> options, @NotNull String name) {
+        Object value = options == null ? null : options.get(name);
+        if (value == null) {
+            value = dataSource.getContainer().getConnectionConfiguration().getProviderProperty(name);
+        }
+        return value;
+    }
+
+    /**
+     * Finds writeToServer overload which accepts bulk record.
+     * Newer drivers declare it with ISQLServerBulkData parameter (super interface of ISQLServerBulkRecord).
+     */
+    @NotNull
+    static Method findWriteToServerMethod(@NotNull Class<?> bulkCopyClass, @NotNull Class<?> recordClass) throws NoSuchMethodException {
+        for (Method method : bulkCopyClass.getMethods()) {
+            if (method.getName().equals("writeToServer") && method.getParameterCount() == 1 &&
+                method.getParameterTypes()[0].isAssignableFrom(recordClass))
+            {
+                return method;
+            }
+        }
+        throw new NoSuchMethodException(bulkCopyClass.getName() + ".writeToServer(" + recordClass.getName() + ")");
+    }
+
+    @NotNull
+    static SQLServerBulkRecord.Column makeColumn(@NotNull SQLServerTableColumn attr) {
+        int precision;
+        if (attr.getDataKind() == DBPDataKind.STRING || attr.getDataKind() == DBPDataKind.BINARY ||
+            attr.getDataKind() == DBPDataKind.CONTENT)
+        {
+            long maxLength = attr.getMaxLength();
+            precision = maxLength <= 0 || maxLength > Integer.MAX_VALUE ? Integer.MAX_VALUE : (int) maxLength;
+        } else {
+            precision = CommonUtils.toInt(attr.getPrecision());
+        }
+        return new SQLServerBulkRecord.Column(attr.getName(), attr.getTypeID(), precision, CommonUtils.toInt(attr.getScale()));
+    }
+
+    @Nullable
+    static Object convertValue(@NotNull DBRProgressMonitor monitor, @NotNull SQLServerTableColumn attr, @Nullable Object value) throws DBCException {
+        if (DBUtils.isNullValue(value)) {
+            return null;
+        }
+        if (value instanceof DBDContent) {
+            if (attr.getDataKind() == DBPDataKind.BINARY || !ContentUtils.isTextContent((DBDContent) value)) {
+                return ContentUtils.getContentBinaryValue(monitor, (DBDContent) value);
+            }
+            return ContentUtils.getContentStringValue(monitor, (DBDContent) value);
+        }
+        if (value instanceof DBDValue) {
+            return ((DBDValue) value).getRawValue();
+        }
+        return value;
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.mssql.model;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Row source for SQL Server bulk copy.
+ * <p>
+ * Implements driver interface ISQLServerBulkRecord with a dynamic proxy, because driver classes
+ * are available only in the driver class loader. Rows are taken from a list of value arrays,
+ * columns are described by table attributes. Optional methods return null, only column metadata
+ * modification is rejected.
+ */
+class SQLServerBulkRecord implements InvocationHandler {
+
+    static class Column {
+        final String name;
+        final int type;
+        final int precision;
+        final int scale;
+
+        Column(@NotNull String name, int type, int precision, int scale) {
+            this.name = name;
+            this.type = type;
+            this.precision = precision;
+            this.scale = scale;
+        }
+    }
+
+    private final Column[] columns;
+    private final Iterator<Object[]> rows;
+    private Object[] currentRow;
+
+    SQLServerBulkRecord(@NotNull Column[] columns, @NotNull List<Object[]> rows) {
+        this.columns = columns;
+        this.rows = rows.iterator();
+    }
+
+    /**
+     * Creates proxy which implements the specified bulk record interface
+     */
+    @NotNull
+    Object createProxy(@NotNull Class<?> recordInterface) {
+        return Proxy.newProxyInstance(recordInterface.getClassLoader(), new Class<?>[]{ recordInterface }, this);
+    }
+
+    @Nullable
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        if (method.getDeclaringClass() == Object.class) {
+            switch (method.getName()) {
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                default:
+                    return "SQLServerBulkRecord[" + columns.length + " columns]";
+            }
+        }
+        switch (method.getName()) {
+            case "getColumnOrdinals": {
+                Set<Integer> ordinals = new LinkedHashSet<>();
+                for (int i = 1; i <= columns.length; i++) {
+                    ordinals.add(i);
+                }
+                return ordinals;
+            }
+            case "getColumnName":
+                return getColumn(args).name;
+            case "getColumnType":
+                return getColumn(args).type;
+            case "getPrecision":
+                return getColumn(args).precision;
+            case "getScale":
+                return getColumn(args).scale;
+            case "isAutoIncrement":
+                return false;
+            case "next":
+                if (rows.hasNext()) {
+                    currentRow = rows.next();
+                    return true;
+                }
+                currentRow = null;
+                return false;
+            case "getRowData":
+                return currentRow;
+            case "getColumnDateTimeFormatter":
+                // Values are passed as objects, driver formatters are used only for string values
+                return null;
+            case "setTimestampWithTimezoneFormat":
+            case "setTimeWithTimezoneFormat":
+                return null;
+            case "addColumnMetadata":
+                // Columns are defined by target table attributes
+                throw new UnsupportedOperationException("Bulk record columns can't be changed");
+            default:
+                if (!method.getReturnType().isPrimitive() || method.getReturnType() == Void.TYPE) {
+                    // Optional methods of newer drivers
+                    return null;
+                }
+                throw new UnsupportedOperationException("Bulk record method " + method.getName() + " is not supported");
+        }
+    }
+
+    @NotNull
+    private Column getColumn(Object[] args) {
+        return columns[((Number) args[0]).intValue() - 1];
+    }
+}
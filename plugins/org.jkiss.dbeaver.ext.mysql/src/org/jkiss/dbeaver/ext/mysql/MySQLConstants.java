@@ -37,6 +37,7 @@ public class MySQLConstants {
     public static final String HANDLER_SSL = "mysql_ssl";
 
     public static final String PROP_SERVER_TIMEZONE = DBConstants.INTERNAL_PROP_PREFIX + "serverTimezone@";
+    public static final String PROP_BULK_LOAD_BUFFER_SIZE = DBConstants.INTERNAL_PROP_PREFIX + "bulk-load-buffer-size@";
 
     public static final String PROP_ZERO_DATETIME_BEHAVIOR = "zeroDateTimeBehavior";
     public static final String PROP_REQUIRE_SSL = "ssl.require";
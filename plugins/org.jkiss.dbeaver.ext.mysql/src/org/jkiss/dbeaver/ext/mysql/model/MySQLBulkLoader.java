@@ -0,0 +1,461 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.mysql.model;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ext.mysql.MySQLConstants;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDContent;
+import org.jkiss.dbeaver.model.data.DBDDisplayFormat;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.gis.DBGeometry;
+import org.jkiss.dbeaver.model.impl.jdbc.JDBCUtils;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.jkiss.dbeaver.model.struct.DBSDataBulkLoader;
+import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+import org.jkiss.dbeaver.utils.ContentUtils;
+import org.jkiss.utils.ArrayUtils;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.sql.*;
+import java.time.*;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoField;
+import java.time.temporal.TemporalAccessor;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Bulk loader based on LOAD DATA LOCAL INFILE.
+ * <p>
+ * Rows are serialized as tab-separated text into a memory buffer. On each flush the buffer is passed to
+ * the driver with setLocalInfileInputStream, so data never touches the local file system.
+ * Buffer is sent earlier when it exceeds {@link MySQLConstants#PROP_BULK_LOAD_BUFFER_SIZE} bytes (16Mb by default).
+ * Temporal values are written in the connection time zone, see {@link MySQLDataSource#getConnectionTimeZone()}.
+ * Both MySQL Connector/J and MariaDB drivers are supported (methods are called with reflection).
+ * The driver must allow local infile (allowLoadLocalInfile or allowLocalInfile connection property)
+ * and the server must have local_infile variable enabled.
+ */
+public class MySQLBulkLoader implements DBSDataBulkLoader, DBSDataBulkLoader.BulkLoadManager {
+
+    private static final Log log = Log.getLog(MySQLBulkLoader.class);
+
+    private static final String SET_LOCAL_INFILE_METHOD = "setLocalInfileInputStream";
+    // Rows are sent earlier if the buffer becomes too big, whole buffer is kept in memory
+    private static final int DEFAULT_BUFFER_SIZE = 16 * 1024 * 1024;
+    private static final int MIN_BUFFER_SIZE = 64 * 1024;
+
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSSSSS", Locale.ENGLISH);
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss.SSSSSS", Locale.ENGLISH);
+
+    private final MySQLDataSource dataSource;
+    private MySQLTableBase table;
+    private AttrMapping[] mappings;
+    private String loadQuery;
+    private int maxBufferSize = DEFAULT_BUFFER_SIZE;
+    private ZoneId timeZone = ZoneId.systemDefault();
+
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(MIN_BUFFER_SIZE);
+    private final StringBuilder line = new StringBuilder();
+    private int bufferedRows;
+    private final DBCStatistics statistics = new DBCStatistics();
+
+    enum ValueKind {
+        TEXT,
+        BINARY,
+        BIT,
+        GEOMETRY,
+        YEAR,
+    }
+
+    private static class AttrMapping {
+        MySQLTableColumn tableAttr;
+        DBDValueHandler valueHandler;
+        ValueKind kind;
+        int srcPos;
+
+        AttrMapping(MySQLTableColumn tableAttr, DBDValueHandler valueHandler, ValueKind kind, int srcPos) {
+            this.tableAttr = tableAttr;
+            this.valueHandler = valueHandler;
+            this.kind = kind;
+            this.srcPos = srcPos;
+        }
+    }
+
+    public MySQLBulkLoader(MySQLDataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @NotNull
+    @Override
+    public BulkLoadManager createBulkLoad(
+        @NotNull DBCSession session,
+        @NotNull DBSDataContainer dataContainer,
+        @NotNull DBSAttributeBase[] attributes,
+        @NotNull DBCExecutionSource source,
+        int batchSize,
+        Map<String, Object> options) throws DBCException
+    {
+        this.table = (MySQLTableBase) dataContainer;
+        Object bufferSizeOption = options == null ? null : options.get(MySQLConstants.PROP_BULK_LOAD_BUFFER_SIZE);
+        if (bufferSizeOption == null) {
+            bufferSizeOption = dataSource.getContainer().getConnectionConfiguration().getProviderProperty(MySQLConstants.PROP_BULK_LOAD_BUFFER_SIZE);
+        }
+        this.maxBufferSize = Math.max(CommonUtils.toInt(bufferSizeOption, DEFAULT_BUFFER_SIZE), MIN_BUFFER_SIZE);
+        this.timeZone = dataSource.getConnectionTimeZone();
+        try {
+            Connection connection = ((JDBCSession) session).getOriginal();
+            String localInfile = JDBCUtils.queryString(connection, "SELECT @@local_infile");
+            if ("0".equals(localInfile) || "OFF".equalsIgnoreCase(localInfile)) {
+                throw new DBCException("Server variable local_infile is disabled. " +
+                    "Enable it (SET GLOBAL local_infile = 1) or turn off bulk load");
+            }
+
+            List<MySQLTableColumn> tableAttrs = new ArrayList<>();
+            for (MySQLTableColumn attr : CommonUtils.safeCollection(table.getAttributes(session.getProgressMonitor()))) {
+                if (ArrayUtils.indexOf(attributes, attr) >= 0 && !isGeneratedColumn(attr)) {
+                    tableAttrs.add(attr);
+                }
+            }
+            mappings = new AttrMapping[tableAttrs.size()];
+            for (int i = 0; i < tableAttrs.size(); i++) {
+                MySQLTableColumn attr = tableAttrs.get(i);
+                mappings[i] = new AttrMapping(
+                    attr,
+                    DBUtils.findValueHandler(session, attr),
+                    getValueKind(attr),
+                    ArrayUtils.indexOf(attributes, attr));
+            }
+        } catch (DBCException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new DBCException("Can't prepare LOAD DATA bulk loader", e);
+        }
+        loadQuery = makeLoadQuery();
+        return this;
+    }
+
+    @Nullable
+    @Override
+    public DBCStatistics getStatistics() {
+        return statistics;
+    }
+
+    @Override
+    public void addRow(@NotNull DBCSession session, @NotNull Object[] attributeValues) throws DBCException {
+        line.setLength(0);
+        for (int i = 0; i < mappings.length; i++) {
+            if (i > 0) {
+                line.append('\t');
+            }
+            AttrMapping mapping = mappings[i];
+            appendValue(session, mapping, attributeValues[mapping.srcPos]);
+        }
+        line.append('\n');
+        byte[] bytes = line.toString().getBytes(StandardCharsets.UTF_8);
+        buffer.write(bytes, 0, bytes.length);
+        bufferedRows++;
+
+        if (buffer.size() >= maxBufferSize) {
+            loadBufferedRows(session);
+        }
+    }
+
+    @Override
+    public void flushRows(@NotNull DBCSession session) throws DBCException {
+        loadBufferedRows(session);
+    }
+
+    @Override
+    public void finishBulkLoad(@NotNull DBCSession session) throws DBCException {
+        loadBufferedRows(session);
+
+        // Commit changes
+        DBCTransactionManager txnManager = DBUtils.getTransactionManager(session.getExecutionContext());
+        if (txnManager != null && !txnManager.isAutoCommit()) {
+            session.getProgressMonitor().subTask("Commit LOAD DATA");
+            txnManager.commit(session);
+        }
+        log.debug("Data has been loaded into " + table.getName() + " (" + statistics.getRowsUpdated() + " rows)");
+    }
+
+    @Override
+    public void close() {
+        buffer.reset();
+        bufferedRows = 0;
+    }
+
+    private void loadBufferedRows(@NotNull DBCSession session) throws DBCException {
+        if (bufferedRows == 0) {
+            return;
+        }
+        session.getProgressMonitor().subTask("Load " + bufferedRows + " rows into " + table.getName());
+        long startTime = System.currentTimeMillis();
+        try (Statement dbStat = ((JDBCSession) session).getOriginal().createStatement()) {
+            setLocalInfileStream(dbStat, new ByteArrayInputStream(buffer.toByteArray()));
+            int rowCount = dbStat.executeUpdate(loadQuery);
+            statistics.addRowsUpdated(rowCount);
+            statistics.addStatementsCount();
+            statistics.addExecuteTime(System.currentTimeMillis() - startTime);
+            for (SQLWarning warning = dbStat.getWarnings(); warning != null; warning = warning.getNextWarning()) {
+                statistics.addWarning(warning);
+            }
+        } catch (SQLException e) {
+            throw new DBCException("Error loading data into " + table.getName() +
+                ". Make sure that local infile is allowed in driver properties (allowLoadLocalInfile/allowLocalInfile)", e);
+        } finally {
+            buffer.reset();
+            bufferedRows = 0;
+        }
+    }
+
+    private static void setLocalInfileStream(@NotNull Statement dbStat, @NotNull InputStream stream) throws DBCException {
+        Method method = null;
+        for (Method m : dbStat.getClass().getMethods()) {
+            if (m.getName().equals(SET_LOCAL_INFILE_METHOD) &&
+                m.getParameterCount() == 1 && m.getParameterTypes()[0] == InputStream.class)
+            {
+                method = m;
+                break;
+            }
+        }
+        if (method == null) {
+            throw new DBCException("Driver " + dbStat.getClass().getName() + " doesn't support local infile streams");
+        }
+        try {
+            method.invoke(dbStat, stream);
+        } catch (InvocationTargetException e) {
+            throw new DBCException("Error setting local infile stream", e.getTargetException());
+        } catch (IllegalAccessException e) {
+            throw new DBCException("Can't access local infile stream setter", e);
+        }
+    }
+
+    @NotNull
+    private String makeLoadQuery() {
+        StringBuilder columns = new StringBuilder();
+        StringBuilder setClause = new StringBuilder();
+        for (int i = 0; i < mappings.length; i++) {
+            AttrMapping mapping = mappings[i];
+            String columnName = DBUtils.getQuotedIdentifier(mapping.tableAttr);
+            if (i > 0) {
+                columns.append(",");
+            }
+            String expression;
+            switch (mapping.kind) {
+                case BINARY:
+                    expression = "UNHEX(@v" + i + ")";
+                    break;
+                case BIT:
+                    expression = "CAST(@v" + i + " AS UNSIGNED)";
+                    break;
+                case GEOMETRY:
+                    expression = "ST_GeomFromText(@v" + i + ")";
+                    break;
+                default:
+                    expression = null;
+                    break;
+            }
+            if (expression == null) {
+                columns.append(columnName);
+            } else {
+                columns.append("@v").append(i);
+                if (setClause.length() > 0) {
+                    setClause.append(",");
+                }
+                setClause.append(columnName).append("=").append(expression);
+            }
+        }
+        StringBuilder query = new StringBuilder();
+        query.append("LOAD DATA LOCAL INFILE 'stream' INTO TABLE ").append(table.getFullyQualifiedName(DBPEvaluationContext.DML))
+            .append(" CHARACTER SET utf8mb4")
+            .append(" FIELDS TERMINATED BY '\\t' ESCAPED BY '\\\\'")
+            .append(" LINES TERMINATED BY '\\n'")
+            .append(" (").append(columns).append(")");
+        if (setClause.length() > 0) {
+            query.append(" SET ").append(setClause);
+        }
+        return query.toString();
+    }
+
+    private void appendValue(@NotNull DBCSession session, @NotNull AttrMapping mapping, @Nullable Object value) throws DBCException {
+        if (value instanceof DBDContent) {
+            if (mapping.kind == ValueKind.BINARY) {
+                value = ContentUtils.getContentBinaryValue(session.getProgressMonitor(), (DBDContent) value);
+            } else {
+                value = ContentUtils.getContentStringValue(session.getProgressMonitor(), (DBDContent) value);
+            }
+        }
+        appendValue(line, mapping.kind, value, timeZone,
+            v -> mapping.valueHandler.getValueDisplayString(mapping.tableAttr, v, DBDDisplayFormat.EDIT));
+    }
+
+    /**
+     * Appends value in LOAD DATA text format. Contents must be already read.
+     * Values without own text representation are formatted with displayFormatter.
+     */
+    static void appendValue(
+        @NotNull StringBuilder line,
+        @NotNull ValueKind kind,
+        @Nullable Object value,
+        @NotNull ZoneId timeZone,
+        @NotNull Function<Object, String> displayFormatter)
+    {
+        if (DBUtils.isNullValue(value)) {
+            line.append("\\N");
+            return;
+        }
+        switch (kind) {
+            case BINARY:
+                if (value instanceof byte[]) {
+                    appendHex(line, (byte[]) value);
+                } else {
+                    appendHex(line, getStringValue(value, timeZone, displayFormatter).getBytes(StandardCharsets.UTF_8));
+                }
+                return;
+            case BIT:
+                if (value instanceof byte[]) {
+                    line.append(new BigInteger(1, (byte[]) value));
+                    return;
+                }
+                break;
+            case GEOMETRY:
+                if (value instanceof DBGeometry) {
+                    appendEscaped(line, value.toString());
+                    return;
+                }
+                break;
+            case YEAR:
+                if (value instanceof java.util.Date) {
+                    line.append(((java.util.Date) value).toInstant().atZone(timeZone).getYear());
+                    return;
+                } else if (value instanceof TemporalAccessor && ((TemporalAccessor) value).isSupported(ChronoField.YEAR)) {
+                    line.append(((TemporalAccessor) value).get(ChronoField.YEAR));
+                    return;
+                }
+                break;
+            default:
+                break;
+        }
+        if (value instanceof BigDecimal) {
+            line.append(((BigDecimal) value).toPlainString());
+        } else if (value instanceof Number) {
+            line.append(value);
+        } else if (value instanceof Boolean) {
+            line.append((Boolean) value ? '1' : '0');
+        } else {
+            appendEscaped(line, getStringValue(value, timeZone, displayFormatter));
+        }
+    }
+
+    @NotNull
+    private static String getStringValue(@NotNull Object value, @NotNull ZoneId timeZone, @NotNull Function<Object, String> displayFormatter) {
+        if (value instanceof String) {
+            return (String) value;
+        } else if (value instanceof Date || value instanceof LocalDate) {
+            return value.toString();
+        } else if (value instanceof Time) {
+            return TIME_FORMAT.format(((Time) value).toLocalTime());
+        } else if (value instanceof LocalTime) {
+            return TIME_FORMAT.format((LocalTime) value);
+        } else if (value instanceof java.util.Date) {
+            // Timestamp.toInstant keeps nanoseconds
+            return TIMESTAMP_FORMAT.format(LocalDateTime.ofInstant(((java.util.Date) value).toInstant(), timeZone));
+        } else if (value instanceof LocalDateTime) {
+            return TIMESTAMP_FORMAT.format((LocalDateTime) value);
+        } else if (value instanceof OffsetDateTime) {
+            return TIMESTAMP_FORMAT.format(((OffsetDateTime) value).atZoneSameInstant(timeZone));
+        } else if (value instanceof ZonedDateTime) {
+            return TIMESTAMP_FORMAT.format(((ZonedDateTime) value).withZoneSameInstant(timeZone));
+        } else if (value instanceof Instant) {
+            return TIMESTAMP_FORMAT.format(LocalDateTime.ofInstant((Instant) value, timeZone));
+        }
+        return displayFormatter.apply(value);
+    }
+
+    private static void appendEscaped(@NotNull StringBuilder line, @NotNull String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\': line.append("\\\\"); break;
+                case '\t': line.append("\\t"); break;
+                case '\n': line.append("\\n"); break;
+                case '\r': line.append("\\r"); break;
+                case '\0': line.append("\\0"); break;
+                default: line.append(c); break;
+            }
+        }
+    }
+
+    private static void appendHex(@NotNull StringBuilder line, @NotNull byte[] bytes) {
+        for (byte b : bytes) {
+            line.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+    }
+
+    private static boolean isGeneratedColumn(@NotNull MySQLTableColumn attr) {
+        String extraInfo = attr.getExtraInfo();
+        return !CommonUtils.isEmpty(attr.getGenExpression()) ||
+            (extraInfo != null && extraInfo.toUpperCase(Locale.ENGLISH).contains("GENERATED") &&
+                !extraInfo.toUpperCase(Locale.ENGLISH).contains(MySQLConstants.EXTRA_INFO_DEFAULT_GENERATED));
+    }
+
+    @NotNull
+    private static ValueKind getValueKind(@NotNull MySQLTableColumn attr) {
+        switch (attr.getTypeName().toLowerCase(Locale.ENGLISH)) {
+            case "binary":
+            case "varbinary":
+            case "tinyblob":
+            case "blob":
+            case "mediumblob":
+            case "longblob":
+                return ValueKind.BINARY;
+            case "bit":
+                return ValueKind.BIT;
+            case MySQLConstants.TYPE_GEOMETRY:
+            case "point":
+            case "linestring":
+            case "polygon":
+            case "multipoint":
+            case "multilinestring":
+            case "multipolygon":
+            case "geometrycollection":
+            case "geomcollection":
+                return ValueKind.GEOMETRY;
+            case MySQLConstants.TYPE_YEAR:
+                return ValueKind.YEAR;
+            default:
+                return ValueKind.TEXT;
+        }
+    }
+}
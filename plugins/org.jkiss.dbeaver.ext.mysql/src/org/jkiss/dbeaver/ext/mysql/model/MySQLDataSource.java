@@ -49,6 +49,7 @@ import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.sql.SQLDialect;
 import org.jkiss.dbeaver.model.sql.SQLHelpProvider;
 import org.jkiss.dbeaver.model.sql.SQLState;
+import org.jkiss.dbeaver.model.struct.DBSDataBulkLoader;
 import org.jkiss.dbeaver.model.struct.DBSDataType;
 import org.jkiss.dbeaver.model.struct.DBSObject;
 import org.jkiss.dbeaver.model.struct.DBSObjectFilter;
@@ -62,6 +63,8 @@ import java.sql.Connection;
 import java.sql.Driver;
 import java.sql.SQLException;
 import java.sql.Types;
+import java.time.DateTimeException;
+import java.time.ZoneId;
 import java.util.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -694,6 +697,8 @@ public class MySQLDataSource extends JDBCDataSource implements DBPObjectStatisti
             });
         } else if (adapter == DBCQueryPlanner.class) {
             return adapter.cast(new MySQLPlanAnalyser(this));
+        } else if (adapter == DBSDataBulkLoader.class) {
+            return adapter.cast(new MySQLBulkLoader(this));
         }
         return super.getAdapter(adapter);
     }
@@ -801,6 +806,26 @@ public class MySQLDataSource extends JDBCDataSource implements DBPObjectStatisti
             getContainer().getDriver().getDriverClassName());
     }
 
+    /**
+     * Returns time zone the driver converts temporal values to: server time zone from connection settings,
+     * UTC if it was forced on connect, or the client time zone otherwise.
+     */
+    @NotNull
+    public ZoneId getConnectionTimeZone() {
+        String serverTZ = getContainer().getActualConnectionConfiguration().getProviderProperty(MySQLConstants.PROP_SERVER_TIMEZONE);
+        if (CommonUtils.isEmpty(serverTZ) && inServerTimezoneHandle) {
+            serverTZ = "UTC";
+        }
+        if (!CommonUtils.isEmpty(serverTZ)) {
+            try {
+                return ZoneId.of(serverTZ);
+            } catch (DateTimeException e) {
+                log.debug("Unsupported server time zone '" + serverTZ + "', use client time zone");
+            }
+        }
+        return ZoneId.systemDefault();
+    }
+
     @Override
     public ErrorType discoverErrorType(@NotNull Throwable error) {
         if (isMariaDB()) {
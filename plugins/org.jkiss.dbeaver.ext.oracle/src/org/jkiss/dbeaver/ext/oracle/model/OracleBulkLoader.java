@@ -0,0 +1,277 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.oracle.model;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDContent;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCPreparedStatement;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.jkiss.dbeaver.model.struct.DBSDataBulkLoader;
+import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+import org.jkiss.dbeaver.utils.ContentUtils;
+import org.jkiss.utils.ArrayUtils;
+import org.jkiss.utils.CommonUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bulk loader based on batched INSERT.
+ * <p>
+ * Rows are bound into a single prepared INSERT and added to a JDBC batch which is sent with executeBatch
+ * every batchSize rows. Optionally the INSERT uses APPEND_VALUES hint (direct-path insert, 11g+).
+ * Direct-path inserted data is visible only after commit, so in this mode each batch is committed right
+ * after execution. Redo generation depends on the table LOGGING attribute, the loader doesn't change it.
+ * LOB values which exceed the inline bind limit are passed as temporary LOBs which are released after each batch.
+ */
+public class OracleBulkLoader implements DBSDataBulkLoader, DBSDataBulkLoader.BulkLoadManager {
+
+    private static final Log log = Log.getLog(OracleBulkLoader.class);
+
+    // Max length of LOB value which is bound as a plain string/byte array
+    private static final int MAX_INLINE_LOB_LENGTH = 4000;
+
+    private final OracleDataSource dataSource;
+    private OracleTableBase table;
+    private AttrMapping[] mappings;
+    private JDBCPreparedStatement statement;
+    private boolean appendValues;
+    private int batchSize;
+    private int batchRows;
+    private final List<Object> temporaryLobs = new ArrayList<>();
+    private final DBCStatistics statistics = new DBCStatistics();
+
+    private static class AttrMapping {
+        OracleTableColumn tableAttr;
+        DBDValueHandler valueHandler;
+        int srcPos;
+        int lobType;
+
+        AttrMapping(OracleTableColumn tableAttr, DBDValueHandler valueHandler, int srcPos) {
+            this.tableAttr = tableAttr;
+            this.valueHandler = valueHandler;
+            this.srcPos = srcPos;
+            int typeID = tableAttr.getTypeID();
+            this.lobType = typeID == Types.CLOB || typeID == Types.NCLOB || typeID == Types.BLOB ? typeID : Types.NULL;
+        }
+    }
+
+    public OracleBulkLoader(OracleDataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @NotNull
+    @Override
+    public BulkLoadManager createBulkLoad(
+        @NotNull DBCSession session,
+        @NotNull DBSDataContainer dataContainer,
+        @NotNull DBSAttributeBase[] attributes,
+        @NotNull DBCExecutionSource source,
+        int batchSize,
+        Map<String, Object> options) throws DBCException
+    {
+        this.table = (OracleTableBase) dataContainer;
+        this.batchSize = Math.max(batchSize, 1);
+        Object appendOption = options == null ? null : options.get(OracleConstants.PROP_BULK_LOAD_APPEND_VALUES);
+        if (appendOption == null) {
+            appendOption = dataSource.getContainer().getConnectionConfiguration().getProviderProperty(OracleConstants.PROP_BULK_LOAD_APPEND_VALUES);
+        }
+        this.appendValues = CommonUtils.toBoolean(appendOption);
+        if (appendValues && !dataSource.isAtLeastV11()) {
+            log.debug("APPEND_VALUES hint is not supported by server version. Use conventional insert.");
+            appendValues = false;
+        }
+
+        try {
+            List<AttrMapping> attrMappings = new ArrayList<>();
+            for (OracleTableColumn attr : CommonUtils.safeCollection(table.getAttributes(session.getProgressMonitor()))) {
+                int srcPos = ArrayUtils.indexOf(attributes, attr);
+                if (srcPos >= 0 && !attr.isHidden()) {
+                    attrMappings.add(new AttrMapping(attr, DBUtils.findValueHandler(session, attr), srcPos));
+                }
+            }
+            mappings = attrMappings.toArray(new AttrMapping[0]);
+            statement = ((JDBCSession) session).prepareStatement(makeInsertQuery());
+        } catch (DBCException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new DBCException("Can't prepare batch insert", e);
+        }
+        return this;
+    }
+
+    @Nullable
+    @Override
+    public DBCStatistics getStatistics() {
+        return statistics;
+    }
+
+    @Override
+    public void addRow(@NotNull DBCSession session, @NotNull Object[] attributeValues) throws DBCException {
+        try {
+            for (int i = 0; i < mappings.length; i++) {
+                AttrMapping mapping = mappings[i];
+                Object value = attributeValues[mapping.srcPos];
+                if (mapping.lobType != Types.NULL && !DBUtils.isNullValue(value)) {
+                    bindLobValue(session, mapping, i + 1, value);
+                } else {
+                    mapping.valueHandler.bindValueObject(session, statement, mapping.tableAttr, i, value);
+                }
+            }
+            statement.addBatch();
+        } catch (SQLException e) {
+            throw new DBCException(e, session.getExecutionContext());
+        }
+        batchRows++;
+        if (batchRows >= batchSize) {
+            executeBatch(session);
+        }
+    }
+
+    @Override
+    public void flushRows(@NotNull DBCSession session) throws DBCException {
+        executeBatch(session);
+    }
+
+    @Override
+    public void finishBulkLoad(@NotNull DBCSession session) throws DBCException {
+        executeBatch(session);
+        commit(session);
+        log.debug("Batch insert into " + table.getName() + " finished (" + statistics.getRowsUpdated() + " rows)");
+    }
+
+    @Override
+    public void close() {
+        freeTemporaryLobs();
+        if (statement != null) {
+            statement.close();
+            statement = null;
+        }
+    }
+
+    @NotNull
+    private String makeInsertQuery() {
+        StringBuilder query = new StringBuilder(100);
+        query.append("INSERT ");
+        if (appendValues) {
+            query.append("/*+ APPEND_VALUES */ ");
+        }
+        query.append("INTO ").append(table.getFullyQualifiedName(DBPEvaluationContext.DML)).append(" (");
+        for (int i = 0; i < mappings.length; i++) {
+            if (i > 0) {
+                query.append(",");
+            }
+            query.append(DBUtils.getQuotedIdentifier(mappings[i].tableAttr));
+        }
+        query.append(") VALUES (");
+        for (int i = 0; i < mappings.length; i++) {
+            query.append(i > 0 ? ",?" : "?");
+        }
+        query.append(")");
+        return query.toString();
+    }
+
+    private void bindLobValue(@NotNull DBCSession session, @NotNull AttrMapping mapping, int index, @NotNull Object value) throws SQLException, DBCException {
+        if (value instanceof DBDContent) {
+            value = mapping.lobType == Types.BLOB ?
+                ContentUtils.getContentBinaryValue(session.getProgressMonitor(), (DBDContent) value) :
+                ContentUtils.getContentStringValue(session.getProgressMonitor(), (DBDContent) value);
+            if (value == null) {
+                statement.setNull(index, mapping.lobType);
+                return;
+            }
+        }
+        Connection connection = ((JDBCSession) session).getOriginal();
+        if (mapping.lobType == Types.BLOB) {
+            byte[] bytes = value instanceof byte[] ? (byte[]) value : CommonUtils.toString(value).getBytes(StandardCharsets.UTF_8);
+            if (bytes.length <= MAX_INLINE_LOB_LENGTH) {
+                statement.setBytes(index, bytes);
+            } else {
+                Blob blob = connection.createBlob();
+                temporaryLobs.add(blob);
+                blob.setBytes(1, bytes);
+                statement.setBlob(index, blob);
+            }
+        } else {
+            String text = CommonUtils.toString(value);
+            if (text.length() <= MAX_INLINE_LOB_LENGTH) {
+                statement.setString(index, text);
+            } else {
+                Clob clob = mapping.lobType == Types.NCLOB ? connection.createNClob() : connection.createClob();
+                temporaryLobs.add(clob);
+                clob.setString(1, text);
+                statement.setClob(index, clob);
+            }
+        }
+    }
+
+    private void executeBatch(@NotNull DBCSession session) throws DBCException {
+        if (batchRows == 0) {
+            return;
+        }
+        session.getProgressMonitor().subTask("Insert " + batchRows + " rows into " + table.getName());
+        long startTime = System.currentTimeMillis();
+        try {
+            statement.executeBatch();
+            statistics.addRowsUpdated(batchRows);
+            statistics.addStatementsCount();
+            statistics.addExecuteTime(System.currentTimeMillis() - startTime);
+        } catch (SQLException e) {
+            throw new DBCException(e, session.getExecutionContext());
+        } finally {
+            batchRows = 0;
+            freeTemporaryLobs();
+        }
+        if (appendValues) {
+            // Table can't be accessed in the same transaction after direct-path insert (ORA-12838)
+            commit(session);
+        }
+    }
+
+    private void commit(@NotNull DBCSession session) throws DBCException {
+        DBCTransactionManager txnManager = DBUtils.getTransactionManager(session.getExecutionContext());
+        if (txnManager != null && !txnManager.isAutoCommit()) {
+            session.getProgressMonitor().subTask("Commit batch insert");
+            txnManager.commit(session);
+        }
+    }
+
+    private void freeTemporaryLobs() {
+        for (Object lob : temporaryLobs) {
+            try {
+                if (lob instanceof Blob) {
+                    ((Blob) lob).free();
+                } else if (lob instanceof Clob) {
+                    ((Clob) lob).free();
+                }
+            } catch (Exception e) {
+                log.debug("Error releasing temporary LOB", e);
+            }
+        }
+        temporaryLobs.clear();
+    }
+}
@@ -46,6 +46,7 @@ import org.jkiss.dbeaver.model.meta.ForTest;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.sql.SQLConstants;
 import org.jkiss.dbeaver.model.sql.SQLState;
+import org.jkiss.dbeaver.model.struct.DBSDataBulkLoader;
 import org.jkiss.dbeaver.model.struct.DBSDataType;
 import org.jkiss.dbeaver.model.struct.DBSObject;
 import org.jkiss.dbeaver.model.struct.DBSObjectFilter;
@@ -587,6 +588,8 @@ public class OracleDataSource extends JDBCDataSource implements DBPObjectStatist
             return adapter.cast(new OracleQueryPlanner(this));
         } else if(adapter == DBAUserPasswordManager.class) {
             return adapter.cast(new OracleChangeUserPasswordManager(this));
+        } else if (adapter == DBSDataBulkLoader.class) {
+            return adapter.cast(new OracleBulkLoader(this));
         }
         return super.getAdapter(adapter);
     }
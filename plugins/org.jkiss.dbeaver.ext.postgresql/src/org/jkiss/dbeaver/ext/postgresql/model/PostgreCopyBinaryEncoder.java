@@ -0,0 +1,328 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.postgresql.model;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.ext.postgresql.PostgreConstants;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.*;
+import java.util.Locale;
+
+/**
+ * Encoder of values in PostgreSQL binary COPY format.
+ * Only types with stable binary representation are supported, see {@link #getEncoder(String)}.
+ */
+enum PostgreCopyBinaryEncoder {
+
+    BOOL,
+    INT2,
+    INT4,
+    INT8,
+    FLOAT4,
+    FLOAT8,
+    NUMERIC,
+    DATE,
+    TIME,
+    TIMESTAMP,
+    TIMESTAMPTZ,
+    TEXT,
+    JSONB,
+    BYTEA,
+    UUID;
+
+    static final byte[] FILE_HEADER = {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xFF, '\r', '\n', 0};
+
+    // 2000-01-01 (PostgreSQL epoch) in Unix epoch seconds and days
+    private static final long PG_EPOCH_SECONDS = 946_684_800L;
+    private static final long PG_EPOCH_DAYS = 10_957L;
+
+    private static final short NUMERIC_POS = 0x0000;
+    private static final short NUMERIC_NEG = 0x4000;
+
+    /**
+     * Returns encoder for the specified type name or null if type is not supported
+     */
+    @Nullable
+    static PostgreCopyBinaryEncoder getEncoder(@NotNull String typeName) {
+        String name = typeName.toLowerCase(Locale.ENGLISH);
+        name = CommonUtils.notEmpty(PostgreConstants.DATA_TYPE_ALIASES.getOrDefault(name, name));
+        switch (name) {
+            case PostgreConstants.TYPE_BOOL: return BOOL;
+            case PostgreConstants.TYPE_INT2: return INT2;
+            case PostgreConstants.TYPE_INT4: return INT4;
+            case PostgreConstants.TYPE_INT8: return INT8;
+            case PostgreConstants.TYPE_FLOAT4: return FLOAT4;
+            case PostgreConstants.TYPE_FLOAT8: return FLOAT8;
+            case "numeric": return NUMERIC;
+            case "date": return DATE;
+            case PostgreConstants.TYPE_TIME: return TIME;
+            case PostgreConstants.TYPE_TIMESTAMP: return TIMESTAMP;
+            case PostgreConstants.TYPE_TIMESTAMPTZ: return TIMESTAMPTZ;
+            case PostgreConstants.TYPE_TEXT:
+            case PostgreConstants.TYPE_VARCHAR:
+            case PostgreConstants.TYPE_BPCHAR:
+            case PostgreConstants.TYPE_JSON:
+            case "name":
+                return TEXT;
+            case PostgreConstants.TYPE_JSONB: return JSONB;
+            case "bytea": return BYTEA;
+            case PostgreConstants.TYPE_UUID: return UUID;
+            default: return null;
+        }
+    }
+
+    static void writeHeader(@NotNull DataOutputStream out) throws IOException {
+        out.write(FILE_HEADER);
+        // Flags and header extension length
+        out.writeInt(0);
+        out.writeInt(0);
+    }
+
+    static void writeTrailer(@NotNull DataOutputStream out) throws IOException {
+        out.writeShort(-1);
+    }
+
+    /**
+     * Writes field length and value. Null values are written as -1 length.
+     */
+    void writeValue(@NotNull DataOutputStream out, @Nullable Object value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        switch (this) {
+            case BOOL:
+                out.writeInt(1);
+                out.writeByte(toBoolean(value) ? 1 : 0);
+                break;
+            case INT2:
+                out.writeInt(2);
+                out.writeShort(Math.toIntExact(toLong(value)));
+                break;
+            case INT4:
+                out.writeInt(4);
+                out.writeInt(Math.toIntExact(toLong(value)));
+                break;
+            case INT8:
+                out.writeInt(8);
+                out.writeLong(toLong(value));
+                break;
+            case FLOAT4:
+                out.writeInt(4);
+                out.writeFloat(value instanceof Number ? ((Number) value).floatValue() : Float.parseFloat(value.toString()));
+                break;
+            case FLOAT8:
+                out.writeInt(8);
+                out.writeDouble(value instanceof Number ? ((Number) value).doubleValue() : Double.parseDouble(value.toString()));
+                break;
+            case NUMERIC:
+                writeNumeric(out, toBigDecimal(value));
+                break;
+            case DATE:
+                out.writeInt(4);
+                out.writeInt(Math.toIntExact(toLocalDate(value).toEpochDay() - PG_EPOCH_DAYS));
+                break;
+            case TIME:
+                out.writeInt(8);
+                out.writeLong(toLocalTime(value).toNanoOfDay() / 1000);
+                break;
+            case TIMESTAMP:
+                out.writeInt(8);
+                out.writeLong(toMicros(toLocalDateTime(value).toInstant(ZoneOffset.UTC)));
+                break;
+            case TIMESTAMPTZ:
+                out.writeInt(8);
+                out.writeLong(toMicros(toInstant(value)));
+                break;
+            case TEXT: {
+                byte[] bytes = value.toString().getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+                break;
+            }
+            case JSONB: {
+                byte[] bytes = value.toString().getBytes(StandardCharsets.UTF_8);
+                // jsonb binary format version
+                out.writeInt(bytes.length + 1);
+                out.writeByte(1);
+                out.write(bytes);
+                break;
+            }
+            case BYTEA: {
+                byte[] bytes = value instanceof byte[] ? (byte[]) value : value.toString().getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+                break;
+            }
+            case UUID: {
+                java.util.UUID uuid = value instanceof java.util.UUID ? (java.util.UUID) value : java.util.UUID.fromString(value.toString());
+                out.writeInt(16);
+                out.writeLong(uuid.getMostSignificantBits());
+                out.writeLong(uuid.getLeastSignificantBits());
+                break;
+            }
+        }
+    }
+
+    /**
+     * Writes numeric as base-10000 digits with weight of the first digit, sign and display scale
+     */
+    static void writeNumeric(@NotNull DataOutputStream out, @NotNull BigDecimal value) throws IOException {
+        short sign = value.signum() < 0 ? NUMERIC_NEG : NUMERIC_POS;
+        BigDecimal abs = value.abs();
+        if (abs.scale() < 0) {
+            abs = abs.setScale(0);
+        }
+        int scale = abs.scale();
+        String digits = abs.unscaledValue().toString();
+        String intPart = digits.length() > scale ? digits.substring(0, digits.length() - scale) : "";
+        StringBuilder fracPart = new StringBuilder(scale + 3);
+        for (int i = digits.length(); i < scale; i++) {
+            fracPart.append('0');
+        }
+        fracPart.append(digits, Math.max(0, digits.length() - scale), digits.length());
+        while (fracPart.length() % 4 != 0) {
+            fracPart.append('0');
+        }
+        int intGroups = (intPart.length() + 3) / 4;
+        int fracGroups = fracPart.length() / 4;
+        short[] groups = new short[intGroups + fracGroups];
+        int intPad = intGroups * 4 - intPart.length();
+        for (int i = 0; i < intPart.length(); i++) {
+            int group = (i + intPad) / 4;
+            groups[group] = (short) (groups[group] * 10 + (intPart.charAt(i) - '0'));
+        }
+        for (int i = 0; i < fracPart.length(); i++) {
+            int group = intGroups + i / 4;
+            groups[group] = (short) (groups[group] * 10 + (fracPart.charAt(i) - '0'));
+        }
+        int first = 0, last = groups.length;
+        while (first < last && groups[first] == 0) {
+            first++;
+        }
+        while (last > first && groups[last - 1] == 0) {
+            last--;
+        }
+        int weight = first == last ? 0 : intGroups - 1 - first;
+        int nDigits = last - first;
+
+        out.writeInt(8 + nDigits * 2);
+        out.writeShort(nDigits);
+        out.writeShort(weight);
+        out.writeShort(nDigits == 0 ? NUMERIC_POS : sign);
+        out.writeShort(scale);
+        for (int i = first; i < last; i++) {
+            out.writeShort(groups[i]);
+        }
+    }
+
+    private static long toMicros(@NotNull Instant instant) {
+        return Math.addExact(
+            Math.multiplyExact(instant.getEpochSecond() - PG_EPOCH_SECONDS, 1_000_000L),
+            instant.getNano() / 1000);
+    }
+
+    private static boolean toBoolean(@NotNull Object value) {
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        } else if (value instanceof Number) {
+            return ((Number) value).intValue() != 0;
+        }
+        return CommonUtils.getBoolean(value.toString(), false) || "t".equalsIgnoreCase(value.toString());
+    }
+
+    private static long toLong(@NotNull Object value) {
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        } else if (value instanceof Boolean) {
+            return (Boolean) value ? 1 : 0;
+        }
+        return Long.parseLong(value.toString().trim());
+    }
+
+    @NotNull
+    private static BigDecimal toBigDecimal(@NotNull Object value) {
+        if (value instanceof BigDecimal) {
+            return (BigDecimal) value;
+        } else if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return BigDecimal.valueOf(((Number) value).longValue());
+        } else if (value instanceof Number) {
+            return new BigDecimal(value.toString());
+        }
+        return new BigDecimal(value.toString().trim());
+    }
+
+    @NotNull
+    private static LocalDate toLocalDate(@NotNull Object value) {
+        if (value instanceof java.sql.Date) {
+            return ((java.sql.Date) value).toLocalDate();
+        } else if (value instanceof LocalDate) {
+            return (LocalDate) value;
+        }
+        return toLocalDateTime(value).toLocalDate();
+    }
+
+    @NotNull
+    private static LocalTime toLocalTime(@NotNull Object value) {
+        if (value instanceof java.sql.Time) {
+            return ((java.sql.Time) value).toLocalTime();
+        } else if (value instanceof LocalTime) {
+            return (LocalTime) value;
+        } else if (value instanceof String) {
+            return LocalTime.parse((String) value);
+        }
+        return toLocalDateTime(value).toLocalTime();
+    }
+
+    @NotNull
+    private static LocalDateTime toLocalDateTime(@NotNull Object value) {
+        if (value instanceof java.sql.Timestamp) {
+            return ((java.sql.Timestamp) value).toLocalDateTime();
+        } else if (value instanceof java.sql.Date) {
+            return ((java.sql.Date) value).toLocalDate().atStartOfDay();
+        } else if (value instanceof LocalDateTime) {
+            return (LocalDateTime) value;
+        } else if (value instanceof LocalDate) {
+            return ((LocalDate) value).atStartOfDay();
+        } else if (value instanceof String) {
+            return java.sql.Timestamp.valueOf((String) value).toLocalDateTime();
+        }
+        return LocalDateTime.ofInstant(toInstant(value), ZoneId.systemDefault());
+    }
+
+    @NotNull
+    private static Instant toInstant(@NotNull Object value) {
+        if (value instanceof java.util.Date && !(value instanceof java.sql.Date) && !(value instanceof java.sql.Time)) {
+            return ((java.util.Date) value).toInstant();
+        } else if (value instanceof Instant) {
+            return (Instant) value;
+        } else if (value instanceof OffsetDateTime) {
+            return ((OffsetDateTime) value).toInstant();
+        } else if (value instanceof ZonedDateTime) {
+            return ((ZonedDateTime) value).toInstant();
+        } else if (value instanceof java.sql.Date || value instanceof LocalDateTime || value instanceof LocalDate || value instanceof String) {
+            return toLocalDateTime(value).atZone(ZoneId.systemDefault()).toInstant();
+        }
+        throw new IllegalArgumentException("Can't convert " + value.getClass().getName() + " to timestamp");
+    }
+}
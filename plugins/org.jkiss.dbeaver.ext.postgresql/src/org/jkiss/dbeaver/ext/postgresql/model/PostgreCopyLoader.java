@@ -17,44 +17,45 @@
 package org.jkiss.dbeaver.ext.postgresql.model;
 
 import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.Log;
+import org.jkiss.dbeaver.ext.postgresql.PostgreConstants;
 import org.jkiss.dbeaver.model.DBPEvaluationContext;
 import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDContent;
 import org.jkiss.dbeaver.model.data.DBDDisplayFormat;
 import org.jkiss.dbeaver.model.data.DBDValueHandler;
-import org.jkiss.dbeaver.model.exec.DBCException;
-import org.jkiss.dbeaver.model.exec.DBCExecutionSource;
-import org.jkiss.dbeaver.model.exec.DBCSession;
-import org.jkiss.dbeaver.model.exec.DBCTransactionManager;
+import org.jkiss.dbeaver.model.exec.*;
 import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
 import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
 import org.jkiss.dbeaver.model.struct.DBSDataBulkLoader;
 import org.jkiss.dbeaver.model.struct.DBSDataContainer;
-import org.jkiss.dbeaver.runtime.DBWorkbench;
+import org.jkiss.dbeaver.utils.ContentUtils;
 import org.jkiss.utils.ArrayUtils;
 import org.jkiss.utils.CommonUtils;
 
-import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
-import java.io.Reader;
-import java.io.Writer;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.Files;
-import java.nio.file.Path;
 import java.sql.Connection;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 
 /**
  * Bulk loader based on CopyManager
  *
- * //        new CopyManager((BaseConnection) conn)
- * //            .copyIn(
- * //                "COPY table1 FROM STDIN (FORMAT csv)",
- * //                new BufferedReader(new FileReader("data.csv"))
- * //            );
+ * //        CopyIn copyIn = new CopyManager((BaseConnection) conn).copyIn("COPY table1 FROM STDIN (FORMAT csv)");
+ * //        copyIn.writeToCopy(data, 0, length);
+ * //        copyIn.endCopy();
+ *
+ * Rows are encoded into a small buffer which is written into the active COPY operation when it is full,
+ * so data is streamed to the server as it is produced. Each {@link #flushRows} ends the COPY and commits the chunk.
+ * CSV format is used by default. Binary format can be enabled with {@link PostgreConstants#PROP_COPY_BINARY_FORMAT}
+ * if all loaded columns have types supported by {@link PostgreCopyBinaryEncoder}.
  */
 public class PostgreCopyLoader implements DBSDataBulkLoader, DBSDataBulkLoader.BulkLoadManager {
 
@@ -64,22 +65,44 @@ public class PostgreCopyLoader implements DBSDataBulkLoader, DBSDataBulkLoader.B
     private PostgreTableReal table;
     private Object copyManager;
     private Method copyInMethod;
-    private Writer csvWriter;
-    private Path csvFile;
+    private Method writeToCopyMethod;
+    private Method endCopyMethod;
+    private Method cancelCopyMethod;
+    private Object copyIn;
+    private String copyQuery;
+    private boolean binaryFormat;
 
     private AttrMapping[] mappings;
 
     private int copyBufferSize = 100 * 1024;
+    private final CopyBuffer buffer = new CopyBuffer(copyBufferSize + 1024);
+    private final DataOutputStream binaryOut = new DataOutputStream(buffer);
+    private final StringBuilder line = new StringBuilder();
+    private final DBCStatistics statistics = new DBCStatistics();
 
     private static class AttrMapping {
         PostgreTableColumn tableAttr;
         DBDValueHandler valueHandler;
         int srcPos;
+        PostgreCopyBinaryEncoder binaryEncoder;
 
         AttrMapping(PostgreTableColumn tableAttr, DBDValueHandler valueHandler, int srcPos) {
             this.tableAttr = tableAttr;
             this.valueHandler = valueHandler;
             this.srcPos = srcPos;
+            PostgreDataType dataType = tableAttr.getDataType();
+            String typeName = dataType == null ? tableAttr.getTypeName() : dataType.getName();
+            this.binaryEncoder = typeName == null ? null : PostgreCopyBinaryEncoder.getEncoder(typeName);
+        }
+    }
+
+    private static class CopyBuffer extends ByteArrayOutputStream {
+        CopyBuffer(int size) {
+            super(size);
+        }
+
+        byte[] getBuffer() {
+            return buf;
         }
     }
 
@@ -105,112 +128,206 @@ public class PostgreCopyLoader implements DBSDataBulkLoader, DBSDataBulkLoader.B
 
             Class<?> baseConnectionClass = Class.forName("org.postgresql.core.BaseConnection", true, driverClassLoader);
             Class<?> copyManagerClass = Class.forName("org.postgresql.copy.CopyManager", true, driverClassLoader);
+            Class<?> copyInClass = Class.forName("org.postgresql.copy.CopyIn", true, driverClassLoader);
 
-            // Get method copyIn(final String sql, Reader from, int bufferSize)
-            copyInMethod = copyManagerClass.getMethod("copyIn", String.class, Reader.class, Integer.TYPE);
+            // Get method CopyIn copyIn(final String sql)
+            copyInMethod = copyManagerClass.getMethod("copyIn", String.class);
+            writeToCopyMethod = copyInClass.getMethod("writeToCopy", byte[].class, Integer.TYPE, Integer.TYPE);
+            endCopyMethod = copyInClass.getMethod("endCopy");
+            cancelCopyMethod = copyInClass.getMethod("cancelCopy");
 
             copyManager = copyManagerClass.getConstructor(baseConnectionClass).newInstance(pgConnection);
 
-            Path tempFolder = DBWorkbench.getPlatform().getTempFolder(session.getProgressMonitor(), "postgesql-copy-datasets");
-            csvFile = tempFolder.resolve(CommonUtils.escapeFileName(table.getFullyQualifiedName(DBPEvaluationContext.DML)) + "-" + System.currentTimeMillis() + ".csv");  //$NON-NLS-1$ //$NON-NLS-2$
-            try {
-                Files.createFile(csvFile);
-            } catch (IOException ex) {
-                throw new IOException("Can't create CSV file " + csvFile);
-            }
-
-            csvWriter = new BufferedWriter(
-                Files.newBufferedWriter(csvFile, StandardCharsets.UTF_8),
-                copyBufferSize
-                );
-
             List<? extends PostgreTableColumn> tableAttrs = CommonUtils.safeList(table.getAttributes(session.getProgressMonitor()));
-            tableAttrs.removeIf(a -> a.getOrdinalPosition() < 0);
-            mappings = new AttrMapping[tableAttrs.size()];
-
-            for (int i = 0; i < tableAttrs.size(); i++) {
-                PostgreTableColumn attr = tableAttrs.get(i);
-                DBDValueHandler valueHandler = DBUtils.findValueHandler(session, attr);
-                AttrMapping mapping = new AttrMapping(
-                    attr,
-                    valueHandler,
-                    ArrayUtils.indexOf(attributes, attr)
-                );
-                mappings[i] = mapping;
+            List<AttrMapping> attrMappings = new ArrayList<>();
+            for (PostgreTableColumn attr : tableAttrs) {
+                int srcPos = ArrayUtils.indexOf(attributes, attr);
+                if (attr.getOrdinalPosition() >= 0 && srcPos >= 0) {
+                    attrMappings.add(new AttrMapping(attr, DBUtils.findValueHandler(session, attr), srcPos));
+                }
             }
+            mappings = attrMappings.toArray(new AttrMapping[0]);
         } catch (Exception e) {
             throw new DBCException("Can't instantiate CopyManager", e);
         }
+
+        binaryFormat = isBinaryFormatEnabled(options);
+        if (binaryFormat) {
+            for (AttrMapping mapping : mappings) {
+                if (mapping.binaryEncoder == null) {
+                    log.debug("Column " + mapping.tableAttr.getName() + " type " + mapping.tableAttr.getTypeName() +
+                        " is not supported in binary COPY. Use CSV format.");
+                    binaryFormat = false;
+                    break;
+                }
+            }
+        }
+
+        StringBuilder query = new StringBuilder();
+        query.append("COPY ").append(table.getFullyQualifiedName(DBPEvaluationContext.DML)).append(" (");
+        for (int i = 0; i < mappings.length; i++) {
+            if (i > 0) {
+                query.append(",");
+            }
+            query.append(DBUtils.getQuotedIdentifier(mappings[i].tableAttr));
+        }
+        query.append(") FROM STDIN (FORMAT ").append(binaryFormat ? "BINARY" : "CSV").append(")");
+        copyQuery = query.toString();
         return this;
     }
 
+    @Nullable
+    @Override
+    public DBCStatistics getStatistics() {
+        return statistics;
+    }
+
     @Override
     public void addRow(@NotNull DBCSession session, @NotNull Object[] attributeValues) throws DBCException {
-        StringBuilder line = new StringBuilder();
-        boolean hasCell = false;
-        for (AttrMapping mapping : mappings) {
-            if (mapping.srcPos >= 0) {
-                if (hasCell) {
-                    line.append(",");
+        try {
+            if (copyIn == null) {
+                startCopy(session);
+            }
+            if (binaryFormat) {
+                binaryOut.writeShort(mappings.length);
+                for (AttrMapping mapping : mappings) {
+                    Object srcValue = getSourceValue(session, mapping, attributeValues[mapping.srcPos]);
+                    try {
+                        mapping.binaryEncoder.writeValue(binaryOut, srcValue);
+                    } catch (RuntimeException e) {
+                        throw new DBCException("Can't encode value of column " + mapping.tableAttr.getName() + " in binary format", e);
+                    }
                 }
-                Object srcValue = attributeValues[mapping.srcPos];
-                if (!DBUtils.isNullValue(srcValue)) {
-                    if (srcValue instanceof Number) {
-                        line.append(srcValue);
-                    } else {
-                        String strValue = mapping.valueHandler.getValueDisplayString(
-                            mapping.tableAttr, srcValue, DBDDisplayFormat.NATIVE);
-                        strValue = convertStringValueToCell(strValue);
-                        line.append(strValue);
+            } else {
+                line.setLength(0);
+                for (int i = 0; i < mappings.length; i++) {
+                    if (i > 0) {
+                        line.append(",");
+                    }
+                    AttrMapping mapping = mappings[i];
+                    Object srcValue = getSourceValue(session, mapping, attributeValues[mapping.srcPos]);
+                    if (srcValue != null) {
+                        if (srcValue instanceof Number) {
+                            line.append(srcValue);
+                        } else {
+                            String strValue = srcValue instanceof String ? (String) srcValue :
+                                mapping.valueHandler.getValueDisplayString(mapping.tableAttr, srcValue, DBDDisplayFormat.NATIVE);
+                            appendCell(strValue);
+                        }
                     }
                 }
-                hasCell = true;
+                line.append("\n");
+                buffer.write(line.toString().getBytes(StandardCharsets.UTF_8));
             }
-        }
-        line.append("\n");
-        try {
-            csvWriter.write(line.toString());
         } catch (IOException e) {
-            throw new DBCException("Error writing CSV line", e);
+            throw new DBCException("Error encoding COPY row", e);
+        }
+        if (buffer.size() >= copyBufferSize) {
+            writeBuffer();
         }
-    }
-
-    private String convertStringValueToCell(String strValue) {
-        return '"' +
-            strValue.replace("\"", "\\\"") +
-            '"';
     }
 
     @Override
     public void flushRows(@NotNull DBCSession session) throws DBCException {
-        try {
-            csvWriter.flush();
-        } catch (IOException e) {
-            throw new DBCException("Error saving CSV data", e);
-        }
+        endCopy(session);
     }
 
     @Override
     public void finishBulkLoad(@NotNull DBCSession session) throws DBCException {
-        try {
-            csvWriter.flush();
-            csvWriter.close();
-        } catch (IOException e) {
-            log.debug(e);
+        endCopy(session);
+        log.debug("COPY into " + table.getName() + " finished (" + statistics.getRowsUpdated() + " rows)");
+    }
+
+    @Override
+    public void close() {
+        buffer.reset();
+        if (copyIn != null) {
+            try {
+                cancelCopyMethod.invoke(copyIn);
+            } catch (Exception e) {
+                log.debug("Error canceling COPY", e);
+            }
+            copyIn = null;
+        }
+    }
+
+    private boolean isBinaryFormatEnabled(@Nullable Map<String, Object> options) {
+        Object value = options == null ? null : options.get(PostgreConstants.PROP_COPY_BINARY_FORMAT);
+        if (value == null) {
+            value = dataSource.getContainer().getConnectionConfiguration().getProviderProperty(PostgreConstants.PROP_COPY_BINARY_FORMAT);
+        }
+        return CommonUtils.toBoolean(value);
+    }
+
+    @Nullable
+    private Object getSourceValue(@NotNull DBCSession session, @NotNull AttrMapping mapping, @Nullable Object value) throws DBCException {
+        if (DBUtils.isNullValue(value)) {
+            return null;
+        }
+        if (value instanceof DBDContent) {
+            if (mapping.binaryEncoder == PostgreCopyBinaryEncoder.BYTEA) {
+                return ContentUtils.getContentBinaryValue(session.getProgressMonitor(), (DBDContent) value);
+            } else if (binaryFormat) {
+                return ContentUtils.getContentStringValue(session.getProgressMonitor(), (DBDContent) value);
+            }
         }
-        csvWriter = null;
+        return value;
+    }
 
-        String tableFQN = table.getFullyQualifiedName(DBPEvaluationContext.DML);
+    private void appendCell(@NotNull String value) {
+        line.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                line.append('"');
+            }
+            line.append(c);
+        }
+        line.append('"');
+    }
 
-        session.getProgressMonitor().subTask("Copy into " + tableFQN);
+    private void startCopy(@NotNull DBCSession session) throws DBCException {
+        session.getProgressMonitor().subTask("Copy into " + table.getFullyQualifiedName(DBPEvaluationContext.DML));
+        try {
+            copyIn = copyInMethod.invoke(copyManager, copyQuery);
+            statistics.addStatementsCount();
+            if (binaryFormat) {
+                PostgreCopyBinaryEncoder.writeHeader(binaryOut);
+            }
+        } catch (Throwable e) {
+            throw makeCopyError(e);
+        }
+    }
 
-        String queryText = "COPY " + tableFQN + " FROM STDIN (FORMAT CSV)";
+    private void writeBuffer() throws DBCException {
+        if (buffer.size() == 0) {
+            return;
+        }
+        try {
+            writeToCopyMethod.invoke(copyIn, buffer.getBuffer(), 0, buffer.size());
+        } catch (Throwable e) {
+            throw makeCopyError(e);
+        } finally {
+            buffer.reset();
+        }
+    }
 
+    private void endCopy(@NotNull DBCSession session) throws DBCException {
+        if (copyIn == null) {
+            return;
+        }
+        long startTime = System.currentTimeMillis();
         try {
-            Object rowCount;
-            try (Reader csvReader = Files.newBufferedReader(csvFile, StandardCharsets.UTF_8)) {
-                rowCount = copyInMethod.invoke(copyManager, queryText, csvReader, copyBufferSize);
+            if (binaryFormat) {
+                PostgreCopyBinaryEncoder.writeTrailer(binaryOut);
             }
+            writeBuffer();
+            Object rowCount = endCopyMethod.invoke(copyIn);
+            copyIn = null;
+            if (rowCount instanceof Number) {
+                statistics.addRowsUpdated(((Number) rowCount).longValue());
+            }
+            statistics.addExecuteTime(System.currentTimeMillis() - startTime);
 
             // Commit changes
             DBCTransactionManager txnManager = DBUtils.getTransactionManager(session.getExecutionContext());
@@ -218,26 +335,18 @@ public class PostgreCopyLoader implements DBSDataBulkLoader, DBSDataBulkLoader.B
                 session.getProgressMonitor().subTask("Commit COPY");
                 txnManager.commit(session);
             }
-
-            log.debug("CSV has been imported (" + rowCount + ")");
+        } catch (DBCException e) {
+            throw e;
         } catch (Throwable e) {
-            if (e instanceof InvocationTargetException) {
-                e = ((InvocationTargetException) e).getTargetException();
-            }
-            throw new DBCException("Error copying dataset on remote server", e);
+            throw makeCopyError(e);
         }
     }
 
-    @Override
-
-    public void close() {
-        if (csvFile != null && Files.exists(csvFile)) {
-            try {
-                Files.delete(csvFile);
-            } catch (IOException e) {
-                log.debug("Error deleting CSV file " + csvFile, e);
-                csvFile.toFile().deleteOnExit();
-            }
+    @NotNull
+    private static DBCException makeCopyError(@NotNull Throwable e) {
+        if (e instanceof InvocationTargetException) {
+            e = ((InvocationTargetException) e).getTargetException();
         }
+        return new DBCException("Error copying dataset on remote server", e);
     }
 }
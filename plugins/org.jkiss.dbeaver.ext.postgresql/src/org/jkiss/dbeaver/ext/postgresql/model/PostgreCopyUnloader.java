@@ -0,0 +1,190 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.postgresql.model;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.sql.SQLQuery;
+import org.jkiss.dbeaver.model.sql.SQLQueryContainer;
+import org.jkiss.dbeaver.model.sql.SQLQueryType;
+import org.jkiss.dbeaver.model.sql.SQLScriptElement;
+import org.jkiss.dbeaver.model.sql.SQLUtils;
+import org.jkiss.dbeaver.model.struct.DBSDataBulkUnloader;
+import org.jkiss.dbeaver.model.struct.DBSDataContainer;
+import org.jkiss.dbeaver.utils.GeneralUtils;
+import org.jkiss.utils.CommonUtils;
+
+import java.io.OutputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.charset.Charset;
+import java.sql.Connection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Unloader based on CopyManager
+ *
+ * //        long rows = new CopyManager((BaseConnection) conn).copyOut("COPY (SELECT * FROM table1) TO STDOUT (FORMAT csv)", out);
+ *
+ * Server encodes data in the requested encoding, so bytes are written into the output stream as is.
+ * Tables are unloaded with a query, because COPY of a table doesn't support views and doesn't include child partitions.
+ */
+public class PostgreCopyUnloader implements DBSDataBulkUnloader {
+
+    private static final Map<String, String> ENCODINGS = new HashMap<>();
+
+    static {
+        ENCODINGS.put("UTF-8", "UTF8");
+        ENCODINGS.put("ISO-8859-1", "LATIN1");
+        ENCODINGS.put("ISO-8859-2", "LATIN2");
+        ENCODINGS.put("ISO-8859-3", "LATIN3");
+        ENCODINGS.put("ISO-8859-4", "LATIN4");
+        ENCODINGS.put("ISO-8859-5", "ISO_8859_5");
+        ENCODINGS.put("ISO-8859-6", "ISO_8859_6");
+        ENCODINGS.put("ISO-8859-7", "ISO_8859_7");
+        ENCODINGS.put("ISO-8859-8", "ISO_8859_8");
+        ENCODINGS.put("ISO-8859-9", "LATIN5");
+        ENCODINGS.put("ISO-8859-13", "LATIN7");
+        ENCODINGS.put("ISO-8859-15", "LATIN9");
+        ENCODINGS.put("KOI8-R", "KOI8R");
+        ENCODINGS.put("KOI8-U", "KOI8U");
+        ENCODINGS.put("EUC-JP", "EUC_JP");
+        ENCODINGS.put("EUC-KR", "EUC_KR");
+        ENCODINGS.put("Shift_JIS", "SJIS");
+        ENCODINGS.put("GBK", "GBK");
+        ENCODINGS.put("GB18030", "GB18030");
+        ENCODINGS.put("Big5", "BIG5");
+        ENCODINGS.put("IBM866", "WIN866");
+        ENCODINGS.put("x-IBM874", "WIN874");
+        for (int i = 1250; i <= 1258; i++) {
+            ENCODINGS.put("windows-" + i, "WIN" + i);
+        }
+    }
+
+    private final PostgreDataSource dataSource;
+
+    public PostgreCopyUnloader(PostgreDataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public boolean isUnloadSupported(@NotNull DBSDataContainer dataContainer, @NotNull TextFormat format) {
+        if (getSourceQuery(dataContainer) == null || getServerEncoding(format.getEncoding()) == null) {
+            return false;
+        }
+        char delimiter = format.getDelimiter();
+        char quoteChar = format.getQuoteChar();
+        // Both must be single-byte characters
+        if (delimiter == quoteChar || !isValidSpecialChar(delimiter) || !isValidSpecialChar(quoteChar)) {
+            return false;
+        }
+        String nullString = CommonUtils.notEmpty(format.getNullString());
+        return nullString.indexOf(delimiter) == -1 && nullString.indexOf(quoteChar) == -1 &&
+            nullString.indexOf('\r') == -1 && nullString.indexOf('\n') == -1;
+    }
+
+    @Override
+    public long unloadData(
+        @NotNull DBCSession session,
+        @NotNull DBSDataContainer dataContainer,
+        @NotNull TextFormat format,
+        @NotNull OutputStream outputStream)
+        throws DBCException
+    {
+        String sourceQuery = getSourceQuery(dataContainer);
+        String encoding = getServerEncoding(format.getEncoding());
+        if (sourceQuery == null || encoding == null) {
+            throw new DBCException("COPY TO is not supported for " + dataContainer.getName());
+        }
+        StringBuilder copyQuery = new StringBuilder();
+        copyQuery.append("COPY (").append(sourceQuery).append(") TO STDOUT (FORMAT CSV")
+            .append(", DELIMITER ").append(SQLUtils.quoteString(dataSource, String.valueOf(format.getDelimiter())))
+            .append(", QUOTE ").append(SQLUtils.quoteString(dataSource, String.valueOf(format.getQuoteChar())))
+            .append(", NULL ").append(SQLUtils.quoteString(dataSource, CommonUtils.notEmpty(format.getNullString())));
+        if (format.isHeader()) {
+            copyQuery.append(", HEADER");
+        }
+        if (format.isQuoteAll()) {
+            copyQuery.append(", FORCE_QUOTE *");
+        }
+        copyQuery.append(", ENCODING ").append(SQLUtils.quoteString(dataSource, encoding)).append(")");
+
+        session.getProgressMonitor().subTask("Copy from " + dataContainer.getName());
+        try {
+            // Use reflection to create copy manager
+            Connection pgConnection = ((JDBCSession) session).getOriginal();
+            ClassLoader driverClassLoader = pgConnection.getClass().getClassLoader();
+
+            Class<?> baseConnectionClass = Class.forName("org.postgresql.core.BaseConnection", true, driverClassLoader);
+            Class<?> copyManagerClass = Class.forName("org.postgresql.copy.CopyManager", true, driverClassLoader);
+
+            Object copyManager = copyManagerClass.getConstructor(baseConnectionClass).newInstance(pgConnection);
+            Object rowCount = copyManagerClass.getMethod("copyOut", String.class, OutputStream.class)
+                .invoke(copyManager, copyQuery.toString(), outputStream);
+            return rowCount instanceof Number ? ((Number) rowCount).longValue() : 0;
+        } catch (Throwable e) {
+            if (e instanceof InvocationTargetException) {
+                e = ((InvocationTargetException) e).getTargetException();
+            }
+            throw new DBCException("Error copying data from remote server", e);
+        }
+    }
+
+    /**
+     * Returns query which reads all data of the container or null if container isn't supported
+     */
+    @Nullable
+    private static String getSourceQuery(@NotNull DBSDataContainer dataContainer) {
+        if (dataContainer instanceof PostgreTableBase) {
+            return "SELECT * FROM " + ((PostgreTableBase) dataContainer).getFullyQualifiedName(DBPEvaluationContext.DML);
+        }
+        SQLQueryContainer queryContainer = GeneralUtils.adapt(dataContainer, SQLQueryContainer.class);
+        if (queryContainer != null) {
+            SQLScriptElement element = queryContainer.getQuery();
+            if (element instanceof SQLQuery) {
+                SQLQuery query = (SQLQuery) element;
+                if (query.getType() == SQLQueryType.SELECT && !query.isModifiyng() &&
+                    CommonUtils.isEmpty(query.getParameters()) && CommonUtils.isEmpty(queryContainer.getQueryParameters()))
+                {
+                    String text = query.getText().trim();
+                    while (text.endsWith(";")) {
+                        text = text.substring(0, text.length() - 1).trim();
+                    }
+                    return text;
+                }
+            }
+        }
+        return null;
+    }
+
+    @Nullable
+    private static String getServerEncoding(@NotNull String encoding) {
+        try {
+            return ENCODINGS.get(Charset.forName(encoding).name());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static boolean isValidSpecialChar(char c) {
+        return c > 0 && c < 0x80 && c != '\r' && c != '\n';
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.postgresql.model;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCResultSet;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.exec.DBCStatement;
+import org.jkiss.dbeaver.model.struct.DBSDataChecksumProvider;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
+import org.jkiss.utils.CommonUtils;
+
+import java.util.List;
+
+/**
+ * Checksum is a sum of the first 64 bits of MD5 hashes of row text representations.
+ */
+public class PostgreDataChecksumProvider implements DBSDataChecksumProvider {
+
+    private final PostgreDataSource dataSource;
+
+    public PostgreDataChecksumProvider(PostgreDataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @NotNull
+    @Override
+    public Checksum calculateChecksum(
+        @NotNull DBCSession session,
+        @NotNull DBSEntity entity,
+        @NotNull List<? extends DBSEntityAttribute> attributes,
+        @Nullable String condition
+    ) throws DBCException {
+        StringBuilder query = new StringBuilder();
+        query.append("SELECT COUNT(*), COALESCE(SUM(('x' || SUBSTR(MD5(ROW(");
+        for (int i = 0; i < attributes.size(); i++) {
+            if (i > 0) {
+                query.append(',');
+            }
+            query.append(DBUtils.getQuotedIdentifier(attributes.get(i)));
+        }
+        query.append(")::text), 1, 16))::bit(64)::bigint), 0)::text FROM ")
+            .append(DBUtils.getObjectFullName(dataSource, entity, DBPEvaluationContext.DML));
+        if (!CommonUtils.isEmpty(condition)) {
+            query.append(" WHERE ").append(condition);
+        }
+        try (DBCStatement dbStat = DBUtils.makeStatement(session, query.toString(), false)) {
+            if (dbStat.executeStatement()) {
+                try (DBCResultSet dbResult = dbStat.openResultSet()) {
+                    if (dbResult != null && dbResult.nextRow()) {
+                        return new Checksum(
+                            CommonUtils.toLong(dbResult.getAttributeValue(0)),
+                            CommonUtils.toString(dbResult.getAttributeValue(1)));
+                    }
+                }
+            }
+        }
+        throw new DBCException("Can't calculate checksum of '" + entity.getName() + "'");
+    }
+}
@@ -588,6 +588,12 @@ public class PostgreDataSource extends JDBCDataSource implements DBSInstanceCont
             if (getServerType().supportsCopyFromStdIn()) {
                 return adapter.cast(new PostgreCopyLoader(this));
             }
+        } else if (adapter == DBSDataBulkUnloader.class) {
+            if (getServerType().supportsCopyFromStdIn()) {
+                return adapter.cast(new PostgreCopyUnloader(this));
+            }
+        } else if (adapter == DBSDataChecksumProvider.class) {
+            return adapter.cast(new PostgreDataChecksumProvider(this));
         } else if (adapter == DBAUserPasswordManager.class) {
             if (getServerType().supportsAlterUserChangePassword()) {
                 return adapter.cast(new PostgresUserPasswordManager(this));
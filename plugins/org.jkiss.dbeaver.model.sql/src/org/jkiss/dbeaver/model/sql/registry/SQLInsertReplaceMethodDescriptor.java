@@ -21,6 +21,7 @@ import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.model.data.DBDInsertReplaceMethod;
 import org.jkiss.dbeaver.model.impl.AbstractContextDescriptor;
 import org.jkiss.dbeaver.model.impl.AbstractDescriptor;
+import org.jkiss.utils.CommonUtils;
 
 public class SQLInsertReplaceMethodDescriptor extends AbstractContextDescriptor {
 
@@ -29,6 +30,7 @@ public class SQLInsertReplaceMethodDescriptor extends AbstractContextDescriptor
     private final String id;
     private final String label;
     private final String description;
+    private final boolean upsert;
     private final AbstractDescriptor.ObjectType implClass;
 
     public SQLInsertReplaceMethodDescriptor(IConfigurationElement config) {
@@ -37,6 +39,7 @@ public class SQLInsertReplaceMethodDescriptor extends AbstractContextDescriptor
         this.implClass = new AbstractDescriptor.ObjectType(config.getAttribute("class"));
         this.label = config.getAttribute("label");
         this.description = config.getAttribute("description");
+        this.upsert = CommonUtils.toBoolean(config.getAttribute("upsert"));
     }
 
     public String getId() {
@@ -51,6 +54,13 @@ public class SQLInsertReplaceMethodDescriptor extends AbstractContextDescriptor
         return description;
     }
 
+    /**
+     * Method updates existing rows with new values (unlike methods which just skip duplicates)
+     */
+    public boolean isUpsert() {
+        return upsert;
+    }
+
     public DBDInsertReplaceMethod createInsertMethod() throws DBException {
         return implClass.createInstance(DBDInsertReplaceMethod.class);
     }
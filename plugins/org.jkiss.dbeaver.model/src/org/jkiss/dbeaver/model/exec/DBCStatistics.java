@@ -184,6 +184,11 @@ public class DBCStatistics implements DBCExecutionResult {
                 addInfo(info.getKey(), info.getValue());
             }
         }
+        if (!CommonUtils.isEmpty(stat.warnings)) {
+            for (Throwable warning : stat.warnings) {
+                addWarning(warning);
+            }
+        }
     }
 
     public void reset() {
@@ -141,9 +141,7 @@ public abstract class ExecuteBatchImpl implements DBSDataManipulator.ExecuteBatc
 
                 boolean reuse = !skipBindValues && reuseStatement;
                 if (reuse) {
-                    for (int i = 0; i < rowValues.length; i++) {
-                        nulls[i] = DBUtils.isNullValue(rowValues[i]);
-                    }
+                    fillNullsMask(rowValues, nulls);
                     if (!Arrays.equals(prevNulls, nulls) && statementsInBatch > 0) {
                         reuse = false;
                     }
@@ -226,6 +224,17 @@ public abstract class ExecuteBatchImpl implements DBSDataManipulator.ExecuteBatc
         return statistics;
     }
 
+    /**
+     * Fills mask of null values which affect the statement prepared for the row.
+     * Rows with different masks can't be executed with the same statement.
+     * By default all null values are significant because they may be omitted from the statement.
+     */
+    protected void fillNullsMask(@NotNull Object[] rowValues, @NotNull boolean[] nulls) {
+        for (int i = 0; i < rowValues.length; i++) {
+            nulls[i] = DBUtils.isNullValue(rowValues[i]);
+        }
+    }
+
     protected int getNextUsedParamIndex(Object[] attributeValues, int paramIndex) {
         return paramIndex + 1;
     }
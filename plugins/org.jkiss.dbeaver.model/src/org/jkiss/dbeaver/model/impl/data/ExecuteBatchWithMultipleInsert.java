@@ -21,6 +21,7 @@ import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.model.DBUtils;
 import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
 import org.jkiss.dbeaver.model.data.DBDDataReceiver;
+import org.jkiss.dbeaver.model.data.DBDValueBinder;
 import org.jkiss.dbeaver.model.data.DBDValueHandler;
 import org.jkiss.dbeaver.model.edit.DBEPersistAction;
 import org.jkiss.dbeaver.model.exec.*;
@@ -33,8 +34,12 @@ import java.util.*;
 
 public class ExecuteBatchWithMultipleInsert extends ExecuteInsertBatchImpl {
 
+    private static final int MAX_QUERY_TEMPLATES = 16;
+
     private final DBCExecutionSource source;
     private DBSTable table;
+    // Query texts by template key (see makeTemplateKey)
+    private final Map<Integer, String> queryTemplates = new HashMap<>();
 
     /**
      * Constructs new batch
@@ -70,8 +75,13 @@ public class ExecuteBatchWithMultipleInsert extends ExecuteInsertBatchImpl {
     @Override
     protected DBCStatement prepareStatement(@NotNull DBCSession session, DBDValueHandler[] handlers, Object[] attributeValues, Map<String, Object> options) throws DBCException {
         StringBuilder queryForStatement = prepareQueryForStatement(session, handlers, attributeValues, attributes, table, true, options);
+        return prepareStatement(session, queryForStatement.toString());
+    }
+
+    @NotNull
+    private DBCStatement prepareStatement(@NotNull DBCSession session, @NotNull String query) throws DBCException {
         // Execute
-        DBCStatement dbStat = session.prepareStatement(DBCStatementType.QUERY, queryForStatement.toString(), false, false, keysReceiver != null);
+        DBCStatement dbStat = session.prepareStatement(DBCStatementType.QUERY, query, false, false, keysReceiver != null);
         dbStat.setStatementSource(source);
         return dbStat;
     }
@@ -93,35 +103,46 @@ public class ExecuteBatchWithMultipleInsert extends ExecuteInsertBatchImpl {
         DBCStatement batchStatement = null;
 
         try {
-            int multiRowInsertBatchSize = CommonUtils.toInt(options.get(DBSDataManipulator.OPTION_MULTI_INSERT_BATCH_SIZE), 100);
+            int multiRowInsertBatchSize = Math.max(1, CommonUtils.toInt(options.get(DBSDataManipulator.OPTION_MULTI_INSERT_BATCH_SIZE), 100));
             boolean skipBindValues = CommonUtils.toBoolean(options.get(DBSDataManipulator.OPTION_SKIP_BIND_VALUES));
 
-
             int rowsCount = values.size();
+            Integer batchTemplateKey = null;
+            String batchQuery = null;
             List<Object> multiRowInsertBatchValuesList = new ArrayList<>();
             for (int i = 0; i < rowsCount; i++) {
                 if (session.getProgressMonitor().isCanceled()) {
                     break;
                 }
-                Object[] objects = values.get(i);
+                Collections.addAll(multiRowInsertBatchValuesList, values.get(i));
                 // Execute batch if it has a suitable size, or this are the last values
-                if (i == rowsCount - 1 || (i != 0 && i % multiRowInsertBatchSize == 0)) {
-                    // We can reuse statement, but not for the last values (their amount can be different from previous batches)
-                    if (i == rowsCount - 1) {
-                        Collections.addAll(multiRowInsertBatchValuesList, objects);
-                        Object[] allMultiInsertValues = multiRowInsertBatchValuesList.toArray(new Object[0]);
-                        try (DBCStatement statement = prepareStatement(session, handlers, allMultiInsertValues, options)) {
-                            bindAndFlushStatement(handlers, statistics, statement, allMultiInsertValues, skipBindValues);
-                            multiRowInsertBatchValuesList.clear();
-                            break;
+                if ((i + 1) % multiRowInsertBatchSize == 0 || i == rowsCount - 1) {
+                    Object[] allMultiInsertValues = multiRowInsertBatchValuesList.toArray(new Object[0]);
+                    Integer templateKey = skipBindValues ? null : makeTemplateKey(handlers, allMultiInsertValues);
+                    if (batchStatement == null || templateKey == null || !templateKey.equals(batchTemplateKey)) {
+                        String query = templateKey == null ? null : queryTemplates.get(templateKey);
+                        if (query == null) {
+                            query = prepareQueryForStatement(session, handlers, allMultiInsertValues, attributes, table, true, options).toString();
+                            if (templateKey != null) {
+                                if (queryTemplates.size() >= MAX_QUERY_TEMPLATES) {
+                                    queryTemplates.clear();
+                                }
+                                queryTemplates.put(templateKey, query);
+                            }
+                        }
+                        if (batchStatement == null || !query.equals(batchQuery)) {
+                            if (batchStatement != null) {
+                                batchStatement.close();
+                                batchStatement = null;
+                            }
+                            batchStatement = prepareStatement(session, query);
+                            batchQuery = query;
                         }
+                        batchTemplateKey = templateKey;
                     }
-                    Object[] allMultiInsertValuesBatch = multiRowInsertBatchValuesList.toArray(new Object[0]);
-                    batchStatement = prepareStatement(session, handlers, allMultiInsertValuesBatch, options);
-                    bindAndFlushStatement(handlers, statistics, batchStatement, allMultiInsertValuesBatch, skipBindValues);
+                    bindAndFlushStatement(handlers, statistics, batchStatement, allMultiInsertValues, skipBindValues);
                     multiRowInsertBatchValuesList.clear();
                 }
-                Collections.addAll(multiRowInsertBatchValuesList, objects);
             }
             values.clear();
         } finally {
@@ -133,6 +154,32 @@ public class ExecuteBatchWithMultipleInsert extends ExecuteInsertBatchImpl {
         return statistics;
     }
 
+    /**
+     * Makes key of the query text for the batch values.
+     * With bound values the query depends on the number of rows and on the first row nulls
+     * (all nulls are replaced with DEFAULT). Value binders may make different query for each value,
+     * so such queries are not cached.
+     *
+     * @return template key or null if query text must be generated for these values
+     */
+    @Nullable
+    private Integer makeTemplateKey(@NotNull DBDValueHandler[] handlers, @NotNull Object[] allMultiInsertValues) {
+        for (DBDValueHandler handler : handlers) {
+            if (handler instanceof DBDValueBinder) {
+                return null;
+            }
+        }
+        boolean firstRowNulls = true;
+        for (int i = 0; i < attributes.length; i++) {
+            if (!DBUtils.isNullValue(allMultiInsertValues[i])) {
+                firstRowNulls = false;
+                break;
+            }
+        }
+        int rowCount = allMultiInsertValues.length / attributes.length;
+        return firstRowNulls ? -rowCount : rowCount;
+    }
+
     private void bindAndFlushStatement(DBDValueHandler[] handlers, DBCStatistics statistics, DBCStatement batchStatement, Object[] allMultiInsertValues, boolean skipBindValues) throws DBCException {
         statistics.setQueryText(batchStatement.getQueryString());
         statistics.addStatementsCount();
@@ -23,6 +23,7 @@ import org.jkiss.dbeaver.model.DBPDataSource;
 import org.jkiss.dbeaver.model.DBPEvaluationContext;
 import org.jkiss.dbeaver.model.DBUtils;
 import org.jkiss.dbeaver.model.data.*;
+import org.jkiss.dbeaver.model.edit.DBEPersistAction;
 import org.jkiss.dbeaver.model.exec.*;
 import org.jkiss.dbeaver.model.impl.jdbc.struct.JDBCTable;
 import org.jkiss.dbeaver.model.impl.sql.BaseInsertMethod;
@@ -47,6 +48,9 @@ public class ExecuteInsertBatchImpl extends ExecuteBatchImpl {
     private boolean useUpsert;
     private boolean allNulls;
     private boolean allColumnsDefault;
+    private boolean bindNullValues;
+    // Columns which must be omitted from the insert if value is null, so the database could assign the default value
+    private boolean[] omitNullColumns;
 
     /**
      * Constructs new batch
@@ -63,10 +67,47 @@ public class ExecuteInsertBatchImpl extends ExecuteBatchImpl {
         this.useUpsert = useUpsert;
     }
 
+    @NotNull
+    @Override
+    DBCStatistics processBatch(@NotNull DBCSession session, @Nullable List<DBEPersistAction> actions, Map<String, Object> options) throws DBCException {
+        bindNullValues = CommonUtils.toBoolean(options.get(DBSDataManipulator.OPTION_BIND_NULL_VALUES)) &&
+            !CommonUtils.toBoolean(options.get(DBSDataManipulator.OPTION_SKIP_BIND_VALUES));
+        if (bindNullValues && omitNullColumns == null) {
+            omitNullColumns = new boolean[attributes.length];
+            for (int i = 0; i < attributes.length; i++) {
+                omitNullColumns[i] = attributes[i].isAutoGenerated() || hasDefaultValue(attributes[i]);
+            }
+        }
+        return super.processBatch(session, actions, options);
+    }
+
+    @Override
+    protected void fillNullsMask(@NotNull Object[] rowValues, @NotNull boolean[] nulls) {
+        if (!bindNullValues) {
+            super.fillNullsMask(rowValues, nulls);
+            return;
+        }
+        // Only omitted columns change the statement. Rows with all nulls make a special statement.
+        boolean rowNulls = true;
+        for (Object value : rowValues) {
+            if (!DBUtils.isNullValue(value)) {
+                rowNulls = false;
+                break;
+            }
+        }
+        for (int i = 0; i < rowValues.length; i++) {
+            nulls[i] = rowNulls || isOmittedNull(i, rowValues[i]);
+        }
+    }
+
+    private boolean isOmittedNull(int index, @Nullable Object value) {
+        return DBUtils.isNullValue(value) && (!bindNullValues || omitNullColumns[index]);
+    }
+
     protected int getNextUsedParamIndex(Object[] attributeValues, int paramIndex) {
         paramIndex++;
         DBSAttributeBase attribute = attributes[paramIndex];
-        while (DBUtils.isPseudoAttribute(attribute) || (!allNulls && DBUtils.isNullValue(attributeValues[paramIndex]))) {
+        while (DBUtils.isPseudoAttribute(attribute) || (!allNulls && isOmittedNull(paramIndex, attributeValues[paramIndex]))) {
             paramIndex++;
         }
         return paramIndex;
@@ -97,7 +138,7 @@ public class ExecuteInsertBatchImpl extends ExecuteBatchImpl {
         int paramIndex = 0;
         for (int k = 0; k < handlers.length; k++) {
             DBSAttributeBase attribute = attributes[k];
-            if (DBUtils.isPseudoAttribute(attribute) || (!allNulls && DBUtils.isNullValue(attributeValues[k]))) {
+            if (DBUtils.isPseudoAttribute(attribute) || (!allNulls && isOmittedNull(k, attributeValues[k]))) {
                 continue;
             }
             if (allNulls && attributeHasDefaultValue(attribute)) {
@@ -159,7 +200,7 @@ public class ExecuteInsertBatchImpl extends ExecuteBatchImpl {
         List<Integer> usedAttributes = new ArrayList<Integer>();
         for (int i = 0; i < attributes.length; i++) {
             DBSAttributeBase attribute = attributes[i];
-            if (DBUtils.isPseudoAttribute(attribute) || (!useMultiRowInsert && (!allNulls && DBUtils.isNullValue(attributeValues[i])))) {
+            if (DBUtils.isPseudoAttribute(attribute) || (!useMultiRowInsert && (!allNulls && isOmittedNull(i, attributeValues[i])))) {
                 continue;
             }
             if (hasKey) query.append(","); //$NON-NLS-1$
@@ -208,7 +249,14 @@ public class ExecuteInsertBatchImpl extends ExecuteBatchImpl {
         return query;
     }
 
-    private boolean attributeHasDefaultValue(@NotNull DBSAttributeBase attribute) {
+    private static boolean hasDefaultValue(@NotNull DBSAttributeBase attribute) {
+        if (attribute instanceof DBSEntityAttribute) {
+            return CommonUtils.isNotEmpty(((DBSEntityAttribute) attribute).getDefaultValue());
+        }
+        return attributeHasDefaultValue(attribute);
+    }
+
+    private static boolean attributeHasDefaultValue(@NotNull DBSAttributeBase attribute) {
         if (DBUtils.isPseudoAttribute(attribute) || DBUtils.isHiddenObject(attribute)) {
             return false;
         }
@@ -18,9 +18,11 @@
 package org.jkiss.dbeaver.model.struct;
 
 import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
 import org.jkiss.dbeaver.model.exec.DBCException;
 import org.jkiss.dbeaver.model.exec.DBCExecutionSource;
 import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.exec.DBCStatistics;
 
 import java.util.Map;
 
@@ -32,10 +34,30 @@ public interface DBSDataBulkLoader {
     interface BulkLoadManager extends AutoCloseable {
         void addRow(@NotNull DBCSession session, @NotNull Object[] attributeValues) throws DBCException;
 
+        /**
+         * Sends added rows to the database. Flushed rows are not committed (unless loader requires it),
+         * the caller is responsible for the commit.
+         */
         void flushRows(@NotNull DBCSession session) throws DBCException;
 
+        /**
+         * Returns number of added rows which are kept by the loader even after {@link #flushRows}
+         * and are sent to the database later. Such rows are lost if the load is interrupted.
+         */
+        default long getPendingRowCount() {
+            return 0;
+        }
+
         void finishBulkLoad(@NotNull DBCSession session) throws DBCException;
 
+        /**
+         * Returns statistics (loaded rows, warnings) collected by the loader or null if loader doesn't collect them
+         */
+        @Nullable
+        default DBCStatistics getStatistics() {
+            return null;
+        }
+
         void close();
     }
 
@@ -0,0 +1,108 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.jkiss.dbeaver.model.struct;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+
+import java.io.OutputStream;
+
+/**
+ * Data bulk unloader.
+ * Writes contents of a data container into a stream in a delimited text format using database native facilities.
+ */
+public interface DBSDataBulkUnloader {
+
+    /**
+     * Delimited text format settings
+     */
+    class TextFormat {
+        private final char delimiter;
+        private final char quoteChar;
+        private final boolean quoteAll;
+        private final boolean header;
+        @Nullable
+        private final String nullString;
+        @NotNull
+        private final String encoding;
+
+        public TextFormat(char delimiter, char quoteChar, boolean quoteAll, boolean header, @Nullable String nullString, @NotNull String encoding) {
+            this.delimiter = delimiter;
+            this.quoteChar = quoteChar;
+            this.quoteAll = quoteAll;
+            this.header = header;
+            this.nullString = nullString;
+            this.encoding = encoding;
+        }
+
+        public char getDelimiter() {
+            return delimiter;
+        }
+
+        public char getQuoteChar() {
+            return quoteChar;
+        }
+
+        /**
+         * Quote all non-null values. Otherwise only values which contain special characters are quoted.
+         */
+        public boolean isQuoteAll() {
+            return quoteAll;
+        }
+
+        /**
+         * Write column names in the first line
+         */
+        public boolean isHeader() {
+            return header;
+        }
+
+        @Nullable
+        public String getNullString() {
+            return nullString;
+        }
+
+        /**
+         * Java charset name of the output
+         */
+        @NotNull
+        public String getEncoding() {
+            return encoding;
+        }
+    }
+
+    /**
+     * Checks whether data of the specified container can be unloaded in the specified format
+     */
+    boolean isUnloadSupported(@NotNull DBSDataContainer dataContainer, @NotNull TextFormat format);
+
+    /**
+     * Writes all data of the container into the stream. Lines are always terminated with LF.
+     *
+     * @return number of unloaded rows
+     */
+    long unloadData(
+        @NotNull DBCSession session,
+        @NotNull DBSDataContainer dataContainer,
+        @NotNull TextFormat format,
+        @NotNull OutputStream outputStream)
+        throws DBCException;
+
+}
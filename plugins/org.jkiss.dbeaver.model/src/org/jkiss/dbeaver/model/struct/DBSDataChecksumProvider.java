@@ -0,0 +1,74 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.struct;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+
+import java.util.List;
+
+/**
+ * Calculates checksums of table data on the server side.
+ * Checksums of different tables may be compared only if they were calculated by the same provider type.
+ */
+public interface DBSDataChecksumProvider {
+
+    class Checksum {
+        private final long rowCount;
+        private final String value;
+
+        public Checksum(long rowCount, @NotNull String value) {
+            this.rowCount = rowCount;
+            this.value = value;
+        }
+
+        public long getRowCount() {
+            return rowCount;
+        }
+
+        @NotNull
+        public String getValue() {
+            return value;
+        }
+
+        public boolean isSameData(@NotNull Checksum checksum) {
+            return rowCount == checksum.rowCount && value.equals(checksum.value);
+        }
+
+        @Override
+        public String toString() {
+            return rowCount + ":" + value;
+        }
+    }
+
+    /**
+     * Calculates checksum of attribute values of rows which match the condition.
+     * Checksum doesn't depend on rows order.
+     *
+     * @param condition SQL condition or null for all rows
+     */
+    @NotNull
+    Checksum calculateChecksum(
+        @NotNull DBCSession session,
+        @NotNull DBSEntity entity,
+        @NotNull List<? extends DBSEntityAttribute> attributes,
+        @Nullable String condition)
+        throws DBCException;
+
+}
@@ -473,15 +473,19 @@ public abstract class DBVUtils {
         return nsList;
     }
 
-    public static JexlExpression parseExpression(String expression) {
+    @NotNull
+    public static JexlEngine createExpressionEngine() {
         Map<String, Object> nsList = getExpressionNamespaces();
 
         JexlBuilder jexlBuilder = new JexlBuilder();
         jexlBuilder.cache(100);
         jexlBuilder.namespaces(nsList);
 
-        JexlEngine jexlEngine = jexlBuilder.create();
-        return jexlEngine.createExpression(expression);
+        return jexlBuilder.create();
+    }
+
+    public static JexlExpression parseExpression(String expression) {
+        return createExpressionEngine().createExpression(expression);
     }
 
     public static boolean isIdentifyingAttributes(@NotNull DBRProgressMonitor monitor, @NotNull List<DBSEntityAttribute> attributes) throws DBException {
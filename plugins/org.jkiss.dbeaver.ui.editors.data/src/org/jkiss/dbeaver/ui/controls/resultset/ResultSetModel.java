@@ -29,6 +29,7 @@ import org.jkiss.dbeaver.model.DBUtils;
 import org.jkiss.dbeaver.model.data.*;
 import org.jkiss.dbeaver.model.exec.*;
 import org.jkiss.dbeaver.model.exec.trace.DBCTrace;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
 import org.jkiss.dbeaver.model.struct.*;
 import org.jkiss.dbeaver.model.virtual.DBVColorOverride;
 import org.jkiss.dbeaver.model.virtual.DBVEntity;
@@ -1106,37 +1107,67 @@ public class ResultSetModel {
     }
 
     public void resetOrdering() {
-        final boolean hasOrdering = dataFilter.hasOrdering();
+        List<ResultSetRow> sortedRows = createRowSorter().sortRows(new VoidProgressMonitor());
+        if (sortedRows != null) {
+            applyRowsOrder(curRows, sortedRows);
+        }
+    }
 
+    /**
+     * Creates sorter of the current rows according to the current ordering.
+     * Rows and values of ordering columns are copied, so the returned sorter may be used in a background thread.
+     * Must be called in UI thread.
+     */
+    @NotNull
+    ResultSetRowSorter createRowSorter() {
         // First sort in original order to reset multi-column orderings
-        curRows.sort(Comparator.comparingInt(ResultSetRow::getRowNumber));
-
-        if (hasOrdering) {
-            // Sort locally
-            final List<DBDAttributeConstraint> orderConstraints = dataFilter.getOrderConstraints();
-            curRows.sort((row1, row2) -> {
-                int result = 0;
-                for (DBDAttributeConstraint co : orderConstraints) {
-                    final DBDAttributeBinding binding = getAttributeBinding(co.getAttribute());
-                    if (binding == null) {
-                        continue;
-                    }
-                    Object cell1 = getCellValue(new ResultSetCellLocation(binding, row1));
-                    Object cell2 = getCellValue(new ResultSetCellLocation(binding, row2));
-                    result = DBUtils.compareDataValues(cell1, cell2);
-                    if (co.isOrderDescending()) {
-                        result = -result;
-                    }
-                    if (result != 0) {
-                        break;
-                    }
+        List<ResultSetRow> rows = new ArrayList<>(curRows);
+        rows.sort(Comparator.comparingInt(ResultSetRow::getRowNumber));
+
+        List<DBDAttributeConstraint> orderConstraints = dataFilter.getOrderConstraints();
+        List<Object[]> columnValues = new ArrayList<>(orderConstraints.size());
+        boolean[] descending = new boolean[orderConstraints.size()];
+        for (DBDAttributeConstraint co : orderConstraints) {
+            final DBDAttributeBinding binding = getAttributeBinding(co.getAttribute());
+            if (binding == null) {
+                continue;
+            }
+            Object[] values = new Object[rows.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = getCellValue(binding, rows.get(i));
+            }
+            descending[columnValues.size()] = co.isOrderDescending();
+            columnValues.add(values);
+        }
+        return new ResultSetRowSorter(rows, columnValues, descending);
+    }
+
+    /**
+     * Sets order of rows previously sorted by {@link ResultSetRowSorter}.
+     *
+     * @param sourceRows rows which were sorted
+     * @param sortedRows sorted rows
+     * @return false if model rows were changed since the sort start
+     */
+    boolean applyRowsOrder(@NotNull List<ResultSetRow> sourceRows, @NotNull List<ResultSetRow> sortedRows) {
+        if (sourceRows != curRows) {
+            if (sortedRows.size() != curRows.size()) {
+                return false;
+            }
+            Set<ResultSetRow> currentRows = Collections.newSetFromMap(new IdentityHashMap<>());
+            currentRows.addAll(curRows);
+            for (ResultSetRow row : sortedRows) {
+                if (!currentRows.contains(row)) {
+                    return false;
                 }
-                return result;
-            });
+            }
         }
+        curRows.clear();
+        curRows.addAll(sortedRows);
         for (int i = 0; i < curRows.size(); i++) {
             curRows.get(i).setVisualNumber(i);
         }
+        return true;
     }
 
     private void fillVisibleAttributes() {
@@ -0,0 +1,260 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.resultset;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+
+import java.math.BigInteger;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Client-side sorter of result set rows.
+ * <p>
+ * Rows and values of ordering columns are copied when sorter is created (in UI thread), so the sort itself
+ * may run in a background thread while the model changes.
+ * Values are stored in primitive arrays when all values of a column allow it (integers, floating point numbers, dates).
+ * Row indexes are then sorted with a stable parallel sort.
+ * Ordering is the same as {@link DBUtils#compareDataValues(Object, Object)} gives, nulls go last.
+ */
+class ResultSetRowSorter {
+
+    private final List<ResultSetRow> rows;
+    private final List<Object[]> columnValues;
+    private final boolean[] descending;
+
+    /**
+     * @param rows         rows in the original order
+     * @param columnValues values of ordering columns, one array of row values per column
+     * @param descending   descending flags of ordering columns
+     */
+    ResultSetRowSorter(@NotNull List<ResultSetRow> rows, @NotNull List<Object[]> columnValues, @NotNull boolean[] descending) {
+        this.rows = rows;
+        this.columnValues = columnValues;
+        this.descending = descending;
+    }
+
+    /**
+     * Rows which are sorted
+     */
+    @NotNull
+    List<ResultSetRow> getRows() {
+        return rows;
+    }
+
+    /**
+     * Returns sorted copy of rows list or null if sort was canceled
+     */
+    @Nullable
+    List<ResultSetRow> sortRows(@NotNull DBRProgressMonitor monitor) {
+        monitor.beginTask("Sort " + rows.size() + " rows", columnValues.size() + 1);
+        try {
+            if (columnValues.isEmpty()) {
+                return new ArrayList<>(rows);
+            }
+            final SortKey[] sortKeys = new SortKey[columnValues.size()];
+            for (int i = 0; i < sortKeys.length; i++) {
+                if (monitor.isCanceled()) {
+                    return null;
+                }
+                sortKeys[i] = makeSortKey(columnValues.get(i), descending[i]);
+                monitor.worked(1);
+            }
+            if (monitor.isCanceled()) {
+                return null;
+            }
+            monitor.subTask("Sort rows");
+            final Integer[] order = new Integer[rows.size()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.parallelSort(order, (row1, row2) -> {
+                for (SortKey key : sortKeys) {
+                    int result = key.compare(row1, row2);
+                    if (result != 0) {
+                        return result;
+                    }
+                }
+                return 0;
+            });
+            monitor.worked(1);
+
+            List<ResultSetRow> sortedRows = new ArrayList<>(order.length);
+            for (Integer index : order) {
+                sortedRows.add(rows.get(index));
+            }
+            return sortedRows;
+        } finally {
+            monitor.done();
+        }
+    }
+
+    @NotNull
+    private static SortKey makeSortKey(@NotNull Object[] values, boolean descending) {
+        final int rowCount = values.length;
+        final boolean[] nulls = new boolean[rowCount];
+        boolean allNumbers = true, allIntegers = true;
+        Class<?> valueClass = null;
+        boolean sameClass = true;
+        for (int i = 0; i < rowCount; i++) {
+            Object value = values[i];
+            if (DBUtils.isNullValue(value)) {
+                nulls[i] = true;
+                continue;
+            }
+            if (value instanceof Number) {
+                if (!isInteger((Number) value)) {
+                    allIntegers = false;
+                }
+            } else {
+                allNumbers = allIntegers = false;
+            }
+            if (valueClass == null) {
+                valueClass = value.getClass();
+            } else if (valueClass != value.getClass()) {
+                sameClass = false;
+            }
+        }
+
+        if (allNumbers && allIntegers) {
+            final long[] keys = new long[rowCount];
+            for (int i = 0; i < rowCount; i++) {
+                if (!nulls[i]) {
+                    keys[i] = ((Number) values[i]).longValue();
+                }
+            }
+            return new LongKey(nulls, descending, keys);
+        } else if (allNumbers) {
+            final double[] keys = new double[rowCount];
+            for (int i = 0; i < rowCount; i++) {
+                if (!nulls[i]) {
+                    keys[i] = ((Number) values[i]).doubleValue();
+                }
+            }
+            return new DoubleKey(nulls, descending, keys);
+        } else if (sameClass && valueClass == String.class) {
+            final String[] keys = new String[rowCount];
+            for (int i = 0; i < rowCount; i++) {
+                keys[i] = nulls[i] ? null : (String) values[i];
+            }
+            return new StringKey(nulls, descending, keys);
+        } else if (sameClass && Date.class.isAssignableFrom(valueClass) && !Timestamp.class.isAssignableFrom(valueClass)) {
+            // Timestamps are compared with nanoseconds, other dates are compared by time in milliseconds
+            final long[] keys = new long[rowCount];
+            for (int i = 0; i < rowCount; i++) {
+                if (!nulls[i]) {
+                    keys[i] = ((Date) values[i]).getTime();
+                }
+            }
+            return new LongKey(nulls, descending, keys);
+        }
+        return new ObjectKey(nulls, descending, values);
+    }
+
+    private static boolean isInteger(@NotNull Number value) {
+        return value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte ||
+            (value instanceof BigInteger && ((BigInteger) value).bitLength() < Long.SIZE);
+    }
+
+    private abstract static class SortKey {
+        private final boolean[] nulls;
+        private final boolean descending;
+
+        SortKey(@NotNull boolean[] nulls, boolean descending) {
+            this.nulls = nulls;
+            this.descending = descending;
+        }
+
+        int compare(int row1, int row2) {
+            int result;
+            if (nulls[row1]) {
+                result = nulls[row2] ? 0 : 1;
+            } else if (nulls[row2]) {
+                result = -1;
+            } else {
+                result = compareValues(row1, row2);
+            }
+            return descending ? -result : result;
+        }
+
+        abstract int compareValues(int row1, int row2);
+    }
+
+    private static class LongKey extends SortKey {
+        private final long[] keys;
+
+        LongKey(@NotNull boolean[] nulls, boolean descending, @NotNull long[] keys) {
+            super(nulls, descending);
+            this.keys = keys;
+        }
+
+        @Override
+        int compareValues(int row1, int row2) {
+            return Long.compare(keys[row1], keys[row2]);
+        }
+    }
+
+    private static class DoubleKey extends SortKey {
+        private final double[] keys;
+
+        DoubleKey(@NotNull boolean[] nulls, boolean descending, @NotNull double[] keys) {
+            super(nulls, descending);
+            this.keys = keys;
+        }
+
+        @Override
+        int compareValues(int row1, int row2) {
+            // Same as CommonUtils.compareNumbers
+            double diff = keys[row1] - keys[row2];
+            return diff < 0 ? -1 : (diff > 0 ? 1 : 0);
+        }
+    }
+
+    private static class StringKey extends SortKey {
+        private final String[] keys;
+
+        StringKey(@NotNull boolean[] nulls, boolean descending, @NotNull String[] keys) {
+            super(nulls, descending);
+            this.keys = keys;
+        }
+
+        @Override
+        int compareValues(int row1, int row2) {
+            return keys[row1].compareTo(keys[row2]);
+        }
+    }
+
+    private static class ObjectKey extends SortKey {
+        private final Object[] keys;
+
+        ObjectKey(@NotNull boolean[] nulls, boolean descending, @NotNull Object[] keys) {
+            super(nulls, descending);
+            this.keys = keys;
+        }
+
+        @Override
+        int compareValues(int row1, int row2) {
+            return DBUtils.compareDataValues(keys[row1], keys[row2]);
+        }
+    }
+}
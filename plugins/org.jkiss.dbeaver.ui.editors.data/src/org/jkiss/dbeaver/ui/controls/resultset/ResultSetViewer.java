@@ -149,6 +149,8 @@ public class ResultSetViewer extends Viewer
     private static final String CONFIRM_SERVER_SIDE_ORDERING_UNAVAILABLE = "org.jkiss.dbeaver.sql.resultset.serverSideOrderingUnavailable";
 
     private static final int THEME_UPDATE_DELAY_MS = 250;
+    // Rows are sorted on client side in background if there are more rows
+    private static final int BACKGROUND_SORT_MIN_ROWS = 10000;
 
     public static final String EMPTY_TRANSFORMER_NAME = "Default";
     public static final String CONTROL_ID = ResultSetViewer.class.getSimpleName();
@@ -237,6 +239,9 @@ public class ResultSetViewer extends Viewer
     private final AbstractJob themeUpdateJob;
     private long lastThemeUpdateTime;
 
+    // Background client-side sort. Accessed in UI thread only.
+    private AbstractJob sortJob;
+
     private volatile boolean nextSegmentReadingBlocked;
 
     public ResultSetViewer(@NotNull Composite parent, @NotNull IWorkbenchPartSite site, @NotNull IResultSetContainer container) {
@@ -2350,9 +2355,44 @@ public class ResultSetViewer extends Viewer
     private void reorderLocally()
     {
         this.rejectChanges();
-        this.getModel().resetOrdering();
-        this.getActivePresentation().refreshData(false, false, true);
-        this.updateFiltersText();
+        if (sortJob != null) {
+            // Previous order is not needed anymore
+            sortJob.cancel();
+            sortJob = null;
+        }
+        if (model.getRowCount() < BACKGROUND_SORT_MIN_ROWS) {
+            this.getModel().resetOrdering();
+            this.getActivePresentation().refreshData(false, false, true);
+            this.updateFiltersText();
+            return;
+        }
+        // Sort big result sets in background to keep UI responsive
+        // Values are read here, so model is not accessed by the sort job
+        final ResultSetRowSorter rowSorter = model.createRowSorter();
+        sortJob = new AbstractJob("Sort rows") {
+            @Override
+            protected IStatus run(DBRProgressMonitor monitor) {
+                final List<ResultSetRow> sortedRows = rowSorter.sortRows(monitor);
+                if (sortedRows == null) {
+                    return Status.CANCEL_STATUS;
+                }
+                UIUtils.asyncExec(() -> {
+                    if (sortJob != this) {
+                        // Sort was canceled or another sort was started
+                        return;
+                    }
+                    sortJob = null;
+                    if (viewerPanel.isDisposed() || !model.applyRowsOrder(rowSorter.getRows(), sortedRows)) {
+                        // Data was changed during sort
+                        return;
+                    }
+                    getActivePresentation().refreshData(false, false, true);
+                    updateFiltersText();
+                });
+                return Status.OK_STATUS;
+            }
+        };
+        sortJob.schedule();
     }
 
 
@@ -18,12 +18,15 @@ package org.jkiss.dbeaver.ui.controls.resultset.panel.grouping;
 
 import org.jkiss.code.NotNull;
 import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
 import org.jkiss.dbeaver.Log;
 import org.jkiss.dbeaver.model.DBPDataSource;
 import org.jkiss.dbeaver.model.DBUtils;
 import org.jkiss.dbeaver.model.data.DBDDataFilter;
 import org.jkiss.dbeaver.model.data.DBDDataReceiver;
 import org.jkiss.dbeaver.model.exec.*;
+import org.jkiss.dbeaver.model.impl.local.LocalResultSet;
+import org.jkiss.dbeaver.model.impl.local.LocalStatement;
 import org.jkiss.dbeaver.model.messages.ModelMessages;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.sql.SQLUtils;
@@ -32,6 +35,10 @@ import org.jkiss.dbeaver.model.struct.DBSObject;
 import org.jkiss.dbeaver.ui.controls.resultset.IResultSetController;
 import org.jkiss.utils.ArrayUtils;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
 public class GroupingDataContainer implements DBSDataContainer {
 
     private static final Log log = Log.getLog(GroupingDataContainer.class);
@@ -39,6 +46,8 @@ public class GroupingDataContainer implements DBSDataContainer {
     private IResultSetController parentController;
     private String query;
     private String[] attributes;
+    private GroupingLocalAggregator localAggregator;
+    private List<Object[]> localRows;
 
     public GroupingDataContainer(IResultSetController parentController) {
         this.parentController = parentController;
@@ -77,6 +86,12 @@ public class GroupingDataContainer implements DBSDataContainer {
     @NotNull
     @Override
     public DBCStatistics readData(@NotNull DBCExecutionSource source, @NotNull DBCSession session, @NotNull DBDDataReceiver dataReceiver, DBDDataFilter dataFilter, long firstRow, long maxRows, long flags, int fetchSize) throws DBCException {
+        if (localAggregator != null) {
+            Comparator<Object[]> comparator = localAggregator.makeComparator(dataFilter);
+            if (comparator != null) {
+                return readLocalData(session, dataReceiver, comparator, firstRow, maxRows);
+            }
+        }
         DBCStatistics statistics = new DBCStatistics();
         if (query == null) {
             statistics.addMessage("Empty query");
@@ -152,6 +167,66 @@ public class GroupingDataContainer implements DBSDataContainer {
         }
     }
 
+    /**
+     * Reads grouping evaluated over rows of the parent result set
+     */
+    @NotNull
+    private DBCStatistics readLocalData(
+        @NotNull DBCSession session,
+        @NotNull DBDDataReceiver dataReceiver,
+        @NotNull Comparator<Object[]> comparator,
+        long firstRow,
+        long maxRows) throws DBCException
+    {
+        DBCStatistics statistics = new DBCStatistics();
+        statistics.setQueryText("-- Local grouping\n" + getName());
+        DBRProgressMonitor monitor = session.getProgressMonitor();
+        try {
+            long startTime = System.currentTimeMillis();
+            if (localRows == null) {
+                try {
+                    localRows = localAggregator.aggregate(monitor);
+                } catch (DBException e) {
+                    throw new DBCException("Error grouping rows", e);
+                }
+                if (localRows == null) {
+                    // Canceled
+                    return statistics;
+                }
+            }
+            List<Object[]> rows = new ArrayList<>(localRows);
+            rows.sort(comparator);
+            statistics.setExecuteTime(System.currentTimeMillis() - startTime);
+
+            LocalResultSet<LocalStatement> resultSet = new LocalResultSet<>(session, new LocalStatement(session, statistics.getQueryText()));
+            localAggregator.addColumns(resultSet);
+            int fromRow = (int) Math.min(Math.max(firstRow, 0), rows.size());
+            int toRow = maxRows > 0 ? (int) Math.min(fromRow + maxRows, rows.size()) : rows.size();
+            for (Object[] row : rows.subList(fromRow, toRow)) {
+                resultSet.addRow(row);
+            }
+
+            startTime = System.currentTimeMillis();
+            try {
+                dataReceiver.fetchStart(session, resultSet, firstRow, maxRows);
+                while (resultSet.nextRow()) {
+                    dataReceiver.fetchRow(session, resultSet);
+                }
+            } finally {
+                try {
+                    dataReceiver.fetchEnd(session, resultSet);
+                } catch (Throwable e) {
+                    log.error("Error while finishing result set fetch", e); //$NON-NLS-1$
+                }
+            }
+            statistics.setFetchTime(System.currentTimeMillis() - startTime);
+            statistics.setRowsFetched(toRow - fromRow);
+            return statistics;
+        } finally {
+            dataReceiver.close();
+        }
+    }
+
     @Override
     public long countData(@NotNull DBCExecutionSource source, @NotNull DBCSession session, @Nullable DBDDataFilter dataFilter, long flags) throws DBCException {
         return 0;
@@ -170,6 +245,14 @@ public class GroupingDataContainer implements DBSDataContainer {
         this.attributes = attributes;
     }
 
+    /**
+     * Sets aggregator used instead of the grouping query. Null disables local grouping.
+     */
+    void setLocalAggregator(@Nullable GroupingLocalAggregator localAggregator) {
+        this.localAggregator = localAggregator;
+        this.localRows = null;
+    }
+
     @Override
     public String toString() {
         return getName();
@@ -0,0 +1,610 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.resultset.panel.grouping;
+
+import org.jkiss.code.NotNull;
+import org.jkiss.code.Nullable;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.data.DBDAttributeConstraint;
+import org.jkiss.dbeaver.model.data.DBDDataFilter;
+import org.jkiss.dbeaver.model.data.aggregate.FunctionNumeric;
+import org.jkiss.dbeaver.model.data.aggregate.IAggregateFunction;
+import org.jkiss.dbeaver.model.impl.local.LocalResultSet;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.registry.functions.AggregateFunctionDescriptor;
+import org.jkiss.dbeaver.registry.functions.FunctionsRegistry;
+import org.jkiss.dbeaver.ui.controls.resultset.ResultSetModel;
+import org.jkiss.dbeaver.ui.controls.resultset.ResultSetRow;
+import org.jkiss.utils.CommonUtils;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Grouping of rows loaded in the result set model, evaluated without a server query.
+ * <p>
+ * Group keys of all rows are extracted in parallel chunks, and each chunk splits its row indexes by key hash partitions.
+ * Then each worker accumulates groups of its own partition. Thus aggregate functions never need to be merged and values
+ * of each group are accumulated in the original row order. Functions are the same as in the aggregate panel,
+ * except SUM which keeps sums of integral numbers exact.
+ */
+class GroupingLocalAggregator {
+
+    private static final Pattern FUNCTION_PATTERN = Pattern.compile("(\\w+)\\s*\\(\\s*(DISTINCT\\s+)?(.+?)\\s*\\)", Pattern.CASE_INSENSITIVE);
+    private static final Pattern ORDER_ITEM_PATTERN = Pattern.compile("(.+?)(?:\\s+(ASC|DESC))?", Pattern.CASE_INSENSITIVE);
+
+    private static final int PARALLEL_MIN_ROWS = 50000;
+    private static final int MAX_THREADS = 8;
+
+    private final ResultSetModel model;
+    private final DBPDataSource dataSource;
+    private final DBDAttributeBinding[] groupBindings;
+    private final String[] groupLabels;
+    private final FunctionInfo[] functions;
+    private final boolean duplicatesOnly;
+
+    private GroupingLocalAggregator(
+        @NotNull ResultSetModel model,
+        @NotNull DBPDataSource dataSource,
+        @NotNull DBDAttributeBinding[] groupBindings,
+        @NotNull String[] groupLabels,
+        @NotNull FunctionInfo[] functions,
+        boolean duplicatesOnly)
+    {
+        this.model = model;
+        this.dataSource = dataSource;
+        this.groupBindings = groupBindings;
+        this.groupLabels = groupLabels;
+        this.functions = functions;
+        this.duplicatesOnly = duplicatesOnly;
+    }
+
+    /**
+     * Creates aggregator for the specified grouping.
+     * Returns null if some attribute or function can't be evaluated locally.
+     *
+     * @param functionLabels labels of function columns, the same as in the grouping query
+     * @param duplicatesOnly show only groups with more than one row (for the default COUNT(*) grouping)
+     */
+    @Nullable
+    static GroupingLocalAggregator create(
+        @NotNull ResultSetModel model,
+        @NotNull DBPDataSource dataSource,
+        @NotNull List<String> groupAttributes,
+        @NotNull List<String> groupFunctions,
+        @NotNull String[] functionLabels,
+        boolean duplicatesOnly)
+    {
+        if (groupAttributes.isEmpty() || groupFunctions.isEmpty() || functionLabels.length != groupFunctions.size()) {
+            return null;
+        }
+        DBDAttributeBinding[] groupBindings = new DBDAttributeBinding[groupAttributes.size()];
+        for (int i = 0; i < groupBindings.length; i++) {
+            DBDAttributeBinding binding = findAttribute(model, groupAttributes.get(i));
+            if (binding == null || !isGroupingSupported(binding.getDataKind())) {
+                return null;
+            }
+            groupBindings[i] = binding;
+        }
+        FunctionInfo[] functions = new FunctionInfo[groupFunctions.size()];
+        for (int i = 0; i < functions.length; i++) {
+            functions[i] = parseFunction(model, dataSource, groupFunctions.get(i), functionLabels[i]);
+            if (functions[i] == null) {
+                return null;
+            }
+        }
+        boolean isDefaultGrouping = groupFunctions.size() == 1 && groupFunctions.get(0).equals(GroupingResultsContainer.DEFAULT_FUNCTION);
+        return new GroupingLocalAggregator(
+            model, dataSource, groupBindings, groupAttributes.toArray(new String[0]), functions, duplicatesOnly && isDefaultGrouping);
+    }
+
+    @Nullable
+    private static DBDAttributeBinding findAttribute(@NotNull ResultSetModel model, @NotNull String name) {
+        DBDAttributeBinding caseInsensitiveMatch = null;
+        for (DBDAttributeBinding binding : model.getAttributes()) {
+            String label = binding.getMetaAttribute() != null ? binding.getMetaAttribute().getLabel() : binding.getName();
+            if (name.equals(label) || name.equals(binding.getName())) {
+                return binding;
+            }
+            if (caseInsensitiveMatch == null && (name.equalsIgnoreCase(label) || name.equalsIgnoreCase(binding.getName()))) {
+                caseInsensitiveMatch = binding;
+            }
+        }
+        return caseInsensitiveMatch;
+    }
+
+    private static boolean isGroupingSupported(@NotNull DBPDataKind dataKind) {
+        switch (dataKind) {
+            case STRING:
+            case NUMERIC:
+            case BOOLEAN:
+            case DATETIME:
+            case BINARY:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    @Nullable
+    private static FunctionInfo parseFunction(
+        @NotNull ResultSetModel model,
+        @NotNull DBPDataSource dataSource,
+        @NotNull String function,
+        @NotNull String label)
+    {
+        Matcher matcher = FUNCTION_PATTERN.matcher(function.trim());
+        if (!matcher.matches()) {
+            return null;
+        }
+        String name = matcher.group(1).toUpperCase(Locale.ENGLISH);
+        boolean distinct = matcher.group(2) != null;
+        String argument = matcher.group(3);
+
+        String functionId;
+        switch (name) {
+            case GroupingResultsContainer.FUNCTION_COUNT:
+                functionId = distinct ? "countDistinct" : "count";
+                break;
+            case "SUM":
+            case "AVG":
+            case "MIN":
+            case "MAX":
+            case "MEDIAN":
+            case "MODE":
+                if (distinct) {
+                    return null;
+                }
+                functionId = name.toLowerCase(Locale.ENGLISH);
+                break;
+            default:
+                return null;
+        }
+        AggregateFunctionDescriptor descriptor = FunctionsRegistry.getInstance().getFunction(functionId);
+        if (descriptor == null) {
+            return null;
+        }
+
+        DBDAttributeBinding binding = null;
+        if (argument.equals("*")) {
+            if (distinct || !name.equals(GroupingResultsContainer.FUNCTION_COUNT)) {
+                return null;
+            }
+        } else {
+            binding = findAttribute(model, DBUtils.getUnQuotedIdentifier(dataSource, argument));
+            if (binding == null) {
+                return null;
+            }
+        }
+        return new FunctionInfo(descriptor, label, binding, name.equals(GroupingResultsContainer.FUNCTION_COUNT));
+    }
+
+    /**
+     * Adds grouping result columns to the result set
+     */
+    void addColumns(@NotNull LocalResultSet<?> resultSet) {
+        for (int i = 0; i < groupBindings.length; i++) {
+            resultSet.addColumn(groupLabels[i], groupBindings[i]);
+        }
+        for (FunctionInfo function : functions) {
+            if (function.isValueTyped()) {
+                resultSet.addColumn(function.label, function.binding);
+            } else {
+                resultSet.addColumn(function.label, DBPDataKind.NUMERIC);
+            }
+        }
+    }
+
+    /**
+     * Makes comparator of grouping result rows for the data filter ordering.
+     * Returns null if data filter can't be evaluated locally.
+     */
+    @Nullable
+    Comparator<Object[]> makeComparator(@Nullable DBDDataFilter dataFilter) {
+        List<Integer> columns = new ArrayList<>();
+        List<Boolean> descending = new ArrayList<>();
+        if (dataFilter != null) {
+            if (dataFilter.hasConditions()) {
+                return null;
+            }
+            for (DBDAttributeConstraint constraint : dataFilter.getOrderConstraints()) {
+                int index = findColumn(constraint.getAttributeLabel());
+                if (index < 0) {
+                    index = findColumn(constraint.getAttributeName());
+                }
+                if (index < 0) {
+                    return null;
+                }
+                columns.add(index);
+                descending.add(constraint.isOrderDescending());
+            }
+            if (!CommonUtils.isEmpty(dataFilter.getOrder())) {
+                for (String orderItem : dataFilter.getOrder().split(",")) {
+                    Matcher matcher = ORDER_ITEM_PATTERN.matcher(orderItem.trim());
+                    if (!matcher.matches()) {
+                        return null;
+                    }
+                    int index = findColumn(DBUtils.getUnQuotedIdentifier(dataSource, matcher.group(1)));
+                    if (index < 0) {
+                        return null;
+                    }
+                    columns.add(index);
+                    descending.add("DESC".equalsIgnoreCase(matcher.group(2)));
+                }
+            }
+        }
+        return (row1, row2) -> {
+            for (int i = 0; i < columns.size(); i++) {
+                int index = columns.get(i);
+                int result = DBUtils.compareDataValues(row1[index], row2[index]);
+                if (result != 0) {
+                    return descending.get(i) ? -result : result;
+                }
+            }
+            return 0;
+        };
+    }
+
+    private int findColumn(@NotNull String name) {
+        for (int i = 0; i < groupLabels.length; i++) {
+            if (groupLabels[i].equalsIgnoreCase(name)) {
+                return i;
+            }
+        }
+        for (int i = 0; i < functions.length; i++) {
+            if (functions[i].label.equalsIgnoreCase(name)) {
+                return groupLabels.length + i;
+            }
+        }
+        if (CommonUtils.isInt(name)) {
+            // Column position
+            int position = CommonUtils.toInt(name);
+            if (position > 0 && position <= groupLabels.length + functions.length) {
+                return position - 1;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Evaluates grouping over all rows of the model.
+     * Groups are returned in order of their first rows. Returns null if canceled.
+     */
+    @Nullable
+    List<Object[]> aggregate(@NotNull DBRProgressMonitor monitor) throws DBException {
+        final List<ResultSetRow> rows = new ArrayList<>(model.getAllRows());
+        final int rowCount = rows.size();
+        final int threadCount = rowCount < PARALLEL_MIN_ROWS ? 1 : Math.min(MAX_THREADS, Runtime.getRuntime().availableProcessors());
+
+        monitor.beginTask("Group " + rowCount + " rows", 2);
+        ExecutorService executor = threadCount > 1 ? Executors.newFixedThreadPool(threadCount, runnable -> {
+            Thread thread = new Thread(runnable, "Grouping aggregation");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+        try {
+            // Extract group keys. Each chunk collects its row indexes of each partition in the original order.
+            monitor.subTask("Extract group keys");
+            final GroupKey[] keys = new GroupKey[rowCount];
+            final int chunkSize = (rowCount + threadCount - 1) / threadCount;
+            final List<int[][]> chunkPartitions = runTasks(executor, threadCount, chunk -> {
+                int start = Math.min(rowCount, chunk * chunkSize);
+                int end = Math.min(rowCount, start + chunkSize);
+                int[] partitionSizes = new int[threadCount];
+                for (int i = start; i < end; i++) {
+                    keys[i] = makeGroupKey(rows.get(i));
+                    partitionSizes[getPartition(keys[i], threadCount)]++;
+                }
+                int[][] partitionRows = new int[threadCount][];
+                for (int part = 0; part < threadCount; part++) {
+                    partitionRows[part] = new int[partitionSizes[part]];
+                    partitionSizes[part] = 0;
+                }
+                for (int i = start; i < end; i++) {
+                    int part = getPartition(keys[i], threadCount);
+                    partitionRows[part][partitionSizes[part]++] = i;
+                }
+                return partitionRows;
+            });
+            monitor.worked(1);
+            if (monitor.isCanceled()) {
+                return null;
+            }
+
+            // Accumulate groups. Each worker reads only rows of its own partition.
+            monitor.subTask("Aggregate values");
+            List<List<Group>> partitions = runTasks(executor, threadCount, part -> {
+                Map<GroupKey, Group> groups = new HashMap<>();
+                for (int[][] partitionRows : chunkPartitions) {
+                    for (int i : partitionRows[part]) {
+                        GroupKey key = keys[i];
+                        Group group = groups.get(key);
+                        if (group == null) {
+                            group = new Group(i, createFunctions());
+                            groups.put(key, group);
+                        }
+                        group.accumulate(rows.get(i));
+                    }
+                }
+                return new ArrayList<>(groups.values());
+            });
+            monitor.worked(1);
+            if (monitor.isCanceled()) {
+                return null;
+            }
+
+            List<Group> groups = new ArrayList<>();
+            for (List<Group> partition : partitions) {
+                groups.addAll(partition);
+            }
+            groups.sort(Comparator.comparingInt(group -> group.firstRow));
+            List<Object[]> result = new ArrayList<>(groups.size());
+            for (Group group : groups) {
+                if (duplicatesOnly && group.rowCount <= 1) {
+                    continue;
+                }
+                result.add(group.makeRow(rows.get(group.firstRow)));
+            }
+            return result;
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+            monitor.done();
+        }
+    }
+
+    @NotNull
+    private <T> List<T> runTasks(@Nullable ExecutorService executor, int taskCount, @NotNull PartTask<T> task) throws DBException {
+        List<T> results = new ArrayList<>(taskCount);
+        if (executor == null) {
+            for (int part = 0; part < taskCount; part++) {
+                results.add(task.run(part));
+            }
+            return results;
+        }
+        List<Future<T>> futures = new ArrayList<>(taskCount);
+        for (int part = 0; part < taskCount; part++) {
+            final int taskPart = part;
+            futures.add(executor.submit(() -> task.run(taskPart)));
+        }
+        try {
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DBException("Grouping interrupted", e);
+        } catch (ExecutionException e) {
+            throw new DBException("Error aggregating values", e.getCause());
+        }
+        return results;
+    }
+
+    private static int getPartition(@NotNull GroupKey key, int partitionCount) {
+        return Math.floorMod(key.hash, partitionCount);
+    }
+
+    @NotNull
+    private GroupKey makeGroupKey(@NotNull ResultSetRow row) {
+        Object[] values = new Object[groupBindings.length];
+        for (int i = 0; i < groupBindings.length; i++) {
+            values[i] = normalizeKeyValue(model.getCellValue(groupBindings[i], row));
+        }
+        return new GroupKey(values);
+    }
+
+    @Nullable
+    private static Object normalizeKeyValue(@Nullable Object value) {
+        if (DBUtils.isNullValue(value)) {
+            return null;
+        }
+        if (value instanceof BigDecimal) {
+            // 1.0 and 1.00 are the same group
+            BigDecimal decimal = (BigDecimal) value;
+            return decimal.signum() == 0 ? BigDecimal.ZERO : decimal.stripTrailingZeros();
+        }
+        return value;
+    }
+
+    @NotNull
+    private IAggregateFunction[] createFunctions() throws DBException {
+        IAggregateFunction[] result = new IAggregateFunction[functions.length];
+        for (int i = 0; i < functions.length; i++) {
+            if (functions[i].descriptor.getId().equals("sum")) {
+                result[i] = new ExactSum();
+            } else {
+                result[i] = functions[i].descriptor.createFunction();
+            }
+        }
+        return result;
+    }
+
+    private interface PartTask<T> {
+        T run(int part) throws DBException;
+    }
+
+    private static class FunctionInfo {
+        private final AggregateFunctionDescriptor descriptor;
+        private final String label;
+        @Nullable
+        private final DBDAttributeBinding binding;
+        private final boolean isCount;
+
+        FunctionInfo(@NotNull AggregateFunctionDescriptor descriptor, @NotNull String label, @Nullable DBDAttributeBinding binding, boolean isCount) {
+            this.descriptor = descriptor;
+            this.label = label;
+            this.binding = binding;
+            this.isCount = isCount;
+        }
+
+        /**
+         * Checks whether function result has the same type as the argument
+         */
+        boolean isValueTyped() {
+            if (binding == null) {
+                return false;
+            }
+            switch (descriptor.getId()) {
+                case "min":
+                case "max":
+                    return true;
+                case "median":
+                case "mode":
+                    // Results of numeric arguments may be fractional
+                    return binding.getDataKind() != DBPDataKind.NUMERIC;
+                default:
+                    return false;
+            }
+        }
+    }
+
+    /**
+     * Sum which keeps sums of integral numbers as long (or BigDecimal on overflow) and sums of decimals as BigDecimal.
+     * Sum becomes double only if some value is a floating point number.
+     */
+    static class ExactSum extends FunctionNumeric {
+        private long longSum;
+        @Nullable
+        private BigDecimal decimalSum;
+        private double doubleSum;
+        private boolean hasDoubles;
+        private boolean hasValues;
+
+        @Override
+        public boolean accumulate(Object value, boolean aggregateAsStrings) {
+            Number num = getNumeric(value);
+            if (num == null) {
+                return false;
+            }
+            hasValues = true;
+            if (num instanceof Integer || num instanceof Long || num instanceof Short || num instanceof Byte) {
+                long longValue = num.longValue();
+                long sum = longSum + longValue;
+                if (((longSum ^ sum) & (longValue ^ sum)) < 0) {
+                    // Overflow
+                    addDecimal(BigDecimal.valueOf(longSum));
+                    longSum = longValue;
+                } else {
+                    longSum = sum;
+                }
+            } else if (num instanceof BigDecimal) {
+                addDecimal((BigDecimal) num);
+            } else if (num instanceof BigInteger) {
+                addDecimal(new BigDecimal((BigInteger) num));
+            } else {
+                doubleSum += num.doubleValue();
+                hasDoubles = true;
+            }
+            return true;
+        }
+
+        private void addDecimal(@NotNull BigDecimal value) {
+            decimalSum = decimalSum == null ? value : decimalSum.add(value);
+        }
+
+        @Override
+        public Object getResult(int valueCount) {
+            if (!hasValues) {
+                return null;
+            }
+            if (hasDoubles) {
+                return doubleSum + longSum + (decimalSum == null ? 0 : decimalSum.doubleValue());
+            }
+            if (decimalSum != null) {
+                return decimalSum.add(BigDecimal.valueOf(longSum));
+            }
+            return longSum;
+        }
+    }
+
+    private static class GroupKey {
+        private final Object[] values;
+        private final int hash;
+
+        GroupKey(@NotNull Object[] values) {
+            this.values = values;
+            this.hash = Arrays.deepHashCode(values);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof GroupKey && hash == ((GroupKey) obj).hash && Arrays.deepEquals(values, ((GroupKey) obj).values);
+        }
+    }
+
+    private class Group {
+        private final int firstRow;
+        private final IAggregateFunction[] aggregates;
+        private final int[] valueCounts;
+        private int rowCount;
+
+        Group(int firstRow, @NotNull IAggregateFunction[] aggregates) {
+            this.firstRow = firstRow;
+            this.aggregates = aggregates;
+            this.valueCounts = new int[aggregates.length];
+        }
+
+        void accumulate(@NotNull ResultSetRow row) {
+            rowCount++;
+            for (int i = 0; i < aggregates.length; i++) {
+                FunctionInfo function = functions[i];
+                Object value = null;
+                if (function.binding != null) {
+                    value = model.getCellValue(function.binding, row);
+                    if (DBUtils.isNullValue(value)) {
+                        // Nulls are ignored by all aggregate functions
+                        continue;
+                    }
+                }
+                boolean aggregateAsStrings = function.binding != null && function.binding.getDataKind() != DBPDataKind.NUMERIC;
+                if (aggregates[i].accumulate(value, aggregateAsStrings)) {
+                    valueCounts[i]++;
+                }
+            }
+        }
+
+        @NotNull
+        Object[] makeRow(@NotNull ResultSetRow firstRow) {
+            Object[] row = new Object[groupBindings.length + aggregates.length];
+            for (int i = 0; i < groupBindings.length; i++) {
+                row[i] = model.getCellValue(groupBindings[i], firstRow);
+            }
+            for (int i = 0; i < aggregates.length; i++) {
+                if (valueCounts[i] > 0) {
+                    row[groupBindings.length + i] = aggregates[i].getResult(valueCounts[i]);
+                } else if (functions[i].isCount) {
+                    row[groupBindings.length + i] = 0;
+                }
+            }
+            return row;
+        }
+    }
+}
@@ -187,6 +187,7 @@ public class GroupingResultsContainer implements IResultSetContainer {
         groupingViewer.resetHistory();
         dataContainer.setGroupingQuery(null);
         dataContainer.setGroupingAttributes(null);
+        dataContainer.setLocalAggregator(null);
         if (!(groupingViewer.getActivePresentation() instanceof EmptyPresentation)) {
             groupingViewer.showEmptyPresentation();
         }
@@ -198,9 +199,6 @@ public class GroupingResultsContainer implements IResultSetContainer {
             return;
         }
         DBCStatistics statistics = presentation.getController().getModel().getStatistics();
-        if (statistics == null) {
-            throw new DBException("No main query - can't perform grouping");
-        }
         DBSDataContainer dbsDataContainer = presentation.getController().getDataContainer();
         boolean isCustomQuery = !(dbsDataContainer instanceof DBSEntity);
         DBPDataSource dataSource = dataContainer.getDataSource();
@@ -210,12 +208,27 @@ public class GroupingResultsContainer implements IResultSetContainer {
         SQLDialect dialect = SQLUtils.getDialectFromDataSource(dataSource);
         SQLSyntaxManager syntaxManager = new SQLSyntaxManager();
         syntaxManager.init(dialect, presentation.getController().getPreferenceStore());
-        String queryText = statistics.getQueryText();
+        String queryText = statistics == null ? null : statistics.getQueryText();
         boolean isShowDuplicatesOnly = dataSource.getContainer().getPreferenceStore().getBoolean(ResultSetPreferences.RS_GROUPING_SHOW_DUPLICATES_ONLY);
 
         var groupingQueryGenerator = new SQLGroupingQueryGenerator(dataSource, dbsDataContainer, dialect, syntaxManager, groupAttributes, groupFunctions, isShowDuplicatesOnly);
         dataContainer.setGroupingQuery(groupingQueryGenerator.generateGroupingQuery(queryText));
         dataContainer.setGroupingAttributes(groupAttributes.toArray(String[]::new));
+        GroupingLocalAggregator localAggregator = null;
+        if (isAllDataLoaded()) {
+            // Group rows of the parent result set without a server query
+            localAggregator = GroupingLocalAggregator.create(
+                presentation.getController().getModel(),
+                dataSource,
+                groupAttributes,
+                groupFunctions,
+                groupingQueryGenerator.getFuncAliases(),
+                isShowDuplicatesOnly);
+        }
+        if (statistics == null && localAggregator == null) {
+            throw new DBException("No main query - can't perform grouping");
+        }
+        dataContainer.setLocalAggregator(localAggregator);
         DBDDataFilter dataFilter;
         if (presentation.getController().getModel().isMetadataChanged()) {
             dataFilter = new DBDDataFilter();
@@ -248,6 +261,13 @@ public class GroupingResultsContainer implements IResultSetContainer {
         //groupingViewer.refresh();
     }
 
+    private boolean isAllDataLoaded() {
+        IResultSetController controller = presentation.getController();
+        return controller instanceof ResultSetViewer &&
+            controller.getModel().hasData() &&
+            !((ResultSetViewer) controller).isHasMoreData();
+    }
+
     void setGrouping(List<String> attributes, List<String> functions) {
         groupAttributes.clear();
         addGroupingAttributes(attributes);
@@ -55,6 +55,8 @@ public class SearchDataPage extends AbstractSearchPage {
     private static final String PROP_MASK = "search.data.mask"; //$NON-NLS-1$
     private static final String PROP_CASE_SENSITIVE = "search.data.case-sensitive"; //$NON-NLS-1$
     private static final String PROP_SAMPLE_ROWS = "search.data.sample-rows"; //$NON-NLS-1$
+    private static final String PROP_MAX_THREADS = "search.data.max-threads"; //$NON-NLS-1$
+    private static final String PROP_TABLE_TIMEOUT = "search.data.table-timeout"; //$NON-NLS-1$
     private static final String PROP_FAST_SEARCH = "search.data.fast-search"; //$NON-NLS-1$
     private static final String PROP_SEARCH_NUMBERS = "search.data.search-numbers"; //$NON-NLS-1$
     private static final String PROP_SEARCH_LOBS = "search.data.search-lobs"; //$NON-NLS-1$
@@ -193,6 +195,28 @@ public class SearchDataPage extends AbstractSearchPage {
             maxResultsSpinner.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING));
             maxResultsSpinner.addModifyListener(e -> params.maxResults = maxResultsSpinner.getSelection());
 
+            if (params.maxThreads <= 0) {
+                params.maxThreads = 4;
+            }
+
+            final Spinner maxThreadsSpinner = UIUtils.createLabelSpinner(
+                optionsGroup2,
+                UISearchMessages.dialog_data_search_spinner_max_threads,
+                UISearchMessages.dialog_data_search_spinner_max_threads_tip, params.maxThreads,
+                1,
+                16);
+            maxThreadsSpinner.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING));
+            maxThreadsSpinner.addModifyListener(e -> params.maxThreads = maxThreadsSpinner.getSelection());
+
+            final Spinner tableTimeoutSpinner = UIUtils.createLabelSpinner(
+                optionsGroup2,
+                UISearchMessages.dialog_data_search_spinner_table_timeout,
+                UISearchMessages.dialog_data_search_spinner_table_timeout_tip, params.tableTimeout,
+                0,
+                Integer.MAX_VALUE);
+            tableTimeoutSpinner.setLayoutData(new GridData(GridData.HORIZONTAL_ALIGN_BEGINNING));
+            tableTimeoutSpinner.addModifyListener(e -> params.tableTimeout = tableTimeoutSpinner.getSelection());
+
             final Button caseCheckbox = UIUtils.createCheckbox(
                 optionsGroup2,
                 UISearchMessages.dialog_search_objects_case_sensitive,
@@ -298,6 +322,8 @@ public class SearchDataPage extends AbstractSearchPage {
         params.searchLOBs = store.getBoolean(PROP_SEARCH_LOBS);
         params.searchForeignObjects = store.getBoolean(PROP_SEARCH_FOREIGN);
         params.maxResults = store.getInt(PROP_SAMPLE_ROWS);
+        params.maxThreads = store.getInt(PROP_MAX_THREADS);
+        params.tableTimeout = store.getInt(PROP_TABLE_TIMEOUT);
         for (int i = 0; ; i++) {
             String history = store.getString(PROP_HISTORY + "." + i); //$NON-NLS-1$
             if (CommonUtils.isEmpty(history)) {
@@ -322,6 +348,8 @@ public class SearchDataPage extends AbstractSearchPage {
         store.setValue(PROP_MASK, params.searchString);
         store.setValue(PROP_CASE_SENSITIVE, params.caseSensitive);
         store.setValue(PROP_SAMPLE_ROWS, params.maxResults);
+        store.setValue(PROP_MAX_THREADS, params.maxThreads);
+        store.setValue(PROP_TABLE_TIMEOUT, params.tableTimeout);
         store.setValue(PROP_FAST_SEARCH, params.fastSearch);
         store.setValue(PROP_SEARCH_NUMBERS, params.searchNumbers);
         store.setValue(PROP_SEARCH_LOBS, params.searchLOBs);
@@ -35,6 +35,8 @@ public class SearchDataParams {
     boolean searchLOBs;
     boolean searchForeignObjects;
     int maxResults;
+    int maxThreads;
+    int tableTimeout; // Seconds
     List<DBNNode> selectedNodes = new ArrayList<>();
 
     public SearchDataParams()
@@ -105,6 +107,22 @@ public class SearchDataParams {
         this.maxResults = maxResults;
     }
 
+    public int getMaxThreads() {
+        return maxThreads;
+    }
+
+    public void setMaxThreads(int maxThreads) {
+        this.maxThreads = maxThreads;
+    }
+
+    public int getTableTimeout() {
+        return tableTimeout;
+    }
+
+    public void setTableTimeout(int tableTimeout) {
+        this.tableTimeout = tableTimeout;
+    }
+
     public List<DBNNode> getSelectedNodes() {
         return selectedNodes;
     }
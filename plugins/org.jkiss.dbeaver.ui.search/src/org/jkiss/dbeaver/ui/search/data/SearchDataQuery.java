@@ -36,12 +36,15 @@ import org.jkiss.dbeaver.model.exec.*;
 import org.jkiss.dbeaver.model.impl.AbstractExecutionSource;
 import org.jkiss.dbeaver.model.navigator.DBNDatabaseNode;
 import org.jkiss.dbeaver.model.navigator.DBNModel;
+import org.jkiss.dbeaver.model.runtime.BlockCanceler;
+import org.jkiss.dbeaver.model.runtime.DBRBlockingObject;
 import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.DefaultProgressMonitor;
 import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
 import org.jkiss.dbeaver.model.struct.DBSDataContainer;
 import org.jkiss.dbeaver.model.struct.DBSEntity;
 import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
+import org.jkiss.dbeaver.model.struct.DBSInstance;
 import org.jkiss.dbeaver.runtime.DBWorkbench;
 import org.jkiss.dbeaver.ui.UIUtils;
 import org.jkiss.dbeaver.ui.controls.resultset.IResultSetController;
@@ -55,11 +58,16 @@ import org.jkiss.utils.CommonUtils;
 
 import java.math.BigDecimal;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class SearchDataQuery implements ISearchQuery {
 
     private static final Log log = Log.getLog(SearchDataQuery.class);
 
+    private static final int MAX_SEARCH_THREADS = 16;
+    private static final long WATCHDOG_PERIOD_MS = 200;
+
     private final SearchDataParams params;
     private SearchDataResult searchResult;
 
@@ -99,8 +107,13 @@ public class SearchDataQuery implements ISearchQuery {
 
             //monitor.subTask("Collect tables");
             Set<DBPDataSource> dataSources = new HashSet<>();
-            for (DBSDataContainer searcher : params.sources) {
-                dataSources.add(searcher.getDataSource());
+            Map<DBSInstance, Queue<DBSDataContainer>> containersByInstance = new LinkedHashMap<>();
+            for (DBSDataContainer dataContainer : params.sources) {
+                dataSources.add(dataContainer.getDataSource());
+                DBSInstance instance = DBUtils.getObjectOwnerInstance(dataContainer);
+                if (instance != null) {
+                    containersByInstance.computeIfAbsent(instance, i -> new ConcurrentLinkedQueue<>()).add(dataContainer);
+                }
             }
 
             // Search
@@ -108,26 +121,55 @@ public class SearchDataQuery implements ISearchQuery {
 
             DBRProgressMonitor monitor = new DefaultProgressMonitor(m);
 
-            int totalObjects = 0;
+            SearchValues searchValues = new SearchValues(searchString);
+            AtomicInteger totalObjects = new AtomicInteger();
+            Set<SearchTableMonitor> activeMonitors = ConcurrentHashMap.newKeySet();
+
+            List<InstanceSearcher> searchers = new ArrayList<>();
+            for (Map.Entry<DBSInstance, Queue<DBSDataContainer>> entry : containersByInstance.entrySet()) {
+                int workerCount = Math.min(Math.max(params.maxThreads, 1), entry.getValue().size());
+                for (int i = 0; i < workerCount; i++) {
+                    searchers.add(new InstanceSearcher(
+                        monitor, dbnModel, entry.getKey(), entry.getValue(), searchValues, activeMonitors, totalObjects));
+                }
+            }
 
             monitor.beginTask(
                 "Search \"" + searchString + "\" in " + params.sources.size() + " table(s) / " + dataSources.size() + " database(s)",
                 params.sources.size());
+            ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(searchers.size(), MAX_SEARCH_THREADS)), runnable -> {
+                Thread thread = new Thread(runnable, "Data search");
+                thread.setDaemon(true);
+                return thread;
+            });
             try {
-                for (DBSDataContainer dataContainer : params.sources) {
-                    if (monitor.isCanceled()) {
-                        break;
-                    }
-                    if (searchDataInContainer(monitor, dbnModel, dataContainer)) {
-                        totalObjects++;
+                for (InstanceSearcher searcher : searchers) {
+                    executor.execute(searcher);
+                }
+                executor.shutdown();
+                // Watch for timed out and canceled tables while searchers are running
+                while (!executor.awaitTermination(WATCHDOG_PERIOD_MS, TimeUnit.MILLISECONDS)) {
+                    long currentTime = System.currentTimeMillis();
+                    for (SearchTableMonitor tableMonitor : activeMonitors) {
+                        if (monitor.isCanceled()) {
+                            tableMonitor.cancel();
+                        } else if (params.tableTimeout > 0 && currentTime - tableMonitor.startTime > params.tableTimeout * 1000L) {
+                            log.debug("Search in '" + tableMonitor.objectName + "' timed out");
+                            tableMonitor.cancel();
+                        }
                     }
-                    monitor.worked(1);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                for (SearchTableMonitor tableMonitor : activeMonitors) {
+                    tableMonitor.cancel();
                 }
             } finally {
+                executor.shutdownNow();
                 monitor.done();
             }
 
-            searchResult.fireChange(new AbstractSearchResult.DatabaseSearchFinishEvent(searchResult, totalObjects));
+            searchResult.fireChange(new AbstractSearchResult.DatabaseSearchFinishEvent(searchResult, totalObjects.get()));
 
             return Status.OK_STATUS;
         } catch (Exception e) {
@@ -135,7 +177,14 @@ public class SearchDataQuery implements ISearchQuery {
         }
     }
 
-    private boolean searchDataInContainer(DBRProgressMonitor monitor, DBNModel dbnModel, DBSDataContainer dataContainer) {
+    private boolean searchDataInContainer(
+        @NotNull DBRProgressMonitor monitor,
+        @NotNull DBNModel dbnModel,
+        @Nullable DBCExecutionContext isolatedContext,
+        @NotNull DBSDataContainer dataContainer,
+        @NotNull SearchValues searchValues,
+        @NotNull Set<SearchTableMonitor> activeMonitors)
+    {
         if (!params.searchForeignObjects && dataContainer instanceof DBPForeignObject && ((DBPForeignObject) dataContainer).isForeignObject()) {
             return false;
         }
@@ -146,34 +195,65 @@ public class SearchDataQuery implements ISearchQuery {
             log.warn("Can't find tree node for object \"" + objectName + "\"");
             return false;
         }
-        monitor.subTask("Search in '" + objectName + "'");
+        synchronized (monitor) {
+            monitor.subTask("Search in '" + objectName + "'");
+        }
         log.debug("Search in '" + objectName + "'");
-        SearchTableMonitor searchMonitor = new SearchTableMonitor(monitor);
-        try (DBCSession session = DBUtils.openUtilSession(searchMonitor, dataContainer, "Search rows in " + objectName)) {
-            TestDataReceiver dataReceiver = new TestDataReceiver(searchMonitor);
+        SearchTableMonitor searchMonitor = new SearchTableMonitor(monitor, objectName);
+        activeMonitors.add(searchMonitor);
+        try {
+            DBDDataFilter dataFilter;
             try {
-                findRows(session, dataContainer, dataReceiver);
-            } catch (DBCException e) {
-                // Search failed in some container - just write an error in log.
-                // We don't want to break whole search because of one single table.
-                log.debug("Fulltext search failed in '" + dataContainer.getName() + "'", e);
+                dataFilter = makeSearchFilter(searchMonitor, dataContainer, searchValues);
+            } catch (Exception e) {
+                log.debug("Can't prepare search filter for '" + dataContainer.getName() + "'", e);
+                return false;
             }
+            if (dataFilter == null) {
+                // No columns compatible with the search string
+                return false;
+            }
+            String sessionTitle = "Search rows in " + objectName;
+            try (DBCSession session = isolatedContext != null ?
+                isolatedContext.openSession(searchMonitor, DBCExecutionPurpose.UTIL, sessionTitle) :
+                DBUtils.openUtilSession(searchMonitor, dataContainer, sessionTitle))
+            {
+                TestDataReceiver dataReceiver = new TestDataReceiver(searchMonitor);
+                dataReceiver.filter = dataFilter;
+                try {
+                    DBCExecutionSource searchSource = new AbstractExecutionSource(dataContainer, session.getExecutionContext(), this);
+                    dataContainer.readData(searchSource, session, dataReceiver, dataFilter, -1, -1, 0, 0);
+                } catch (DBException e) {
+                    // Search failed in some container - just write an error in log.
+                    // We don't want to break whole search because of one single table.
+                    log.debug("Fulltext search failed in '" + dataContainer.getName() + "'", e);
+                }
 
-            if (dataReceiver.rowCount > 0) {
-                SearchDataObject object = new SearchDataObject(node, dataReceiver.rowCount, dataReceiver.filter);
-                searchResult.addObjects(Collections.singletonList(object));
-                return true;
+                if (dataReceiver.rowCount > 0) {
+                    SearchDataObject object = new SearchDataObject(node, dataReceiver.rowCount, dataReceiver.filter);
+                    synchronized (searchResult) {
+                        searchResult.addObjects(Collections.singletonList(object));
+                    }
+                    return true;
+                }
+            } catch (DBCException e) {
+                log.error("Error searching data in container", e);
             }
-        } catch (DBCException e) {
-            log.error("Error searching data in container", e);
+            return false;
+        } finally {
+            activeMonitors.remove(searchMonitor);
         }
-        return false;
     }
 
-    private DBCStatistics findRows(
-        @NotNull DBCSession session,
+    /**
+     * Makes filter which matches rows containing the search string in any compatible column.
+     * Returns null if there are no such columns.
+     */
+    @Nullable
+    private DBDDataFilter makeSearchFilter(
+        @NotNull DBRProgressMonitor monitor,
         @NotNull DBSDataContainer dataContainer,
-        @NotNull TestDataReceiver dataReceiver) throws DBCException
+        @NotNull SearchValues searchValues) throws DBException
     {
         DBSEntity entity;
         if (dataContainer instanceof DBSEntity) {
@@ -182,123 +262,92 @@ public class SearchDataQuery implements ISearchQuery {
             log.warn("Data container " + dataContainer + " isn't entity");
             return null;
         }
-        try {
 
-            List<DBDAttributeConstraint> constraints = new ArrayList<>();
-            DBDDataFilter dataFilter = searchDataFilterForContainer(dataContainer, session.getProgressMonitor());
-            for (DBSEntityAttribute attribute : CommonUtils.safeCollection(entity.getAttributes(session.getProgressMonitor()))) {
-                if (params.fastSearch) {
-                    if (DBUtils.findAttributeIndex(session.getProgressMonitor(), attribute) == null) {
+        List<DBDAttributeConstraint> constraints = new ArrayList<>();
+        DBDDataFilter dataFilter = searchDataFilterForContainer(dataContainer, monitor);
+        for (DBSEntityAttribute attribute : CommonUtils.safeCollection(entity.getAttributes(monitor))) {
+            if (DBUtils.isPseudoAttribute(attribute) || DBUtils.isHiddenObject(attribute)) {
+                continue;
+            }
+            DBCLogicalOperator[] supportedOperators = DBUtils.getAttributeOperators(attribute);
+            DBCLogicalOperator operator;
+            Object value;
+            switch (attribute.getDataKind()) {
+                case BOOLEAN:
+                    continue;
+                case NUMERIC:
+                    if (!params.searchNumbers || searchValues.numberValue == null) {
                         continue;
                     }
-                }
-                if (DBUtils.isPseudoAttribute(attribute) || DBUtils.isHiddenObject(attribute)) {
-                    continue;
-                }
-                DBCLogicalOperator[] supportedOperators = DBUtils.getAttributeOperators(attribute);
-                DBCLogicalOperator operator;
-                Object value;
-                switch (attribute.getDataKind()) {
-                    case BOOLEAN:
+                    if (!ArrayUtils.contains(supportedOperators, DBCLogicalOperator.EQUALS)) {
                         continue;
-                    case NUMERIC:
-                        if (!params.searchNumbers) {
-                            continue;
-                        }
-                        if (!ArrayUtils.contains(supportedOperators, DBCLogicalOperator.EQUALS)) {
-                            continue;
-                        }
+                    }
+                    operator = DBCLogicalOperator.EQUALS;
+                    value = searchValues.numberValue;
+                    break;
+                case CONTENT:
+                case BINARY:
+                    if (!params.searchLOBs) {
+                        continue;
+                    }
+                case STRING:
+                    // Do not check value length. Some columns may be compressed/compacted/have special data type and thus have length < than value length.
+//                    if (attribute.getMaxLength() > 0 && attribute.getMaxLength() < params.searchString.length()) {
+//                        continue;
+//                    }
+
+                    if (!params.isCaseSensitive() && ArrayUtils.contains(supportedOperators, DBCLogicalOperator.ILIKE)) {
+                        operator = DBCLogicalOperator.ILIKE;
+                        value = "%" + params.searchString + "%";
+                    } else if (ArrayUtils.contains(supportedOperators, DBCLogicalOperator.LIKE)) {
+                        operator = DBCLogicalOperator.LIKE;
+                        value = "%" + params.searchString + "%";
+                    } else if (ArrayUtils.contains(supportedOperators, DBCLogicalOperator.EQUALS)) {
                         operator = DBCLogicalOperator.EQUALS;
-                        try {
-                            value = Integer.valueOf(params.searchString);
-                        } catch (NumberFormatException e) {
-                            try {
-                                value = Long.valueOf(params.searchString);
-                            } catch (NumberFormatException e1) {
-                                try {
-                                    value = Double.valueOf(params.searchString);
-                                } catch (NumberFormatException e2) {
-                                    try {
-                                        value = new BigDecimal(params.searchString);
-                                    } catch (Exception e3) {
-                                        // Not a number
-                                        continue;
-                                    }
-                                }
-                            }
-                        }
-                        break;
-                    case CONTENT:
-                    case BINARY:
-                        if (!params.searchLOBs) {
-                            continue;
-                        }
-                    case STRING:
-                        // Do not check value length. Some columns may be compressed/compacted/have special data type and thus have length < than value length.
-//                        if (attribute.getMaxLength() > 0 && attribute.getMaxLength() < params.searchString.length()) {
-//                            continue;
-//                        }
-
-                        if (!params.isCaseSensitive() && ArrayUtils.contains(supportedOperators, DBCLogicalOperator.ILIKE)) {
-                            operator = DBCLogicalOperator.ILIKE;
-                            value = "%" + params.searchString + "%";
-                        } else if (ArrayUtils.contains(supportedOperators, DBCLogicalOperator.LIKE)) {
-                            operator = DBCLogicalOperator.LIKE;
-                            value = "%" + params.searchString + "%";
-                        } else if (ArrayUtils.contains(supportedOperators, DBCLogicalOperator.EQUALS)) {
-                            operator = DBCLogicalOperator.EQUALS;
-                            value = params.searchString;
-                        } else {
-                            continue;
-                        }
-                        break;
-                    default: {
-                        // Try to convert string to attribute type
-                        // On success search by exact match
-                        if (!ArrayUtils.contains(supportedOperators, DBCLogicalOperator.EQUALS)) {
-                            continue;
-                        }
-                        String typeName = attribute.getTypeName();
-                        if (typeName.equals(DBConstants.TYPE_NAME_UUID) || typeName.equals(DBConstants.TYPE_NAME_UUID2)) {
-                            try {
-                                UUID uuid = UUID.fromString(params.searchString);
-                                operator = DBCLogicalOperator.EQUALS;
-                                value = uuid.toString();
-                            } catch (Exception e) {
-                                // No a UUID
-                                continue;
-                            }
-                        } else {
-                            continue;
-                        }
+                        value = params.searchString;
+                    } else {
+                        continue;
+                    }
+                    break;
+                default: {
+                    // Try to convert string to attribute type
+                    // On success search by exact match
+                    if (searchValues.uuidValue == null || !ArrayUtils.contains(supportedOperators, DBCLogicalOperator.EQUALS)) {
+                        continue;
+                    }
+                    String typeName = attribute.getTypeName();
+                    if (typeName.equals(DBConstants.TYPE_NAME_UUID) || typeName.equals(DBConstants.TYPE_NAME_UUID2)) {
+                        operator = DBCLogicalOperator.EQUALS;
+                        value = searchValues.uuidValue;
+                    } else {
+                        continue;
                     }
                 }
-                DBDAttributeConstraint constraint = null;
-                if (dataFilter != null) {
-                    constraint = dataFilter.getConstraint(attribute, true);
-                }
-                if (constraint == null) {
-                    constraint = new DBDAttributeConstraint(attribute, constraints.size());
-                    constraint.setVisible(true);
-                }
-                constraint.setOperator(operator);
-                constraint.setValue(value);
-                constraints.add(constraint);
             }
-            if (constraints.isEmpty()) {
-                return null;
+            // Index lookup may read metadata, so check it only for type-compatible columns
+            if (params.fastSearch && DBUtils.findAttributeIndex(monitor, attribute) == null) {
+                continue;
             }
+            DBDAttributeConstraint constraint = null;
             if (dataFilter != null) {
-                dataReceiver.filter = dataFilter;
-            } else {
-                dataReceiver.filter = new DBDDataFilter(constraints);
+                constraint = dataFilter.getConstraint(attribute, true);
             }
-            dataReceiver.filter.setAnyConstraint(true);
-            DBCExecutionSource searchSource = new AbstractExecutionSource(dataContainer, session.getExecutionContext(), this);
-            return dataContainer.readData(searchSource, session, dataReceiver, dataReceiver.filter, -1, -1, 0, 0);
-        } catch (DBException e) {
-            throw new DBCException("Error finding rows", e);
+            if (constraint == null) {
+                constraint = new DBDAttributeConstraint(attribute, constraints.size());
+                constraint.setVisible(true);
+            }
+            constraint.setOperator(operator);
+            constraint.setValue(value);
+            constraints.add(constraint);
+        }
+        if (constraints.isEmpty()) {
+            return null;
         }
+        if (dataFilter == null) {
+            dataFilter = new DBDDataFilter(constraints);
+        }
+        dataFilter.setAnyConstraint(true);
+        return dataFilter;
     }
 
     static SearchDataQuery createQuery(SearchDataParams params) throws DBException {
@@ -331,19 +380,180 @@ public class SearchDataQuery implements ISearchQuery {
         return dataFilter;
     }
 
-    private class SearchTableMonitor extends VoidProgressMonitor {
+    /**
+     * Search string converted to values of non-string columns.
+     * Columns of types which the search string can't be converted to are skipped.
+     */
+    private static class SearchValues {
+        @Nullable
+        private final Object numberValue;
+        @Nullable
+        private final String uuidValue;
+
+        SearchValues(@NotNull String searchString) {
+            this.numberValue = parseNumber(searchString);
+            String uuid;
+            try {
+                uuid = UUID.fromString(searchString).toString();
+            } catch (Exception e) {
+                // No a UUID
+                uuid = null;
+            }
+            this.uuidValue = uuid;
+        }
+
+        @Nullable
+        private static Object parseNumber(@NotNull String searchString) {
+            try {
+                return Integer.valueOf(searchString);
+            } catch (NumberFormatException e) {
+                try {
+                    return Long.valueOf(searchString);
+                } catch (NumberFormatException e1) {
+                    try {
+                        return Double.valueOf(searchString);
+                    } catch (NumberFormatException e2) {
+                        try {
+                            return new BigDecimal(searchString);
+                        } catch (Exception e3) {
+                            // Not a number
+                            return null;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Searches tables of a single database instance.
+     * Several searchers may share the same queue, each one uses its own isolated context.
+     */
+    private class InstanceSearcher implements Runnable {
+
+        private final DBRProgressMonitor monitor;
+        private final DBNModel dbnModel;
+        private final DBSInstance instance;
+        private final Queue<DBSDataContainer> containers;
+        private final SearchValues searchValues;
+        private final Set<SearchTableMonitor> activeMonitors;
+        private final AtomicInteger totalObjects;
+
+        InstanceSearcher(
+            @NotNull DBRProgressMonitor monitor,
+            @NotNull DBNModel dbnModel,
+            @NotNull DBSInstance instance,
+            @NotNull Queue<DBSDataContainer> containers,
+            @NotNull SearchValues searchValues,
+            @NotNull Set<SearchTableMonitor> activeMonitors,
+            @NotNull AtomicInteger totalObjects)
+        {
+            this.monitor = monitor;
+            this.dbnModel = dbnModel;
+            this.instance = instance;
+            this.containers = containers;
+            this.searchValues = searchValues;
+            this.activeMonitors = activeMonitors;
+            this.totalObjects = totalObjects;
+        }
+
+        @Override
+        public void run() {
+            DBSDataContainer firstContainer = containers.peek();
+            if (firstContainer == null || monitor.isCanceled()) {
+                return;
+            }
+            DBCExecutionContext isolatedContext = null;
+            try {
+                isolatedContext = instance.openIsolatedContext(
+                    monitor, "Data search", DBUtils.getDefaultContext(firstContainer, false));
+            } catch (Exception e) {
+                log.debug("Can't open isolated context for data search. Default context will be used.", e);
+            }
+            try {
+                for (DBSDataContainer dataContainer = containers.poll(); dataContainer != null; dataContainer = containers.poll()) {
+                    if (monitor.isCanceled()) {
+                        break;
+                    }
+                    boolean found;
+                    if (isolatedContext != null) {
+                        found = searchDataInContainer(monitor, dbnModel, isolatedContext, dataContainer, searchValues, activeMonitors);
+                    } else {
+                        // Default context can't be used by several searchers at once
+                        synchronized (containers) {
+                            found = searchDataInContainer(monitor, dbnModel, null, dataContainer, searchValues, activeMonitors);
+                        }
+                    }
+                    if (found) {
+                        totalObjects.incrementAndGet();
+                    }
+                    synchronized (monitor) {
+                        monitor.worked(1);
+                    }
+                }
+            } finally {
+                if (isolatedContext != null) {
+                    isolatedContext.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * Monitor of a single table search. Keeps active blocks so the search can be canceled on timeout.
+     */
+    private static class SearchTableMonitor extends VoidProgressMonitor {
 
-        private DBRProgressMonitor baseMonitor;
+        private final DBRProgressMonitor baseMonitor;
+        private final String objectName;
+        private final long startTime = System.currentTimeMillis();
+        private final List<DBRBlockingObject> blocks = new ArrayList<>();
         private volatile boolean canceled;
 
-        private SearchTableMonitor(DBRProgressMonitor monitor) {
+        private SearchTableMonitor(DBRProgressMonitor monitor, String objectName) {
             this.baseMonitor = monitor;
+            this.objectName = objectName;
         }
 
         @Override
         public boolean isCanceled() {
             return canceled || baseMonitor.isCanceled();
         }
+
+        @Override
+        public void startBlock(DBRBlockingObject object, String taskName) {
+            synchronized (blocks) {
+                blocks.add(object);
+            }
+        }
+
+        @Override
+        public void endBlock() {
+            synchronized (blocks) {
+                if (!blocks.isEmpty()) {
+                    blocks.remove(blocks.size() - 1);
+                }
+            }
+        }
+
+        @Override
+        public List<DBRBlockingObject> getActiveBlocks() {
+            synchronized (blocks) {
+                return new ArrayList<>(blocks);
+            }
+        }
+
+        private void cancel() {
+            canceled = true;
+            List<DBRBlockingObject> activeBlocks = getActiveBlocks();
+            if (!activeBlocks.isEmpty()) {
+                try {
+                    BlockCanceler.cancelBlock(this, activeBlocks.get(activeBlocks.size() - 1), null);
+                } catch (DBException e) {
+                    log.debug("Error canceling search in '" + objectName + "'", e);
+                }
+            }
+        }
     }
 
     private class TestDataReceiver implements DBDDataReceiver {
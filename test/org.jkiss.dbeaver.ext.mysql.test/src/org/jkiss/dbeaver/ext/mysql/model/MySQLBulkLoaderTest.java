@@ -0,0 +1,79 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.mysql.model;
+
+import org.jkiss.dbeaver.ext.mysql.model.MySQLBulkLoader.ValueKind;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.*;
+
+public class MySQLBulkLoaderTest {
+
+    private static final ZoneId UTC = ZoneOffset.UTC;
+
+    @Test
+    public void escapeText() {
+        Assert.assertEquals("\\N", format(ValueKind.TEXT, null, UTC));
+        Assert.assertEquals("a\\tb\\nc\\rd\\\\e\\0f", format(ValueKind.TEXT, "a\tb\nc\rd\\e\0f", UTC));
+        Assert.assertEquals("N", format(ValueKind.TEXT, "N", UTC));
+        Assert.assertEquals("\\\\N", format(ValueKind.TEXT, "\\N", UTC));
+        Assert.assertEquals("12.50", format(ValueKind.TEXT, new BigDecimal("12.50"), UTC));
+        Assert.assertEquals("1", format(ValueKind.TEXT, Boolean.TRUE, UTC));
+        Assert.assertEquals("display", format(ValueKind.TEXT, new Object(), UTC));
+    }
+
+    @Test
+    public void formatBinary() {
+        Assert.assertEquals("00ff7f", format(ValueKind.BINARY, new byte[]{0, (byte) 0xFF, 0x7F}, UTC));
+        Assert.assertEquals("610962", format(ValueKind.BINARY, "a\tb", UTC));
+        Assert.assertEquals("\\N", format(ValueKind.BINARY, null, UTC));
+        Assert.assertEquals("257", format(ValueKind.BIT, new byte[]{1, 1}, UTC));
+    }
+
+    @Test
+    public void formatTemporal() {
+        Assert.assertEquals("2023-05-08", format(ValueKind.TEXT, Date.valueOf("2023-05-08"), UTC));
+        Assert.assertEquals("12:30:15.000000", format(ValueKind.TEXT, Time.valueOf("12:30:15"), UTC));
+        Assert.assertEquals("12:30:15.000123", format(ValueKind.TEXT, LocalTime.of(12, 30, 15, 123_000), UTC));
+        Assert.assertEquals("2023-05-08 12:30:15.123456",
+            format(ValueKind.TEXT, LocalDateTime.of(2023, 5, 8, 12, 30, 15, 123_456_000), UTC));
+
+        // Instants are written in the connection time zone
+        ZoneId zone = ZoneId.of("Europe/Berlin");
+        Instant instant = Instant.parse("2023-05-08T10:00:00.000001Z");
+        Assert.assertEquals("2023-05-08 12:00:00.000001", format(ValueKind.TEXT, instant, zone));
+        Assert.assertEquals("2023-05-08 12:00:00.000001", format(ValueKind.TEXT, Timestamp.from(instant), zone));
+        Assert.assertEquals("2023-05-08 10:00:00.000001", format(ValueKind.TEXT, Timestamp.from(instant), UTC));
+        Assert.assertEquals("2023-05-08 12:00:00.000001", format(ValueKind.TEXT, instant.atOffset(ZoneOffset.UTC), zone));
+        Assert.assertEquals("2023-05-08 12:00:00.000001", format(ValueKind.TEXT, instant.atZone(UTC), zone));
+
+        Assert.assertEquals("2024", format(ValueKind.YEAR, java.util.Date.from(Instant.parse("2023-12-31T23:30:00Z")), zone));
+        Assert.assertEquals("2023", format(ValueKind.YEAR, LocalDate.of(2023, 1, 1), UTC));
+        Assert.assertEquals("2023", format(ValueKind.YEAR, 2023, UTC));
+    }
+
+    private static String format(ValueKind kind, Object value, ZoneId timeZone) {
+        StringBuilder line = new StringBuilder();
+        MySQLBulkLoader.appendValue(line, kind, value, timeZone, v -> "display");
+        return line.toString();
+    }
+}
@@ -0,0 +1,198 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.oracle.model;
+
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.DBPEvaluationContext;
+import org.jkiss.dbeaver.model.connection.DBPConnectionConfiguration;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.data.DBDValueHandlerProvider;
+import org.jkiss.dbeaver.model.exec.DBCExecutionSource;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCPreparedStatement;
+import org.jkiss.dbeaver.model.exec.jdbc.JDBCSession;
+import org.jkiss.dbeaver.model.impl.jdbc.JDBCExecutionContext;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.jkiss.dbeaver.model.sql.SQLDialect;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.jkiss.dbeaver.model.struct.DBSDataBulkLoader;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+public class OracleBulkLoaderTest {
+
+    private OracleDataSource dataSource;
+    private DBPConnectionConfiguration connectionConfiguration;
+    private JDBCExecutionContext txnManager;
+    private JDBCSession session;
+    private JDBCPreparedStatement statement;
+    private Connection connection;
+    private DBDValueHandler valueHandler;
+    private OracleTableBase table;
+    private OracleTableColumn idColumn;
+    private OracleTableColumn textColumn;
+
+    @Before
+    public void setUp() throws Exception {
+        dataSource = Mockito.mock(OracleDataSource.class, Mockito.withSettings().extraInterfaces(DBDValueHandlerProvider.class));
+        DBPDataSourceContainer container = Mockito.mock(DBPDataSourceContainer.class);
+        connectionConfiguration = new DBPConnectionConfiguration();
+        Mockito.when(dataSource.getContainer()).thenReturn(container);
+        Mockito.when(container.getConnectionConfiguration()).thenReturn(connectionConfiguration);
+        SQLDialect dialect = Mockito.mock(SQLDialect.class);
+        Mockito.when(dataSource.getSQLDialect()).thenReturn(dialect);
+        Mockito.when(dialect.getQuotedIdentifier(Mockito.anyString(), Mockito.anyBoolean(), Mockito.anyBoolean()))
+            .thenAnswer(invocation -> "\"" + invocation.getArgument(0) + "\"");
+        valueHandler = Mockito.mock(DBDValueHandler.class);
+        Mockito.when(((DBDValueHandlerProvider) dataSource).getValueHandler(Mockito.any(), Mockito.any(), Mockito.any()))
+            .thenReturn(valueHandler);
+
+        txnManager = Mockito.mock(JDBCExecutionContext.class);
+        Mockito.when(txnManager.isConnected()).thenReturn(true);
+        Mockito.when(txnManager.isAutoCommit()).thenReturn(false);
+
+        statement = Mockito.mock(JDBCPreparedStatement.class);
+        connection = Mockito.mock(Connection.class);
+        session = Mockito.mock(JDBCSession.class);
+        Mockito.when(session.getDataSource()).thenReturn(dataSource);
+        Mockito.when(session.getProgressMonitor()).thenReturn(new VoidProgressMonitor());
+        Mockito.when(session.getExecutionContext()).thenReturn(txnManager);
+        Mockito.when(session.getOriginal()).thenReturn(connection);
+        Mockito.when(session.prepareStatement(Mockito.anyString())).thenReturn(statement);
+
+        idColumn = makeColumn("ID", Types.NUMERIC);
+        textColumn = makeColumn("TEXT", Types.CLOB);
+        table = Mockito.mock(OracleTableBase.class);
+        Mockito.when(table.getName()).thenReturn("T");
+        Mockito.when(table.getFullyQualifiedName(DBPEvaluationContext.DML)).thenReturn("\"S\".\"T\"");
+        Mockito.doReturn(Arrays.asList(idColumn, textColumn)).when(table).getAttributes(Mockito.any());
+    }
+
+    @Test
+    public void conventionalInsert() throws Exception {
+        createBulkLoad(100, Collections.emptyMap()).close();
+        Assert.assertEquals("INSERT INTO \"S\".\"T\" (\"ID\",\"TEXT\") VALUES (?,?)", getInsertQuery());
+    }
+
+    @Test
+    public void directPathInsert() throws Exception {
+        Mockito.when(dataSource.isAtLeastV11()).thenReturn(true);
+        createBulkLoad(100, Collections.singletonMap(OracleConstants.PROP_BULK_LOAD_APPEND_VALUES, true)).close();
+        Assert.assertEquals("INSERT /*+ APPEND_VALUES */ INTO \"S\".\"T\" (\"ID\",\"TEXT\") VALUES (?,?)", getInsertQuery());
+    }
+
+    @Test
+    public void directPathInsertRequiresV11() throws Exception {
+        // Option is taken from connection settings when it is not passed explicitly
+        connectionConfiguration.setProviderProperty(OracleConstants.PROP_BULK_LOAD_APPEND_VALUES, "true");
+        Mockito.when(dataSource.isAtLeastV11()).thenReturn(false);
+        createBulkLoad(100, null).close();
+        Assert.assertEquals("INSERT INTO \"S\".\"T\" (\"ID\",\"TEXT\") VALUES (?,?)", getInsertQuery());
+    }
+
+    @Test
+    public void flushAtBatchSize() throws Exception {
+        DBSDataBulkLoader.BulkLoadManager manager = createBulkLoad(2, null);
+        for (int i = 0; i < 3; i++) {
+            manager.addRow(session, new Object[]{i, null});
+        }
+        Mockito.verify(statement, Mockito.times(3)).addBatch();
+        Mockito.verify(statement, Mockito.times(1)).executeBatch();
+        Mockito.verify(valueHandler, Mockito.times(6)).bindValueObject(Mockito.eq(session), Mockito.eq(statement), Mockito.any(), Mockito.anyInt(), Mockito.any());
+        // Conventional insert is committed only at the end
+        Mockito.verify(txnManager, Mockito.never()).commit(session);
+
+        manager.finishBulkLoad(session);
+        Mockito.verify(statement, Mockito.times(2)).executeBatch();
+        Mockito.verify(txnManager, Mockito.times(1)).commit(session);
+        Assert.assertEquals(3, manager.getStatistics().getRowsUpdated());
+        manager.close();
+        Mockito.verify(statement).close();
+    }
+
+    @Test
+    public void commitEachDirectPathBatch() throws Exception {
+        Mockito.when(dataSource.isAtLeastV11()).thenReturn(true);
+        DBSDataBulkLoader.BulkLoadManager manager = createBulkLoad(2, Collections.singletonMap(OracleConstants.PROP_BULK_LOAD_APPEND_VALUES, true));
+        for (int i = 0; i < 4; i++) {
+            manager.addRow(session, new Object[]{i, null});
+        }
+        Mockito.verify(statement, Mockito.times(2)).executeBatch();
+        Mockito.verify(txnManager, Mockito.times(2)).commit(session);
+
+        // Nothing left to insert, only final commit
+        manager.finishBulkLoad(session);
+        Mockito.verify(statement, Mockito.times(2)).executeBatch();
+        Mockito.verify(txnManager, Mockito.times(3)).commit(session);
+        manager.close();
+    }
+
+    @Test
+    public void releaseTemporaryLobs() throws Exception {
+        Clob clob = Mockito.mock(Clob.class);
+        Mockito.when(connection.createClob()).thenReturn(clob);
+        DBSDataBulkLoader.BulkLoadManager manager = createBulkLoad(100, null);
+
+        String longText = String.join("", Collections.nCopies(5000, "x"));
+        manager.addRow(session, new Object[]{1, "short"});
+        manager.addRow(session, new Object[]{2, longText});
+        Mockito.verify(statement).setString(2, "short");
+        Mockito.verify(clob).setString(1, longText);
+        Mockito.verify(statement).setClob(2, clob);
+        Mockito.verify(clob, Mockito.never()).free();
+
+        manager.flushRows(session);
+        Mockito.verify(clob).free();
+        manager.close();
+        Mockito.verify(clob, Mockito.times(1)).free();
+    }
+
+    private DBSDataBulkLoader.BulkLoadManager createBulkLoad(int batchSize, Map<String, Object> options) throws DBException {
+        return new OracleBulkLoader(dataSource).createBulkLoad(
+            session,
+            table,
+            new DBSAttributeBase[]{idColumn, textColumn},
+            Mockito.mock(DBCExecutionSource.class),
+            batchSize,
+            options);
+    }
+
+    private String getInsertQuery() throws SQLException {
+        ArgumentCaptor<String> query = ArgumentCaptor.forClass(String.class);
+        Mockito.verify(session).prepareStatement(query.capture());
+        return query.getValue();
+    }
+
+    private OracleTableColumn makeColumn(String name, int typeID) {
+        OracleTableColumn column = Mockito.mock(OracleTableColumn.class);
+        Mockito.when(column.getName()).thenReturn(name);
+        Mockito.when(column.getTypeID()).thenReturn(typeID);
+        Mockito.when(column.getDataSource()).thenReturn(dataSource);
+        return column;
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.test.tools;
+
+import org.jkiss.dbeaver.tools.transfer.stream.importer.CSVParallelReader;
+import org.jkiss.utils.csv.CSVReader;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Compares throughput of sequential CSVReader and parallel CSVParallelReader.
+ * Not a unit test: run it manually, optionally with the number of rows as an argument.
+ */
+public class CSVImportBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        Path file = Files.createTempFile("dbeaver-import", ".csv");
+        try {
+            try (PrintWriter writer = new PrintWriter(new OutputStreamWriter(
+                new BufferedOutputStream(new FileOutputStream(file.toFile()), 100000), StandardCharsets.UTF_8))) {
+                writer.println("id,name,amount,created");
+                for (int i = 0; i < rows; i++) {
+                    writer.print(i);
+                    writer.print(",\"Customer ");
+                    writer.print(i);
+                    writer.print("\",");
+                    writer.print(i * 0.25);
+                    writer.println(",2023-05-08 12:00:00");
+                }
+            }
+            long fileSize = Files.size(file);
+
+            long sequentialTime = System.nanoTime();
+            long sequentialRows = readSequential(file);
+            sequentialTime = System.nanoTime() - sequentialTime;
+
+            int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+            long parallelTime = System.nanoTime();
+            long parallelRows = readParallel(file, threads);
+            parallelTime = System.nanoTime() - parallelTime;
+            if (sequentialRows != parallelRows) {
+                throw new IllegalStateException("Sequential reader read " + sequentialRows + " rows, parallel reader read " + parallelRows);
+            }
+
+            System.out.printf("CSV import of %d MB: sequential reader %.1f MB/s, parallel reader (%d threads) %.1f MB/s%n",
+                fileSize / (1024 * 1024), toMegabytesPerSecond(fileSize, sequentialTime), threads, toMegabytesPerSecond(fileSize, parallelTime));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static long readSequential(Path file) throws IOException {
+        long count = 0;
+        try (CSVReader reader = new CSVReader(new InputStreamReader(new FileInputStream(file.toFile()), StandardCharsets.UTF_8), ',', '"', '\\')) {
+            reader.readNext();
+            while (reader.readNext() != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static long readParallel(Path file, int threads) throws IOException {
+        long count = 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+             CSVParallelReader reader = new CSVParallelReader(channel, StandardCharsets.UTF_8, ',', '"', '\\', threads, false))
+        {
+            reader.setChunkSize(CSVParallelReader.DEFAULT_CHUNK_SIZE);
+            reader.setSkipFirstRecord(true);
+            for (List<Object[]> batch = reader.nextBatch(); batch != null; batch = reader.nextBatch()) {
+                count += batch.size();
+            }
+        }
+        return count;
+    }
+
+    private static double toMegabytesPerSecond(long bytes, long nanos) {
+        return (bytes / (1024.0 * 1024.0)) / (nanos / 1_000_000_000.0);
+    }
+}
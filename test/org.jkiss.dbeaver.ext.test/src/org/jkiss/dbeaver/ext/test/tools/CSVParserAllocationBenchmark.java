@@ -0,0 +1,77 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.test.tools;
+
+import org.jkiss.utils.csv.CSVReader;
+import org.jkiss.utils.csv.CSVRecord;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures memory allocated per row by CSVReader.readNext and by CSVReader.readRecord.
+ * Not a unit test: run it manually on a HotSpot JVM, optionally with the number of rows as an argument.
+ */
+public class CSVParserAllocationBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean)) {
+            System.out.println("Thread allocation counters are not available in this JVM");
+            return;
+        }
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if (!threadBean.isThreadAllocatedMemorySupported() || !threadBean.isThreadAllocatedMemoryEnabled()) {
+            System.out.println("Thread allocation counters are disabled");
+            return;
+        }
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+        StringBuilder csv = new StringBuilder(rows * 60);
+        for (int i = 0; i < rows; i++) {
+            csv.append(i).append(",\"Customer ").append(i).append("\",").append(i * 0.25).append(",2023-05-08 12:00:00,").append(i % 7).append('\n');
+        }
+        String text = csv.toString();
+        long threadId = Thread.currentThread().getId();
+
+        long allocated = threadBean.getThreadAllocatedBytes(threadId);
+        int count = 0;
+        try (CSVReader reader = new CSVReader(new StringReader(text))) {
+            for (String[] line = reader.readNext(); line != null; line = reader.readNext()) {
+                count += line.length;
+            }
+        }
+        long readNextBytes = threadBean.getThreadAllocatedBytes(threadId) - allocated;
+
+        allocated = threadBean.getThreadAllocatedBytes(threadId);
+        int recordCount = 0;
+        long checksum = 0;
+        try (CSVReader reader = new CSVReader(new StringReader(text))) {
+            CSVRecord record = new CSVRecord();
+            while (reader.readRecord(record)) {
+                recordCount += record.getFieldCount();
+                checksum += record.parseLong(0);
+            }
+        }
+        long readRecordBytes = threadBean.getThreadAllocatedBytes(threadId) - allocated;
+        if (count != recordCount) {
+            throw new IllegalStateException("readNext read " + count + " fields, readRecord read " + recordCount);
+        }
+
+        System.out.printf("CSV parsing of %d rows (%d KB, checksum %d): readNext allocated %d bytes/row, readRecord allocated %d bytes/row%n",
+            rows, text.length() / 1024, checksum, readNextBytes / rows, readRecordBytes / rows);
+    }
+}
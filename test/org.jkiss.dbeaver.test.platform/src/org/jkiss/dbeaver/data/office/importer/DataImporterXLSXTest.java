@@ -0,0 +1,159 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.data.office.importer;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.tools.transfer.stream.IStreamDataImporterSite;
+import org.jkiss.dbeaver.tools.transfer.stream.StreamDataImporterColumnInfo;
+import org.jkiss.dbeaver.tools.transfer.stream.StreamEntityMapping;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RunWith(MockitoJUnitRunner.class)
+public class DataImporterXLSXTest {
+    private static final File DUMMY_FILE = new File("dummy");
+
+    private final DataImporterXLSX importer = new DataImporterXLSX();
+    private final StreamEntityMapping mapping = new StreamEntityMapping(DUMMY_FILE);
+    private final Map<String, Object> properties = new HashMap<>();
+
+    @Mock
+    private IStreamDataImporterSite site;
+
+    @Before
+    public void init() throws DBException {
+        importer.init(site);
+        Mockito.when(site.getProcessorProperties()).thenReturn(properties);
+    }
+
+    @Test
+    public void detectHeaderAndTypes() throws Exception {
+        List<StreamDataImporterColumnInfo> columnsInfo = readColumnsInfo();
+        Assert.assertEquals(4, columnsInfo.size());
+        assertColumn(columnsInfo.get(0), "id", DBPDataKind.NUMERIC, "INTEGER");
+        // Integer values are promoted to real
+        assertColumn(columnsInfo.get(1), "price", DBPDataKind.NUMERIC, "REAL");
+        // Numbers and strings in the same column
+        assertColumn(columnsInfo.get(2), "mixed", DBPDataKind.STRING, "VARCHAR");
+        // Date-styled numeric cells
+        assertColumn(columnsInfo.get(3), "created", DBPDataKind.DATETIME, "TIMESTAMP");
+    }
+
+    @Test
+    public void noHeader() throws Exception {
+        properties.put("header", "none");
+        List<StreamDataImporterColumnInfo> columnsInfo = readColumnsInfo();
+        Assert.assertEquals(4, columnsInfo.size());
+        // Header names are read as values
+        assertColumn(columnsInfo.get(0), "Column1", DBPDataKind.STRING, "VARCHAR");
+        assertColumn(columnsInfo.get(3), "Column4", DBPDataKind.STRING, "VARCHAR");
+    }
+
+    @Test
+    public void selectSheetByName() throws Exception {
+        properties.put("sheet", "Data");
+        assertSecondSheet(readColumnsInfo());
+    }
+
+    @Test
+    public void selectSheetByIndex() throws Exception {
+        properties.put("sheet", "2");
+        assertSecondSheet(readColumnsInfo());
+    }
+
+    @Test(expected = DBException.class)
+    public void missingSheet() throws Exception {
+        properties.put("sheet", "Missing");
+        readColumnsInfo();
+    }
+
+    private static void assertSecondSheet(List<StreamDataImporterColumnInfo> columnsInfo) {
+        Assert.assertEquals(3, columnsInfo.size());
+        // The first row has a number, so it is not a header
+        assertColumn(columnsInfo.get(0), "Column1", DBPDataKind.NUMERIC, "INTEGER");
+        assertColumn(columnsInfo.get(1), "Column2", DBPDataKind.STRING, "VARCHAR");
+        // Sparse cell
+        assertColumn(columnsInfo.get(2), "Column3", DBPDataKind.BOOLEAN, "BOOLEAN");
+    }
+
+    private static void assertColumn(StreamDataImporterColumnInfo columnInfo, String name, DBPDataKind dataKind, String typeName) {
+        Assert.assertEquals(name, columnInfo.getName());
+        Assert.assertEquals(name, dataKind, columnInfo.getDataKind());
+        Assert.assertEquals(name, typeName, columnInfo.getTypeName());
+    }
+
+    private List<StreamDataImporterColumnInfo> readColumnsInfo() throws IOException, DBException {
+        return importer.readColumnsInfo(mapping, new ByteArrayInputStream(createWorkbook()));
+    }
+
+    private static byte[] createWorkbook() throws IOException {
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd hh:mm"));
+
+            Sheet numbers = workbook.createSheet("Numbers");
+            Row header = numbers.createRow(0);
+            header.createCell(0).setCellValue("id");
+            header.createCell(1).setCellValue("price");
+            header.createCell(2).setCellValue("mixed");
+            header.createCell(3).setCellValue("created");
+            for (int i = 1; i <= 3; i++) {
+                Row row = numbers.createRow(i);
+                row.createCell(0).setCellValue(i);
+                row.createCell(1).setCellValue(i == 2 ? 2.5 : i);
+                if (i == 3) {
+                    row.createCell(2).setCellValue("x");
+                } else {
+                    row.createCell(2).setCellValue(i);
+                }
+                row.createCell(3).setCellValue(LocalDateTime.of(2023, 5, i, 10, 30));
+                row.getCell(3).setCellStyle(dateStyle);
+            }
+
+            Sheet data = workbook.createSheet("Data");
+            Row first = data.createRow(0);
+            first.createCell(0).setCellValue(10);
+            first.createCell(1).setCellValue("a");
+            Row second = data.createRow(2);
+            second.createCell(0).setCellValue(20);
+            second.createCell(2).setCellValue(true);
+
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            workbook.write(buffer);
+            return buffer.toByteArray();
+        }
+    }
+}
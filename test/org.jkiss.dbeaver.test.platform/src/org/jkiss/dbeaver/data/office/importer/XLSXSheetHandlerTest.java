@@ -0,0 +1,80 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.data.office.importer;
+
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.model.SharedStrings;
+import org.apache.poi.xssf.usermodel.XSSFRichTextString;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
+import java.io.StringReader;
+import java.util.List;
+
+public class XLSXSheetHandlerTest {
+
+    @Test
+    public void readCells() throws Exception {
+        List<Object[]> rows = parse(
+            "<row r=\"1\">" +
+                "<c r=\"A1\" t=\"inlineStr\"><is><t>plain</t></is></c>" +
+                "<c r=\"C1\" t=\"inlineStr\"><is><r><t>rich </t></r><r><t>text</t></r></is></c>" +
+                "<c r=\"E1\"><v>42</v></c>" +
+            "</row>" +
+            "<row r=\"2\">" +
+                "<c r=\"B2\" t=\"inlineStr\"><is><t>東京</t><rPh sb=\"0\" eb=\"2\"><t>トウキョウ</t></rPh></is></c>" +
+                "<c r=\"AA2\" t=\"s\"><v>0</v></c>" +
+            "</row>" +
+            "<row r=\"3\"/>" +
+            "<row r=\"4\"><c t=\"b\"><v>1</v></c><c><v>2.5</v></c><c t=\"e\"><v>#N/A</v></c></row>");
+
+        Assert.assertEquals(3, rows.size());
+        // Sparse cells are placed by their references
+        Assert.assertArrayEquals(new Object[]{"plain", null, "rich text", null, 42L}, rows.get(0));
+        // Phonetic runs are not a part of the value
+        Object[] row = rows.get(1);
+        Assert.assertEquals(27, row.length);
+        Assert.assertEquals("東京", row[1]);
+        Assert.assertEquals("shared", row[26]);
+        // Cells without references follow the previous cell, errors are nulls
+        Assert.assertArrayEquals(new Object[]{true, 2.5}, rows.get(2));
+    }
+
+    @Test
+    public void columnIndex() {
+        Assert.assertEquals(0, XLSXSheetHandler.getColumnIndex("A1"));
+        Assert.assertEquals(25, XLSXSheetHandler.getColumnIndex("Z10"));
+        Assert.assertEquals(26, XLSXSheetHandler.getColumnIndex("AA2"));
+        Assert.assertEquals(702, XLSXSheetHandler.getColumnIndex("AAA1"));
+    }
+
+    private static List<Object[]> parse(String sheetData) throws Exception {
+        SharedStrings sharedStrings = Mockito.mock(SharedStrings.class);
+        Mockito.when(sharedStrings.getItemAt(0)).thenReturn(new XSSFRichTextString("shared"));
+        XLSXSheetHandler.SampleCollector collector = new XLSXSheetHandler.SampleCollector(100);
+        XMLReader xmlReader = XMLHelper.newXMLReader();
+        xmlReader.setContentHandler(new XLSXSheetHandler(sharedStrings, null, false, collector));
+        xmlReader.parse(new InputSource(new StringReader(
+            "<worksheet xmlns=\"http://schemas.openxmlformats.org/spreadsheetml/2006/main\"><sheetData>" +
+                sheetData +
+                "</sheetData></worksheet>")));
+        return collector.getRows();
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.clickhouse.model;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.UUID;
+
+public class ClickhouseRowBinaryEncoderTest {
+
+    private static final String[] COLUMN_TYPES = {
+        "UInt8",
+        "Nullable(String)",
+        "Int32",
+        "Decimal(9, 2)",
+        "DateTime64(3, 'UTC')",
+        "Array(Nullable(Int16))",
+        "Enum8('a' = 1, 'b' = 2)",
+        "UUID",
+        "Date",
+        "LowCardinality(String)",
+    };
+
+    @Test
+    public void encodeRows() {
+        ClickhouseRowBinaryEncoder encoder = new ClickhouseRowBinaryEncoder(COLUMN_TYPES);
+        encoder.writeRow(new Object[]{
+            5,
+            "hi",
+            -2,
+            new BigDecimal("1.5"),
+            OffsetDateTime.of(1970, 1, 1, 0, 0, 1, 234_000_000, ZoneOffset.UTC),
+            Arrays.asList(1, null),
+            "b",
+            new UUID(1, 2),
+            LocalDate.of(1970, 1, 2),
+            "x",
+        });
+        Assert.assertEquals(
+            "05" +
+            "00026869" +
+            "feffffff" +
+            "96000000" +
+            "d204000000000000" +
+            "02000100" + "01" +
+            "02" +
+            "0100000000000000" + "0200000000000000" +
+            "0100" +
+            "0178",
+            toHex(encoder));
+
+        encoder.getOutput().reset();
+        encoder.writeRow(new Object[COLUMN_TYPES.length]);
+        Assert.assertEquals(
+            "00" +
+            "01" +
+            "00000000" +
+            "00000000" +
+            "0000000000000000" +
+            "00" +
+            "01" +
+            "00000000000000000000000000000000" +
+            "0000" +
+            "00",
+            toHex(encoder));
+    }
+
+    @Test
+    public void encodeWideIntegers() {
+        ClickhouseRowBinaryEncoder encoder = new ClickhouseRowBinaryEncoder(new String[]{"Int128", "UInt64", "Decimal128(1)", "String"});
+        char[] longString = new char[300];
+        Arrays.fill(longString, 'a');
+        encoder.writeRow(new Object[]{-1, new BigInteger("18446744073709551615"), new BigDecimal("-0.1"), new String(longString)});
+        String hex = toHex(encoder);
+        Assert.assertTrue(hex.startsWith(
+            "ffffffffffffffffffffffffffffffff" +
+            "ffffffffffffffff" +
+            "ffffffffffffffffffffffffffffffff" +
+            "ac02" + "6161"));
+        Assert.assertEquals((16 + 8 + 16 + 2 + 300) * 2, hex.length());
+    }
+
+    @Test
+    public void rejectUnsupportedTypes() {
+        Assert.assertThrows(IllegalArgumentException.class, () -> new ClickhouseRowBinaryEncoder(new String[]{"Map(String, UInt64)"}));
+        Assert.assertThrows(ArithmeticException.class, () ->
+            new ClickhouseRowBinaryEncoder(new String[]{"Int32"}).writeRow(new Object[]{new BigInteger("4294967296")}));
+    }
+
+    private static String toHex(ClickhouseRowBinaryEncoder encoder) {
+        StringBuilder hex = new StringBuilder();
+        for (byte b : encoder.getOutput().toByteArray()) {
+            hex.append(String.format("%02x", b & 0xFF));
+        }
+        return hex.toString();
+    }
+}
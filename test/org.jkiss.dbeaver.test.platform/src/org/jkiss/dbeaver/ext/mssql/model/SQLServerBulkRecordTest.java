@@ -0,0 +1,186 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.mssql.model;
+
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.ext.mssql.SQLServerConstants;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.runtime.VoidProgressMonitor;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.lang.reflect.Method;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+@RunWith(MockitoJUnitRunner.class)
+public class SQLServerBulkRecordTest {
+
+    /**
+     * Local stand-in for the driver interface com.microsoft.sqlserver.jdbc.ISQLServerBulkData
+     */
+    public interface BulkDataStandIn {
+        Set<Integer> getColumnOrdinals();
+
+        String getColumnName(int column);
+
+        int getColumnType(int column);
+
+        int getPrecision(int column);
+
+        int getScale(int column);
+
+        Object[] getRowData();
+
+        boolean next();
+    }
+
+    /**
+     * Local stand-in for the driver interface com.microsoft.sqlserver.jdbc.ISQLServerBulkRecord
+     */
+    public interface BulkRecordStandIn extends BulkDataStandIn {
+        boolean isAutoIncrement(int column);
+
+        void addColumnMetadata(int positionInFile, String name, int jdbcType, int precision, int scale);
+
+        void setTimestampWithTimezoneFormat(String dateTimeFormat);
+
+        DateTimeFormatter getColumnDateTimeFormatter(int column);
+    }
+
+    /**
+     * Local stand-in for the driver class com.microsoft.sqlserver.jdbc.SQLServerBulkCopy
+     */
+    public static class BulkCopyStandIn {
+        public void writeToServer(ResultSet sourceData) {
+        }
+
+        public void writeToServer(BulkDataStandIn sourceData) {
+        }
+    }
+
+    @Mock
+    private SQLServerTableColumn nameColumn;
+    @Mock
+    private SQLServerTableColumn amountColumn;
+
+    @Test
+    public void readRowsThroughProxy() {
+        SQLServerBulkRecord.Column[] columns = {
+            new SQLServerBulkRecord.Column("id", Types.INTEGER, 10, 0),
+            new SQLServerBulkRecord.Column("name", Types.NVARCHAR, 100, 0),
+        };
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{1, "first"});
+        rows.add(new Object[]{2, null});
+
+        BulkRecordStandIn record = (BulkRecordStandIn) new SQLServerBulkRecord(columns, rows).createProxy(BulkRecordStandIn.class);
+        Assert.assertEquals(Arrays.asList(1, 2), new ArrayList<>(record.getColumnOrdinals()));
+        Assert.assertEquals("name", record.getColumnName(2));
+        Assert.assertEquals(Types.NVARCHAR, record.getColumnType(2));
+        Assert.assertEquals(100, record.getPrecision(2));
+        Assert.assertEquals(0, record.getScale(1));
+        Assert.assertFalse(record.isAutoIncrement(1));
+
+        List<Object[]> readRows = new ArrayList<>();
+        while (record.next()) {
+            readRows.add(record.getRowData());
+        }
+        Assert.assertEquals(2, readRows.size());
+        Assert.assertArrayEquals(new Object[]{1, "first"}, readRows.get(0));
+        Assert.assertArrayEquals(new Object[]{2, null}, readRows.get(1));
+        Assert.assertFalse(record.next());
+
+        // Optional methods are no-op, only column metadata can't be changed
+        record.setTimestampWithTimezoneFormat("yyyy-MM-dd HH:mm:ss");
+        Assert.assertNull(record.getColumnDateTimeFormatter(1));
+        Assert.assertThrows(UnsupportedOperationException.class, () -> record.addColumnMetadata(1, "x", Types.INTEGER, 0, 0));
+
+        Assert.assertEquals(record, record);
+        Assert.assertNotEquals(record, new SQLServerBulkRecord(columns, rows).createProxy(BulkRecordStandIn.class));
+        Assert.assertEquals(System.identityHashCode(record), record.hashCode());
+        Assert.assertEquals("SQLServerBulkRecord[2 columns]", record.toString());
+    }
+
+    @Test
+    public void findWriteToServerMethod() throws NoSuchMethodException {
+        Method method = SQLServerBulkLoader.findWriteToServerMethod(BulkCopyStandIn.class, BulkRecordStandIn.class);
+        Assert.assertEquals(BulkDataStandIn.class, method.getParameterTypes()[0]);
+        Assert.assertThrows(NoSuchMethodException.class, () -> SQLServerBulkLoader.findWriteToServerMethod(BulkCopyStandIn.class, Runnable.class));
+    }
+
+    @Test
+    public void findWriteToServerMethodInDriver() throws Exception {
+        // Driver is not a dependency of the platform, check its API only if it is on the class path
+        Class<?> bulkCopyClass;
+        Class<?> bulkRecordClass;
+        try {
+            bulkCopyClass = Class.forName(SQLServerConstants.SQL_SERVER_BULK_COPY_CLASS_NAME);
+            bulkRecordClass = Class.forName(SQLServerConstants.SQL_SERVER_BULK_RECORD_CLASS_NAME);
+        } catch (ClassNotFoundException e) {
+            Assume.assumeNoException(e);
+            return;
+        }
+        Method method = SQLServerBulkLoader.findWriteToServerMethod(bulkCopyClass, bulkRecordClass);
+        Assert.assertTrue(method.getParameterTypes()[0].isAssignableFrom(bulkRecordClass));
+
+        SQLServerBulkRecord.Column[] columns = {new SQLServerBulkRecord.Column("id", Types.INTEGER, 10, 0)};
+        Object record = new SQLServerBulkRecord(columns, new ArrayList<>()).createProxy(bulkRecordClass);
+        Assert.assertNull(bulkRecordClass.getMethod("getColumnDateTimeFormatter", Integer.TYPE).invoke(record, 1));
+        bulkRecordClass.getMethod("setTimestampWithTimezoneFormat", String.class).invoke(record, "yyyy-MM-dd");
+        Assert.assertEquals(Boolean.FALSE, bulkRecordClass.getMethod("next").invoke(record));
+    }
+
+    @Test
+    public void describeColumns() {
+        Mockito.when(nameColumn.getName()).thenReturn("name");
+        Mockito.when(nameColumn.getTypeID()).thenReturn(Types.NVARCHAR);
+        Mockito.when(nameColumn.getDataKind()).thenReturn(DBPDataKind.STRING);
+        Mockito.when(nameColumn.getMaxLength()).thenReturn(-1L);
+        SQLServerBulkRecord.Column name = SQLServerBulkLoader.makeColumn(nameColumn);
+        Assert.assertEquals(Types.NVARCHAR, name.type);
+        Assert.assertEquals(Integer.MAX_VALUE, name.precision);
+
+        Mockito.when(amountColumn.getName()).thenReturn("amount");
+        Mockito.when(amountColumn.getTypeID()).thenReturn(Types.DECIMAL);
+        Mockito.when(amountColumn.getDataKind()).thenReturn(DBPDataKind.NUMERIC);
+        Mockito.when(amountColumn.getPrecision()).thenReturn(18);
+        Mockito.when(amountColumn.getScale()).thenReturn(4);
+        SQLServerBulkRecord.Column amount = SQLServerBulkLoader.makeColumn(amountColumn);
+        Assert.assertEquals("amount", amount.name);
+        Assert.assertEquals(18, amount.precision);
+        Assert.assertEquals(4, amount.scale);
+    }
+
+    @Test
+    public void convertValues() throws DBException {
+        VoidProgressMonitor monitor = new VoidProgressMonitor();
+        Assert.assertNull(SQLServerBulkLoader.convertValue(monitor, nameColumn, null));
+        Assert.assertEquals("text", SQLServerBulkLoader.convertValue(monitor, nameColumn, "text"));
+        Assert.assertEquals(42, SQLServerBulkLoader.convertValue(monitor, amountColumn, 42));
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.postgresql.model;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.UUID;
+
+public class PostgreCopyBinaryEncoderTest {
+
+    @Test
+    public void resolveEncoders() {
+        Assert.assertEquals(PostgreCopyBinaryEncoder.INT4, PostgreCopyBinaryEncoder.getEncoder("int4"));
+        Assert.assertEquals(PostgreCopyBinaryEncoder.INT4, PostgreCopyBinaryEncoder.getEncoder("integer"));
+        Assert.assertEquals(PostgreCopyBinaryEncoder.TIMESTAMPTZ, PostgreCopyBinaryEncoder.getEncoder("timestamptz"));
+        Assert.assertEquals(PostgreCopyBinaryEncoder.TEXT, PostgreCopyBinaryEncoder.getEncoder("varchar"));
+        Assert.assertNull(PostgreCopyBinaryEncoder.getEncoder("hstore"));
+    }
+
+    @Test
+    public void encodeNumeric() throws IOException {
+        assertNumeric(new BigDecimal("12345.678"), 1, 0, 3, 1, 2345, 6780);
+        assertNumeric(new BigDecimal("-0.0001"), -1, 0x4000, 4, 1);
+        assertNumeric(new BigDecimal("0.00000001"), -2, 0, 8, 1);
+        assertNumeric(new BigDecimal("10000"), 1, 0, 0, 1);
+        assertNumeric(new BigDecimal("1E+5"), 1, 0, 0, 10);
+        assertNumeric(BigDecimal.ZERO, 0, 0, 0);
+        assertNumeric(new BigDecimal("0.00"), 0, 0, 2);
+    }
+
+    @Test
+    public void encodeTemporal() throws IOException {
+        DataInputStream in = encode(PostgreCopyBinaryEncoder.TIMESTAMP, Timestamp.valueOf("2000-01-01 00:00:01.000002"));
+        Assert.assertEquals(8, in.readInt());
+        Assert.assertEquals(1_000_002L, in.readLong());
+
+        in = encode(PostgreCopyBinaryEncoder.DATE, Date.valueOf(LocalDate.of(1999, 12, 31)));
+        Assert.assertEquals(4, in.readInt());
+        Assert.assertEquals(-1, in.readInt());
+    }
+
+    @Test
+    public void encodeOtherTypes() throws IOException {
+        DataInputStream in = encode(PostgreCopyBinaryEncoder.INT8, null);
+        Assert.assertEquals(-1, in.readInt());
+
+        in = encode(PostgreCopyBinaryEncoder.INT2, 7);
+        Assert.assertEquals(2, in.readInt());
+        Assert.assertEquals(7, in.readShort());
+
+        in = encode(PostgreCopyBinaryEncoder.BOOL, "true");
+        Assert.assertEquals(1, in.readInt());
+        Assert.assertEquals(1, in.readByte());
+
+        UUID uuid = UUID.randomUUID();
+        in = encode(PostgreCopyBinaryEncoder.UUID, uuid.toString());
+        Assert.assertEquals(16, in.readInt());
+        Assert.assertEquals(uuid, new UUID(in.readLong(), in.readLong()));
+
+        in = encode(PostgreCopyBinaryEncoder.JSONB, "{}");
+        Assert.assertEquals(3, in.readInt());
+        Assert.assertEquals(1, in.readByte());
+        Assert.assertEquals('{', in.readByte());
+    }
+
+    private static void assertNumeric(BigDecimal value, int weight, int sign, int scale, int... digits) throws IOException {
+        DataInputStream in = encode(PostgreCopyBinaryEncoder.NUMERIC, value);
+        Assert.assertEquals(8 + digits.length * 2, in.readInt());
+        Assert.assertEquals(digits.length, in.readShort());
+        Assert.assertEquals(weight, in.readShort());
+        Assert.assertEquals(sign, in.readShort());
+        Assert.assertEquals(scale, in.readShort());
+        for (int digit : digits) {
+            Assert.assertEquals(digit, in.readShort());
+        }
+        Assert.assertEquals(0, in.available());
+    }
+
+    private static DataInputStream encode(PostgreCopyBinaryEncoder encoder, Object value) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        encoder.writeValue(new DataOutputStream(buffer), value);
+        return new DataInputStream(new ByteArrayInputStream(buffer.toByteArray()));
+    }
+}
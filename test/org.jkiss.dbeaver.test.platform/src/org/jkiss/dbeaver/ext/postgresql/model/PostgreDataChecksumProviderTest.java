@@ -0,0 +1,105 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ext.postgresql.model;
+
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPQualifiedObject;
+import org.jkiss.dbeaver.model.exec.DBCException;
+import org.jkiss.dbeaver.model.exec.DBCResultSet;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.exec.DBCStatement;
+import org.jkiss.dbeaver.model.sql.SQLDialect;
+import org.jkiss.dbeaver.model.struct.DBSDataChecksumProvider;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+
+public class PostgreDataChecksumProviderTest {
+
+    private DBCSession session;
+    private DBSEntity entity;
+    private List<DBSEntityAttribute> attributes;
+    private DBCResultSet resultSet;
+    private final List<String> executedQueries = new ArrayList<>();
+
+    @Before
+    public void setUp() throws Exception {
+        SQLDialect dialect = Mockito.mock(SQLDialect.class);
+        Mockito.when(dialect.getQuotedIdentifier(anyString(), anyBoolean(), anyBoolean())).thenAnswer(i -> "\"" + i.getArgument(0) + "\"");
+        DBPDataSource dataSource = Mockito.mock(DBPDataSource.class);
+        Mockito.when(dataSource.getSQLDialect()).thenReturn(dialect);
+
+        resultSet = Mockito.mock(DBCResultSet.class);
+        session = Mockito.mock(DBCSession.class);
+        Mockito.when(session.getDataSource()).thenReturn(dataSource);
+        Mockito.when(session.prepareStatement(any(), anyString(), anyBoolean(), anyBoolean(), anyBoolean())).thenAnswer(invocation -> {
+            executedQueries.add(invocation.getArgument(1));
+            DBCStatement statement = Mockito.mock(DBCStatement.class);
+            Mockito.when(statement.executeStatement()).thenReturn(true);
+            Mockito.when(statement.openResultSet()).thenReturn(resultSet);
+            return statement;
+        });
+
+        entity = Mockito.mock(DBSEntity.class, Mockito.withSettings().extraInterfaces(DBPQualifiedObject.class));
+        Mockito.when(entity.getName()).thenReturn("test_table");
+        Mockito.when(((DBPQualifiedObject) entity).getFullyQualifiedName(any())).thenReturn("public.test_table");
+
+        attributes = new ArrayList<>();
+        for (String name : new String[]{"id", "name"}) {
+            DBSEntityAttribute attribute = Mockito.mock(DBSEntityAttribute.class);
+            Mockito.when(attribute.getName()).thenReturn(name);
+            Mockito.when(attribute.getDataSource()).thenReturn(dataSource);
+            attributes.add(attribute);
+        }
+    }
+
+    @Test
+    public void calculateChecksum() throws Exception {
+        Mockito.when(resultSet.nextRow()).thenReturn(true);
+        Mockito.when(resultSet.getAttributeValue(0)).thenReturn(42L);
+        Mockito.when(resultSet.getAttributeValue(1)).thenReturn("-1234567890123");
+
+        PostgreDataChecksumProvider provider = new PostgreDataChecksumProvider(Mockito.mock(PostgreDataSource.class));
+        DBSDataChecksumProvider.Checksum checksum = provider.calculateChecksum(session, entity, attributes, "\"id\" > 10");
+        Assert.assertEquals(42, checksum.getRowCount());
+        Assert.assertEquals("-1234567890123", checksum.getValue());
+        Assert.assertTrue(checksum.isSameData(new DBSDataChecksumProvider.Checksum(42, "-1234567890123")));
+        Assert.assertFalse(checksum.isSameData(new DBSDataChecksumProvider.Checksum(41, "-1234567890123")));
+        Assert.assertFalse(checksum.isSameData(new DBSDataChecksumProvider.Checksum(42, "0")));
+
+        provider.calculateChecksum(session, entity, attributes, null);
+        Assert.assertEquals(List.of(
+            "SELECT COUNT(*), COALESCE(SUM(('x' || SUBSTR(MD5(ROW(\"id\",\"name\")::text), 1, 16))::bit(64)::bigint), 0)::text" +
+                " FROM public.test_table WHERE \"id\" > 10",
+            "SELECT COUNT(*), COALESCE(SUM(('x' || SUBSTR(MD5(ROW(\"id\",\"name\")::text), 1, 16))::bit(64)::bigint), 0)::text" +
+                " FROM public.test_table"), executedQueries);
+    }
+
+    @Test(expected = DBCException.class)
+    public void emptyResult() throws Exception {
+        Mockito.when(resultSet.nextRow()).thenReturn(false);
+        new PostgreDataChecksumProvider(Mockito.mock(PostgreDataSource.class)).calculateChecksum(session, entity, attributes, null);
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.model.impl.data;
+
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPDataSourceInfo;
+import org.jkiss.dbeaver.model.DBPQualifiedObject;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.exec.DBCExecutionSource;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.exec.DBCStatement;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.sql.SQLDialect;
+import org.jkiss.dbeaver.model.struct.DBSAttributeBase;
+import org.jkiss.dbeaver.model.struct.DBSDataManipulator;
+import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
+import org.jkiss.dbeaver.model.struct.rdb.DBSTable;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.*;
+
+import static org.mockito.ArgumentMatchers.*;
+
+public class ExecuteInsertBatchImplTest {
+
+    private static final int SPARSE_ROWS = 500;
+
+    private DBCSession session;
+    private DBSTable table;
+    private DBDValueHandler valueHandler;
+    private final List<String> preparedQueries = new ArrayList<>();
+    private int executedBatches;
+
+    @Before
+    public void setUp() throws Exception {
+        DBPDataSourceInfo info = Mockito.mock(DBPDataSourceInfo.class);
+        Mockito.when(info.supportsBatchUpdates()).thenReturn(true);
+        SQLDialect dialect = Mockito.mock(SQLDialect.class);
+        DBPDataSource dataSource = Mockito.mock(DBPDataSource.class);
+        Mockito.when(dataSource.getInfo()).thenReturn(info);
+        Mockito.when(dataSource.getSQLDialect()).thenReturn(dialect);
+
+        session = Mockito.mock(DBCSession.class);
+        Mockito.when(session.getDataSource()).thenReturn(dataSource);
+        Mockito.when(session.getProgressMonitor()).thenReturn(Mockito.mock(DBRProgressMonitor.class));
+        Mockito.when(session.prepareStatement(any(), anyString(), anyBoolean(), anyBoolean(), anyBoolean())).thenAnswer(invocation -> {
+            String query = invocation.getArgument(1);
+            preparedQueries.add(query);
+            DBCStatement statement = Mockito.mock(DBCStatement.class);
+            Mockito.when(statement.getSession()).thenReturn(session);
+            Mockito.when(statement.getQueryString()).thenReturn(query);
+            Mockito.when(statement.executeStatementBatch()).thenAnswer(i -> {
+                executedBatches++;
+                return new int[0];
+            });
+            return statement;
+        });
+
+        table = Mockito.mock(DBSTable.class, Mockito.withSettings().extraInterfaces(DBPQualifiedObject.class));
+        Mockito.when(((DBPQualifiedObject) table).getFullyQualifiedName(any())).thenReturn("test_table");
+        valueHandler = Mockito.mock(DBDValueHandler.class);
+    }
+
+    @Test
+    public void sparseRowsReuseStatement() throws Exception {
+        DBSAttributeBase[] attributes = makeAttributes(6, -1);
+        int statementsWithoutBinding = insertSparseRows(attributes, false);
+        int statementsWithBinding = insertSparseRows(attributes, true);
+
+        Assert.assertTrue(statementsWithoutBinding > SPARSE_ROWS / 2);
+        Assert.assertEquals(1, statementsWithBinding);
+        Assert.assertEquals(1, executedBatches);
+        Assert.assertEquals("INSERT INTO test_table (c0,c1,c2,c3,c4,c5)\n\tVALUES (?,?,?,?,?,?)", preparedQueries.get(0));
+        // All values including nulls are bound
+        Mockito.verify(valueHandler, Mockito.times(SPARSE_ROWS * attributes.length))
+            .bindValueObject(any(), any(), any(), anyInt(), any());
+        Mockito.verify(valueHandler, Mockito.times(SPARSE_ROWS))
+            .bindValueObject(any(), any(), any(), Mockito.eq(0), any());
+    }
+
+    @Test
+    public void nullsInDefaultColumnsAreOmitted() throws Exception {
+        DBSAttributeBase[] attributes = makeAttributes(3, 1);
+        ExecuteInsertBatchImpl batch = new ExecuteInsertBatchImpl(
+            attributes, null, true, session, Mockito.mock(DBCExecutionSource.class), table, false);
+        batch.add(new Object[]{1, 2, null});
+        batch.add(new Object[]{2, 3, 4});
+        batch.add(new Object[]{3, null, null});
+        batch.add(new Object[]{4, null, 5});
+        batch.execute(session, Map.of(DBSDataManipulator.OPTION_BIND_NULL_VALUES, true));
+
+        Assert.assertEquals(List.of(
+            "INSERT INTO test_table (c0,c1,c2)\n\tVALUES (?,?,?)",
+            "INSERT INTO test_table (c0,c2)\n\tVALUES (?,?)"), preparedQueries);
+        Assert.assertEquals(2, executedBatches);
+    }
+
+    @Test
+    public void multiRowInsertReusesStatement() throws Exception {
+        DBSAttributeBase[] attributes = makeAttributes(2, -1);
+        ExecuteBatchWithMultipleInsert batch = new ExecuteBatchWithMultipleInsert(
+            attributes, null, true, session, Mockito.mock(DBCExecutionSource.class), table);
+        for (int i = 0; i < 250; i++) {
+            batch.add(new Object[]{i, i % 3 == 0 ? null : i});
+        }
+        batch.execute(session, Map.of(DBSDataManipulator.OPTION_MULTI_INSERT_BATCH_SIZE, 100));
+
+        Assert.assertEquals(2, preparedQueries.size());
+        Assert.assertEquals(3, executedBatches);
+        Mockito.verify(valueHandler, Mockito.times(500)).bindValueObject(any(), any(), any(), anyInt(), any());
+    }
+
+    @Test
+    public void multiRowInsertWithNullRows() throws Exception {
+        DBSAttributeBase[] attributes = makeAttributes(2, -1);
+        ExecuteBatchWithMultipleInsert batch = new ExecuteBatchWithMultipleInsert(
+            attributes, null, true, session, Mockito.mock(DBCExecutionSource.class), table);
+        for (int i = 0; i < 300; i++) {
+            batch.add(i % 100 == 0 ? new Object[]{null, null} : new Object[]{i, i});
+        }
+        batch.execute(session, Map.of(DBSDataManipulator.OPTION_MULTI_INSERT_BATCH_SIZE, 100));
+
+        // Batches which start with all nulls have the same text if there are no default values
+        Assert.assertEquals(1, preparedQueries.size());
+        Assert.assertEquals(3, executedBatches);
+        Mockito.verify(valueHandler, Mockito.times(600)).bindValueObject(any(), any(), any(), anyInt(), any());
+    }
+
+    private int insertSparseRows(DBSAttributeBase[] attributes, boolean bindNullValues) throws Exception {
+        preparedQueries.clear();
+        executedBatches = 0;
+        Mockito.clearInvocations(valueHandler);
+        Random random = new Random(1);
+        ExecuteInsertBatchImpl batch = new ExecuteInsertBatchImpl(
+            attributes, null, true, session, Mockito.mock(DBCExecutionSource.class), table, false);
+        for (int i = 0; i < SPARSE_ROWS; i++) {
+            Object[] row = new Object[attributes.length];
+            row[0] = i;
+            for (int k = 1; k < row.length; k++) {
+                row[k] = random.nextBoolean() ? null : random.nextInt();
+            }
+            batch.add(row);
+        }
+        batch.execute(session, Map.of(DBSDataManipulator.OPTION_BIND_NULL_VALUES, bindNullValues));
+        return preparedQueries.size();
+    }
+
+    private DBSAttributeBase[] makeAttributes(int count, int defaultValueIndex) {
+        DBSAttributeBase[] attributes = new DBSAttributeBase[count];
+        for (int i = 0; i < count; i++) {
+            String name = "c" + i;
+            DBSEntityAttribute entityAttribute = Mockito.mock(DBSEntityAttribute.class);
+            Mockito.when(entityAttribute.getDefaultValue()).thenReturn(i == defaultValueIndex ? "0" : null);
+            DBDAttributeBinding binding = Mockito.mock(DBDAttributeBinding.class);
+            Mockito.when(binding.getName()).thenReturn(name);
+            Mockito.when(binding.getFullyQualifiedName(any(), any())).thenReturn(name);
+            Mockito.when(binding.getValueHandler()).thenReturn(valueHandler);
+            Mockito.when(binding.getEntityAttribute()).thenReturn(entityAttribute);
+            attributes[i] = binding;
+        }
+        return attributes;
+    }
+}
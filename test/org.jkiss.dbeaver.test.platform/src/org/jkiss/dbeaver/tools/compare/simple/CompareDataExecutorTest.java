@@ -0,0 +1,222 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.compare.simple;
+
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPQualifiedObject;
+import org.jkiss.dbeaver.model.data.DBDValueHandler;
+import org.jkiss.dbeaver.model.data.DBDValueHandlerProvider;
+import org.jkiss.dbeaver.model.exec.DBCResultSet;
+import org.jkiss.dbeaver.model.exec.DBCSession;
+import org.jkiss.dbeaver.model.exec.DBCStatement;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.sql.SQLDialect;
+import org.jkiss.dbeaver.model.struct.DBSEntity;
+import org.jkiss.dbeaver.model.struct.DBSEntityAttribute;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+
+public class CompareDataExecutorTest {
+
+    private DBPDataSource dataSource;
+    private DBCSession session;
+    private DBSEntity entity;
+    private DBDValueHandler valueHandler;
+    private final List<String> executedQueries = new ArrayList<>();
+    private int tableRows;
+    private int currentRow;
+    private long countResult;
+
+    @Before
+    public void setUp() throws Exception {
+        SQLDialect dialect = Mockito.mock(SQLDialect.class);
+        Mockito.when(dialect.getQuotedIdentifier(anyString(), anyBoolean(), anyBoolean())).thenAnswer(i -> i.getArgument(0));
+        Mockito.when(dialect.getQuotedString(anyString())).thenAnswer(i -> "'" + i.getArgument(0) + "'");
+        Mockito.when(dialect.getTypeCastClause(any(), anyString(), anyBoolean())).thenAnswer(i -> i.getArgument(1));
+        Mockito.when(dialect.escapeScriptValue(any(), any(), anyString())).thenAnswer(i -> i.getArgument(2));
+
+        valueHandler = Mockito.mock(DBDValueHandler.class);
+        Mockito.when(valueHandler.getValueDisplayString(any(), any(), any())).thenAnswer(i -> String.valueOf((Object) i.getArgument(1)));
+        Mockito.when(valueHandler.fetchValueObject(any(), any(), any(), anyInt())).thenAnswer(i -> currentRow * 10 + (int) i.getArgument(3));
+
+        dataSource = Mockito.mock(DBPDataSource.class, Mockito.withSettings().extraInterfaces(DBDValueHandlerProvider.class));
+        Mockito.when(dataSource.getSQLDialect()).thenReturn(dialect);
+        Mockito.when(((DBDValueHandlerProvider) dataSource).getValueHandler(any(), any(), any())).thenReturn(valueHandler);
+
+        session = Mockito.mock(DBCSession.class);
+        Mockito.when(session.getDataSource()).thenReturn(dataSource);
+        Mockito.when(session.prepareStatement(any(), anyString(), anyBoolean(), anyBoolean(), anyBoolean())).thenAnswer(invocation -> {
+            executedQueries.add(invocation.getArgument(1));
+            DBCResultSet resultSet = Mockito.mock(DBCResultSet.class);
+            currentRow = 0;
+            Mockito.when(resultSet.nextRow()).thenAnswer(i -> ++currentRow <= tableRows);
+            Mockito.when(resultSet.getAttributeValue(0)).thenAnswer(i -> countResult);
+            DBCStatement statement = Mockito.mock(DBCStatement.class);
+            Mockito.when(statement.executeStatement()).thenReturn(true);
+            Mockito.when(statement.openResultSet()).thenReturn(resultSet);
+            return statement;
+        });
+
+        entity = Mockito.mock(DBSEntity.class, Mockito.withSettings().extraInterfaces(DBPQualifiedObject.class));
+        Mockito.when(entity.getName()).thenReturn("test_table");
+        Mockito.when(((DBPQualifiedObject) entity).getFullyQualifiedName(any())).thenReturn("test_table");
+    }
+
+    @Test
+    public void greaterConditionWithCompositeKey() {
+        CompareDataExecutor.TableSide table = makeTable(3, "k1", "k2", "k3", "value");
+        Assert.assertEquals(
+            "((k1 > 1) OR (k1 = 1 AND k2 > 'a') OR (k1 = 1 AND k2 = 'a' AND k3 > 2))",
+            table.makeGreaterCondition(new Object[]{1, "a", 2}));
+
+        CompareDataExecutor.TableSide singleKey = makeTable(1, "k1", "value");
+        Assert.assertEquals("((k1 > 5))", singleKey.makeGreaterCondition(new Object[]{5}));
+    }
+
+    @Test
+    public void rangeConditionWithCompositeKey() {
+        CompareDataExecutor.TableSide table = makeTable(2, "k1", "k2", "value");
+        Object[] from = {1, "a"};
+        Object[] to = {3, "b"};
+        String greaterThanFrom = "((k1 > 1) OR (k1 = 1 AND k2 > 'a'))";
+        String greaterThanTo = "((k1 > 3) OR (k1 = 3 AND k2 > 'b'))";
+
+        Assert.assertNull(table.makeRangeCondition(null, null));
+        Assert.assertEquals(greaterThanFrom, table.makeRangeCondition(from, null));
+        Assert.assertEquals("NOT (" + greaterThanTo + ")", table.makeRangeCondition(null, to));
+        Assert.assertEquals(greaterThanFrom + " AND NOT (" + greaterThanTo + ")", table.makeRangeCondition(from, to));
+    }
+
+    @Test
+    public void normalizeNumbers() {
+        Assert.assertEquals("1.5", CompareDataExecutor.normalizeValue(new BigDecimal("1.50")));
+        Assert.assertEquals("1.5", CompareDataExecutor.normalizeValue(new BigDecimal("1.5")));
+        Assert.assertEquals("1.5", CompareDataExecutor.normalizeValue(1.5));
+        Assert.assertEquals("1.5", CompareDataExecutor.normalizeValue(1.5f));
+        Assert.assertEquals("10", CompareDataExecutor.normalizeValue(new BigDecimal("10.000")));
+        Assert.assertEquals("10", CompareDataExecutor.normalizeValue(10));
+        Assert.assertEquals("10", CompareDataExecutor.normalizeValue(10L));
+        Assert.assertEquals("1000", CompareDataExecutor.normalizeValue(new BigDecimal("1E+3")));
+        Assert.assertEquals("0", CompareDataExecutor.normalizeValue(new BigDecimal("0.00")));
+        Assert.assertEquals("0", CompareDataExecutor.normalizeValue(-0.0));
+        Assert.assertEquals("NaN", CompareDataExecutor.normalizeValue(Double.NaN));
+    }
+
+    @Test
+    public void normalizeOtherValues() {
+        Assert.assertEquals("01AB7F", CompareDataExecutor.normalizeValue(new byte[]{1, (byte) 0xAB, 0x7F}));
+
+        long time = Timestamp.valueOf("2023-05-06 07:08:09.123").getTime();
+        Assert.assertEquals("2023-05-06 07:08:09.123", CompareDataExecutor.normalizeValue(new java.util.Date(time)));
+        Assert.assertEquals("2023-05-06 07:08:09.123", CompareDataExecutor.normalizeValue(new Timestamp(time)));
+        Timestamp nanos = Timestamp.valueOf("2023-05-06 07:08:09.123456789");
+        Assert.assertEquals("2023-05-06 07:08:09.123456789", CompareDataExecutor.normalizeValue(nanos));
+        Assert.assertEquals("2023-05-06", CompareDataExecutor.normalizeValue(java.sql.Date.valueOf("2023-05-06")));
+        Assert.assertEquals("07:08:09", CompareDataExecutor.normalizeValue(java.sql.Time.valueOf("07:08:09")));
+
+        // Null must differ from any string value
+        Assert.assertNotEquals("", CompareDataExecutor.normalizeValue(null));
+        Assert.assertNotEquals("null", CompareDataExecutor.normalizeValue(null));
+        Assert.assertEquals("text", CompareDataExecutor.normalizeValue("text"));
+    }
+
+    @Test
+    public void readSplitKeys() throws Exception {
+        CompareDataExecutor.TableSide table = makeTable(2, "k1", "k2", "value");
+        DBRProgressMonitor monitor = Mockito.mock(DBRProgressMonitor.class);
+        tableRows = 10;
+
+        List<Object[]> keys = table.readSplitKeys(monitor, "k1 > 0", 10, 3);
+        Assert.assertEquals(List.of("SELECT k1, k2 FROM test_table WHERE k1 > 0 ORDER BY k1, k2"), executedQueries);
+        // Rows 3 and 6: (k1, k2) of row N is (N * 10, N * 10 + 1)
+        assertKeys(keys, new Object[]{30, 31}, new Object[]{60, 61});
+
+        assertKeys(table.readSplitKeys(monitor, null, 10, 4), new Object[]{20, 21}, new Object[]{50, 51}, new Object[]{70, 71});
+        assertKeys(table.readSplitKeys(monitor, null, 10, 10),
+            new Object[]{10, 11}, new Object[]{20, 21}, new Object[]{30, 31}, new Object[]{40, 41}, new Object[]{50, 51},
+            new Object[]{60, 61}, new Object[]{70, 71}, new Object[]{80, 81}, new Object[]{90, 91});
+        // Table has fewer rows than counted
+        tableRows = 5;
+        assertKeys(table.readSplitKeys(monitor, null, 10, 2), new Object[]{50, 51});
+        assertKeys(table.readSplitKeys(monitor, null, 10, 4), new Object[]{20, 21}, new Object[]{50, 51});
+
+        // Nothing to split
+        executedQueries.clear();
+        Assert.assertTrue(table.readSplitKeys(monitor, null, 10, 1).isEmpty());
+        Assert.assertTrue(table.readSplitKeys(monitor, null, 3, 4).isEmpty());
+        Assert.assertTrue(executedQueries.isEmpty());
+    }
+
+    @Test
+    public void rejectNullKeys() throws Exception {
+        // k2 is nullable
+        CompareDataExecutor.TableSide table = makeTable(3, "k1", "k2?", "k3", "value");
+        Assert.assertEquals("k2 IS NULL", table.makeNullKeyCondition());
+        Assert.assertEquals("k1 IS NULL OR k2 IS NULL", makeTable(2, "k1?", "k2?", "value?").makeNullKeyCondition());
+
+        tableRows = 1;
+        countResult = 0;
+        CompareDataExecutor.checkNullKeys(table);
+        Assert.assertEquals(List.of("SELECT COUNT(*) FROM test_table WHERE k2 IS NULL"), executedQueries);
+
+        countResult = 2;
+        DBException error = Assert.assertThrows(DBException.class, () -> CompareDataExecutor.checkNullKeys(table));
+        Assert.assertTrue(error.getMessage().contains("2 row(s) with NULL key values"));
+
+        // Mandatory key columns are not checked
+        executedQueries.clear();
+        CompareDataExecutor.TableSide requiredKey = makeTable(2, "k1", "k2", "value?");
+        Assert.assertNull(requiredKey.makeNullKeyCondition());
+        CompareDataExecutor.checkNullKeys(requiredKey);
+        Assert.assertTrue(executedQueries.isEmpty());
+    }
+
+    /**
+     * Names ending with '?' are nullable columns
+     */
+    private CompareDataExecutor.TableSide makeTable(int keySize, String... names) {
+        List<DBSEntityAttribute> attributes = new ArrayList<>();
+        for (String columnName : names) {
+            String name = columnName.endsWith("?") ? columnName.substring(0, columnName.length() - 1) : columnName;
+            DBSEntityAttribute attribute = Mockito.mock(DBSEntityAttribute.class);
+            Mockito.when(attribute.getName()).thenReturn(name);
+            Mockito.when(attribute.isRequired()).thenReturn(name.equals(columnName));
+            Mockito.when(attribute.getDataSource()).thenReturn(dataSource);
+            Mockito.when(attribute.getDataKind()).thenReturn(name.equals("k2") ? DBPDataKind.STRING : DBPDataKind.NUMERIC);
+            attributes.add(attribute);
+        }
+        return new CompareDataExecutor.TableSide(session, entity, attributes, keySize);
+    }
+
+    private static void assertKeys(List<Object[]> keys, Object[]... expected) {
+        Assert.assertEquals(expected.length, keys.size());
+        for (int i = 0; i < expected.length; i++) {
+            Assert.assertArrayEquals(expected[i], keys.get(i));
+        }
+    }
+}
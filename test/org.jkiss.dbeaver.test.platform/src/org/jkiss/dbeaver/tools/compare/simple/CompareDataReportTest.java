@@ -0,0 +1,86 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.compare.simple;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.List;
+
+public class CompareDataReportTest {
+
+    @Test
+    public void countDifferences() {
+        CompareDataReport report = new CompareDataReport(List.of("id"), List.of("id", "name"), 10);
+        report.addMatchedRows(100, true);
+        report.addMatchedRows(1, false);
+        report.addMatchedRows(1, false);
+        report.addDifference(CompareDataReport.DifferenceType.INSERTED, new Object[]{1});
+        report.addDifference(CompareDataReport.DifferenceType.DELETED, new Object[]{2});
+        report.addDifference(CompareDataReport.DifferenceType.DELETED, new Object[]{3});
+        report.addDifference(CompareDataReport.DifferenceType.CHANGED, new Object[]{4});
+
+        Assert.assertEquals(102, report.getMatchedRows());
+        Assert.assertEquals(100, report.getMatchedByChecksumRows());
+        Assert.assertEquals(1, report.getInsertedRows());
+        Assert.assertEquals(2, report.getDeletedRows());
+        Assert.assertEquals(1, report.getChangedRows());
+        Assert.assertTrue(report.hasDifferences());
+        Assert.assertFalse(report.isTruncated());
+
+        List<CompareDataReport.RowDifference> differences = report.getDifferences();
+        Assert.assertEquals(4, differences.size());
+        Assert.assertEquals(CompareDataReport.DifferenceType.DELETED, differences.get(2).getType());
+        Assert.assertArrayEquals(new Object[]{3}, differences.get(2).getKeyValues());
+    }
+
+    @Test
+    public void noDifferences() {
+        CompareDataReport report = new CompareDataReport(List.of("id"), List.of("id"), 10);
+        report.addMatchedRows(5, false);
+        Assert.assertFalse(report.hasDifferences());
+        Assert.assertFalse(report.isTruncated());
+        Assert.assertTrue(report.getDifferences().isEmpty());
+    }
+
+    @Test
+    public void truncateDifferences() {
+        CompareDataReport report = new CompareDataReport(List.of("id"), List.of("id"), 3);
+        for (int i = 0; i < 10; i++) {
+            report.addDifference(i % 2 == 0 ? CompareDataReport.DifferenceType.CHANGED : CompareDataReport.DifferenceType.INSERTED, new Object[]{i});
+        }
+
+        Assert.assertEquals(5, report.getChangedRows());
+        Assert.assertEquals(5, report.getInsertedRows());
+        Assert.assertTrue(report.isTruncated());
+        List<CompareDataReport.RowDifference> differences = report.getDifferences();
+        Assert.assertEquals(3, differences.size());
+        // The first differences are kept
+        for (int i = 0; i < differences.size(); i++) {
+            Assert.assertArrayEquals(new Object[]{i}, differences.get(i).getKeyValues());
+        }
+    }
+
+    @Test
+    public void noReportedRows() {
+        CompareDataReport report = new CompareDataReport(List.of("id"), List.of("id"), 0);
+        report.addDifference(CompareDataReport.DifferenceType.DELETED, new Object[]{1});
+        Assert.assertEquals(1, report.getDeletedRows());
+        Assert.assertTrue(report.getDifferences().isEmpty());
+        Assert.assertTrue(report.isTruncated());
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.compare.simple;
+
+import org.eclipse.core.runtime.Status;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.DBPDataSourceContainer;
+import org.jkiss.dbeaver.model.meta.Property;
+import org.jkiss.dbeaver.model.navigator.DBNDatabaseNode;
+import org.jkiss.dbeaver.model.navigator.meta.DBXTreeNode;
+import org.jkiss.dbeaver.model.runtime.DBRProgressListener;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.struct.DBSObject;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class CompareObjectsExecutorTest {
+
+    private final Map<DBNDatabaseNode, DBRProgressMonitor> initMonitors = new ConcurrentHashMap<>();
+
+    @Test
+    public void compareChildren() throws Exception {
+        DBPDataSourceContainer sourceContainer = Mockito.mock(DBPDataSourceContainer.class);
+        DBPDataSourceContainer targetContainer = Mockito.mock(DBPDataSourceContainer.class);
+
+        DBNDatabaseNode sourceRoot = makeNode(sourceContainer, null, new TestObject("schema", "public"));
+        DBNDatabaseNode sourceRemoved = makeNode(sourceContainer, sourceRoot, new TestObject("removed", "table"));
+        DBNDatabaseNode sourceChanged = makeNode(sourceContainer, sourceRoot, new TestObject("changed", "table"));
+        DBNDatabaseNode sourceSame = makeNode(sourceContainer, sourceRoot, new TestObject("same", "view"));
+        setChildren(sourceRoot, sourceRemoved, sourceChanged, sourceSame);
+
+        DBNDatabaseNode targetRoot = makeNode(targetContainer, null, new TestObject("schema", "public"));
+        DBNDatabaseNode targetChanged = makeNode(targetContainer, targetRoot, new TestObject("changed", "view"));
+        DBNDatabaseNode targetSame = makeNode(targetContainer, targetRoot, new TestObject("same", "view"));
+        DBNDatabaseNode targetAdded = makeNode(targetContainer, targetRoot, new TestObject("added", "table"));
+        setChildren(targetRoot, targetChanged, targetSame, targetAdded);
+
+        List<DBNDatabaseNode> roots = List.of(sourceRoot, targetRoot);
+        CompareObjectsExecutor executor = new CompareObjectsExecutor(new CompareObjectsSettings(roots));
+        DBRProgressMonitor monitor = Mockito.mock(DBRProgressMonitor.class);
+        CompareReport report;
+        try {
+            report = executor.compareObjects(monitor, roots);
+        } finally {
+            executor.dispose();
+        }
+
+        List<CompareReportLine> lines = report.getReportLines();
+        Assert.assertEquals(5, lines.size());
+        checkLine(lines.get(0), 1, false, sourceRoot, targetRoot);
+        checkLine(lines.get(1), 2, true, sourceRemoved, null);
+        checkLine(lines.get(2), 2, true, sourceChanged, targetChanged);
+        checkLine(lines.get(3), 2, false, sourceSame, targetSame);
+        checkLine(lines.get(4), 2, true, null, targetAdded);
+
+        // Property values are reported in order of root nodes
+        CompareReportProperty typeProperty = findProperty(lines.get(2), "type");
+        Assert.assertArrayEquals(new Object[]{"table", "view"}, typeProperty.values);
+
+        // Each connection is read with its own monitor
+        DBRProgressMonitor sourceMonitor = initMonitors.get(sourceChanged);
+        DBRProgressMonitor targetMonitor = initMonitors.get(targetChanged);
+        Assert.assertNotNull(sourceMonitor);
+        Assert.assertNotNull(targetMonitor);
+        Assert.assertNotSame(monitor, sourceMonitor);
+        Assert.assertNotSame(monitor, targetMonitor);
+        Assert.assertNotSame(sourceMonitor, targetMonitor);
+        Assert.assertSame(sourceMonitor, initMonitors.get(sourceSame));
+    }
+
+    private void checkLine(CompareReportLine line, int depth, boolean hasDifference, DBNDatabaseNode... nodes) {
+        Assert.assertEquals(depth, line.depth);
+        Assert.assertEquals(hasDifference, line.hasDifference);
+        Assert.assertArrayEquals(nodes, line.nodes);
+    }
+
+    private CompareReportProperty findProperty(CompareReportLine line, String id) {
+        Assert.assertNotNull(line.properties);
+        for (CompareReportProperty property : line.properties) {
+            if (property.property.getId().equals(id)) {
+                return property;
+            }
+        }
+        throw new AssertionError("Property '" + id + "' not reported");
+    }
+
+    private DBNDatabaseNode makeNode(DBPDataSourceContainer container, DBNDatabaseNode parent, TestObject object) throws Exception {
+        DBNDatabaseNode node = Mockito.mock(DBNDatabaseNode.class);
+        DBXTreeNode meta = Mockito.mock(DBXTreeNode.class);
+        Mockito.when(node.getObject()).thenReturn(object);
+        Mockito.when(node.getMeta()).thenReturn(meta);
+        Mockito.when(node.getNodeName()).thenReturn(object.getName());
+        Mockito.when(node.getNodeFullName()).thenReturn(object.getName());
+        Mockito.when(node.getDataSourceContainer()).thenReturn(container);
+        Mockito.when(node.getChildren(ArgumentMatchers.any())).thenReturn(new DBNDatabaseNode[0]);
+        Mockito.when(node.isChildOf(ArgumentMatchers.any())).thenAnswer(i -> parent != null && i.getArgument(0) == parent);
+        Mockito.when(node.initializeNode(ArgumentMatchers.any(), ArgumentMatchers.any())).thenAnswer(i -> {
+            initMonitors.put(node, i.getArgument(0));
+            DBRProgressListener listener = i.getArgument(1);
+            if (listener != null) {
+                listener.onTaskFinished(Status.OK_STATUS);
+            }
+            return true;
+        });
+        return node;
+    }
+
+    private static void setChildren(DBNDatabaseNode node, DBNDatabaseNode... children) throws Exception {
+        Mockito.when(node.getChildren(ArgumentMatchers.any())).thenReturn(children);
+    }
+
+    public static class TestObject implements DBSObject {
+        private final String name;
+        private final String type;
+
+        TestObject(String name, String type) {
+            this.name = name;
+            this.type = type;
+        }
+
+        @Property(name = "Name", viewable = true, order = 1)
+        @Override
+        public String getName() {
+            return name;
+        }
+
+        @Property(name = "Type", viewable = true, order = 2)
+        public String getType() {
+            return type;
+        }
+
+        @Override
+        public String getDescription() {
+            return null;
+        }
+
+        @Override
+        public DBSObject getParentObject() {
+            return null;
+        }
+
+        @Override
+        public DBPDataSource getDataSource() {
+            return null;
+        }
+
+        @Override
+        public boolean isPersisted() {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer;
+
+import org.jkiss.dbeaver.tools.transfer.stream.arrow.*;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+public class ArrowTransferTest {
+
+    @Test
+    public void writeReadRoundTrip() throws IOException {
+        List<ArrowField> fields = Arrays.asList(
+            ArrowField.ofInt("id", 64, true),
+            new ArrowField("name", ArrowConstants.TYPE_UTF8),
+            ArrowField.ofDecimal("amount", 20, 2, 128),
+            new ArrowField("flag", ArrowConstants.TYPE_BOOL));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ArrowFileWriter writer = new ArrowFileWriter(out, fields);
+        writer.setBatchRows(1000);
+        writer.start();
+        for (int i = 0; i < 2500; i++) {
+            writer.getColumnWriter(0).writeLong(i);
+            if (i % 10 == 0) {
+                writer.getColumnWriter(1).writeNull();
+            } else {
+                writer.getColumnWriter(1).writeBytes(("name" + i).getBytes(StandardCharsets.UTF_8));
+            }
+            writer.getColumnWriter(2).writeDecimal(BigInteger.valueOf(i * 100L - 1000).toByteArray());
+            writer.getColumnWriter(3).writeBoolean(i % 2 == 0);
+            writer.endRow();
+        }
+        writer.finish();
+        Assert.assertEquals(2500, writer.getTotalRows());
+
+        byte[] file = out.toByteArray();
+        Assert.assertArrayEquals(ArrowConstants.MAGIC, Arrays.copyOfRange(file, 0, ArrowConstants.MAGIC.length));
+        Assert.assertArrayEquals(ArrowConstants.MAGIC, Arrays.copyOfRange(file, file.length - ArrowConstants.MAGIC.length, file.length));
+
+        try (ArrowStreamReader reader = new ArrowStreamReader(new ByteArrayInputStream(file))) {
+            List<ArrowField> schema = reader.readSchema();
+            Assert.assertEquals(fields.size(), schema.size());
+            Assert.assertEquals("amount", schema.get(2).getName());
+            Assert.assertEquals(20, schema.get(2).getDecimalPrecision());
+            Assert.assertEquals(2, schema.get(2).getDecimalScale());
+
+            int rowIndex = 0;
+            int batchCount = 0;
+            ArrowRecordBatch batch;
+            while ((batch = reader.readBatch()) != null) {
+                batchCount++;
+                for (int row = 0; row < batch.getRowCount(); row++, rowIndex++) {
+                    Assert.assertEquals((long) rowIndex, batch.getObject(0, row));
+                    Assert.assertEquals(rowIndex % 10 == 0 ? null : "name" + rowIndex, batch.getObject(1, row));
+                    Assert.assertEquals(BigDecimal.valueOf(rowIndex * 100L - 1000, 2), batch.getObject(2, row));
+                    Assert.assertEquals(rowIndex % 2 == 0, batch.getObject(3, row));
+                }
+            }
+            Assert.assertEquals(3, batchCount);
+            Assert.assertEquals(2500, rowIndex);
+        }
+    }
+}
@@ -32,7 +32,10 @@ import org.mockito.junit.MockitoJUnitRunner;
 
 import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -118,6 +121,57 @@ public class CSVImporterTest {
         Assert.assertEquals(DBPDataKind.STRING, columnsInfo.get(1).getDataKind());
     }
 
+    @Test
+    public void guessColumnTypesOverWholeFile() throws DBException, IOException {
+        StringBuilder data = new StringBuilder("id,value,flag\n");
+        for (int i = 0; i < 10000; i++) {
+            data.append(i).append(',').append(i % 100).append(",true\n");
+        }
+        data.append("10000,0.5,long string value\n");
+
+        List<StreamDataImporterColumnInfo> columnsInfo = readColumnsInfo(data.toString(), true);
+        Assert.assertEquals("INTEGER", columnsInfo.get(1).getTypeName());
+        Assert.assertEquals(DBPDataKind.BOOLEAN, columnsInfo.get(2).getDataKind());
+
+        properties.put("columnTypeProfile", DataImporterCSV.ColumnTypeProfile.full);
+        columnsInfo = readColumnsInfo(data.toString(), true);
+        Assert.assertEquals(DBPDataKind.NUMERIC, columnsInfo.get(0).getDataKind());
+        Assert.assertEquals("INTEGER", columnsInfo.get(0).getTypeName());
+        Assert.assertEquals(DBPDataKind.NUMERIC, columnsInfo.get(1).getDataKind());
+        Assert.assertEquals("REAL", columnsInfo.get(1).getTypeName());
+        Assert.assertEquals(DBPDataKind.STRING, columnsInfo.get(2).getDataKind());
+        Assert.assertEquals(32, columnsInfo.get(2).getMaxLength());
+
+        properties.put("columnTypeStableRecords", 1000);
+        columnsInfo = readColumnsInfo(data.toString(), true);
+        Assert.assertEquals("INTEGER", columnsInfo.get(1).getTypeName());
+    }
+
+    @Test
+    public void guessColumnTypesOverFileStrata() throws DBException, IOException {
+        StringBuilder data = new StringBuilder("id,value\n");
+        for (int i = 0; i < 100000; i++) {
+            data.append(i).append(',').append(i < 50000 ? String.valueOf(i) : "\"text,\nvalue\"").append('\n');
+        }
+        File file = File.createTempFile("dbeaver-import", ".csv");
+        try {
+            Files.write(file.toPath(), data.toString().getBytes(StandardCharsets.UTF_8));
+            properties.put("header", DataImporterCSV.HeaderPosition.top);
+            properties.put("columnTypeProfile", DataImporterCSV.ColumnTypeProfile.sampled);
+            properties.put("columnTypeSamplesCount", 10);
+            properties.put("quoteChar", "\"");
+            List<StreamDataImporterColumnInfo> columnsInfo;
+            try (FileInputStream is = new FileInputStream(file)) {
+                columnsInfo = importer.readColumnsInfo(mapping, is);
+            }
+            Assert.assertEquals(2, columnsInfo.size());
+            Assert.assertEquals("INTEGER", columnsInfo.get(0).getTypeName());
+            Assert.assertEquals(DBPDataKind.STRING, columnsInfo.get(1).getDataKind());
+        } finally {
+            Files.delete(file.toPath());
+        }
+    }
+
     private List<StreamDataImporterColumnInfo> readColumnsInfo(String data, boolean isHeaderPresent) throws DBException, IOException {
         properties.put("header", isHeaderPresent ? DataImporterCSV.HeaderPosition.top : DataImporterCSV.HeaderPosition.none);
         try (ByteArrayInputStream is = new ByteArrayInputStream(data.getBytes())) {
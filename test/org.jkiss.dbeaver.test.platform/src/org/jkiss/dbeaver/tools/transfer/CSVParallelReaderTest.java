@@ -0,0 +1,119 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer;
+
+import org.jkiss.dbeaver.tools.transfer.stream.importer.CSVParallelReader;
+import org.jkiss.utils.csv.CSVReader;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+public class CSVParallelReaderTest {
+
+    @Test
+    public void splitAtRecordBoundaries() throws IOException {
+        Random random = new Random(1);
+        StringBuilder csv = new StringBuilder("﻿id,text,value\n");
+        String[] texts = {"plain", "\"quoted, with separator\"", "\"multi\nline\r\nvalue\"", "\"escaped \\\" quote\"",
+            "\"doubled \"\" quote\"", "юникод 中文", "\"\"", "mid\"d\"le", "\"trailing\\\\\""};
+        for (int i = 0; i < 2000; i++) {
+            csv.append(i).append(',').append(texts[random.nextInt(texts.length)]).append(',').append(random.nextInt());
+            csv.append(random.nextInt(10) == 0 ? "\r\n" : "\n");
+            if (random.nextInt(50) == 0) {
+                csv.append('\n');
+            }
+        }
+        Path file = writeFile(csv.toString());
+        try {
+            List<Object[]> expected = readSequential(file);
+            for (int chunkSize : new int[]{1, 7, 100, 4096}) {
+                Assert.assertEquals("Chunk size " + chunkSize, toStrings(expected), toStrings(readParallel(file, chunkSize, true)));
+            }
+            List<String> unordered = toStrings(readParallel(file, 100, false));
+            List<String> ordered = toStrings(expected);
+            Collections.sort(unordered);
+            Collections.sort(ordered);
+            Assert.assertEquals(ordered, unordered);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void unterminatedQuote() throws IOException {
+        Path file = writeFile("a,b\n1,\"abc\n2,def\n");
+        try {
+            readParallel(file, 1, true);
+            Assert.fail("Un-terminated quote must be detected");
+        } catch (IOException e) {
+            // expected
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static Path writeFile(String text) throws IOException {
+        Path file = Files.createTempFile("dbeaver-import", ".csv");
+        Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private static List<Object[]> readSequential(Path file) throws IOException {
+        List<Object[]> records = new ArrayList<>();
+        try (CSVReader reader = new CSVReader(new InputStreamReader(new FileInputStream(file.toFile()), StandardCharsets.UTF_8), ',', '"', '\\')) {
+            boolean header = true;
+            for (String[] line = reader.readNext(); line != null; line = reader.readNext()) {
+                if (header) {
+                    header = false;
+                    continue;
+                }
+                records.add(line);
+            }
+        }
+        return records;
+    }
+
+    private static List<Object[]> readParallel(Path file, int chunkSize, boolean preserveOrder) throws IOException {
+        List<Object[]> records = new ArrayList<>();
+        int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+             CSVParallelReader reader = new CSVParallelReader(channel, StandardCharsets.UTF_8, ',', '"', '\\', threads, preserveOrder))
+        {
+            reader.setChunkSize(chunkSize);
+            reader.setSkipFirstRecord(true);
+            for (List<Object[]> batch = reader.nextBatch(); batch != null; batch = reader.nextBatch()) {
+                records.addAll(batch);
+            }
+        }
+        return records;
+    }
+
+    private static List<String> toStrings(List<Object[]> records) {
+        List<String> result = new ArrayList<>(records.size());
+        for (Object[] record : records) {
+            result.add(Arrays.toString(record));
+        }
+        return result;
+    }
+}
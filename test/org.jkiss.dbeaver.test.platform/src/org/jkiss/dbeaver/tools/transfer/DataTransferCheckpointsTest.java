@@ -0,0 +1,98 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+
+public class DataTransferCheckpointsTest {
+
+    @Test
+    public void resumeFromSavedCheckpoint() throws IOException {
+        Path folder = Files.createTempDirectory("dbeaver-checkpoints");
+        Path file = folder.resolve(DataTransferCheckpoints.CHECKPOINTS_FILE_NAME);
+        try {
+            Date startTimestamp = new Date(1_600_000_000_000L);
+            DataTransferCheckpoints checkpoints = new DataTransferCheckpoints(file);
+            DataTransferCheckpoints.Checkpoint first = checkpoints.getCheckpoint(0, "public.orders");
+            DataTransferCheckpoints.Checkpoint second = checkpoints.getCheckpoint(1, "public.items");
+            Assert.assertEquals(0, first.getCommittedRows());
+            first.setStartTimestamp(startTimestamp);
+            first.commit(1000);
+            first.commit(2000, 3);
+            // Position of the previous run doesn't change during the transfer
+            Assert.assertEquals(0, first.getCommittedRows());
+            second.complete();
+
+            // Next run
+            checkpoints = new DataTransferCheckpoints(file);
+            first = checkpoints.getCheckpoint(0, "public.orders");
+            Assert.assertEquals(2000, first.getCommittedRows());
+            Assert.assertEquals(3, first.getPartNumber());
+            Assert.assertEquals(startTimestamp, first.getStartTimestamp());
+            Assert.assertFalse(first.isCompleted());
+            Assert.assertTrue(checkpoints.getCheckpoint(1, "public.items").isCompleted());
+            // Pipes are matched by position and source name
+            Assert.assertEquals(0, checkpoints.getCheckpoint(0, "public.items").getCommittedRows());
+
+            first.reset();
+            Assert.assertEquals(0, new DataTransferCheckpoints(file).getCheckpoint(0, "public.orders").getCommittedRows());
+
+            checkpoints.clear();
+            Assert.assertFalse(Files.exists(file));
+            Assert.assertFalse(new DataTransferCheckpoints(file).getCheckpoint(1, "public.items").isCompleted());
+        } finally {
+            Files.deleteIfExists(file);
+            Files.delete(folder);
+        }
+    }
+
+    @Test
+    public void saveSourceRowCount() throws IOException {
+        Path folder = Files.createTempDirectory("dbeaver-checkpoints");
+        Path file = folder.resolve(DataTransferCheckpoints.CHECKPOINTS_FILE_NAME);
+        try {
+            // Checkpoints saved without source row count
+            Files.writeString(file, "{\"pipes\":{\"0:public.orders\":{\"rows\":10,\"part\":0,\"completed\":false,\"startTime\":0}}}");
+            DataTransferCheckpoints.Checkpoint checkpoint = new DataTransferCheckpoints(file).getCheckpoint(0, "public.orders");
+            Assert.assertEquals(10, checkpoint.getCommittedRows());
+            Assert.assertEquals(-1, checkpoint.getSourceRowCount());
+
+            checkpoint.setSourceRowCount(500);
+            checkpoint = new DataTransferCheckpoints(file).getCheckpoint(0, "public.orders");
+            // Committed rows are kept
+            Assert.assertEquals(10, checkpoint.getCommittedRows());
+            Assert.assertEquals(500, checkpoint.getSourceRowCount());
+
+            checkpoint.commit(200);
+            checkpoint = new DataTransferCheckpoints(file).getCheckpoint(0, "public.orders");
+            Assert.assertEquals(200, checkpoint.getCommittedRows());
+            Assert.assertEquals(500, checkpoint.getSourceRowCount());
+
+            checkpoint.reset();
+            Assert.assertEquals(-1, new DataTransferCheckpoints(file).getCheckpoint(0, "public.orders").getSourceRowCount());
+        } finally {
+            Files.deleteIfExists(file);
+            Files.delete(folder);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer;
+
+import org.jkiss.dbeaver.tools.transfer.database.DatabaseProducerSettings;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class DatabaseProducerSettingsTest {
+
+    private static final String TABLE_ID = "postgres-1/test/public/orders";
+
+    @Test
+    public void incrementalWatermarks() {
+        Map<String, Object> watermarkColumns = new LinkedHashMap<>();
+        watermarkColumns.put(TABLE_ID, "updated_at");
+        Map<String, Object> watermarkValues = new LinkedHashMap<>();
+        watermarkValues.put(TABLE_ID, "'2023-01-01 00:00:00'");
+        Map<String, Object> config = new LinkedHashMap<>();
+        config.put("incrementalTransfer", true);
+        config.put("watermarkColumns", watermarkColumns);
+        config.put("watermarkValues", watermarkValues);
+
+        DatabaseProducerSettings settings = new DatabaseProducerSettings();
+        settings.loadSettings(null, null, config);
+        Assert.assertTrue(settings.isIncrementalTransfer());
+        Assert.assertEquals("updated_at", settings.getWatermarkColumn(TABLE_ID));
+        Assert.assertEquals("'2023-01-01 00:00:00'", settings.getWatermarkValue(TABLE_ID));
+        Assert.assertFalse(settings.isWatermarksChanged());
+
+        settings.setWatermarkValue(TABLE_ID, "'2023-01-01 00:00:00'");
+        Assert.assertFalse(settings.isWatermarksChanged());
+        settings.setWatermarkValue(TABLE_ID, "'2023-01-02 10:00:00'");
+        Assert.assertTrue(settings.isWatermarksChanged());
+
+        Map<String, Object> section = new LinkedHashMap<>();
+        settings.saveWatermarks(section);
+        Assert.assertFalse(settings.isWatermarksChanged());
+
+        DatabaseProducerSettings nextRun = new DatabaseProducerSettings();
+        config.putAll(section);
+        nextRun.loadSettings(null, null, config);
+        Assert.assertEquals("'2023-01-02 10:00:00'", nextRun.getWatermarkValue(TABLE_ID));
+    }
+}
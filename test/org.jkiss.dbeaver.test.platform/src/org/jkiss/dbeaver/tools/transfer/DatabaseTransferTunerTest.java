@@ -0,0 +1,57 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer;
+
+import org.jkiss.dbeaver.tools.transfer.database.DatabaseTransferTuner;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class DatabaseTransferTunerTest {
+
+    private static final long ROW_BYTES = 100;
+
+    @Test
+    public void convergesToBestSizes() {
+        DatabaseTransferTuner tuner = new DatabaseTransferTuner(1000, 100, 100000, 1024 * 1024, true);
+        for (int i = 0; i < 100 && !tuner.isConverged(); i++) {
+            flush(tuner);
+        }
+        Assert.assertTrue(tuner.isConverged());
+        // Simulated throughput is the best with 16000 rows per commit and 1000 rows per statement
+        Assert.assertTrue(tuner.toString(), tuner.getCommitRows() >= 8000 && tuner.getCommitRows() <= 32000);
+        Assert.assertTrue(tuner.toString(), tuner.getBatchRows() >= 500 && tuner.getBatchRows() <= 2000);
+    }
+
+    @Test
+    public void respectsLimits() {
+        DatabaseTransferTuner tuner = new DatabaseTransferTuner(1000, 100, 5000, 50 * ROW_BYTES, true);
+        for (int i = 0; i < 100 && !tuner.isConverged(); i++) {
+            flush(tuner);
+            Assert.assertTrue(tuner.getCommitRows() <= 5000);
+            Assert.assertTrue(tuner.getBatchRows() <= 50);
+        }
+        Assert.assertTrue(tuner.isConverged());
+    }
+
+    private static void flush(DatabaseTransferTuner tuner) {
+        long rows = tuner.getCommitRows();
+        double commitPenalty = Math.abs(Math.log(rows / 16000.0));
+        double batchPenalty = Math.abs(Math.log(tuner.getBatchRows() / 1000.0));
+        double throughput = 100000 / (1 + commitPenalty + batchPenalty);
+        tuner.onFlush(rows, rows * ROW_BYTES, (long) (rows / throughput * 1_000_000_000L));
+    }
+}
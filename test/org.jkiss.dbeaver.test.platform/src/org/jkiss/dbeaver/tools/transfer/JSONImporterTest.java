@@ -0,0 +1,110 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer;
+
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.tools.transfer.stream.IStreamDataImporterSite;
+import org.jkiss.dbeaver.tools.transfer.stream.StreamDataImporterColumnInfo;
+import org.jkiss.dbeaver.tools.transfer.stream.StreamEntityMapping;
+import org.jkiss.dbeaver.tools.transfer.stream.importer.DataImporterJSON;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RunWith(MockitoJUnitRunner.class)
+public class JSONImporterTest {
+    private static final File DUMMY_FILE = new File("dummy");
+
+    private final DataImporterJSON importer = new DataImporterJSON();
+    private final StreamEntityMapping mapping = new StreamEntityMapping(DUMMY_FILE);
+    private final Map<String, Object> properties = new HashMap<>();
+
+    @Mock
+    private IStreamDataImporterSite site;
+
+    @Before
+    public void init() throws DBException {
+        importer.init(site);
+        Mockito.when(site.getProcessorProperties()).thenReturn(properties);
+    }
+
+    @Test
+    public void readJsonLines() throws DBException {
+        List<StreamDataImporterColumnInfo> columnsInfo = readColumnsInfo(
+            "{\"id\": 1, \"name\": \"abc\"}\n{\"id\": 2, \"price\": 2.5, \"active\": true}\n");
+        Assert.assertEquals(4, columnsInfo.size());
+        Assert.assertEquals("id", columnsInfo.get(0).getName());
+        Assert.assertEquals("INTEGER", columnsInfo.get(0).getTypeName());
+        Assert.assertEquals("name", columnsInfo.get(1).getName());
+        Assert.assertEquals(DBPDataKind.STRING, columnsInfo.get(1).getDataKind());
+        Assert.assertEquals("price", columnsInfo.get(2).getName());
+        Assert.assertEquals("REAL", columnsInfo.get(2).getTypeName());
+        Assert.assertEquals("active", columnsInfo.get(3).getName());
+        Assert.assertEquals(DBPDataKind.BOOLEAN, columnsInfo.get(3).getDataKind());
+    }
+
+    @Test
+    public void readArray() throws DBException {
+        List<StreamDataImporterColumnInfo> columnsInfo = readColumnsInfo("[{\"a\": 1, \"b\": null}, {\"a\": \"x\", \"b\": null}]");
+        Assert.assertEquals(2, columnsInfo.size());
+        Assert.assertEquals(DBPDataKind.STRING, columnsInfo.get(0).getDataKind());
+        Assert.assertEquals(DBPDataKind.STRING, columnsInfo.get(1).getDataKind());
+    }
+
+    @Test
+    public void readWrappedArray() throws DBException {
+        List<StreamDataImporterColumnInfo> columnsInfo = readColumnsInfo("{\"table\": [\n\t{\"a\": 1},\n\t{\"b\": 2}\n]}");
+        Assert.assertEquals(2, columnsInfo.size());
+        Assert.assertEquals("a", columnsInfo.get(0).getName());
+        Assert.assertEquals("b", columnsInfo.get(1).getName());
+    }
+
+    @Test
+    public void flattenNestedObjects() throws DBException {
+        List<StreamDataImporterColumnInfo> columnsInfo = readColumnsInfo("{\"a\": {\"b\": 1, \"c\": {\"d\": \"x\"}}, \"e\": [1, 2]}");
+        Assert.assertEquals(3, columnsInfo.size());
+        Assert.assertEquals("a.b", columnsInfo.get(0).getName());
+        Assert.assertEquals("a.c.d", columnsInfo.get(1).getName());
+        Assert.assertEquals("e", columnsInfo.get(2).getName());
+        Assert.assertEquals(DBPDataKind.STRING, columnsInfo.get(2).getDataKind());
+    }
+
+    @Test
+    public void keepNestedObjects() throws DBException {
+        properties.put("nestedObjects", "json");
+        List<StreamDataImporterColumnInfo> columnsInfo = readColumnsInfo("{\"a\": {\"b\": 1, \"c\": {\"d\": \"x\"}}}");
+        Assert.assertEquals(1, columnsInfo.size());
+        Assert.assertEquals("a", columnsInfo.get(0).getName());
+        Assert.assertEquals(DBPDataKind.STRING, columnsInfo.get(0).getDataKind());
+    }
+
+    private List<StreamDataImporterColumnInfo> readColumnsInfo(String data) throws DBException {
+        return importer.readColumnsInfo(mapping, new ByteArrayInputStream(data.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer;
+
+import org.jkiss.dbeaver.tools.transfer.stream.parquet.*;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+public class ParquetExporterTest {
+
+    @Test
+    public void snappyRoundTrip() throws IOException {
+        Random random = new Random(1);
+        byte[] data = new byte[200_000];
+        for (int i = 0; i < data.length; i++) {
+            // Mix of repeated and random regions
+            data[i] = (byte) ((i / 1000) % 2 == 0 ? i % 17 : random.nextInt());
+        }
+        for (ParquetCompression compression : ParquetCompression.values()) {
+            byte[] compressed = compression.compress(data, data.length);
+            byte[] decompressed = compression.decompress(compressed, 0, compressed.length, data.length);
+            Assert.assertArrayEquals(compression.name(), data, decompressed);
+        }
+    }
+
+    @Test
+    public void hybridEncodingRoundTrip() {
+        int[] values = new int[1000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i < 300 ? 5 : i % 13;
+        }
+        ParquetBuffer buffer = new ParquetBuffer();
+        int bitWidth = ParquetEncoding.getBitWidth(12);
+        ParquetEncoding.writeHybrid(buffer, values, 0, values.length, bitWidth);
+        int[] result = new int[values.length];
+        int end = ParquetEncoding.readHybrid(buffer.getBuffer(), 0, buffer.size(), bitWidth, result, result.length);
+        Assert.assertEquals(buffer.size(), end);
+        Assert.assertArrayEquals(values, result);
+    }
+
+    @Test
+    public void writeFileLayout() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ParquetFileWriter writer = new ParquetFileWriter(
+            out,
+            Arrays.asList(
+                new ParquetColumn("id", ParquetConstants.TYPE_INT32).asInteger(32),
+                new ParquetColumn("name", ParquetConstants.TYPE_BYTE_ARRAY).asString()),
+            ParquetCompression.SNAPPY);
+        writer.setRowGroupSize(10_000);
+        writer.start();
+        for (int i = 0; i < 5000; i++) {
+            writer.getColumnWriter(0).writeInt(i);
+            if (i % 10 == 0) {
+                writer.getColumnWriter(1).writeNull();
+            } else {
+                writer.getColumnWriter(1).writeBinary(("name" + i % 20).getBytes(StandardCharsets.UTF_8));
+            }
+            writer.endRow();
+        }
+        writer.finish();
+        Assert.assertEquals(5000, writer.getTotalRows());
+
+        byte[] file = out.toByteArray();
+        Assert.assertArrayEquals(ParquetConstants.MAGIC, Arrays.copyOfRange(file, 0, 4));
+        Assert.assertArrayEquals(ParquetConstants.MAGIC, Arrays.copyOfRange(file, file.length - 4, file.length));
+        int footerLength = ByteBuffer.wrap(file, file.length - 8, 4).order(ByteOrder.LITTLE_ENDIAN).getInt();
+        Assert.assertTrue(footerLength > 0 && footerLength < file.length - 12);
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer;
+
+import org.jkiss.dbeaver.DBException;
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.tools.transfer.stream.IStreamDataImporterSite;
+import org.jkiss.dbeaver.tools.transfer.stream.StreamDataImporterColumnInfo;
+import org.jkiss.dbeaver.tools.transfer.stream.StreamEntityMapping;
+import org.jkiss.dbeaver.tools.transfer.stream.importer.DataImporterParquet;
+import org.jkiss.dbeaver.tools.transfer.stream.parquet.*;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.MockitoJUnitRunner;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RunWith(MockitoJUnitRunner.class)
+public class ParquetImporterTest {
+    private static final int ROW_COUNT = 5000;
+
+    private final DataImporterParquet importer = new DataImporterParquet();
+    private final Map<String, Object> properties = new HashMap<>();
+    private File file;
+
+    @Mock
+    private IStreamDataImporterSite site;
+
+    @Before
+    public void init() throws DBException, IOException {
+        importer.init(site);
+        Mockito.when(site.getProcessorProperties()).thenReturn(properties);
+        file = File.createTempFile("dbeaver-test", ".parquet");
+        writeTestFile(file);
+    }
+
+    @After
+    public void cleanup() throws IOException {
+        Files.deleteIfExists(file.toPath());
+    }
+
+    @Test
+    public void readColumnTypes() throws DBException, IOException {
+        List<StreamDataImporterColumnInfo> columnsInfo;
+        try (InputStream is = new FileInputStream(file)) {
+            columnsInfo = importer.readColumnsInfo(new StreamEntityMapping(file), is);
+        }
+        Assert.assertEquals(4, columnsInfo.size());
+        Assert.assertEquals("id", columnsInfo.get(0).getName());
+        Assert.assertEquals("INTEGER", columnsInfo.get(0).getTypeName());
+        Assert.assertTrue(columnsInfo.get(0).isRequired());
+        Assert.assertEquals(DBPDataKind.STRING, columnsInfo.get(1).getDataKind());
+        Assert.assertEquals(8, columnsInfo.get(1).getMaxLength());
+        Assert.assertFalse(columnsInfo.get(1).isRequired());
+        Assert.assertEquals("DECIMAL", columnsInfo.get(2).getTypeName());
+        Assert.assertEquals(Integer.valueOf(12), columnsInfo.get(2).getPrecision());
+        Assert.assertEquals(Integer.valueOf(2), columnsInfo.get(2).getScale());
+        Assert.assertEquals(DBPDataKind.DATETIME, columnsInfo.get(3).getDataKind());
+        Assert.assertEquals("DATE", columnsInfo.get(3).getTypeName());
+    }
+
+    @Test
+    public void readRowGroups() throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            ParquetFileReader reader = new ParquetFileReader(channel);
+            Assert.assertEquals(ROW_COUNT, reader.getTotalRows());
+            Assert.assertTrue(reader.getRowGroupCount() > 1);
+            int row = 0;
+            for (int group = 0; group < reader.getRowGroupCount(); group++) {
+                Object[][] values = reader.readRowGroup(group, new boolean[]{true, true, true, false});
+                Assert.assertNull(values[3]);
+                for (int i = 0; i < reader.getRowGroupRows(group); i++, row++) {
+                    Assert.assertEquals(row, values[0][i]);
+                    Assert.assertEquals(row % 10 == 0 ? null : "name" + row % 1000, values[1][i]);
+                    Assert.assertEquals(BigDecimal.valueOf(row * 101L - 1000, 2), values[2][i]);
+                }
+            }
+            Assert.assertEquals(ROW_COUNT, row);
+        }
+    }
+
+    @Test
+    public void readDeltaEncoding() throws IOException {
+        // DELTA_BINARY_PACKED: block size 128, 4 mini blocks, 3 values, first value 7, deltas 1 and 1
+        byte[] data = new byte[]{(byte) 0x80, 0x01, 0x04, 0x03, 0x0E, 0x02, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00, 0x00};
+        long[] values = new long[3];
+        ParquetEncoding.readDeltaBinaryPacked(data, 0, values, values.length);
+        Assert.assertArrayEquals(new long[]{7, 8, 9}, values);
+    }
+
+    private static void writeTestFile(File file) throws IOException {
+        try (OutputStream out = new FileOutputStream(file)) {
+            ParquetFileWriter writer = new ParquetFileWriter(
+                out,
+                Arrays.asList(
+                    new ParquetColumn("id", ParquetConstants.TYPE_INT32, ParquetConstants.REPETITION_REQUIRED).asInteger(32),
+                    new ParquetColumn("name", ParquetConstants.TYPE_BYTE_ARRAY).asString(),
+                    new ParquetColumn("amount", ParquetConstants.TYPE_INT64).asDecimal(12, 2),
+                    new ParquetColumn("created", ParquetConstants.TYPE_INT32).asDate()),
+                ParquetCompression.SNAPPY);
+            writer.setRowGroupSize(16 * 1024);
+            writer.start();
+            for (int i = 0; i < ROW_COUNT; i++) {
+                writer.getColumnWriter(0).writeInt(i);
+                if (i % 10 == 0) {
+                    writer.getColumnWriter(1).writeNull();
+                } else {
+                    writer.getColumnWriter(1).writeBinary(("name" + i % 1000).getBytes(StandardCharsets.UTF_8));
+                }
+                writer.getColumnWriter(2).writeLong(i * 101L - 1000);
+                writer.getColumnWriter(3).writeInt((int) LocalDate.of(2020, 1, 1).plusDays(i % 365).toEpochDay());
+                writer.endRow();
+            }
+            writer.finish();
+        }
+    }
+}
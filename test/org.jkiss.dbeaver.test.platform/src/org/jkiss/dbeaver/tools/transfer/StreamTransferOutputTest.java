@@ -0,0 +1,119 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer;
+
+import org.jkiss.dbeaver.tools.transfer.stream.BackgroundOutputStream;
+import org.jkiss.dbeaver.tools.transfer.stream.BufferedChannelOutputStream;
+import org.jkiss.dbeaver.tools.transfer.stream.EncodingBufferedWriter;
+import org.jkiss.utils.IOUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.*;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+public class StreamTransferOutputTest {
+
+    @Test
+    public void encodeAcrossBufferBoundaries() throws IOException {
+        // Surrogate pairs and multibyte characters must survive buffer splits
+        String text = "abcé中😀xyz";
+        StringBuilder expected = new StringBuilder();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (EncodingBufferedWriter writer = new EncodingBufferedWriter(bytes, StandardCharsets.UTF_8, 7)) {
+            for (int i = 0; i < 100; i++) {
+                writer.write(text);
+                writer.write('\n');
+                expected.append(text).append('\n');
+            }
+            writer.flushBuffer();
+            Assert.assertEquals(bytes.size(), writer.getBytesWritten());
+        }
+        Assert.assertEquals(expected.toString(), bytes.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void compressInBackground() throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        byte[] row = "1,\"some text\",123.45\n".getBytes(StandardCharsets.US_ASCII);
+        try (OutputStream out = new BackgroundOutputStream(new GZIPOutputStream(compressed), 1000)) {
+            for (int i = 0; i < 10000; i++) {
+                out.write(row);
+            }
+        }
+        ByteArrayOutputStream plain = new ByteArrayOutputStream();
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed.toByteArray()))) {
+            IOUtils.copyStream(in, plain);
+        }
+        Assert.assertEquals(row.length * 10000, plain.size());
+    }
+
+    @Test
+    public void backgroundWriteErrorIsReported() {
+        OutputStream failing = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Disk full");
+            }
+        };
+        byte[] row = "1,\"some text\",123.45\n".getBytes(StandardCharsets.US_ASCII);
+        Assert.assertThrows(IOException.class, () -> {
+            try (OutputStream out = new BackgroundOutputStream(failing, 1000)) {
+                for (int i = 0; i < 100; i++) {
+                    out.write(row);
+                }
+                out.flush();
+            }
+        });
+    }
+
+    @Test
+    public void writeThroughChannel() throws IOException {
+        Path file = Files.createTempFile("dbeaver-export", ".csv");
+        try {
+            StringWriter expected = new StringWriter();
+            try (PrintWriter writer = new PrintWriter(expected)) {
+                writeRows(writer);
+            }
+            FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+            try (PrintWriter writer = new PrintWriter(new EncodingBufferedWriter(
+                new BufferedChannelOutputStream(channel, 1000), StandardCharsets.UTF_8, 300), false)) {
+                writeRows(writer);
+            }
+            Assert.assertEquals(expected.toString(), Files.readString(file, StandardCharsets.UTF_8));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static void writeRows(PrintWriter writer) {
+        for (int i = 0; i < 1000; i++) {
+            writer.print(i);
+            writer.print(",\"Customer ");
+            writer.print(i);
+            writer.print("\",");
+            writer.print(i * 0.25);
+            writer.println(",2023-05-08 12:00:00");
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.tools.transfer.transformers;
+
+import org.apache.commons.jexl3.JexlBuilder;
+import org.apache.commons.jexl3.JexlEngine;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public class DataTransferTransformerExpressionTest {
+
+    private static final String[] NAMES = {"a", "b", "c", "price", "qty"};
+
+    private JexlEngine jexlEngine;
+    private DataTransferTransformerExpression.VariablesContext context;
+    private final Map<String, Integer> attributeIndexes = new HashMap<>();
+
+    @Before
+    public void setUp() {
+        // Same configuration as DBVUtils.createExpressionEngine but without namespaces (they need the platform registry)
+        jexlEngine = new JexlBuilder().cache(100).create();
+        DBDAttributeBinding[] attributes = new DBDAttributeBinding[NAMES.length];
+        for (int i = 0; i < NAMES.length; i++) {
+            DBDAttributeBinding attribute = Mockito.mock(DBDAttributeBinding.class);
+            Mockito.when(attribute.getName()).thenReturn(NAMES[i]);
+            Mockito.when(attribute.getOrdinalPosition()).thenReturn(i);
+            Mockito.when(attribute.getTopParent()).thenReturn(attribute);
+            Mockito.when(attribute.getLevel()).thenReturn(0);
+            attributes[i] = attribute;
+            attributeIndexes.put(NAMES[i], i);
+        }
+        context = new DataTransferTransformerExpression.VariablesContext();
+        context.setAttributes(attributes);
+    }
+
+    @Test
+    public void addition() {
+        assertSameAsJexl("a + b", 1, 2);
+        assertSameAsJexl("a + b", 1.5, 2);
+        assertSameAsJexl("a + b", Integer.MAX_VALUE, 1);
+        assertSameAsJexl("a + b", "x", 1);
+    }
+
+    @Test
+    public void leftAssociativity() {
+        assertSameAsJexl("a - b - c", 10, 3, 2);
+        assertSameAsJexl("a - b + c", 10, 3, 2);
+        assertSameAsJexl("a / b / c", 100, 5, 2);
+        assertSameAsJexl("a * b % c", 7, 3, 5);
+    }
+
+    @Test
+    public void stringConcatenation() {
+        assertSameAsJexl("'x' + a", 1);
+        assertSameAsJexl("'x' + a", "y");
+        assertSameAsJexl("\"x\" + a + 'z'", 1.5);
+    }
+
+    @Test
+    public void mixedNumberTypes() {
+        assertSameAsJexl("price * qty", null, null, null, 10, 3);
+        assertSameAsJexl("price * qty", null, null, null, 10L, 3);
+        assertSameAsJexl("price * qty", null, null, null, 2.5, 4);
+        assertSameAsJexl("price * qty", null, null, null, 2.5, 4L);
+        assertSameAsJexl("price * qty", null, null, null, Integer.MAX_VALUE, 2);
+        assertSameAsJexl("price * qty * 2", null, null, null, 10, 3);
+        assertSameAsJexl("price * 1.5", null, null, null, 10L, 3);
+        assertSameAsJexl("a + 10000000000", 1);
+    }
+
+    @Test
+    public void unsupportedExpressionsAreNotCompiled() {
+        assertNotCompiled("a and b");
+        assertNotCompiled("a div b");
+        assertNotCompiled("a + null");
+        assertNotCompiled("a + true");
+        assertNotCompiled("0x10 + a");
+        assertNotCompiled("1L + a");
+        assertNotCompiled("1.5f * a");
+        assertNotCompiled("'a\\'b' + a");
+        assertNotCompiled("\"a\\\"b\" + a");
+        assertNotCompiled("a + b * c");
+        assertNotCompiled("a * b - c");
+        assertNotCompiled("(a + b)");
+        assertNotCompiled("a + unknown");
+        assertNotCompiled("a +");
+    }
+
+    @Test
+    public void nullOperands() {
+        // Null result means that JEXL expression is evaluated instead
+        Assert.assertNull(evaluateCompiled("a + b", null, 1));
+        Assert.assertNull(evaluateCompiled("a + b", 1, null));
+        Assert.assertNull(evaluateCompiled("a - b - c", 1, 2, null));
+        Assert.assertNull(evaluateCompiled("'x' + a", (Object) null));
+    }
+
+    private void assertSameAsJexl(String expression, Object... values) {
+        context.setDataRow(values);
+        Object expected = jexlEngine.createExpression(expression).evaluate(context);
+        Object actual = evaluateCompiled(expression, values);
+        Assert.assertEquals(expression, expected, actual);
+        Assert.assertEquals(expression, expected.getClass(), actual.getClass());
+    }
+
+    private Object evaluateCompiled(String expression, Object... values) {
+        DataTransferTransformerExpression.CompiledExpression compiled = DataTransferTransformerExpression.compileExpression(
+            expression, attributeIndexes, jexlEngine.getArithmetic());
+        Assert.assertNotNull(expression, compiled);
+        context.setDataRow(values);
+        return compiled.evaluate(context);
+    }
+
+    private void assertNotCompiled(String expression) {
+        Assert.assertNull(expression, DataTransferTransformerExpression.compileExpression(
+            expression, attributeIndexes, jexlEngine.getArithmetic()));
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.resultset;
+
+import org.jkiss.dbeaver.model.DBUtils;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+public class ResultSetRowSorterTest {
+
+    private static final int ROW_COUNT = 2000;
+
+    private final List<ResultSetRow> rows = new ArrayList<>();
+    private final DBRProgressMonitor monitor = Mockito.mock(DBRProgressMonitor.class);
+
+    @Before
+    public void setUp() {
+        Random random = new Random(42);
+        for (int i = 0; i < ROW_COUNT; i++) {
+            Object[] values = new Object[5];
+            // Integers of different types
+            values[0] = nullOr(random, random.nextBoolean() ? (Object) random.nextInt(5) : (Object) (long) random.nextInt(5));
+            // Mixed numbers
+            switch (random.nextInt(4)) {
+                case 0: values[1] = random.nextInt(3); break;
+                case 1: values[1] = random.nextInt(3) + 0.5; break;
+                case 2: values[1] = BigDecimal.valueOf(random.nextInt(3)); break;
+                default: values[1] = BigInteger.valueOf(random.nextInt(3)); break;
+            }
+            values[1] = nullOr(random, values[1]);
+            values[2] = nullOr(random, new String[]{"a", "b", "B", ""}[random.nextInt(4)]);
+            values[3] = nullOr(random, new Date(1_000_000L * random.nextInt(4)));
+            values[4] = nullOr(random, random.nextBoolean());
+            rows.add(new ResultSetRow(i, values));
+        }
+    }
+
+    @Test
+    public void sortSingleColumn() {
+        checkOrder(new int[]{0}, new boolean[]{false});
+        checkOrder(new int[]{1}, new boolean[]{true});
+        checkOrder(new int[]{2}, new boolean[]{false});
+        checkOrder(new int[]{3}, new boolean[]{true});
+        checkOrder(new int[]{4}, new boolean[]{false});
+    }
+
+    @Test
+    public void sortMultipleColumns() {
+        checkOrder(new int[]{2, 0}, new boolean[]{false, true});
+        checkOrder(new int[]{4, 3, 1}, new boolean[]{false, true, false});
+        checkOrder(new int[]{0, 1, 2, 3, 4}, new boolean[]{true, false, true, false, true});
+    }
+
+    @Test
+    public void sortWithoutColumns() {
+        List<ResultSetRow> sortedRows = new ResultSetRowSorter(rows, new ArrayList<>(), new boolean[0]).sortRows(monitor);
+        Assert.assertEquals(rows, sortedRows);
+    }
+
+    private void checkOrder(int[] columns, boolean[] descending) {
+        List<ResultSetRow> sortedRows = makeSorter(columns, descending).sortRows(monitor);
+        Assert.assertNotNull(sortedRows);
+
+        // Comparator used before typed sort keys
+        List<ResultSetRow> expectedRows = new ArrayList<>(rows);
+        expectedRows.sort((row1, row2) -> {
+            int result = 0;
+            for (int i = 0; i < columns.length; i++) {
+                result = DBUtils.compareDataValues(row1.values[columns[i]], row2.values[columns[i]]);
+                if (descending[i]) {
+                    result = -result;
+                }
+                if (result != 0) {
+                    break;
+                }
+            }
+            return result;
+        });
+        Assert.assertEquals(expectedRows, sortedRows);
+    }
+
+    private ResultSetRowSorter makeSorter(int[] columns, boolean[] descending) {
+        List<Object[]> columnValues = new ArrayList<>();
+        for (int column : columns) {
+            Object[] values = new Object[rows.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = rows.get(i).values[column];
+            }
+            columnValues.add(values);
+        }
+        return new ResultSetRowSorter(rows, columnValues, descending);
+    }
+
+    private static Object nullOr(Random random, Object value) {
+        return random.nextInt(5) == 0 ? null : value;
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.dbeaver.ui.controls.resultset.panel.grouping;
+
+import org.jkiss.dbeaver.model.DBPDataKind;
+import org.jkiss.dbeaver.model.DBPDataSource;
+import org.jkiss.dbeaver.model.data.DBDAttributeBinding;
+import org.jkiss.dbeaver.model.runtime.DBRProgressMonitor;
+import org.jkiss.dbeaver.model.sql.SQLDialect;
+import org.jkiss.dbeaver.ui.controls.resultset.ResultSetModel;
+import org.jkiss.dbeaver.ui.controls.resultset.ResultSetRow;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class GroupingLocalAggregatorTest {
+
+    private final ResultSetModel model = Mockito.mock(ResultSetModel.class);
+    private final DBPDataSource dataSource = Mockito.mock(DBPDataSource.class);
+    private final DBRProgressMonitor monitor = Mockito.mock(DBRProgressMonitor.class);
+    private final List<ResultSetRow> rows = new ArrayList<>();
+    private final Map<ResultSetRow, Object[]> rowValues = new IdentityHashMap<>();
+    private DBDAttributeBinding[] attributes;
+
+    @Before
+    public void setUp() {
+        SQLDialect dialect = Mockito.mock(SQLDialect.class);
+        Mockito.when(dialect.getUnquotedIdentifier(ArgumentMatchers.anyString())).thenAnswer(i -> i.getArgument(0));
+        Mockito.when(dataSource.getSQLDialect()).thenReturn(dialect);
+
+        attributes = new DBDAttributeBinding[]{
+            makeAttribute("grp", 0, DBPDataKind.STRING),
+            makeAttribute("val", 1, DBPDataKind.NUMERIC),
+            makeAttribute("amount", 2, DBPDataKind.NUMERIC)
+        };
+        Mockito.when(model.getAttributes()).thenReturn(attributes);
+        Mockito.when(model.getAllRows()).thenReturn(rows);
+        Mockito.when(model.getCellValue(ArgumentMatchers.any(DBDAttributeBinding.class), ArgumentMatchers.any(ResultSetRow.class)))
+            .thenAnswer(i -> rowValues.get(i.<ResultSetRow>getArgument(1))[i.<DBDAttributeBinding>getArgument(0).getOrdinalPosition()]);
+    }
+
+    @Test
+    public void aggregateNullGroupKeys() throws Exception {
+        addRow("a", 1, new BigDecimal("1.5"));
+        addRow(null, 10, null);
+        addRow("a", null, new BigDecimal("2.25"));
+        addRow(null, 20, new BigDecimal("0.25"));
+        addRow("b", null, null);
+        addRow("a", 3, BigDecimal.ONE);
+
+        List<String> functions = List.of("COUNT(*)", "COUNT(val)", "SUM(val)", "AVG(val)", "MIN(val)", "MAX(val)", "SUM(amount)");
+        GroupingLocalAggregator aggregator = GroupingLocalAggregator.create(
+            model, dataSource, List.of("grp"), functions, functions.toArray(new String[0]), false);
+        Assert.assertNotNull(aggregator);
+
+        List<Object[]> groups = aggregator.aggregate(monitor);
+        Assert.assertNotNull(groups);
+        // Groups go in order of their first rows, NULL is a separate group
+        Assert.assertEquals(3, groups.size());
+        Assert.assertArrayEquals(new Object[]{"a", 3, 2, 4L, 2.0, 1, 3, new BigDecimal("4.75")}, groups.get(0));
+        Assert.assertArrayEquals(new Object[]{null, 2, 2, 30L, 15.0, 10, 20, new BigDecimal("0.25")}, groups.get(1));
+        Assert.assertArrayEquals(new Object[]{"b", 1, 0, null, null, null, null, null}, groups.get(2));
+    }
+
+    @Test
+    public void duplicatesOnly() throws Exception {
+        addRow("a", 1, null);
+        addRow(null, 2, null);
+        addRow("b", 3, null);
+        addRow(null, 4, null);
+
+        GroupingLocalAggregator aggregator = GroupingLocalAggregator.create(
+            model, dataSource, List.of("grp"), List.of(GroupingResultsContainer.DEFAULT_FUNCTION), new String[]{"count"}, true);
+        Assert.assertNotNull(aggregator);
+        List<Object[]> groups = aggregator.aggregate(monitor);
+        Assert.assertNotNull(groups);
+        Assert.assertEquals(1, groups.size());
+        Assert.assertArrayEquals(new Object[]{null, 2}, groups.get(0));
+    }
+
+    @Test
+    public void aggregateManyRows() throws Exception {
+        // Enough rows to aggregate in parallel
+        Map<String, long[]> expected = new LinkedHashMap<>();
+        for (int i = 0; i < 60_000; i++) {
+            String group = i % 11 == 0 ? null : String.valueOf(i % 7);
+            addRow(group, i, null);
+            long[] countAndSum = expected.computeIfAbsent(group, g -> new long[2]);
+            countAndSum[0]++;
+            countAndSum[1] += i;
+        }
+
+        List<String> functions = List.of("COUNT(*)", "SUM(val)");
+        GroupingLocalAggregator aggregator = GroupingLocalAggregator.create(
+            model, dataSource, List.of("grp"), functions, functions.toArray(new String[0]), false);
+        Assert.assertNotNull(aggregator);
+        List<Object[]> groups = aggregator.aggregate(monitor);
+        Assert.assertNotNull(groups);
+        Assert.assertEquals(expected.size(), groups.size());
+        int index = 0;
+        for (Map.Entry<String, long[]> entry : expected.entrySet()) {
+            Object[] group = groups.get(index++);
+            Assert.assertArrayEquals(new Object[]{entry.getKey(), (int) entry.getValue()[0], entry.getValue()[1]}, group);
+        }
+    }
+
+    @Test
+    public void exactSum() {
+        GroupingLocalAggregator.ExactSum sum = new GroupingLocalAggregator.ExactSum();
+        Assert.assertNull(sum.getResult(0));
+        sum.accumulate(Long.MAX_VALUE, false);
+        sum.accumulate(1, false);
+        sum.accumulate((short) 1, false);
+        Assert.assertEquals(new BigDecimal(BigInteger.valueOf(Long.MAX_VALUE).add(BigInteger.TWO)), sum.getResult(3));
+
+        sum = new GroupingLocalAggregator.ExactSum();
+        sum.accumulate(9_007_199_254_740_993L, false);
+        sum.accumulate(1L, false);
+        // Values above 2^53 lose precision as double
+        Assert.assertEquals(9_007_199_254_740_994L, sum.getResult(2));
+
+        sum = new GroupingLocalAggregator.ExactSum();
+        sum.accumulate(1, false);
+        sum.accumulate(BigDecimal.ONE, false);
+        Assert.assertEquals(new BigDecimal(2), sum.getResult(2));
+        sum.accumulate(0.5, false);
+        Assert.assertEquals(2.5, sum.getResult(3));
+    }
+
+    private void addRow(Object... values) {
+        ResultSetRow row = Mockito.mock(ResultSetRow.class);
+        rows.add(row);
+        rowValues.put(row, values);
+    }
+
+    private static DBDAttributeBinding makeAttribute(String name, int position, DBPDataKind dataKind) {
+        DBDAttributeBinding attribute = Mockito.mock(DBDAttributeBinding.class);
+        Mockito.when(attribute.getName()).thenReturn(name);
+        Mockito.when(attribute.getOrdinalPosition()).thenReturn(position);
+        Mockito.when(attribute.getDataKind()).thenReturn(dataKind);
+        return attribute;
+    }
+}
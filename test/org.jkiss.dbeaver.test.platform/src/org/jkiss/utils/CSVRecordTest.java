@@ -0,0 +1,145 @@
+/*
+ * DBeaver - Universal Database Manager
+ * Copyright (C) 2010-2023 DBeaver Corp and others
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.jkiss.utils;
+
+import org.jkiss.utils.csv.*;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class CSVRecordTest {
+
+    private static final String[] SAMPLES = {
+        "a,b,c\n1,2,3\n",
+        "a,b\r\n\"quoted, value\",x\r\n\r\nlast",
+        "id,text\n1,\"multi\nline\r\nvalue\"\n2,\"escaped \\\" quote\"\n3,\"doubled \"\" quote\"\n",
+        "x,,\"\",  \" spaced\"  ,a\"b\"c\n,\n\n",
+        "1,\"un-terminated\n2,3",
+        "\"abc",
+        "a\rb\r\rc\n\r\n",
+        "trailing,separator,\n\"\\\\\",\"\\\"\"",
+    };
+
+    @Test
+    public void readRecordMatchesReadNext() throws IOException {
+        CSVParserBuilder[] parsers = {
+            new CSVParserBuilder(),
+            new CSVParserBuilder().withStrictQuotes(true),
+            new CSVParserBuilder().withIgnoreQuotations(true),
+            new CSVParserBuilder().withIgnoreLeadingWhiteSpace(false),
+            new CSVParserBuilder().withFieldAsNull(CSVReaderNullFieldIndicator.BOTH),
+            new CSVParserBuilder().withFieldAsNull(CSVReaderNullFieldIndicator.EMPTY_SEPARATORS),
+            new CSVParserBuilder().withFieldAsNull(CSVReaderNullFieldIndicator.EMPTY_QUOTES),
+        };
+        for (String sample : SAMPLES) {
+            for (CSVParserBuilder parser : parsers) {
+                for (boolean keepCR : new boolean[]{false, true}) {
+                    for (int skipLines : new int[]{0, 1}) {
+                        String message = sample + " / " + parser.isStrictQuotes() + "," + parser.isIgnoreQuotations() + "," +
+                            parser.isIgnoreLeadingWhiteSpace() + "," + parser.nullFieldIndicator() + ", keepCR=" + keepCR + ", skip=" + skipLines;
+                        CSVReader expectedReader = new CSVReaderBuilder(new StringReader(sample))
+                            .withCSVParser(parser.build()).withKeepCarriageReturn(keepCR).withSkipLines(skipLines).build();
+                        CSVReader actualReader = new CSVReaderBuilder(new StringReader(sample))
+                            .withCSVParser(parser.build()).withKeepCarriageReturn(keepCR).withSkipLines(skipLines).build();
+                        Assert.assertEquals(message, readAll(expectedReader), readAllRecords(actualReader));
+                        Assert.assertEquals(message, expectedReader.getParser().isPending(), actualReader.getParser().isPending());
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void fieldAccess() throws IOException {
+        CSVReader reader = new CSVReaderBuilder(new StringReader("  abc ,\"\",12\n"))
+            .withFieldAsNull(CSVReaderNullFieldIndicator.EMPTY_QUOTES).build();
+        CSVRecord record = new CSVRecord();
+        Assert.assertTrue(reader.readRecord(record));
+        Assert.assertEquals(3, record.getFieldCount());
+        Assert.assertEquals("  abc ", record.getField(0).toString());
+        Assert.assertTrue(record.isNull(1));
+        Assert.assertNull(record.getField(1));
+        Assert.assertTrue(record.contentEquals(1, null));
+        Assert.assertSame(record.getString(2), record.getString(2));
+        record.trimFields();
+        Assert.assertEquals("abc", record.getString(0));
+        Assert.assertTrue(record.contentEquals(0, "abc"));
+        Assert.assertEquals('c', record.charAt(0, 2));
+        Assert.assertFalse(reader.readRecord(record));
+    }
+
+    @Test
+    public void parseNumbers() throws IOException {
+        String[] longs = {"0", "-0", "+17", "007", "9223372036854775807", "-9223372036854775808"};
+        String[] badLongs = {"", "-", "+", "1.0", " 1", "1e3", "9223372036854775808", "-9223372036854775809", "12a"};
+        String[] doubles = {"0", "-0", "0.1", "-1.25", "1.", ".5", "+.5", "3.141592653589793", "123456789012.345",
+            "1e10", "-2.5E-3", "0.30000000000000004", "12345678901234567890", "1.0000000000000000000000001", "NaN", "-Infinity", " 5 "};
+        String[] badDoubles = {"", "-", ".", "1..2", "abc", "1e"};
+
+        for (String value : longs) {
+            Assert.assertEquals(value, Long.parseLong(value), parseRecord(value).parseLong(0));
+        }
+        for (String value : badLongs) {
+            try {
+                parseRecord(value).parseLong(0);
+                Assert.fail("Must fail on '" + value + "'");
+            } catch (NumberFormatException e) {
+                // expected
+            }
+        }
+        for (String value : doubles) {
+            Assert.assertEquals(value, Double.doubleToLongBits(Double.parseDouble(value)), Double.doubleToLongBits(parseRecord(value).parseDouble(0)));
+        }
+        for (String value : badDoubles) {
+            try {
+                parseRecord(value).parseDouble(0);
+                Assert.fail("Must fail on '" + value + "'");
+            } catch (NumberFormatException e) {
+                // expected
+            }
+        }
+    }
+
+    private static CSVRecord parseRecord(String value) throws IOException {
+        CSVReader reader = new CSVReader(new StringReader("\"" + value + "\""));
+        CSVRecord record = new CSVRecord();
+        Assert.assertTrue(reader.readRecord(record));
+        return record;
+    }
+
+    private static List<String> readAll(CSVReader reader) throws IOException {
+        List<String> result = new ArrayList<>();
+        for (String[] line = reader.readNext(); line != null; line = reader.readNext()) {
+            result.add(Arrays.toString(line));
+        }
+        return result;
+    }
+
+    private static List<String> readAllRecords(CSVReader reader) throws IOException {
+        List<String> result = new ArrayList<>();
+        CSVRecord record = new CSVRecord();
+        while (reader.readRecord(record)) {
+            result.add(record.toString());
+        }
+        return result;
+    }
+}